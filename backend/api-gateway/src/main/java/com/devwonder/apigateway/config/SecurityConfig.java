@@ -112,6 +112,7 @@ public class SecurityConfig {
         exchanges
             // ADMIN/DEALER product endpoints (authentication + ADMIN or DEALER role required) - MUST BE FIRST
             .pathMatchers(HttpMethod.GET, "/api/product/products").permitAll()
+            .pathMatchers(HttpMethod.POST, "/api/product/dead-letters/*/replay").hasRole(ROLE_ADMIN)
             .pathMatchers(HttpMethod.GET, "/api/product/products/deleted").hasRole(ROLE_ADMIN)
             .pathMatchers(HttpMethod.POST, "/api/product/products").hasRole(ROLE_ADMIN)
             .pathMatchers(HttpMethod.PATCH, "/api/product/{id}").hasRole(ROLE_ADMIN)
@@ -243,6 +244,7 @@ public class SecurityConfig {
             .pathMatchers(HttpMethod.DELETE, "/api/order/orders/*").hasRole(ROLE_ADMIN)
             .pathMatchers(HttpMethod.DELETE, "/api/order/orders/*/hard").hasRole(ROLE_ADMIN)
             .pathMatchers(HttpMethod.PATCH, "/api/order/orders/*/restore").hasRole(ROLE_ADMIN)
+            .pathMatchers(HttpMethod.POST, "/api/order/dead-letters/*/replay").hasRole(ROLE_ADMIN)
 
             // ADMIN and DEALER endpoints
             .pathMatchers(HttpMethod.GET, "/api/order/orders").hasAnyRole(ROLE_ADMIN, ROLE_DEALER)
@@ -261,6 +263,9 @@ public class SecurityConfig {
             // PUBLIC warranty check endpoint (no authentication required)
             .pathMatchers(HttpMethod.GET, "/api/warranty/check/**").permitAll()
 
+            // ADMIN-only expiring warranties report (exposes customer contact details)
+            .pathMatchers(HttpMethod.GET, "/api/warranty/expiring").hasRole(ROLE_ADMIN)
+
             // DEALER-only warranty endpoints (authentication + DEALER role required)
             .pathMatchers(HttpMethod.POST, "/api/warranty").hasRole(ROLE_DEALER);
     }
@@ -268,7 +273,12 @@ public class SecurityConfig {
     private void configureNotificationServiceAuth(ServerHttpSecurity.AuthorizeExchangeSpec exchanges) {
         exchanges
             .pathMatchers(HttpMethod.GET, "/api/notification/notifies").hasRole(ROLE_ADMIN)
-            .pathMatchers(HttpMethod.PATCH, "/api/notification/*/read").hasRole(ROLE_ADMIN);
+            // Inbox endpoints - admins get the shared admin inbox, dealers their own
+            .pathMatchers(HttpMethod.GET, "/api/notification/inbox").hasAnyRole(ROLE_ADMIN, ROLE_DEALER)
+            .pathMatchers(HttpMethod.GET, "/api/notification/unread-count").hasAnyRole(ROLE_ADMIN, ROLE_DEALER)
+            .pathMatchers(HttpMethod.PATCH, "/api/notification/read-all").hasAnyRole(ROLE_ADMIN, ROLE_DEALER)
+            .pathMatchers(HttpMethod.PATCH, "/api/notification/*/read").hasAnyRole(ROLE_ADMIN, ROLE_DEALER)
+            .pathMatchers(HttpMethod.POST, "/api/notification/dead-letters/*/replay").hasRole(ROLE_ADMIN);
     }
 
     private void configureMediaServiceAuth(ServerHttpSecurity.AuthorizeExchangeSpec exchanges) {
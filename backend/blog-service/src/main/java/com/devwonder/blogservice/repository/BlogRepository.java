@@ -7,23 +7,28 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface BlogRepository extends JpaRepository<Blog, Long> {
     
-    List<Blog> findByShowOnHomepageTrueAndIsDeletedFalse();
-
-    List<Blog> findByIsDeletedFalse();
-
     List<Blog> findByIsDeletedTrue();
 
-    List<Blog> findByIsDeletedFalseAndIdNot(Long id);
-
-    List<Blog> findByCategoryBlogIdAndIsDeletedFalse(Long categoryId);
-
-    @Query("SELECT b FROM Blog b WHERE b.isDeleted = false AND " +
-           "(LOWER(b.title) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-           "LOWER(b.description) LIKE LOWER(CONCAT('%', :query, '%')))")
-    List<Blog> searchBlogs(@Param("query") String query);
+    @Query("SELECT b.categoryBlog.id FROM Blog b WHERE b.id = :id")
+    Optional<Long> findCategoryIdById(@Param("id") Long id);
+
+    // Word-prefix match on the search_vector GIN index, plus trigram matches on title fragments.
+    // Ordered by full-text rank, then title similarity, newest first on ties (see V2 migration)
+    @Query(value = "SELECT b.id FROM blogs b " +
+            "WHERE b.is_deleted = false " +
+            "AND (b.search_vector @@ to_tsquery('simple', f_unaccent(:tsQuery)) " +
+            "OR f_unaccent(lower(b.title)) LIKE f_unaccent(:pattern) " +
+            "OR f_unaccent(lower(b.title)) % f_unaccent(lower(:term))) " +
+            "ORDER BY ts_rank(b.search_vector, to_tsquery('simple', f_unaccent(:tsQuery))) DESC, " +
+            "similarity(f_unaccent(lower(b.title)), f_unaccent(lower(:term))) DESC, " +
+            "b.created_at DESC, b.id DESC " +
+            "LIMIT :limit", nativeQuery = true)
+    List<Long> searchBlogIds(@Param("tsQuery") String tsQuery, @Param("term") String term,
+                             @Param("pattern") String pattern, @Param("limit") int limit);
 
 }
\ No newline at end of file
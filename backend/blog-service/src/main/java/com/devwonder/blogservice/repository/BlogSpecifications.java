@@ -0,0 +1,34 @@
+package com.devwonder.blogservice.repository;
+
+import com.devwonder.blogservice.entity.Blog;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Criteria predicates for {@link com.devwonder.blogservice.util.BlogFieldProjection} queries.
+ */
+public final class BlogSpecifications {
+
+    private BlogSpecifications() {
+        // Private constructor to prevent instantiation
+    }
+
+    public static Specification<Blog> idNot(Long id) {
+        return (root, query, cb) -> cb.notEqual(root.get("id"), id);
+    }
+
+    public static Specification<Blog> notDeleted() {
+        return (root, query, cb) -> cb.isFalse(root.get("isDeleted"));
+    }
+
+    public static Specification<Blog> shownOnHomepage() {
+        return (root, query, cb) -> cb.isTrue(root.get("showOnHomepage"));
+    }
+
+    public static Specification<Blog> inCategory(Long categoryId) {
+        return (root, query, cb) -> cb.equal(root.get("categoryBlog").get("id"), categoryId);
+    }
+
+    public static Specification<Blog> notInCategory(Long categoryId) {
+        return (root, query, cb) -> cb.notEqual(root.get("categoryBlog").get("id"), categoryId);
+    }
+}
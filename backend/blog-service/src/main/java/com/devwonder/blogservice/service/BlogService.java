@@ -8,59 +8,70 @@ import com.devwonder.blogservice.entity.CategoryBlog;
 import com.devwonder.blogservice.mapper.BlogMapper;
 import com.devwonder.blogservice.repository.BlogRepository;
 import com.devwonder.blogservice.repository.CategoryBlogRepository;
-import com.devwonder.blogservice.util.FieldFilterUtil;
+import com.devwonder.blogservice.util.BlogFieldProjection;
+import com.devwonder.common.util.SearchQueryUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
 
+import static com.devwonder.blogservice.repository.BlogSpecifications.idNot;
+import static com.devwonder.blogservice.repository.BlogSpecifications.inCategory;
+import static com.devwonder.blogservice.repository.BlogSpecifications.notDeleted;
+import static com.devwonder.blogservice.repository.BlogSpecifications.notInCategory;
+import static com.devwonder.blogservice.repository.BlogSpecifications.shownOnHomepage;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class BlogService {
+
+    // Ends with the id so that blogs created in the same instant keep a stable order
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
     
     private final BlogRepository blogRepository;
     private final CategoryBlogRepository categoryBlogRepository;
     private final BlogMapper blogMapper;
-    private final FieldFilterUtil fieldFilterUtil;
+    private final BlogFieldProjection blogFieldProjection;
     
     public List<BlogResponse> getAllBlogs(String fields) {
         log.info("Fetching all blogs with fields: {}", fields);
 
-        List<Blog> blogs = blogRepository.findByIsDeletedFalse();
-
-        return blogs.stream()
-                .map(blog -> fieldFilterUtil.applyFieldFiltering(blogMapper.toBlogResponse(blog), fields))
-                .toList();
+        return blogFieldProjection.findAll(fields, notDeleted(), Pageable.unpaged(NEWEST_FIRST));
     }
 
     public List<BlogResponse> getHomepageBlogs(String fields, int limit) {
         log.info("Fetching homepage blogs with fields: {}, limit: {}", fields, limit);
 
-        List<Blog> blogs = blogRepository.findByShowOnHomepageTrueAndIsDeletedFalse();
-
-        return blogs.stream()
-                .limit(limit)
-                .map(blog -> fieldFilterUtil.applyFieldFiltering(blogMapper.toBlogResponse(blog), fields))
-                .toList();
+        return blogFieldProjection.findAll(fields, shownOnHomepage().and(notDeleted()), PageRequest.of(0, limit, NEWEST_FIRST));
     }
 
     public List<BlogResponse> getRelatedBlogs(Long blogId, int limit, String fields) {
         log.info("Fetching related blogs for blog ID: {} with limit: {}, fields: {}", blogId, limit, fields);
 
         // First check if the blog exists
-        Blog blog = blogRepository.findById(blogId)
+        Long categoryId = blogRepository.findCategoryIdById(blogId)
                 .orElseThrow(() -> new RuntimeException("Blog not found with ID: " + blogId));
 
-        // Get related blogs (excluding the current blog and deleted blogs)
-        List<Blog> relatedBlogs = blogRepository.findByIsDeletedFalseAndIdNot(blogId);
+        // Newest blogs from the same category first
+        List<BlogResponse> related = new ArrayList<>(blogFieldProjection.findAll(fields,
+                inCategory(categoryId).and(notDeleted()).and(idNot(blogId)),
+                PageRequest.of(0, limit, NEWEST_FIRST)));
 
-        return relatedBlogs.stream()
-                .limit(limit)
-                .map(b -> fieldFilterUtil.applyFieldFiltering(blogMapper.toBlogResponse(b), fields))
-                .toList();
+        // Top up with the newest blogs from other categories
+        if (related.size() < limit) {
+            related.addAll(blogFieldProjection.findAll(fields,
+                    notDeleted().and(idNot(blogId)).and(notInCategory(categoryId)),
+                    PageRequest.of(0, limit - related.size(), NEWEST_FIRST)));
+        }
+
+        return related;
     }
 
     public BlogResponse getBlogById(Long id) {
@@ -191,13 +202,12 @@ public class BlogService {
         categoryBlogRepository.findById(categoryId)
                 .orElseThrow(() -> new RuntimeException("Category not found with ID: " + categoryId));
 
-        List<Blog> blogs = blogRepository.findByCategoryBlogIdAndIsDeletedFalse(categoryId);
+        List<BlogResponse> blogs = blogFieldProjection.findAll(fields, inCategory(categoryId).and(notDeleted()),
+                Pageable.unpaged(NEWEST_FIRST));
 
         log.info("Found {} blogs for category ID: {}", blogs.size(), categoryId);
 
-        return blogs.stream()
-                .map(blog -> fieldFilterUtil.applyFieldFiltering(blogMapper.toBlogResponse(blog), fields))
-                .toList();
+        return blogs;
     }
 
     public List<BlogResponse> searchBlogs(String query, int limit, String fields) {
@@ -208,12 +218,17 @@ public class BlogService {
             return List.of();
         }
 
-        List<Blog> blogs = blogRepository.searchBlogs(query.trim());
+        String term = query.trim();
+        String tsQuery = SearchQueryUtil.toPrefixTsQuery(term);
+        if (tsQuery.isEmpty()) {
+            log.warn("Search query '{}' has no searchable terms, returning empty list", query);
+            return List.of();
+        }
+
+        List<Long> blogIds = blogRepository.searchBlogIds(tsQuery, term, SearchQueryUtil.toContainsPattern(term), limit);
+        List<BlogResponse> blogs = blogFieldProjection.findAllInOrder(fields, blogIds, notDeleted());
         log.info("Found {} blogs matching query: '{}'", blogs.size(), query);
 
-        return blogs.stream()
-                .limit(limit)
-                .map(blog -> fieldFilterUtil.applyFieldFiltering(blogMapper.toBlogResponse(blog), fields))
-                .toList();
+        return blogs;
     }
 }
\ No newline at end of file
@@ -0,0 +1,44 @@
+package com.devwonder.blogservice.util;
+
+import com.devwonder.blogservice.dto.BlogResponse;
+import com.devwonder.blogservice.entity.Blog;
+import com.devwonder.common.projection.FieldProjection;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Reads {@link BlogResponse}s with only the columns named in {@code fields=}; the category name
+ * is joined only when {@code category} is requested.
+ */
+@Component
+@RequiredArgsConstructor
+public class BlogFieldProjection {
+
+    private static final FieldProjection<Blog, BlogResponse> PROJECTION =
+            FieldProjection.builder(Blog.class, BlogResponse::new)
+                    .field("id", BlogResponse::setId)
+                    .field("title", BlogResponse::setTitle)
+                    .field("description", BlogResponse::setDescription)
+                    .field("image", BlogResponse::setImage)
+                    .field("category", "categoryBlog.name", BlogResponse::setCategory)
+                    .field("createdAt", BlogResponse::setCreatedAt)
+                    .field("introduction", BlogResponse::setIntroduction)
+                    .field("showOnHomepage", BlogResponse::setShowOnHomepage)
+                    .field("updateAt", "updatedAt", BlogResponse::setUpdateAt)
+                    .build();
+
+    private final EntityManager entityManager;
+
+    public List<BlogResponse> findAll(String fields, Specification<Blog> specification, Pageable pageable) {
+        return PROJECTION.findAll(entityManager, fields, specification, pageable);
+    }
+
+    public List<BlogResponse> findAllInOrder(String fields, List<Long> ids, Specification<Blog> specification) {
+        return PROJECTION.findAllInOrder(entityManager, fields, "id", ids, specification);
+    }
+}
@@ -0,0 +1,20 @@
+-- Baseline of the schema previously created by hibernate ddl-auto.
+-- IF NOT EXISTS keeps it a no-op on databases that already have the tables.
+
+CREATE TABLE IF NOT EXISTS category_blogs (
+    id   BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS blogs (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    image            JSONB,
+    title            VARCHAR(255) NOT NULL,
+    description      TEXT,
+    introduction     JSONB,
+    show_on_homepage BOOLEAN,
+    is_deleted       BOOLEAN,
+    created_at       TIMESTAMP(6),
+    updated_at       TIMESTAMP(6),
+    ip_category_blog BIGINT       NOT NULL REFERENCES category_blogs (id)
+);
@@ -0,0 +1,23 @@
+-- Full-text and trigram search over blogs, replacing LOWER(..) LIKE '%q%' scans
+CREATE EXTENSION IF NOT EXISTS unaccent;
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- unaccent() is only STABLE; this wrapper pins the dictionary so it can be used
+-- in generated columns and expression indexes (strips Vietnamese diacritics, đ -> d)
+CREATE OR REPLACE FUNCTION f_unaccent(text) RETURNS text
+    LANGUAGE sql IMMUTABLE PARALLEL SAFE STRICT
+AS $$ SELECT public.unaccent('public.unaccent'::regdictionary, $1) $$;
+
+-- 'simple' config: Postgres ships no Vietnamese stemmer
+ALTER TABLE blogs ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple', f_unaccent(coalesce(title, ''))), 'A') ||
+        setweight(to_tsvector('simple', f_unaccent(coalesce(description, ''))), 'B')
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_blogs_search_vector
+    ON blogs USING GIN (search_vector);
+
+-- Trigram index serves partial / misspelled titles that are not word prefixes
+CREATE INDEX IF NOT EXISTS idx_blogs_title_trgm
+    ON blogs USING GIN (f_unaccent(lower(title)) gin_trgm_ops);
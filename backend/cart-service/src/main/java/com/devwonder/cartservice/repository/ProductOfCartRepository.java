@@ -2,22 +2,17 @@ package com.devwonder.cartservice.repository;
 
 import com.devwonder.cartservice.entity.ProductOfCart;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
-import java.math.BigDecimal;
 import java.util.List;
-import java.util.Optional;
 
 @Repository
 public interface ProductOfCartRepository extends JpaRepository<ProductOfCart, Long> {
 
     List<ProductOfCart> findByDealerId(Long dealerId);
 
-    Optional<ProductOfCart> findByDealerIdAndProductId(Long dealerId, Long productId);
-
-    Optional<ProductOfCart> findByDealerIdAndProductIdAndUnitPrice(Long dealerId, Long productId, BigDecimal unitPrice);
-
-    void deleteByDealerIdAndProductId(Long dealerId, Long productId);
-
-    void deleteByDealerId(Long dealerId);
+    // Ids for cart lines created in Redis ahead of their row
+    @Query(value = "SELECT nextval(pg_get_serial_sequence('product_of_cart', 'id'))", nativeQuery = true)
+    Long nextCartItemId();
 }
\ No newline at end of file
@@ -0,0 +1,128 @@
+package com.devwonder.cartservice.service;
+
+import com.devwonder.cartservice.dto.CartResponse;
+import com.devwonder.cartservice.entity.ProductOfCart;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A dealer's cart as stored in its Redis hash:
+ *
+ * <pre>
+ * q:{cartId}                  quantity, changed with HINCRBY
+ * i:{cartId}                  productId:priceCents:addedAtMillis
+ * l:{productId}:{priceCents}  cartId of that product/price line
+ * total_items, total_cents    running totals, changed with HINCRBY alongside the quantities
+ * updated_at                  millis of the last change
+ * </pre>
+ *
+ * Prices are kept in cents so totals can be incremented as integers.
+ */
+record CartSnapshot(long dealerId, List<Item> items, int totalItems, long totalCents, Long updatedAtMillis) {
+
+    static final String QUANTITY_PREFIX = "q:";
+    static final String ITEM_PREFIX = "i:";
+    static final String LINE_PREFIX = "l:";
+    static final String TOTAL_ITEMS = "total_items";
+    static final String TOTAL_CENTS = "total_cents";
+    static final String UPDATED_AT = "updated_at";
+
+    record Item(long cartId, long productId, long priceCents, int quantity, long addedAtMillis) {
+
+        BigDecimal unitPrice() {
+            return BigDecimal.valueOf(priceCents, 2);
+        }
+    }
+
+    static long toCents(BigDecimal price) {
+        return price.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    static CartSnapshot parse(long dealerId, Map<String, String> hash) {
+        List<Item> items = new ArrayList<>();
+        for (Map.Entry<String, String> field : hash.entrySet()) {
+            if (!field.getKey().startsWith(ITEM_PREFIX)) {
+                continue;
+            }
+            String cartId = field.getKey().substring(ITEM_PREFIX.length());
+            String[] parts = field.getValue().split(":");
+            items.add(new Item(Long.parseLong(cartId), Long.parseLong(parts[0]), Long.parseLong(parts[1]),
+                    Integer.parseInt(hash.get(QUANTITY_PREFIX + cartId)), Long.parseLong(parts[2])));
+        }
+        items.sort(Comparator.comparingLong(Item::cartId));
+
+        String updatedAt = hash.get(UPDATED_AT);
+        return new CartSnapshot(dealerId, items,
+                Integer.parseInt(hash.getOrDefault(TOTAL_ITEMS, "0")),
+                Long.parseLong(hash.getOrDefault(TOTAL_CENTS, "0")),
+                updatedAt != null ? Long.parseLong(updatedAt) : null);
+    }
+
+    /**
+     * Hash fields of a cart rebuilt from its database rows. An empty cart still gets its totals, so it is
+     * cached like any other.
+     */
+    static Map<String, String> fieldsOf(List<ProductOfCart> rows) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        long totalItems = 0;
+        long totalCents = 0;
+        long updatedAt = 0;
+        for (ProductOfCart row : rows) {
+            long cents = toCents(row.getUnitPrice());
+            long addedAt = row.getCreatedAt() != null ? toMillis(row.getCreatedAt()) : 0;
+            fields.put(QUANTITY_PREFIX + row.getId(), row.getQuantity().toString());
+            fields.put(ITEM_PREFIX + row.getId(), row.getProductId() + ":" + cents + ":" + addedAt);
+            fields.put(LINE_PREFIX + row.getProductId() + ":" + cents, row.getId().toString());
+            totalItems += row.getQuantity();
+            totalCents += cents * row.getQuantity();
+            if (row.getUpdatedAt() != null) {
+                updatedAt = Math.max(updatedAt, toMillis(row.getUpdatedAt()));
+            }
+        }
+        fields.put(TOTAL_ITEMS, Long.toString(totalItems));
+        fields.put(TOTAL_CENTS, Long.toString(totalCents));
+        if (updatedAt > 0) {
+            fields.put(UPDATED_AT, Long.toString(updatedAt));
+        }
+        return fields;
+    }
+
+    CartResponse toResponse() {
+        List<CartResponse.CartItemResponse> itemResponses = items.stream()
+                .map(item -> CartResponse.CartItemResponse.builder()
+                        .cartId(item.cartId())
+                        .productId(item.productId())
+                        .quantity(item.quantity())
+                        .unitPrice(item.unitPrice())
+                        .subtotal(BigDecimal.valueOf(item.priceCents() * item.quantity(), 2))
+                        .addedAt(toLocalDateTime(item.addedAtMillis()))
+                        .build())
+                .toList();
+
+        return CartResponse.builder()
+                .dealerId(dealerId)
+                .items(itemResponses)
+                .totalItems(totalItems)
+                .totalPrice(BigDecimal.valueOf(totalCents, 2))
+                .lastUpdated(updatedAtMillis != null ? toLocalDateTime(updatedAtMillis) : null)
+                .build();
+    }
+
+    static LocalDateTime toLocalDateTime(long millis) {
+        // Same zone Hibernate's creation/update timestamps are written in
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+
+    static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
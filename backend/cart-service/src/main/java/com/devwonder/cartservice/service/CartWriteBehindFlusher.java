@@ -0,0 +1,222 @@
+package com.devwonder.cartservice.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Writes changed carts back from Redis to the product_of_cart table.
+ *
+ * Changes only mark the dealer dirty, so any number of them between two runs cost one write: the
+ * dealer's rows are replaced by the cart's current state (rows no longer in the cart deleted, the rest
+ * upserted by id) in one transaction. Dealers are moved from the shared dirty set into a processing set
+ * (scored by claim time) and only removed from it once their cart is committed, so a cart whose write
+ * fails, or whose flusher dies mid-write, is never forgotten: failures go straight back to the dirty set,
+ * and claims older than {@code claim-timeout} are swept back by the next run on any replica. A per-dealer
+ * lock keeps two replicas from writing the same cart out of order. A dirty cart that is no longer in Redis
+ * is skipped, leaving its rows as they are.
+ */
+@Service
+@Slf4j
+public class CartWriteBehindFlusher {
+
+    static final String LOCK_KEY_PREFIX = "nexhub:cart:flush-lock:";
+    static final String PROCESSING_KEY = "nexhub:cart:dirty:processing";
+
+    private static final String UPSERT_ITEM = """
+            INSERT INTO product_of_cart (id, dealer_id, product_id, quantity, unit_price, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (id) DO UPDATE SET quantity = EXCLUDED.quantity, updated_at = EXCLUDED.updated_at
+            WHERE product_of_cart.quantity <> EXCLUDED.quantity
+            """;
+
+    // KEYS = dirty set, processing set; ARGV = count, claim time. Moves up to count dealers into processing
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> CLAIM_SCRIPT = new DefaultRedisScript<>("""
+            local dealers = redis.call('SPOP', KEYS[1], ARGV[1])
+            for _, dealer in ipairs(dealers) do redis.call('ZADD', KEYS[2], ARGV[2], dealer) end
+            return dealers
+            """, List.class);
+
+    // KEYS = processing set, dirty set; ARGV = dealer, claim time, '1' to mark it dirty again.
+    // Leaves a claim that was swept and taken over by another run alone
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>("""
+            if ARGV[3] == '1' then redis.call('SADD', KEYS[2], ARGV[1]) end
+            if tonumber(redis.call('ZSCORE', KEYS[1], ARGV[1])) == tonumber(ARGV[2]) then
+              return redis.call('ZREM', KEYS[1], ARGV[1])
+            end
+            return 0
+            """, Long.class);
+
+    // KEYS = processing set, dirty set; ARGV = cutoff. Returns claims older than the cutoff to the dirty set
+    private static final RedisScript<Long> SWEEP_SCRIPT = new DefaultRedisScript<>("""
+            local stale = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1])
+            for _, dealer in ipairs(stale) do
+              redis.call('SADD', KEYS[2], dealer)
+              redis.call('ZREM', KEYS[1], dealer)
+            end
+            return #stale
+            """, Long.class);
+
+    // Deletes the lock only while this flusher still holds it
+    private static final RedisScript<Long> UNLOCK_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end
+            return 0
+            """, Long.class);
+
+    private final RedisCartStore cartStore;
+    private final StringRedisTemplate redisTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration lockTimeout;
+    private final Duration claimTimeout;
+
+    public CartWriteBehindFlusher(RedisCartStore cartStore, StringRedisTemplate redisTemplate,
+                                  JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                  @Value("${nexhub.cart.write-behind.batch-size:200}") int batchSize,
+                                  @Value("${nexhub.cart.write-behind.lock-timeout:PT30S}") Duration lockTimeout,
+                                  @Value("${nexhub.cart.write-behind.claim-timeout:PT5M}") Duration claimTimeout) {
+        if (claimTimeout.compareTo(lockTimeout) <= 0) {
+            throw new IllegalStateException("nexhub.cart.write-behind.claim-timeout must be longer than lock-timeout");
+        }
+        this.cartStore = cartStore;
+        this.redisTemplate = redisTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.lockTimeout = lockTimeout;
+        this.claimTimeout = claimTimeout;
+    }
+
+    @Scheduled(fixedDelayString = "${nexhub.cart.write-behind.interval:PT1S}")
+    @SuppressWarnings("unchecked")
+    public int flush() {
+        long claimedAt = System.currentTimeMillis();
+        List<String> dealerIds;
+        try {
+            Long swept = redisTemplate.execute(SWEEP_SCRIPT, List.of(PROCESSING_KEY, RedisCartStore.DIRTY_KEY),
+                    Long.toString(claimedAt - claimTimeout.toMillis()));
+            if (swept != null && swept > 0) {
+                log.warn("Returned {} unfinished cart write-backs to the dirty set", swept);
+            }
+            dealerIds = redisTemplate.execute(CLAIM_SCRIPT, List.of(RedisCartStore.DIRTY_KEY, PROCESSING_KEY),
+                    Integer.toString(batchSize), Long.toString(claimedAt));
+        } catch (RuntimeException e) {
+            log.warn("Could not read dirty carts: {}", e.getMessage());
+            return 0;
+        }
+        if (dealerIds == null) {
+            return 0;
+        }
+
+        int written = 0;
+        for (String dealerId : dealerIds) {
+            Outcome outcome;
+            try {
+                outcome = flush(Long.parseLong(dealerId));
+            } catch (RuntimeException e) {
+                log.warn("Failed to write back cart of dealer {}, retrying next run: {}", dealerId, e.getMessage());
+                outcome = Outcome.FAILED;
+            }
+            if (outcome == Outcome.WRITTEN) {
+                written++;
+            }
+            // A cart another replica is writing may have changed since that write read it, so it is retried too
+            release(dealerId, claimedAt, outcome == Outcome.FAILED || outcome == Outcome.BUSY);
+        }
+        return written;
+    }
+
+    /**
+     * Drains the dirty set before shutdown, so a clean stop loses no changes.
+     */
+    @PreDestroy
+    public void flushAll() {
+        int rounds = 0;
+        while (rounds++ < 100 && flush() > 0) {
+            // keep going while carts are being written
+        }
+    }
+
+    private Outcome flush(long dealerId) {
+        String lockKey = LOCK_KEY_PREFIX + dealerId;
+        String token = UUID.randomUUID().toString();
+        if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(lockKey, token, lockTimeout))) {
+            return Outcome.BUSY;
+        }
+        try {
+            Map<String, String> hash = cartStore.hash(dealerId);
+            if (hash.isEmpty()) {
+                log.warn("Cart of dealer {} was dirty but is no longer in Redis; keeping its database rows", dealerId);
+                return Outcome.SKIPPED;
+            }
+            CartSnapshot cart = CartSnapshot.parse(dealerId, hash);
+            transactionTemplate.executeWithoutResult(status -> write(cart));
+            return Outcome.WRITTEN;
+        } finally {
+            redisTemplate.execute(UNLOCK_SCRIPT, Collections.singletonList(lockKey), token);
+        }
+    }
+
+    private void write(CartSnapshot cart) {
+        List<Object> deleteArgs = new ArrayList<>();
+        deleteArgs.add(cart.dealerId());
+        StringBuilder delete = new StringBuilder("DELETE FROM product_of_cart WHERE dealer_id = ?");
+        if (!cart.items().isEmpty()) {
+            delete.append(" AND id NOT IN (");
+            for (CartSnapshot.Item item : cart.items()) {
+                delete.append(deleteArgs.size() > 1 ? ", ?" : "?");
+                deleteArgs.add(item.cartId());
+            }
+            delete.append(')');
+        }
+        // Deletes first: a line removed and re-added gets a new id under the same (dealer, product, price)
+        jdbcTemplate.update(delete.toString(), deleteArgs.toArray());
+
+        if (cart.items().isEmpty()) {
+            return;
+        }
+        Timestamp updatedAt = new Timestamp(cart.updatedAtMillis() != null ? cart.updatedAtMillis() : System.currentTimeMillis());
+        jdbcTemplate.batchUpdate(UPSERT_ITEM, cart.items(), cart.items().size(), (ps, item) -> {
+            ps.setLong(1, item.cartId());
+            ps.setLong(2, cart.dealerId());
+            ps.setLong(3, item.productId());
+            ps.setInt(4, item.quantity());
+            ps.setBigDecimal(5, item.unitPrice());
+            ps.setTimestamp(6, new Timestamp(item.addedAtMillis()));
+            ps.setTimestamp(7, updatedAt);
+        });
+    }
+
+    /**
+     * Ends this run's claim on a dealer, marking it dirty again when its cart was not written.
+     */
+    private void release(String dealerId, long claimedAt, boolean dirty) {
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(PROCESSING_KEY, RedisCartStore.DIRTY_KEY),
+                    dealerId, Long.toString(claimedAt), dirty ? "1" : "0");
+        } catch (RuntimeException e) {
+            // The claim stays in the processing set and is swept back once it times out
+            log.warn("Could not release cart write-back claim of dealer {}: {}", dealerId, e.getMessage());
+        }
+    }
+
+    private enum Outcome { WRITTEN, SKIPPED, BUSY, FAILED }
+}
@@ -0,0 +1,259 @@
+package com.devwonder.cartservice.service;
+
+import com.devwonder.cartservice.entity.ProductOfCart;
+import com.devwonder.cartservice.repository.ProductOfCartRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Redis copy of every loaded dealer cart, the store cart reads and writes go to.
+ *
+ * Each change runs as one Lua script that adjusts the quantity and the running totals with HINCRBY,
+ * adds the dealer to the dirty set drained by {@link CartWriteBehindFlusher}, and returns the whole
+ * cart, so a change costs one round trip and no database access. A cart missing from Redis (first
+ * access, Redis restarted or flushed) is rebuilt from its database rows; changes made within the last
+ * flush interval before a loss are lost with it.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RedisCartStore {
+
+    static final String CART_KEY_PREFIX = "nexhub:cart:";
+    // cartId -> dealerId of every cached item, to find the cart behind the item endpoints
+    static final String ITEM_INDEX_KEY = "nexhub:cart:items";
+    static final String DIRTY_KEY = "nexhub:cart:dirty";
+
+    static final String OK = "OK";
+    static final String MISSING_CART = "MISSING_CART";
+    static final String MISSING_ITEM = "MISSING_ITEM";
+    static final String NEW_LINE = "NEW_LINE";
+    static final String LIMIT = "LIMIT";
+    static final String NEGATIVE = "NEGATIVE";
+
+    // Shared by the change scripts: KEYS = cart, dirty set, item index. A change returns
+    // {'OK', previous quantity or '', HGETALL cart...}, a refused one {status[, current quantity]}
+    private static final String SCRIPT_HELPERS = """
+            local function int(n) return string.format('%d', n) end
+            local function done(dealer, now, items, cents, previous)
+              redis.call('HINCRBY', KEYS[1], 'total_items', int(items))
+              redis.call('HINCRBY', KEYS[1], 'total_cents', int(cents))
+              redis.call('HSET', KEYS[1], 'updated_at', now)
+              redis.call('SADD', KEYS[2], dealer)
+              local cart = redis.call('HGETALL', KEYS[1])
+              table.insert(cart, 1, previous)
+              table.insert(cart, 1, 'OK')
+              return cart
+            end
+            if redis.call('EXISTS', KEYS[1]) == 0 then return {'MISSING_CART'} end
+            """;
+
+    // ARGV = dealerId, productId, priceCents, quantity, new cartId or '', now, max quantity
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> ADD_SCRIPT = new DefaultRedisScript<>(SCRIPT_HELPERS + """
+            local line = 'l:' .. ARGV[2] .. ':' .. ARGV[3]
+            local id = redis.call('HGET', KEYS[1], line)
+            local quantity = tonumber(ARGV[4])
+            if id then
+              local current = tonumber(redis.call('HGET', KEYS[1], 'q:' .. id))
+              if current + quantity > tonumber(ARGV[7]) then return {'LIMIT', tostring(current)} end
+              redis.call('HINCRBY', KEYS[1], 'q:' .. id, quantity)
+            elseif ARGV[5] == '' then
+              return {'NEW_LINE'}
+            else
+              id = ARGV[5]
+              redis.call('HSET', KEYS[1], line, id, 'q:' .. id, quantity,
+                  'i:' .. id, ARGV[2] .. ':' .. ARGV[3] .. ':' .. ARGV[6])
+              redis.call('HSET', KEYS[3], id, ARGV[1])
+            end
+            return done(ARGV[1], ARGV[6], quantity, quantity * tonumber(ARGV[3]), '')
+            """, List.class);
+
+    // ARGV = dealerId, cartId, 'add' or 'set', value, now, max quantity; a quantity of 0 removes the item
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> CHANGE_SCRIPT = new DefaultRedisScript<>(SCRIPT_HELPERS + """
+            local id = ARGV[2]
+            local item = redis.call('HGET', KEYS[1], 'i:' .. id)
+            if not item then return {'MISSING_ITEM'} end
+            local current = tonumber(redis.call('HGET', KEYS[1], 'q:' .. id))
+            local target = tonumber(ARGV[4])
+            if ARGV[3] == 'add' then target = current + target end
+            if target > tonumber(ARGV[6]) then return {'LIMIT', tostring(current)} end
+            if target < 0 then return {'NEGATIVE', tostring(current)} end
+            local product, cents = string.match(item, '^(%d+):(%d+):')
+            local delta = target - current
+            if target == 0 then
+              redis.call('HDEL', KEYS[1], 'q:' .. id, 'i:' .. id, 'l:' .. product .. ':' .. cents)
+              redis.call('HDEL', KEYS[3], id)
+            else
+              redis.call('HINCRBY', KEYS[1], 'q:' .. id, delta)
+            end
+            return done(ARGV[1], ARGV[5], delta, delta * tonumber(cents), tostring(current))
+            """, List.class);
+
+    // ARGV = dealerId, now; returns the number of items removed
+    private static final RedisScript<Long> CLEAR_SCRIPT = new DefaultRedisScript<>("""
+            local fields = redis.call('HKEYS', KEYS[1])
+            local removed = 0
+            for _, field in ipairs(fields) do
+              if string.sub(field, 1, 2) == 'i:' then
+                redis.call('HDEL', KEYS[3], string.sub(field, 3))
+                removed = removed + 1
+              end
+            end
+            redis.call('DEL', KEYS[1])
+            redis.call('HSET', KEYS[1], 'total_items', 0, 'total_cents', 0, 'updated_at', ARGV[2])
+            redis.call('SADD', KEYS[2], ARGV[1])
+            return removed
+            """, Long.class);
+
+    // KEYS = cart, item index; ARGV = dealerId, then field/value pairs. Never overwrites a cached cart
+    private static final RedisScript<Long> LOAD_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 1 then return 0 end
+            for i = 2, #ARGV, 2 do
+              redis.call('HSET', KEYS[1], ARGV[i], ARGV[i + 1])
+              if string.sub(ARGV[i], 1, 2) == 'i:' then redis.call('HSET', KEYS[2], string.sub(ARGV[i], 3), ARGV[1]) end
+            end
+            return 1
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ProductOfCartRepository productOfCartRepository;
+
+    public CartSnapshot getCart(long dealerId) {
+        Map<String, String> hash = hash(dealerId);
+        if (hash.isEmpty()) {
+            load(dealerId);
+            hash = hash(dealerId);
+        }
+        return CartSnapshot.parse(dealerId, hash);
+    }
+
+    /**
+     * Adds {@code quantity} to the dealer's line for this product and price, creating the line when
+     * there is none. New lines take their id from the table's identity sequence so they keep it once
+     * written back.
+     */
+    public Result addItem(long dealerId, long productId, long priceCents, int quantity, int maxQuantity) {
+        String newCartId = "";
+        while (true) {
+            Result result = run(ADD_SCRIPT, dealerId, Long.toString(dealerId), Long.toString(productId),
+                    Long.toString(priceCents), Integer.toString(quantity), newCartId,
+                    Long.toString(System.currentTimeMillis()), Integer.toString(maxQuantity));
+            if (result.status().equals(MISSING_CART)) {
+                load(dealerId);
+            } else if (result.status().equals(NEW_LINE)) {
+                newCartId = productOfCartRepository.nextCartItemId().toString();
+            } else {
+                return result;
+            }
+        }
+    }
+
+    /**
+     * Adds {@code value} to an item's quantity, or sets it to {@code value} when {@code absolute}; a
+     * quantity of 0 removes the item.
+     */
+    public Result changeQuantity(long cartId, int value, boolean absolute, int maxQuantity) {
+        Long dealerId = dealerOf(cartId);
+        if (dealerId == null) {
+            return new Result(MISSING_ITEM, null, null);
+        }
+        while (true) {
+            Result result = run(CHANGE_SCRIPT, dealerId, Long.toString(dealerId), Long.toString(cartId),
+                    absolute ? "set" : "add", Integer.toString(value),
+                    Long.toString(System.currentTimeMillis()), Integer.toString(maxQuantity));
+            if (!result.status().equals(MISSING_CART)) {
+                return result;
+            }
+            load(dealerId);
+        }
+    }
+
+    public long clear(long dealerId) {
+        // Loaded first so the items only in the database are counted and their index entries dropped
+        if (!Boolean.TRUE.equals(redisTemplate.hasKey(cartKey(dealerId)))) {
+            load(dealerId);
+        }
+        Long removed = redisTemplate.execute(CLEAR_SCRIPT, List.of(cartKey(dealerId), DIRTY_KEY, ITEM_INDEX_KEY),
+                Long.toString(dealerId), Long.toString(System.currentTimeMillis()));
+        return removed != null ? removed : 0;
+    }
+
+    /**
+     * The cart as it is now, without rebuilding it; empty when it is not cached.
+     */
+    Map<String, String> hash(long dealerId) {
+        Map<Object, Object> entries = redisTemplate.opsForHash().entries(cartKey(dealerId));
+        Map<String, String> hash = new HashMap<>(entries.size());
+        entries.forEach((field, value) -> hash.put((String) field, (String) value));
+        return hash;
+    }
+
+    private Long dealerOf(long cartId) {
+        Object dealerId = redisTemplate.opsForHash().get(ITEM_INDEX_KEY, Long.toString(cartId));
+        if (dealerId != null) {
+            return Long.parseLong((String) dealerId);
+        }
+        // Not cached: the item is either in a cart that has not been loaded yet or does not exist
+        return productOfCartRepository.findById(cartId).map(ProductOfCart::getDealerId).orElse(null);
+    }
+
+    private void load(long dealerId) {
+        List<ProductOfCart> rows = productOfCartRepository.findByDealerId(dealerId);
+        List<String> args = new ArrayList<>();
+        args.add(Long.toString(dealerId));
+        CartSnapshot.fieldsOf(rows).forEach((field, value) -> {
+            args.add(field);
+            args.add(value);
+        });
+        Long loaded = redisTemplate.execute(LOAD_SCRIPT, List.of(cartKey(dealerId), ITEM_INDEX_KEY), args.toArray());
+        if (loaded != null && loaded == 1) {
+            log.info("Loaded cart of dealer {} into Redis from {} database rows", dealerId, rows.size());
+        }
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private Result run(RedisScript<List> script, long dealerId, String... args) {
+        List<String> reply = redisTemplate.execute(script, List.of(cartKey(dealerId), DIRTY_KEY, ITEM_INDEX_KEY),
+                (Object[]) args);
+        if (reply == null || reply.isEmpty()) {
+            throw new IllegalStateException("Empty reply from cart script for dealer " + dealerId);
+        }
+        String status = reply.get(0);
+        String quantity = reply.size() > 1 ? reply.get(1) : "";
+        Integer previous = quantity.isEmpty() ? null : Integer.valueOf(quantity);
+        if (!status.equals(OK)) {
+            return new Result(status, previous, null);
+        }
+        Map<String, String> hash = new HashMap<>();
+        for (int i = 2; i + 1 < reply.size(); i += 2) {
+            hash.put(reply.get(i), reply.get(i + 1));
+        }
+        return new Result(OK, previous, CartSnapshot.parse(dealerId, hash));
+    }
+
+    static String cartKey(long dealerId) {
+        return CART_KEY_PREFIX + dealerId;
+    }
+
+    /**
+     * Outcome of a change: OK with the cart after it, or one of the failure statuses. {@code quantity} is
+     * the item's quantity before the change, when known.
+     */
+    public record Result(String status, Integer quantity, CartSnapshot cart) {
+
+        public boolean ok() {
+            return OK.equals(status);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.devwonder.cartservice.service;
+
+import com.devwonder.cartservice.dto.CartResponse;
+import com.devwonder.cartservice.entity.ProductOfCart;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CartSnapshotTest {
+
+    private static final LocalDateTime ADDED = LocalDateTime.of(2025, 3, 1, 10, 0);
+    private static final LocalDateTime UPDATED = LocalDateTime.of(2025, 3, 2, 8, 30);
+
+    @Test
+    void rebuildsTheCartHashFromDatabaseRows() {
+        Map<String, String> fields = CartSnapshot.fieldsOf(List.of(
+                row(12L, 5L, "19.90", 3),
+                row(7L, 9L, "1250000.50", 1)));
+
+        assertEquals("3", fields.get("q:12"));
+        assertEquals("5:1990:" + CartSnapshot.toMillis(ADDED), fields.get("i:12"));
+        assertEquals("12", fields.get("l:5:1990"));
+        assertEquals("4", fields.get("total_items"));
+        assertEquals(Long.toString(3 * 1990 + 125000050), fields.get("total_cents"));
+        assertEquals(Long.toString(CartSnapshot.toMillis(UPDATED)), fields.get("updated_at"));
+    }
+
+    @Test
+    void readsTheHashBackIntoTheResponse() {
+        CartResponse response = CartSnapshot.parse(42L, CartSnapshot.fieldsOf(List.of(
+                row(12L, 5L, "19.90", 3),
+                row(7L, 9L, "1250000.50", 1)))).toResponse();
+
+        assertEquals(42L, response.getDealerId());
+        assertEquals(4, response.getTotalItems());
+        assertEquals(new BigDecimal("1250060.20"), response.getTotalPrice());
+        assertEquals(UPDATED, response.getLastUpdated());
+
+        // Ordered by cart id, as the rows were
+        CartResponse.CartItemResponse first = response.getItems().get(0);
+        assertEquals(7L, first.getCartId());
+        assertEquals(new BigDecimal("1250000.50"), first.getUnitPrice());
+        CartResponse.CartItemResponse second = response.getItems().get(1);
+        assertEquals(12L, second.getCartId());
+        assertEquals(5L, second.getProductId());
+        assertEquals(3, second.getQuantity());
+        assertEquals(new BigDecimal("59.70"), second.getSubtotal());
+        assertEquals(ADDED, second.getAddedAt());
+    }
+
+    @Test
+    void keepsAnEmptyCartCacheable() {
+        Map<String, String> fields = CartSnapshot.fieldsOf(List.of());
+        CartResponse response = CartSnapshot.parse(42L, fields).toResponse();
+
+        assertEquals(Map.of("total_items", "0", "total_cents", "0"), fields);
+        assertEquals(0, response.getTotalItems());
+        assertEquals(new BigDecimal("0.00"), response.getTotalPrice());
+        assertNull(response.getLastUpdated());
+    }
+
+    private static ProductOfCart row(Long id, Long productId, String unitPrice, int quantity) {
+        return ProductOfCart.builder()
+                .id(id)
+                .dealerId(42L)
+                .productId(productId)
+                .quantity(quantity)
+                .unitPrice(new BigDecimal(unitPrice))
+                .createdAt(ADDED)
+                .updatedAt(UPDATED)
+                .build();
+    }
+}
@@ -0,0 +1,28 @@
+package com.devwonder.common.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published by order-service whenever an order item is created or removed, so that
+ * product-service can keep a local copy of the quantities it allocates serials against.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderItemChangedEvent {
+
+    public enum ChangeType { CREATED, DELETED }
+
+    private ChangeType changeType;
+    private Long orderItemId;
+    private Long orderId;
+    private Long productId;
+    private Integer quantity;
+    private LocalDateTime occurredAt;
+}
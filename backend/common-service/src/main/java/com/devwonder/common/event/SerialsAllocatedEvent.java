@@ -0,0 +1,25 @@
+package com.devwonder.common.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published by product-service after serials have been allocated to a dealer for an order item.
+ * Order-service marks the item COMPLETED once {@code completed} is true.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SerialsAllocatedEvent {
+    private Long orderItemId;
+    private Long dealerId;
+    private Long allocatedCount;
+    private Integer requiredQuantity;
+    private boolean completed;
+    private LocalDateTime allocatedAt;
+}
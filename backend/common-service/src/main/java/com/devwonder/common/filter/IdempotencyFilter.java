@@ -0,0 +1,301 @@
+package com.devwonder.common.filter;
+
+import com.devwonder.common.dto.BaseResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Makes mutating endpoints safe to retry. A request carrying an {@code Idempotency-Key} header is
+ * executed at most once per key: the response is stored in Redis (keyed by caller and key) together
+ * with a fingerprint of the request, and later retries get the stored response replayed.
+ *
+ * Concurrent duplicates are collapsed with a Redis lock - only the lock owner executes, the others
+ * wait for its response. The owner renews the lock every third of {@code nexhub.idempotency.lock-timeout}
+ * for as long as the request runs, so a slow request keeps it; the timeout only bounds how long the lock
+ * outlives an owner that crashed. Enabled per service with {@code nexhub.idempotency.enabled=true} and
+ * restricted to the Ant patterns in {@code nexhub.idempotency.paths}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "nexhub.idempotency", name = "enabled", havingValue = "true")
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyFilter.class);
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final String RECORD_KEY_PREFIX = "idempotency:record:";
+    private static final String LOCK_KEY_PREFIX = "idempotency:lock:";
+    private static final Set<String> IDEMPOTENT_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+    private static final int MAX_KEY_LENGTH = 128;
+    private static final long POLL_INTERVAL_MILLIS = 100;
+
+    // Only release the lock if it is still ours (it may have expired and been taken over)
+    private static final RedisScript<Long> RELEASE_LOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    // Only extend the lock while it is still ours
+    private static final RedisScript<Long> RENEW_LOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('pexpire', KEYS[1], ARGV[2]) else return 0 end",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final ScheduledExecutorService lockRenewer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "idempotency-lock-renewer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${spring.application.name:application}")
+    private String applicationName;
+
+    @Value("${nexhub.idempotency.paths:}")
+    private List<String> paths;
+
+    @Value("${nexhub.idempotency.ttl:24h}")
+    private Duration ttl;
+
+    @Value("${nexhub.idempotency.lock-timeout:30s}")
+    private Duration lockTimeout;
+
+    @Value("${nexhub.idempotency.lock-wait:10s}")
+    private Duration lockWait;
+
+    public IdempotencyFilter(StringRedisTemplate redisTemplate, ObjectMapper objectMapper) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (request.getHeader(IDEMPOTENCY_KEY_HEADER) == null || !IDEMPOTENT_METHODS.contains(request.getMethod())) {
+            return true;
+        }
+        String path = request.getRequestURI();
+        return paths.stream().noneMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY_HEADER).trim();
+        if (idempotencyKey.isEmpty() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST,
+                    IDEMPOTENCY_KEY_HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+
+        CachedBodyHttpServletRequest cachedRequest = new CachedBodyHttpServletRequest(request);
+        String fingerprint = fingerprint(cachedRequest);
+        String scopedKey = applicationName + ":" + callerOf(request) + ":" + idempotencyKey;
+        String recordKey = RECORD_KEY_PREFIX + scopedKey;
+        String lockKey = LOCK_KEY_PREFIX + scopedKey;
+
+        String lockToken = UUID.randomUUID().toString();
+        try {
+            IdempotencyRecord record = findRecord(recordKey);
+            if (record == null) {
+                if (tryLock(lockKey, lockToken)) {
+                    // The owner may have stored its record and released the lock since the first read
+                    record = findRecord(recordKey);
+                    if (record != null) {
+                        releaseLock(lockKey, lockToken);
+                    }
+                } else {
+                    record = awaitRecord(recordKey, lockKey);
+                    if (record == null) {
+                        writeError(response, HttpStatus.CONFLICT,
+                                "A request with the same " + IDEMPOTENCY_KEY_HEADER + " is still being processed");
+                        return;
+                    }
+                }
+            }
+            if (record != null) {
+                replay(record, fingerprint, idempotencyKey, response);
+                return;
+            }
+        } catch (RuntimeException e) {
+            // Redis being unavailable must not take the endpoint down - execute without protection
+            log.warn("Idempotency store unavailable, executing request without deduplication: {}", e.getMessage());
+            filterChain.doFilter(cachedRequest, response);
+            return;
+        }
+
+        ContentCachingResponseWrapper cachingResponse = new ContentCachingResponseWrapper(response);
+        ScheduledFuture<?> renewal = scheduleRenewal(lockKey, lockToken);
+        try {
+            filterChain.doFilter(cachedRequest, cachingResponse);
+            storeRecord(recordKey, fingerprint, cachingResponse);
+        } finally {
+            renewal.cancel(false);
+            releaseLock(lockKey, lockToken);
+            cachingResponse.copyBodyToResponse();
+        }
+    }
+
+    private void replay(IdempotencyRecord record, String fingerprint, String idempotencyKey, HttpServletResponse response)
+            throws IOException {
+        if (!record.getFingerprint().equals(fingerprint)) {
+            log.warn("Idempotency key {} reused with a different request payload", idempotencyKey);
+            writeError(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                    IDEMPOTENCY_KEY_HEADER + " was already used for a different request");
+            return;
+        }
+
+        log.info("Replaying stored response for idempotency key {}", idempotencyKey);
+        response.setStatus(record.getStatus());
+        if (record.getContentType() != null) {
+            response.setContentType(record.getContentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (record.getBody() != null) {
+            response.setContentLength(record.getBody().length);
+            response.getOutputStream().write(record.getBody());
+        }
+    }
+
+    private IdempotencyRecord awaitRecord(String recordKey, String lockKey) {
+        long deadline = System.currentTimeMillis() + lockWait.toMillis();
+        while (System.currentTimeMillis() < deadline) {
+            IdempotencyRecord record = findRecord(recordKey);
+            if (record != null || !Boolean.TRUE.equals(redisTemplate.hasKey(lockKey))) {
+                // Either the owner finished, or it failed without storing a response
+                return record;
+            }
+            try {
+                Thread.sleep(POLL_INTERVAL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private IdempotencyRecord findRecord(String recordKey) {
+        String json = redisTemplate.opsForValue().get(recordKey);
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, IdempotencyRecord.class);
+        } catch (IOException e) {
+            log.warn("Discarding unreadable idempotency record {}: {}", recordKey, e.getMessage());
+            return null;
+        }
+    }
+
+    private void storeRecord(String recordKey, String fingerprint, ContentCachingResponseWrapper response) {
+        // Server errors are not final - let the client retry them
+        if (response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value()) {
+            return;
+        }
+        try {
+            IdempotencyRecord record = IdempotencyRecord.builder()
+                    .fingerprint(fingerprint)
+                    .status(response.getStatus())
+                    .contentType(response.getContentType())
+                    .body(response.getContentAsByteArray())
+                    .build();
+            redisTemplate.opsForValue().set(recordKey, objectMapper.writeValueAsString(record), ttl);
+        } catch (Exception e) {
+            log.warn("Failed to store idempotency record {}: {}", recordKey, e.getMessage());
+        }
+    }
+
+    private boolean tryLock(String lockKey, String lockToken) {
+        return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(lockKey, lockToken, lockTimeout));
+    }
+
+    private ScheduledFuture<?> scheduleRenewal(String lockKey, String lockToken) {
+        long period = Math.max(1, lockTimeout.toMillis() / 3);
+        return lockRenewer.scheduleWithFixedDelay(() -> {
+            try {
+                redisTemplate.execute(RENEW_LOCK_SCRIPT, List.of(lockKey), lockToken,
+                        Long.toString(lockTimeout.toMillis()));
+            } catch (RuntimeException e) {
+                log.warn("Failed to renew idempotency lock {}: {}", lockKey, e.getMessage());
+            }
+        }, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    private void releaseLock(String lockKey, String lockToken) {
+        try {
+            redisTemplate.execute(RELEASE_LOCK_SCRIPT, List.of(lockKey), lockToken);
+        } catch (Exception e) {
+            log.warn("Failed to release idempotency lock {}: {}", lockKey, e.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        lockRenewer.shutdownNow();
+    }
+
+    private static String callerOf(HttpServletRequest request) {
+        String accountId = request.getHeader("X-JWT-Account-ID");
+        if (accountId != null && !accountId.isBlank()) {
+            return accountId;
+        }
+        String subject = request.getHeader("X-JWT-Subject");
+        return subject != null && !subject.isBlank() ? subject : "anonymous";
+    }
+
+    private static String fingerprint(CachedBodyHttpServletRequest request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(request.getMethod().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) ' ');
+            digest.update(request.getRequestURI().getBytes(StandardCharsets.UTF_8));
+            if (request.getQueryString() != null) {
+                digest.update((byte) '?');
+                digest.update(request.getQueryString().getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update((byte) '\n');
+            digest.update(request.getBody());
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), BaseResponse.error(message));
+    }
+}
@@ -0,0 +1,20 @@
+package com.devwonder.common.filter;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response stored under an Idempotency-Key, replayed for retries of the same request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyRecord {
+    private String fingerprint;
+    private int status;
+    private String contentType;
+    private byte[] body;
+}
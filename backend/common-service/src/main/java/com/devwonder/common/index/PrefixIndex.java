@@ -0,0 +1,563 @@
+package com.devwonder.common.index;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.UnaryOperator;
+
+/**
+ * Compact in-memory index from string keys (order codes, serial numbers) to entity ids, serving exact
+ * and prefix lookups without a database round trip.
+ *
+ * Keys are kept UTF-8 encoded and sorted in one packed {@code byte[]} with an offsets array and a parallel
+ * {@code long[]} of ids, so an entry costs its key bytes plus 12 bytes. Writes since the last build go to a
+ * small sorted delta (additions and tombstones) that is merged into a new packed base once it grows past
+ * a fraction of the base size. Builds and merges write straight into primitive arrays, and a merge runs
+ * outside the write lock: writes made meanwhile are journaled and replayed on the merged base. Readers
+ * never block: they work on whichever state was current when they started.
+ *
+ * The index is bounded by {@code maxEntries}; a {@link #rebuild} that exceeds it leaves the index
+ * not {@link #isReady() ready}, and callers are expected to fall back to the database while it is not.
+ */
+public final class PrefixIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(PrefixIndex.class);
+
+    private static final Comparator<byte[]> BYTE_ORDER = Arrays::compareUnsigned;
+    private static final int MIN_COMPACTION_THRESHOLD = 1024;
+    // Rough per-entry cost of the skip-list delta (node, index levels, key array header)
+    private static final int DELTA_ENTRY_OVERHEAD = 96;
+
+    private final String name;
+    private final int maxEntries;
+    private final UnaryOperator<String> normalizer;
+
+    private volatile State state = new State(Packed.EMPTY);
+    private volatile boolean ready;
+    private final Object rebuildLock = new Object();
+    // Writes made while a rebuild is reading its source; replayed on top of the rebuilt state
+    private List<Runnable> rebuildJournal;
+    // Writes made while the delta is merged into a new base; replayed on top of the merged state
+    private List<Runnable> compactionJournal;
+
+    public PrefixIndex(String name, int maxEntries, UnaryOperator<String> normalizer) {
+        this.name = name;
+        this.maxEntries = maxEntries;
+        this.normalizer = normalizer;
+    }
+
+    /**
+     * Supplies the full set of entries for a {@link #rebuild}, in any order.
+     */
+    @FunctionalInterface
+    public interface Source {
+        void forEach(EntryConsumer consumer);
+    }
+
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(String key, long id);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Replaces the index content with the entries of {@code source}. Writes made concurrently are kept.
+     */
+    public void rebuild(Source source) {
+        synchronized (rebuildLock) {
+            doRebuild(source);
+        }
+    }
+
+    private void doRebuild(Source source) {
+        synchronized (this) {
+            rebuildJournal = new ArrayList<>();
+        }
+
+        long startedAt = System.nanoTime();
+        Packed.Builder builder = new Packed.Builder(maxEntries);
+        try {
+            source.forEach((key, id) -> builder.add(encode(key), id));
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                rebuildJournal = null;
+            }
+            throw e;
+        }
+
+        synchronized (this) {
+            List<Runnable> journal = rebuildJournal;
+            rebuildJournal = null;
+            if (builder.overflowed()) {
+                state = new State(Packed.EMPTY);
+                ready = false;
+                log.warn("Prefix index '{}' not loaded: more than {} entries, lookups fall back to the database",
+                        name, maxEntries);
+                return;
+            }
+            state = new State(builder.build());
+            journal.forEach(Runnable::run);
+            ready = true;
+        }
+
+        log.info("Prefix index '{}' loaded {} entries ({} KiB) in {} ms", name, size(), estimatedBytes() / 1024,
+                (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    public OptionalLong find(String key) {
+        if (key == null) {
+            return OptionalLong.empty();
+        }
+        State current = state;
+        byte[] encoded = encode(key);
+        if (current.removed.contains(encoded)) {
+            return OptionalLong.empty();
+        }
+        Long added = current.added.get(encoded);
+        if (added != null) {
+            return OptionalLong.of(added);
+        }
+        int position = current.base.indexOf(encoded);
+        return position >= 0 ? OptionalLong.of(current.base.values[position]) : OptionalLong.empty();
+    }
+
+    /**
+     * Ids of the entries whose key starts with {@code prefix}, in key order, at most {@code limit}.
+     */
+    public List<Long> findByPrefix(String prefix, int limit) {
+        List<Long> ids = new ArrayList<>(Math.min(limit, 64));
+        if (prefix == null || limit <= 0) {
+            return ids;
+        }
+        State current = state;
+        byte[] encodedPrefix = encode(prefix);
+        Packed base = current.base;
+        int position = base.lowerBound(encodedPrefix);
+        Iterator<Map.Entry<byte[], Long>> additions = current.added.tailMap(encodedPrefix, true).entrySet().iterator();
+        Map.Entry<byte[], Long> addition = nextWithPrefix(additions, encodedPrefix);
+
+        while (ids.size() < limit) {
+            boolean baseHasNext = position < base.size() && base.startsWith(position, encodedPrefix);
+            if (!baseHasNext && addition == null) {
+                break;
+            }
+            int order = !baseHasNext ? 1 : addition == null ? -1 : base.compareTo(position, addition.getKey());
+            if (order < 0) {
+                if (current.removed.isEmpty() || !current.removed.contains(base.key(position))) {
+                    ids.add(base.values[position]);
+                }
+                position++;
+            } else {
+                // A pending addition replaces the base entry with the same key
+                ids.add(addition.getValue());
+                if (order == 0) {
+                    position++;
+                }
+                addition = nextWithPrefix(additions, encodedPrefix);
+            }
+        }
+        return ids;
+    }
+
+    public void put(String key, long id) {
+        if (key == null) {
+            return;
+        }
+        State toCompact;
+        synchronized (this) {
+            journal(() -> applyPut(key, id));
+            if (!ready) {
+                return;
+            }
+            applyPut(key, id);
+            toCompact = compactionDue();
+        }
+        if (toCompact != null) {
+            compact(toCompact);
+        }
+    }
+
+    public void remove(String key) {
+        if (key == null) {
+            return;
+        }
+        State toCompact;
+        synchronized (this) {
+            journal(() -> applyRemove(key));
+            if (!ready) {
+                return;
+            }
+            applyRemove(key);
+            toCompact = compactionDue();
+        }
+        if (toCompact != null) {
+            compact(toCompact);
+        }
+    }
+
+    /**
+     * Number of live entries; approximate while additions overwrite keys of the packed base.
+     */
+    public int size() {
+        State current = state;
+        return Math.max(0, current.base.size() + current.added.size() - current.removed.size());
+    }
+
+    /**
+     * Estimated heap used by the index content, in bytes.
+     */
+    public long estimatedBytes() {
+        State current = state;
+        return current.base.estimatedBytes()
+                + (long) (current.added.size() + current.removed.size()) * DELTA_ENTRY_OVERHEAD;
+    }
+
+    private void applyPut(String key, long id) {
+        byte[] encoded = encode(key);
+        State current = state;
+        current.removed.remove(encoded);
+        current.added.put(encoded, id);
+    }
+
+    private void applyRemove(String key) {
+        byte[] encoded = encode(key);
+        State current = state;
+        current.added.remove(encoded);
+        if (current.base.indexOf(encoded) >= 0) {
+            current.removed.add(encoded);
+        }
+    }
+
+    // Called with the monitor held
+    private void journal(Runnable write) {
+        if (rebuildJournal != null) {
+            rebuildJournal.add(write);
+        }
+        if (compactionJournal != null) {
+            compactionJournal.add(write);
+        }
+    }
+
+    // Called with the monitor held; returns the state to merge when this writer should compact it
+    private State compactionDue() {
+        State current = state;
+        int pending = current.added.size() + current.removed.size();
+        if (compactionJournal != null || pending < Math.max(MIN_COMPACTION_THRESHOLD, current.base.size() / 16)) {
+            return null;
+        }
+        compactionJournal = new ArrayList<>();
+        return current;
+    }
+
+    private void compact(State current) {
+        // Concurrent writes still land in current's delta and may or may not be merged; the journal has them all
+        Packed merged;
+        try {
+            merged = current.base.merge(current.added, current.removed);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                compactionJournal = null;
+            }
+            throw e;
+        }
+
+        synchronized (this) {
+            List<Runnable> journal = compactionJournal;
+            compactionJournal = null;
+            if (state != current) {
+                // A rebuild replaced the content while merging
+                return;
+            }
+            if (merged.size() > maxEntries) {
+                state = new State(Packed.EMPTY);
+                ready = false;
+                log.warn("Prefix index '{}' exceeded {} entries, disabled until the next rebuild", name, maxEntries);
+                return;
+            }
+            state = new State(merged);
+            journal.forEach(Runnable::run);
+        }
+    }
+
+    private byte[] encode(String key) {
+        return normalizer.apply(key).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static Map.Entry<byte[], Long> nextWithPrefix(Iterator<Map.Entry<byte[], Long>> entries, byte[] prefix) {
+        if (!entries.hasNext()) {
+            return null;
+        }
+        Map.Entry<byte[], Long> entry = entries.next();
+        byte[] key = entry.getKey();
+        return key.length >= prefix.length && Arrays.equals(key, 0, prefix.length, prefix, 0, prefix.length)
+                ? entry : null;
+    }
+
+    private static final class State {
+        final Packed base;
+        final NavigableMap<byte[], Long> added = new ConcurrentSkipListMap<>(BYTE_ORDER);
+        final NavigableSet<byte[]> removed = new ConcurrentSkipListSet<>(BYTE_ORDER);
+
+        State(Packed base) {
+            this.base = base;
+        }
+    }
+
+    /**
+     * Immutable sorted key → id arrays.
+     */
+    static final class Packed {
+
+        static final Packed EMPTY = new Packed(new byte[0], new int[]{0}, new long[0]);
+
+        private final byte[] keys;
+        private final int[] offsets;
+        private final long[] values;
+
+        private Packed(byte[] keys, int[] offsets, long[] values) {
+            this.keys = keys;
+            this.offsets = offsets;
+            this.values = values;
+        }
+
+        int size() {
+            return values.length;
+        }
+
+        long estimatedBytes() {
+            return keys.length + 4L * offsets.length + 8L * values.length;
+        }
+
+        byte[] key(int position) {
+            return Arrays.copyOfRange(keys, offsets[position], offsets[position + 1]);
+        }
+
+        int compareTo(int position, byte[] key) {
+            return Arrays.compareUnsigned(keys, offsets[position], offsets[position + 1], key, 0, key.length);
+        }
+
+        boolean startsWith(int position, byte[] prefix) {
+            int from = offsets[position];
+            return offsets[position + 1] - from >= prefix.length
+                    && Arrays.equals(keys, from, from + prefix.length, prefix, 0, prefix.length);
+        }
+
+        int indexOf(byte[] key) {
+            int position = lowerBound(key);
+            return position < size() && compareTo(position, key) == 0 ? position : -1;
+        }
+
+        // First position whose key is >= key
+        int lowerBound(byte[] key) {
+            int low = 0;
+            int high = size();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (compareTo(mid, key) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        Packed merge(NavigableMap<byte[], Long> added, NavigableSet<byte[]> removed) {
+            Builder builder = new Builder(Integer.MAX_VALUE, size() + added.size(), keys.length);
+            Iterator<Map.Entry<byte[], Long>> additions = added.entrySet().iterator();
+            Iterator<byte[]> removals = removed.iterator();
+            Map.Entry<byte[], Long> addition = additions.hasNext() ? additions.next() : null;
+            byte[] removal = removals.hasNext() ? removals.next() : null;
+            int position = 0;
+            while (position < size() || addition != null) {
+                int order = position >= size() ? 1 : addition == null ? -1 : compareTo(position, addition.getKey());
+                if (order < 0) {
+                    // Tombstones are sorted too, so they are walked alongside the base
+                    while (removal != null && compareTo(position, removal) > 0) {
+                        removal = removals.hasNext() ? removals.next() : null;
+                    }
+                    if (removal == null || compareTo(position, removal) != 0) {
+                        builder.addSorted(keys, offsets[position], offsets[position + 1], values[position]);
+                    }
+                    position++;
+                } else {
+                    byte[] key = addition.getKey();
+                    builder.addSorted(key, 0, key.length, addition.getValue());
+                    if (order == 0) {
+                        position++;
+                    }
+                    addition = additions.hasNext() ? additions.next() : null;
+                }
+            }
+            return builder.build();
+        }
+
+        /**
+         * Accumulates entries into growable primitive arrays: key bytes back to back, their end offsets and
+         * the ids. Entries not added in key order are sorted by index at {@link #build()}.
+         */
+        static final class Builder {
+
+            private static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+
+            private final int maxEntries;
+            private byte[] keyBytes;
+            // offsets[i] is where key i starts; offsets[count] is the end of the last key
+            private int[] offsets;
+            private long[] values;
+            private int count;
+            private boolean sorted = true;
+            private boolean overflowed;
+
+            Builder(int maxEntries) {
+                this(maxEntries, 16, 1024);
+            }
+
+            Builder(int maxEntries, int expectedEntries, int expectedKeyBytes) {
+                this.maxEntries = maxEntries;
+                this.values = new long[Math.max(16, expectedEntries)];
+                this.offsets = new int[values.length + 1];
+                this.keyBytes = new byte[Math.max(1024, expectedKeyBytes)];
+            }
+
+            void add(byte[] key, long value) {
+                if (overflowed) {
+                    return;
+                }
+                if (count >= maxEntries) {
+                    overflowed = true;
+                    keyBytes = new byte[0];
+                    offsets = new int[1];
+                    values = new long[0];
+                    count = 0;
+                    return;
+                }
+                if (count > 0 && Arrays.compareUnsigned(keyBytes, offsets[count - 1], offsets[count],
+                        key, 0, key.length) >= 0) {
+                    sorted = false;
+                }
+                append(key, 0, key.length, value);
+            }
+
+            /**
+             * Appends a key already greater than every key added so far.
+             */
+            void addSorted(byte[] source, int from, int to, long value) {
+                append(source, from, to, value);
+            }
+
+            boolean overflowed() {
+                return overflowed;
+            }
+
+            private void append(byte[] source, int from, int to, long value) {
+                int length = to - from;
+                if (count == values.length) {
+                    values = Arrays.copyOf(values, grow(values.length, values.length + 1));
+                    offsets = Arrays.copyOf(offsets, values.length + 1);
+                }
+                int end = offsets[count];
+                if (end + length > keyBytes.length) {
+                    keyBytes = Arrays.copyOf(keyBytes, grow(keyBytes.length, end + length));
+                }
+                System.arraycopy(source, from, keyBytes, end, length);
+                values[count] = value;
+                offsets[count + 1] = end + length;
+                count++;
+            }
+
+            private static int grow(int length, int needed) {
+                return (int) Math.min(MAX_ARRAY_LENGTH, Math.max(needed, 2L * length));
+            }
+
+            Packed build() {
+                if (sorted) {
+                    // Strictly increasing, so already unique
+                    return new Packed(Arrays.copyOf(keyBytes, offsets[count]), Arrays.copyOf(offsets, count + 1),
+                            Arrays.copyOf(values, count));
+                }
+
+                int[] order = new int[count];
+                for (int i = 0; i < count; i++) {
+                    order[i] = i;
+                }
+                sortByKey(order);
+
+                // Duplicate keys keep the last value added: the sort is stable, so that is the last of each run
+                int unique = 0;
+                int totalBytes = 0;
+                for (int i = 0; i < count; i++) {
+                    if (i + 1 == count || compare(order[i], order[i + 1]) != 0) {
+                        order[unique++] = order[i];
+                        totalBytes += offsets[order[i] + 1] - offsets[order[i]];
+                    }
+                }
+
+                byte[] packedKeys = new byte[totalBytes];
+                int[] packedOffsets = new int[unique + 1];
+                long[] packedValues = new long[unique];
+                int offset = 0;
+                for (int i = 0; i < unique; i++) {
+                    int entry = order[i];
+                    int length = offsets[entry + 1] - offsets[entry];
+                    System.arraycopy(keyBytes, offsets[entry], packedKeys, offset, length);
+                    packedOffsets[i] = offset;
+                    packedValues[i] = values[entry];
+                    offset += length;
+                }
+                packedOffsets[unique] = offset;
+                return new Packed(packedKeys, packedOffsets, packedValues);
+            }
+
+            private int compare(int a, int b) {
+                return Arrays.compareUnsigned(keyBytes, offsets[a], offsets[a + 1], keyBytes, offsets[b], offsets[b + 1]);
+            }
+
+            // Bottom-up merge sort of entry indexes by key; stable, and needs no boxing
+            private void sortByKey(int[] order) {
+                int[] source = order;
+                int[] target = new int[order.length];
+                for (int width = 1; width < order.length; width *= 2) {
+                    for (int low = 0; low < order.length; low += 2 * width) {
+                        int middle = Math.min(low + width, order.length);
+                        int high = Math.min(low + 2 * width, order.length);
+                        int left = low;
+                        int right = middle;
+                        for (int out = low; out < high; out++) {
+                            if (left < middle && (right >= high || compare(source[left], source[right]) <= 0)) {
+                                target[out] = source[left++];
+                            } else {
+                                target[out] = source[right++];
+                            }
+                        }
+                    }
+                    int[] swap = source;
+                    source = target;
+                    target = swap;
+                }
+                if (source != order) {
+                    System.arraycopy(source, 0, order, 0, order.length);
+                }
+            }
+        }
+    }
+}
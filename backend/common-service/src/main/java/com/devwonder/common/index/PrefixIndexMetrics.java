@@ -0,0 +1,30 @@
+package com.devwonder.common.index;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Publishes the size and footprint of a {@link PrefixIndex} as gauges tagged with the index name.
+ */
+public final class PrefixIndexMetrics {
+
+    private PrefixIndexMetrics() {
+        // Private constructor to prevent instantiation
+    }
+
+    public static void register(MeterRegistry registry, PrefixIndex index) {
+        Gauge.builder("nexhub.prefix.index.entries", index, PrefixIndex::size)
+                .tag("index", index.getName())
+                .description("Entries held by the in-memory prefix index")
+                .register(registry);
+        Gauge.builder("nexhub.prefix.index.memory", index, PrefixIndex::estimatedBytes)
+                .tag("index", index.getName())
+                .baseUnit("bytes")
+                .description("Estimated heap used by the in-memory prefix index")
+                .register(registry);
+        Gauge.builder("nexhub.prefix.index.ready", index, i -> i.isReady() ? 1 : 0)
+                .tag("index", index.getName())
+                .description("1 when lookups are served from the index, 0 while they fall back to the database")
+                .register(registry);
+    }
+}
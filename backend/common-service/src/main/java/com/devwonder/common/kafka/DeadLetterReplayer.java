@@ -0,0 +1,136 @@
+package com.devwonder.common.kafka;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaOperations;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Moves records from a dead-letter topic back onto the topic they failed on, once the cause has been fixed.
+ *
+ * Replay progress is tracked with a dedicated consumer group, so each record is replayed once: offsets are
+ * committed only after the republished records are acknowledged. Retry bookkeeping headers are dropped so a
+ * replayed record gets the full retry budget again.
+ */
+@Slf4j
+public class DeadLetterReplayer {
+
+    public static final int MAX_REPLAY_BATCH = 1000;
+
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(2);
+    private static final long SEND_TIMEOUT_SECONDS = 30;
+    private static final String[] DROPPED_HEADER_PREFIXES = {"kafka_dlt-", "retry_topic-"};
+
+    private final DefaultKafkaConsumerFactory<byte[], byte[]> consumerFactory;
+    private final KafkaOperations<Object, Object> kafkaTemplate;
+    private final KafkaRetryMetrics metrics;
+    private final Set<String> topics;
+
+    public DeadLetterReplayer(String bootstrapServers, String groupId, KafkaOperations<Object, Object> kafkaTemplate,
+                              KafkaRetryMetrics metrics, Set<String> topics) {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        configProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        configProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        this.consumerFactory = new DefaultKafkaConsumerFactory<>(configProps,
+                new ByteArrayDeserializer(), new ByteArrayDeserializer());
+        this.kafkaTemplate = kafkaTemplate;
+        this.metrics = metrics;
+        this.topics = Set.copyOf(topics);
+    }
+
+    /**
+     * Republishes up to {@code maxRecords} not yet replayed records of {@code topic}'s dead-letter topic
+     * onto {@code topic}, and returns how many were replayed.
+     */
+    public synchronized int replay(String topic, int maxRecords) {
+        if (!topics.contains(topic)) {
+            throw new IllegalArgumentException("No dead-letter topic for " + topic);
+        }
+        if (maxRecords < 1 || maxRecords > MAX_REPLAY_BATCH) {
+            throw new IllegalArgumentException("maxRecords must be between 1 and " + MAX_REPLAY_BATCH);
+        }
+
+        String deadLetterTopic = topic + KafkaRetryTopicSupport.DLT_SUFFIX;
+        try (Consumer<byte[], byte[]> consumer = consumerFactory.createConsumer()) {
+            List<TopicPartition> partitions = new ArrayList<>();
+            for (PartitionInfo partition : consumer.partitionsFor(deadLetterTopic)) {
+                partitions.add(new TopicPartition(deadLetterTopic, partition.partition()));
+            }
+            // Assigned rather than subscribed: no rebalance to wait for, positions come from the committed offsets
+            consumer.assign(partitions);
+
+            Map<TopicPartition, OffsetAndMetadata> replayedOffsets = new HashMap<>();
+            List<CompletableFuture<?>> sends = new ArrayList<>();
+            while (sends.size() < maxRecords) {
+                ConsumerRecords<byte[], byte[]> records = consumer.poll(POLL_TIMEOUT);
+                if (records.isEmpty()) {
+                    break;
+                }
+                for (ConsumerRecord<byte[], byte[]> record : records) {
+                    if (sends.size() == maxRecords) {
+                        break;
+                    }
+                    sends.add(kafkaTemplate.send(new ProducerRecord<>(topic, null, record.key(), record.value(),
+                            replayHeaders(record))));
+                    replayedOffsets.put(new TopicPartition(record.topic(), record.partition()),
+                            new OffsetAndMetadata(record.offset() + 1));
+                }
+            }
+
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).get(SEND_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            consumer.commitSync(replayedOffsets);
+
+            metrics.replayed(topic, sends.size());
+            log.info("Replayed {} records from {} onto {}", sends.size(), deadLetterTopic, topic);
+            return sends.size();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while replaying " + deadLetterTopic, e);
+        } catch (ExecutionException | TimeoutException e) {
+            // Nothing is committed, so the whole batch is replayed again next time
+            throw new IllegalStateException("Failed to replay " + deadLetterTopic + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static RecordHeaders replayHeaders(ConsumerRecord<byte[], byte[]> record) {
+        RecordHeaders headers = new RecordHeaders();
+        for (Header header : record.headers()) {
+            if (!isDropped(header.key())) {
+                headers.add(header);
+            }
+        }
+        return headers;
+    }
+
+    private static boolean isDropped(String key) {
+        for (String prefix : DROPPED_HEADER_PREFIXES) {
+            if (key.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
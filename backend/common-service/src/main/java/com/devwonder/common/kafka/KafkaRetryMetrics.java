@@ -0,0 +1,36 @@
+package com.devwonder.common.kafka;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Counts records leaving a listener through the retry topology: forwarded to a retry topic, parked on a
+ * dead-letter topic, or replayed from one. Consumer lag per topic and partition is published separately by
+ * the {@code MicrometerConsumerListener} on each consumer factory.
+ */
+public class KafkaRetryMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    public KafkaRetryMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void forwarded(String fromTopic, String toTopic) {
+        String name = toTopic.endsWith(KafkaRetryTopicSupport.DLT_SUFFIX)
+                ? "nexhub.kafka.dlt.records"
+                : "nexhub.kafka.retry.records";
+        Counter.builder(name)
+                .tag("from", fromTopic)
+                .tag("to", toTopic)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    public void replayed(String topic, int count) {
+        Counter.builder("nexhub.kafka.dlt.replayed")
+                .tag("topic", topic)
+                .register(meterRegistry)
+                .increment(count);
+    }
+}
@@ -0,0 +1,229 @@
+package com.devwonder.common.kafka;
+
+import com.devwonder.common.kafka.serde.VersionedEventSerializer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.kafka.config.KafkaListenerEndpoint;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.retrytopic.DeadLetterPublishingRecovererFactory;
+import org.springframework.kafka.retrytopic.DestinationTopic;
+import org.springframework.kafka.retrytopic.RetryTopicComponentFactory;
+import org.springframework.kafka.retrytopic.RetryTopicConfiguration;
+import org.springframework.kafka.retrytopic.RetryTopicConfigurationBuilder;
+import org.springframework.kafka.retrytopic.RetryTopicConfigurationSupport;
+import org.springframework.kafka.retrytopic.RetryTopicNamesProviderFactory;
+import org.springframework.kafka.retrytopic.SuffixingRetryTopicNamesProviderFactory;
+import org.springframework.kafka.support.Suffixer;
+import org.springframework.kafka.support.serializer.DelegatingByTypeSerializer;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Non-blocking retry topology shared by every Kafka listener. A record whose listener throws is forwarded to
+ * {@code <topic>-retry-5s}, then {@code <topic>-retry-1m}, and finally parked on {@code <topic>-dlt}, so the
+ * partition it came from keeps moving instead of being held by inline retries. Deserialization failures and
+ * the other exceptions Spring Kafka treats as fatal skip the retry topics and go straight to the DLT.
+ *
+ * Services extend this from a {@code @Configuration} class and list the topics their listeners consume;
+ * the retry topics reuse the listener's own container factory, and parked records are replayed through
+ * {@link DeadLetterReplayer}.
+ */
+public abstract class KafkaRetryTopicSupport extends RetryTopicConfigurationSupport {
+
+    public static final String RETRY_SUFFIX = "-retry";
+    public static final String DLT_SUFFIX = "-dlt";
+
+    // Main delivery plus one attempt on each retry topic
+    private static final int MAX_ATTEMPTS = 3;
+
+    private ApplicationContext applicationContext;
+
+    /**
+     * Topics consumed by this service's listeners.
+     */
+    protected abstract List<String> retriedTopics();
+
+    @Override
+    public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
+        super.setApplicationContext(applicationContext);
+        this.applicationContext = applicationContext;
+    }
+
+    @Bean
+    public KafkaTemplate<Object, Object> retryTopicKafkaTemplate(
+            @Value("${spring.kafka.bootstrap-servers:kafka1:9092,kafka2:9093,kafka3:9094}") String bootstrapServers) {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ProducerConfig.ACKS_CONFIG, "all");
+        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+
+        return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(configProps,
+                forwardingSerializer(), forwardingSerializer()));
+    }
+
+    @Bean
+    public RetryTopicConfiguration retryTopicConfiguration(
+            KafkaTemplate<Object, Object> retryTopicKafkaTemplate,
+            @Value("${nexhub.kafka.retry.first-delay:PT5S}") Duration firstDelay,
+            @Value("${nexhub.kafka.retry.second-delay:PT1M}") Duration secondDelay,
+            @Value("${nexhub.kafka.retry.partitions:3}") int partitions,
+            @Value("${nexhub.kafka.retry.replicas:3}") short replicas) {
+        if (secondDelay.compareTo(firstDelay) <= 0) {
+            throw new IllegalStateException("nexhub.kafka.retry.second-delay must be longer than first-delay");
+        }
+        long first = firstDelay.toMillis();
+        long second = secondDelay.toMillis();
+
+        return RetryTopicConfigurationBuilder.newInstance()
+                .includeTopics(retriedTopics())
+                .maxAttempts(MAX_ATTEMPTS)
+                // Rounded-up multiplier capped at the second delay, so the second topic waits exactly that long
+                .exponentialBackoff(first, Math.ceil((double) second / first), second)
+                .retryTopicSuffix(RETRY_SUFFIX)
+                .dltSuffix(DLT_SUFFIX)
+                .autoCreateTopics(true, partitions, replicas)
+                // Parked records stay on the DLT until replayed; failing there must not loop them back onto it
+                .autoStartDltHandler(false)
+                .doNotRetryOnDltFailure()
+                .create(retryTopicKafkaTemplate);
+    }
+
+    @Bean
+    public KafkaRetryMetrics kafkaRetryMetrics(MeterRegistry meterRegistry) {
+        return new KafkaRetryMetrics(meterRegistry);
+    }
+
+    @Bean
+    public DeadLetterReplayer deadLetterReplayer(
+            @Value("${spring.kafka.bootstrap-servers:kafka1:9092,kafka2:9093,kafka3:9094}") String bootstrapServers,
+            @Value("${spring.application.name}") String applicationName,
+            KafkaTemplate<Object, Object> retryTopicKafkaTemplate,
+            KafkaRetryMetrics kafkaRetryMetrics) {
+        return new DeadLetterReplayer(bootstrapServers, applicationName + "-dlt-replay", retryTopicKafkaTemplate,
+                kafkaRetryMetrics, Set.copyOf(retriedTopics()));
+    }
+
+    @Override
+    protected Consumer<DeadLetterPublishingRecovererFactory> configureDeadLetterPublishingContainerFactory() {
+        return factory -> factory.setDeadLetterPublisherCreator((templateResolver, destinationResolver) ->
+                new MeteredDeadLetterPublishingRecoverer(templateResolver, destinationResolver,
+                        applicationContext.getBean(KafkaRetryMetrics.class)));
+    }
+
+    @Override
+    protected RetryTopicComponentFactory createComponentFactory() {
+        return new RetryTopicComponentFactory() {
+            @Override
+            public RetryTopicNamesProviderFactory retryTopicNamesProviderFactory() {
+                return new DelayLabelledTopicNames();
+            }
+        };
+    }
+
+    /**
+     * Records that failed to deserialize, and replayed records, are forwarded as their original bytes;
+     * everything else is an event object written back as JSON.
+     */
+    private static DelegatingByTypeSerializer forwardingSerializer() {
+        Map<Class<?>, Serializer<?>> delegates = new LinkedHashMap<>();
+        delegates.put(byte[].class, new ByteArraySerializer());
+        delegates.put(String.class, new StringSerializer());
+        // Events keep their schema id and compact encoding on the retry and dead-letter topics
+        delegates.put(Object.class, new VersionedEventSerializer());
+        return new DelegatingByTypeSerializer(delegates, true);
+    }
+
+    static String delayLabel(long delayMs) {
+        if (delayMs % 60_000 == 0) {
+            return delayMs / 60_000 + "m";
+        }
+        if (delayMs % 1_000 == 0) {
+            return delayMs / 1_000 + "s";
+        }
+        return delayMs + "ms";
+    }
+
+    /**
+     * Names retry topics after their delay in readable units ({@code -retry-5s}, {@code -retry-1m}) instead of
+     * Spring Kafka's milliseconds or attempt index; main and DLT names keep the default suffixing.
+     */
+    static final class DelayLabelledTopicNames implements RetryTopicNamesProviderFactory {
+
+        private final SuffixingRetryTopicNamesProviderFactory defaults = new SuffixingRetryTopicNamesProviderFactory();
+
+        @Override
+        public RetryTopicNamesProvider createRetryTopicNamesProvider(DestinationTopic.Properties properties) {
+            if (!properties.isRetryTopic()) {
+                return defaults.createRetryTopicNamesProvider(properties);
+            }
+
+            Suffixer suffixer = new Suffixer(RETRY_SUFFIX + "-" + delayLabel(properties.delay()));
+            return new RetryTopicNamesProvider() {
+                @Override
+                public String getEndpointId(KafkaListenerEndpoint endpoint) {
+                    return suffixer.maybeAddTo(endpoint.getId());
+                }
+
+                @Override
+                public String getGroupId(KafkaListenerEndpoint endpoint) {
+                    return suffixer.maybeAddTo(endpoint.getGroupId());
+                }
+
+                @Override
+                public String getClientIdPrefix(KafkaListenerEndpoint endpoint) {
+                    return suffixer.maybeAddTo(endpoint.getClientIdPrefix());
+                }
+
+                @Override
+                public String getGroup(KafkaListenerEndpoint endpoint) {
+                    return suffixer.maybeAddTo(endpoint.getGroup());
+                }
+
+                @Override
+                public String getTopicName(String topic) {
+                    return suffixer.maybeAddTo(topic);
+                }
+            };
+        }
+    }
+
+    private static final class MeteredDeadLetterPublishingRecoverer extends DeadLetterPublishingRecoverer {
+
+        private final KafkaRetryMetrics metrics;
+
+        MeteredDeadLetterPublishingRecoverer(Function<ProducerRecord<?, ?>, KafkaOperations<?, ?>> templateResolver,
+                                             BiFunction<ConsumerRecord<?, ?>, Exception, TopicPartition> destinationResolver,
+                                             KafkaRetryMetrics metrics) {
+            super(templateResolver, destinationResolver);
+            this.metrics = metrics;
+        }
+
+        @Override
+        protected void publish(ProducerRecord<Object, Object> outRecord, KafkaOperations<Object, Object> kafkaTemplate,
+                               ConsumerRecord<?, ?> inRecord) {
+            super.publish(outRecord, kafkaTemplate, inRecord);
+            metrics.forwarded(inRecord.topic(), outRecord.topic());
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.devwonder.common.kafka.serde;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.cfg.MapperBuilder;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.dataformat.smile.SmileParser;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+
+import java.util.Locale;
+
+/**
+ * Body encodings an event can be written in. The code is stored in every record, so a consumer reads
+ * whichever format the producer chose.
+ */
+public enum EventFormat {
+
+    JSON((byte) 0, JsonMapper.builder()),
+    // Binary JSON: same data model and annotations, shorter field names and numbers
+    SMILE((byte) 1, SmileMapper.builder(SmileFactory.builder()
+            // The record header already identifies the format
+            .disable(SmileGenerator.Feature.WRITE_HEADER)
+            .disable(SmileParser.Feature.REQUIRE_HEADER)
+            .build()));
+
+    private final byte code;
+    private final ObjectMapper mapper;
+
+    EventFormat(byte code, MapperBuilder<?, ?> builder) {
+        this.code = code;
+        this.mapper = builder
+                .findAndAddModules()
+                // Readers on an older schema version skip fields added since
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build();
+    }
+
+    public byte code() {
+        return code;
+    }
+
+    public ObjectMapper mapper() {
+        return mapper;
+    }
+
+    public static EventFormat fromCode(byte code) {
+        for (EventFormat format : values()) {
+            if (format.code == code) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unknown event format code " + code);
+    }
+
+    public static EventFormat fromName(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,10 @@
+package com.devwonder.common.kafka.serde;
+
+import java.util.List;
+
+/**
+ * One version of an event's layout. The id is what goes on the wire; the fields are the bean properties
+ * the version carries, checked against the event class when the registry loads.
+ */
+public record EventSchema(int id, String subject, int version, Class<?> type, List<String> fields) {
+}
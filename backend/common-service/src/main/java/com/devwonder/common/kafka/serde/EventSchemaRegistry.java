@@ -0,0 +1,81 @@
+package com.devwonder.common.kafka.serde;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.BeanUtils;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * File-based stand-in for a schema registry: the schemas every service knows, read from a JSON list
+ * ({@code classpath:event-schemas/registry.json} by default). Producers stamp records with the id of the
+ * latest version of their event; consumers resolve the id back to the event class.
+ *
+ * A new version gets a new id and is appended, never edited in place, so records already on a topic keep
+ * resolving. Adding a field is safe in either direction because readers ignore unknown properties.
+ */
+public final class EventSchemaRegistry {
+
+    public static final String LOCATION_CONFIG = "nexhub.event.schema-registry";
+    public static final String DEFAULT_LOCATION = "classpath:event-schemas/registry.json";
+
+    private static final Map<String, EventSchemaRegistry> LOADED = new ConcurrentHashMap<>();
+
+    private final Map<Integer, EventSchema> byId = new HashMap<>();
+    private final Map<Class<?>, EventSchema> latestByType = new HashMap<>();
+
+    EventSchemaRegistry(List<EventSchema> schemas) {
+        Set<String> subjectVersions = new HashSet<>();
+        for (EventSchema schema : schemas) {
+            if (byId.put(schema.id(), schema) != null) {
+                throw new IllegalStateException("Duplicate event schema id " + schema.id());
+            }
+            if (!subjectVersions.add(schema.subject() + ":" + schema.version())) {
+                throw new IllegalStateException("Duplicate version " + schema.version() + " of " + schema.subject());
+            }
+            for (String field : schema.fields()) {
+                if (BeanUtils.getPropertyDescriptor(schema.type(), field) == null) {
+                    throw new IllegalStateException("Event schema " + schema.id() + " lists field '" + field
+                            + "' missing from " + schema.type().getName());
+                }
+            }
+            latestByType.merge(schema.type(), schema,
+                    (current, candidate) -> candidate.version() > current.version() ? candidate : current);
+        }
+    }
+
+    /**
+     * The registry at {@code location}, loaded once per location and shared by every serializer.
+     */
+    public static EventSchemaRegistry load(String location) {
+        return LOADED.computeIfAbsent(location, EventSchemaRegistry::read);
+    }
+
+    private static EventSchemaRegistry read(String location) {
+        Resource resource = new DefaultResourceLoader().getResource(location);
+        try (InputStream in = resource.getInputStream()) {
+            List<EventSchema> schemas = new ObjectMapper().readValue(in, new TypeReference<>() {
+            });
+            return new EventSchemaRegistry(schemas);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read event schemas from " + location, e);
+        }
+    }
+
+    public EventSchema latestFor(Class<?> type) {
+        return latestByType.get(type);
+    }
+
+    public EventSchema byId(int id) {
+        return byId.get(id);
+    }
+}
@@ -0,0 +1,85 @@
+package com.devwonder.common.kafka.serde;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+/**
+ * Reads records written by {@link VersionedEventSerializer}, decoding the body into the class the schema
+ * id resolves to. Records without the header are plain JSON from producers not yet switched over and go
+ * to a {@link JsonDeserializer} built from the same configs ({@code JsonDeserializer.VALUE_DEFAULT_TYPE}).
+ *
+ * A schema id this service does not know fails the record, which sends it through the retry topics to the
+ * dead-letter topic; deploy consumers before producers when registering a new version.
+ */
+public class VersionedEventDeserializer implements Deserializer<Object> {
+
+    private EventSchemaRegistry registry;
+    private final JsonDeserializer<Object> legacy = new JsonDeserializer<>();
+
+    public VersionedEventDeserializer() {
+    }
+
+    public VersionedEventDeserializer(EventSchemaRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        Object location = configs.get(EventSchemaRegistry.LOCATION_CONFIG);
+        registry = EventSchemaRegistry.load(location != null ? location.toString() : EventSchemaRegistry.DEFAULT_LOCATION);
+        legacy.configure(configs, isKey);
+    }
+
+    @Override
+    public Object deserialize(String topic, byte[] data) {
+        return deserialize(topic, null, data);
+    }
+
+    @Override
+    public Object deserialize(String topic, Headers headers, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        if (data.length == 0 || data[0] != VersionedEventSerializer.MAGIC) {
+            return headers != null ? legacy.deserialize(topic, headers, data) : legacy.deserialize(topic, data);
+        }
+        if (data.length < VersionedEventSerializer.HEADER_LENGTH) {
+            throw new SerializationException("Truncated event header on topic " + topic);
+        }
+        if (registry == null) {
+            registry = EventSchemaRegistry.load(EventSchemaRegistry.DEFAULT_LOCATION);
+        }
+
+        ByteBuffer header = ByteBuffer.wrap(data, 1, VersionedEventSerializer.HEADER_LENGTH - 1);
+        EventFormat format;
+        try {
+            format = EventFormat.fromCode(header.get());
+        } catch (IllegalArgumentException e) {
+            throw new SerializationException(e.getMessage() + " on topic " + topic);
+        }
+        int schemaId = header.getInt();
+        EventSchema schema = registry.byId(schemaId);
+        if (schema == null) {
+            throw new SerializationException("Unknown event schema id " + schemaId + " on topic " + topic);
+        }
+
+        try {
+            return format.mapper().readValue(data, VersionedEventSerializer.HEADER_LENGTH,
+                    data.length - VersionedEventSerializer.HEADER_LENGTH, schema.type());
+        } catch (IOException e) {
+            throw new SerializationException("Could not read " + schema.subject() + " v" + schema.version()
+                    + " from topic " + topic, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        legacy.close();
+    }
+}
@@ -0,0 +1,237 @@
+package com.devwonder.common.projection;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Maps a {@code fields=} request parameter onto a JPA Criteria tuple query, so only the requested
+ * columns are read from the database instead of loading the whole entity and discarding fields afterwards.
+ *
+ * Each response field is declared once with the entity attribute path it is read from (dotted paths
+ * join to-one associations) and the DTO setter it is written to. Unknown field names are ignored, and a
+ * blank {@code fields} selects every declared field. The resolved selection is cached per distinct
+ * {@code fields} value.
+ *
+ * @param <E> entity type
+ * @param <D> response DTO type
+ */
+public final class FieldProjection<E, D> {
+
+    // Bounds the cache against arbitrary client-supplied field lists; misses beyond it are just resolved again
+    private static final int MAX_CACHED_SELECTIONS = 256;
+
+    private final Class<E> entityClass;
+    private final Supplier<D> dtoFactory;
+    private final Map<String, FieldMapping<D>> fields;
+    private final FieldSelection<D> allFields;
+    private final Map<String, FieldSelection<D>> selectionCache = new ConcurrentHashMap<>();
+
+    private FieldProjection(Class<E> entityClass, Supplier<D> dtoFactory, Map<String, FieldMapping<D>> fields) {
+        this.entityClass = entityClass;
+        this.dtoFactory = dtoFactory;
+        this.fields = Collections.unmodifiableMap(fields);
+        this.allFields = new FieldSelection<>(List.copyOf(fields.values()));
+    }
+
+    public static <E, D> Builder<E, D> builder(Class<E> entityClass, Supplier<D> dtoFactory) {
+        return new Builder<>(entityClass, dtoFactory);
+    }
+
+    /**
+     * Fetches the entities matching {@code specification}, reading only the selected fields.
+     * Sorting, offset and page size of {@code pageable} are applied in the query.
+     */
+    public List<D> findAll(EntityManager entityManager, String requestedFields, Specification<E> specification,
+                           Pageable pageable) {
+        FieldSelection<D> selection = select(requestedFields);
+        List<Tuple> rows = query(entityManager, selection, specification, pageable, null);
+
+        List<D> results = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            results.add(toDto(selection, row));
+        }
+        return results;
+    }
+
+    public Optional<D> findOne(EntityManager entityManager, String requestedFields, Specification<E> specification) {
+        return findAll(entityManager, requestedFields, specification, Pageable.ofSize(1)).stream().findFirst();
+    }
+
+    /**
+     * Fetches the entities whose {@code idAttribute} is in {@code ids}, returned in the order of {@code ids}.
+     * Rows excluded by {@code specification} are skipped.
+     */
+    public List<D> findAllInOrder(EntityManager entityManager, String requestedFields, String idAttribute,
+                                  List<?> ids, Specification<E> specification) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        FieldSelection<D> selection = select(requestedFields);
+        Specification<E> inIds = (root, query, cb) -> root.get(idAttribute).in(ids);
+        List<Tuple> rows = query(entityManager, selection, inIds.and(specification), Pageable.unpaged(), idAttribute);
+
+        // The id is selected as an extra trailing column so rows can be put back in order
+        Map<Object, D> byId = new HashMap<>();
+        int idColumn = selection.mappings().isEmpty() ? 1 : selection.mappings().size();
+        for (Tuple row : rows) {
+            byId.put(row.get(idColumn), toDto(selection, row));
+        }
+
+        List<D> results = new ArrayList<>(byId.size());
+        for (Object id : ids) {
+            D dto = byId.get(id);
+            if (dto != null) {
+                results.add(dto);
+            }
+        }
+        return results;
+    }
+
+    private List<Tuple> query(EntityManager entityManager, FieldSelection<D> selection, Specification<E> specification,
+                              Pageable pageable, String extraAttribute) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<E> root = query.from(entityClass);
+
+        List<Selection<?>> columns = new ArrayList<>(selection.mappings().size() + 1);
+        for (FieldMapping<D> mapping : selection.mappings()) {
+            columns.add(resolvePath(root, mapping.attributePath()));
+        }
+        if (columns.isEmpty()) {
+            // A field list with no known names still has to return one (empty) object per row
+            columns.add(cb.literal(1));
+        }
+        if (extraAttribute != null) {
+            columns.add(resolvePath(root, extraAttribute));
+        }
+        query.multiselect(columns);
+
+        if (specification != null) {
+            Predicate predicate = specification.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        }
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        return typedQuery.getResultList();
+    }
+
+    private D toDto(FieldSelection<D> selection, Tuple row) {
+        D dto = dtoFactory.get();
+        List<FieldMapping<D>> mappings = selection.mappings();
+        for (int i = 0; i < mappings.size(); i++) {
+            mappings.get(i).setter().accept(dto, row.get(i));
+        }
+        return dto;
+    }
+
+    /**
+     * Resolves a comma-separated field list against the declared fields, in declaration order.
+     */
+    FieldSelection<D> select(String requestedFields) {
+        if (requestedFields == null || requestedFields.isBlank()) {
+            return allFields;
+        }
+
+        String key = requestedFields.trim();
+        FieldSelection<D> cached = selectionCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        FieldSelection<D> selection = resolve(key);
+        if (selectionCache.size() < MAX_CACHED_SELECTIONS) {
+            selectionCache.putIfAbsent(key, selection);
+        }
+        return selection;
+    }
+
+    private FieldSelection<D> resolve(String requestedFields) {
+        Set<String> requested = new LinkedHashSet<>();
+        Arrays.stream(requestedFields.split(",")).map(String::trim).forEach(requested::add);
+
+        List<FieldMapping<D>> mappings = new ArrayList<>();
+        for (Map.Entry<String, FieldMapping<D>> entry : fields.entrySet()) {
+            if (requested.contains(entry.getKey())) {
+                mappings.add(entry.getValue());
+            }
+        }
+        return new FieldSelection<>(List.copyOf(mappings));
+    }
+
+    private static Path<?> resolvePath(Root<?> root, String attributePath) {
+        Path<?> path = root;
+        for (String attribute : attributePath.split("\\.")) {
+            path = path.get(attribute);
+        }
+        return path;
+    }
+
+    record FieldMapping<D>(String name, String attributePath, BiConsumer<D, Object> setter) {
+    }
+
+    record FieldSelection<D>(List<FieldMapping<D>> mappings) {
+    }
+
+    public static final class Builder<E, D> {
+
+        private final Class<E> entityClass;
+        private final Supplier<D> dtoFactory;
+        private final Map<String, FieldMapping<D>> fields = new LinkedHashMap<>();
+
+        private Builder(Class<E> entityClass, Supplier<D> dtoFactory) {
+            this.entityClass = entityClass;
+            this.dtoFactory = dtoFactory;
+        }
+
+        /**
+         * Declares a field whose response name matches the entity attribute.
+         */
+        public <T> Builder<E, D> field(String name, BiConsumer<D, T> setter) {
+            return field(name, name, setter);
+        }
+
+        @SuppressWarnings("unchecked")
+        public <T> Builder<E, D> field(String name, String attributePath, BiConsumer<D, T> setter) {
+            fields.put(name, new FieldMapping<>(name, attributePath, (BiConsumer<D, Object>) setter));
+            return this;
+        }
+
+        public FieldProjection<E, D> build() {
+            return new FieldProjection<>(entityClass, dtoFactory, new LinkedHashMap<>(fields));
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.devwonder.common.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates human-readable business codes (order codes, warranty codes...) that are unique
+ * per node without a database round-trip.
+ *
+ * Every code is backed by a 63-bit id laid out as {@code timestamp(41) | node(10) | sequence(12)}.
+ * The timestamp/sequence pair is advanced with a single CAS, so ids are strictly monotonic on a
+ * node even when the wall clock stalls or moves backwards. Codes are only unique across replicas
+ * while their node ids are: set {@code nexhub.code-generator.node-id} to a distinct value (0-1023) per
+ * replica, or leave it unset to lease one from Redis ({@link NodeIdLease}). Startup fails when neither
+ * is available. Enabled with {@code nexhub.code-generator.enabled=true} in the services issuing codes.
+ */
+@Service
+@ConditionalOnProperty(prefix = "nexhub.code-generator", name = "enabled", havingValue = "true")
+public class BusinessCodeGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(BusinessCodeGenerator.class);
+
+    static final long EPOCH = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    // Codes are rendered in UTC so the readable part never repeats (no DST folds)
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd").withZone(ZoneOffset.UTC);
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HHmmss").withZone(ZoneOffset.UTC);
+
+    // Fixed widths of the base-36 suffixes, see nextCode(...)
+    private static final int SECOND_SUFFIX_LENGTH = 7;
+    private static final int DAY_SUFFIX_LENGTH = 10;
+
+    private final Clock clock;
+    private final long nodeId;
+    // Set instead of a fixed nodeId when the id is leased
+    private final NodeIdLease lease;
+
+    // (millis since EPOCH << SEQUENCE_BITS) | sequence of the last issued id
+    private final AtomicLong state = new AtomicLong();
+
+    @Autowired
+    public BusinessCodeGenerator(@Value("${nexhub.code-generator.node-id:-1}") long nodeId,
+                                 @Value("${nexhub.code-generator.lease-ttl:PT30S}") Duration leaseTtl,
+                                 ObjectProvider<StringRedisTemplate> redisTemplate) {
+        this(Clock.systemUTC(), nodeId, nodeId < 0 ? leaseNodeId(redisTemplate.getIfAvailable(), leaseTtl) : null);
+    }
+
+    BusinessCodeGenerator(Clock clock, long nodeId) {
+        this(clock, nodeId, null);
+    }
+
+    BusinessCodeGenerator(Clock clock, long nodeId, NodeIdLease lease) {
+        if (lease == null && (nodeId < 0 || nodeId > MAX_NODE_ID)) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID + ", got: " + nodeId);
+        }
+        this.clock = clock;
+        this.nodeId = nodeId;
+        this.lease = lease;
+        if (lease == null) {
+            log.info("Business code generator initialized with node id: {}", nodeId);
+        }
+    }
+
+    private static NodeIdLease leaseNodeId(StringRedisTemplate redisTemplate, Duration ttl) {
+        if (redisTemplate == null) {
+            throw new IllegalStateException("nexhub.code-generator.node-id is not set and Redis is not available "
+                    + "to lease one; set a node id (0-" + MAX_NODE_ID + ") unique to this replica");
+        }
+        return NodeIdLease.acquire(redisTemplate, Clock.systemUTC(), (int) MAX_NODE_ID + 1, ttl, true);
+    }
+
+    @PreDestroy
+    public void releaseNodeId() {
+        if (lease != null) {
+            lease.close();
+        }
+    }
+
+    /**
+     * Next monotonic id of this node.
+     */
+    public long nextId() {
+        long current;
+        long next;
+        do {
+            current = state.get();
+            long now = (clock.millis() - EPOCH) << SEQUENCE_BITS;
+            // A full sequence simply carries into the next millisecond
+            next = Math.max(current + 1, now);
+        } while (!state.compareAndSet(current, next));
+
+        long timestamp = next >>> SEQUENCE_BITS;
+        long sequence = next & SEQUENCE_MASK;
+        long node = lease != null ? lease.nodeId() : nodeId;
+        return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | (node << SEQUENCE_BITS) | sequence;
+    }
+
+    /**
+     * Format: PREFIX-yyyyMMdd-HHmmss-XXXXXXX (e.g. ORD-20250115-093012-0A3F9K2).
+     * The suffix encodes millisecond, node and sequence, so codes never collide within a second.
+     */
+    public String nextCode(String prefix) {
+        long id = nextId();
+        long epochMillis = timestampOf(id);
+        long suffix = ((epochMillis % 1000) << (NODE_BITS + SEQUENCE_BITS)) | lowBits(id);
+
+        Instant instant = Instant.ofEpochMilli(epochMillis);
+        return prefix + "-" + DATE_FORMAT.format(instant) + "-" + TIME_FORMAT.format(instant)
+                + "-" + toBase36(suffix, SECOND_SUFFIX_LENGTH);
+    }
+
+    /**
+     * Format: PREFIX-yyyyMMdd-QUALIFIER-XXXXXXXXXX (e.g. WR-20250115-SN0001-00K3F9A2QZ).
+     * The suffix encodes millisecond of day, node and sequence, so codes never collide within a day.
+     */
+    public String nextCode(String prefix, String qualifier) {
+        long id = nextId();
+        long epochMillis = timestampOf(id);
+        long suffix = (Math.floorMod(epochMillis, MILLIS_PER_DAY) << (NODE_BITS + SEQUENCE_BITS)) | lowBits(id);
+
+        return prefix + "-" + DATE_FORMAT.format(Instant.ofEpochMilli(epochMillis)) + "-" + qualifier
+                + "-" + toBase36(suffix, DAY_SUFFIX_LENGTH);
+    }
+
+    private static long timestampOf(long id) {
+        return (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH;
+    }
+
+    private static long lowBits(long id) {
+        return id & ((1L << (NODE_BITS + SEQUENCE_BITS)) - 1);
+    }
+
+    private static String toBase36(long value, int width) {
+        String encoded = Long.toString(value, 36).toUpperCase();
+        return "0".repeat(Math.max(0, width - encoded.length())) + encoded;
+    }
+}
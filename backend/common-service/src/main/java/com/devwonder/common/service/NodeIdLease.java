@@ -0,0 +1,135 @@
+package com.devwonder.common.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A node id of {@link BusinessCodeGenerator} leased from Redis, for replicas without an explicit one.
+ *
+ * Candidates are taken round-robin from a shared counter and claimed with SET NX plus a TTL, so no two
+ * live replicas hold the same id. The lease is renewed every third of the TTL. It is only trusted until
+ * the TTL has passed since the last successful renewal: after that another replica may hold the id, so
+ * {@link #nodeId()} refuses until a renewal or a fresh lease succeeds.
+ */
+final class NodeIdLease implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(NodeIdLease.class);
+
+    static final String KEY_PREFIX = "nexhub:code-generator:node:";
+    static final String COUNTER_KEY = "nexhub:code-generator:next-node";
+
+    // Extends the lease only while this replica still holds it
+    private static final RedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('PEXPIRE', KEYS[1], ARGV[2]) end
+            return 0
+            """, Long.class);
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end
+            return 0
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final Clock clock;
+    private final int nodes;
+    private final Duration ttl;
+    private final String token = UUID.randomUUID().toString();
+    private final ScheduledExecutorService renewer;
+
+    private volatile long nodeId = -1;
+    private volatile long validUntil;
+
+    private NodeIdLease(StringRedisTemplate redisTemplate, Clock clock, int nodes, Duration ttl, boolean renew) {
+        this.redisTemplate = redisTemplate;
+        this.clock = clock;
+        this.nodes = nodes;
+        this.ttl = ttl;
+        this.renewer = renew ? Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "code-generator-node-lease");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+    }
+
+    /**
+     * Leases a free node id, or fails when all {@code nodes} ids are held. Without {@code renewInBackground}
+     * the lease is only renewed through {@link #renew()}.
+     */
+    static NodeIdLease acquire(StringRedisTemplate redisTemplate, Clock clock, int nodes, Duration ttl,
+                               boolean renewInBackground) {
+        NodeIdLease lease = new NodeIdLease(redisTemplate, clock, nodes, ttl, renewInBackground);
+        if (!lease.claim()) {
+            throw new IllegalStateException("All " + nodes + " code generator node ids are leased");
+        }
+        if (renewInBackground) {
+            long period = Math.max(1, ttl.toMillis() / 3);
+            lease.renewer.scheduleWithFixedDelay(lease::renew, period, period, TimeUnit.MILLISECONDS);
+        }
+        return lease;
+    }
+
+    long nodeId() {
+        if (clock.millis() >= validUntil) {
+            throw new IllegalStateException("Code generator node id lease has lapsed; refusing to generate codes");
+        }
+        return nodeId;
+    }
+
+    void renew() {
+        try {
+            long start = clock.millis();
+            Long renewed = redisTemplate.execute(RENEW_SCRIPT, Collections.singletonList(KEY_PREFIX + nodeId),
+                    token, Long.toString(ttl.toMillis()));
+            if (renewed != null && renewed == 1) {
+                validUntil = start + ttl.toMillis();
+                return;
+            }
+            // Expired and possibly taken by another replica: stop using it and lease another
+            log.warn("Lost lease on code generator node id {}, leasing a new one", nodeId);
+            validUntil = 0;
+            if (!claim()) {
+                log.error("No free code generator node id; code generation is disabled until one frees up");
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to renew code generator node id {}: {}", nodeId, e.getMessage());
+        }
+    }
+
+    private boolean claim() {
+        for (int attempt = 0; attempt < nodes; attempt++) {
+            Long next = redisTemplate.opsForValue().increment(COUNTER_KEY);
+            long candidate = Math.floorMod(next != null ? next : attempt, nodes);
+            long start = clock.millis();
+            if (Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(KEY_PREFIX + candidate, token, ttl))) {
+                nodeId = candidate;
+                validUntil = start + ttl.toMillis();
+                log.info("Leased code generator node id {} for {}", candidate, ttl);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void close() {
+        if (renewer != null) {
+            renewer.shutdownNow();
+        }
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, Collections.singletonList(KEY_PREFIX + nodeId), token);
+        } catch (RuntimeException e) {
+            log.warn("Failed to release code generator node id {}: {}", nodeId, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.devwonder.common.tx;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class AfterCommit {
+
+    private AfterCommit() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Runs {@code action} once the current transaction commits, or right away outside a transaction.
+     * Nothing runs when the transaction rolls back.
+     */
+    public static void run(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
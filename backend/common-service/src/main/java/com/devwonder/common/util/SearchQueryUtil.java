@@ -0,0 +1,51 @@
+package com.devwonder.common.util;
+
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Turns free-text search box input into safe arguments for the Postgres full-text and trigram
+ * search queries. Accents are stripped on the database side with {@code f_unaccent}, so the
+ * values built here only need to be lower-cased and free of query syntax.
+ */
+public class SearchQueryUtil {
+
+    // Letters (including Vietnamese) and digits; everything else separates terms
+    private static final Pattern TERM = Pattern.compile("[\\p{L}\\p{N}]+");
+
+    private SearchQueryUtil() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Builds a {@code to_tsquery} expression matching every term as a prefix, so typeahead input
+     * such as {@code "tai ng"} matches "tai nghe". Returns an empty string when there is no term.
+     */
+    public static String toPrefixTsQuery(String query) {
+        if (query == null) {
+            return "";
+        }
+        Matcher matcher = TERM.matcher(query.toLowerCase(Locale.ROOT));
+        StringBuilder tsQuery = new StringBuilder();
+        while (matcher.find()) {
+            if (!tsQuery.isEmpty()) {
+                tsQuery.append(" & ");
+            }
+            tsQuery.append(matcher.group()).append(":*");
+        }
+        return tsQuery.toString();
+    }
+
+    /**
+     * Builds a case-insensitive {@code LIKE} pattern matching {@code query} anywhere,
+     * with LIKE wildcards in the input escaped.
+     */
+    public static String toContainsPattern(String query) {
+        String escaped = query.trim().toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+}
@@ -0,0 +1,51 @@
+package com.devwonder.common.filter;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CachedBodyHttpServletRequestTest {
+
+    @Test
+    void readListenerGetsTheWholeBodyAtOnce() throws IOException {
+        MockHttpServletRequest original = new MockHttpServletRequest("POST", "/order/orders");
+        original.setContent("{\"idDealer\":1}".getBytes(StandardCharsets.UTF_8));
+        ServletInputStream input = new CachedBodyHttpServletRequest(original).getInputStream();
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        boolean[] allRead = new boolean[1];
+
+        input.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                byte[] buffer = new byte[4];
+                while (input.isReady() && !input.isFinished()) {
+                    int count = input.read(buffer);
+                    if (count > 0) {
+                        read.write(buffer, 0, count);
+                    }
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                allRead[0] = true;
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                throw new AssertionError(t);
+            }
+        });
+
+        assertTrue(allRead[0]);
+        assertEquals("{\"idDealer\":1}", read.toString(StandardCharsets.UTF_8));
+    }
+}
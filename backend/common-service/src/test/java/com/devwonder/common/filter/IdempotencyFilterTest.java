@@ -0,0 +1,180 @@
+package com.devwonder.common.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IdempotencyFilterTest {
+
+    private final Map<String, String> store = new ConcurrentHashMap<>();
+    private final AtomicInteger executions = new AtomicInteger();
+    private StringRedisTemplate redisTemplate;
+    private ValueOperations<String, String> valueOperations;
+    private IdempotencyFilter filter;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(StringRedisTemplate.class);
+        valueOperations = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get(anyString())).thenAnswer(inv -> store.get(inv.<String>getArgument(0)));
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class)))
+                .thenAnswer(inv -> store.putIfAbsent(inv.getArgument(0), inv.getArgument(1)) == null);
+        when(redisTemplate.hasKey(anyString())).thenAnswer(inv -> store.containsKey(inv.<String>getArgument(0)));
+        doAnswer(inv -> store.put(inv.getArgument(0), inv.getArgument(1)))
+                .when(valueOperations).set(anyString(), anyString(), any(Duration.class));
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any()))
+                .thenAnswer(inv -> store.remove(inv.<List<String>>getArgument(1).get(0)) != null ? 1L : 0L);
+
+        filter = new IdempotencyFilter(redisTemplate, new ObjectMapper());
+        ReflectionTestUtils.setField(filter, "applicationName", "order-service");
+        ReflectionTestUtils.setField(filter, "paths", List.of("/order/orders"));
+        ReflectionTestUtils.setField(filter, "ttl", Duration.ofHours(1));
+        ReflectionTestUtils.setField(filter, "lockTimeout", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(filter, "lockWait", Duration.ofMillis(300));
+    }
+
+    @Test
+    void replaysStoredResponseForRetry() throws Exception {
+        MockHttpServletResponse first = execute(request("key-1", "{\"idDealer\":1}"));
+        MockHttpServletResponse retry = execute(request("key-1", "{\"idDealer\":1}"));
+
+        assertEquals(1, executions.get());
+        assertEquals(201, retry.getStatus());
+        assertEquals(first.getContentAsString(), retry.getContentAsString());
+        assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+    }
+
+    @Test
+    void rejectsKeyReusedWithDifferentPayload() throws Exception {
+        execute(request("key-2", "{\"idDealer\":1}"));
+        MockHttpServletResponse reused = execute(request("key-2", "{\"idDealer\":2}"));
+
+        assertEquals(1, executions.get());
+        assertEquals(422, reused.getStatus());
+    }
+
+    @Test
+    void returnsConflictWhileDuplicateIsInFlight() throws Exception {
+        store.put("idempotency:lock:order-service:anonymous:key-3", "other-owner");
+
+        MockHttpServletResponse duplicate = execute(request("key-3", "{\"idDealer\":1}"));
+
+        assertEquals(0, executions.get());
+        assertEquals(409, duplicate.getStatus());
+    }
+
+    @Test
+    void replaysWhenOwnerFinishesBetweenReadAndLock() throws Exception {
+        String recordKey = "idempotency:record:order-service:anonymous:key-5";
+        AtomicInteger reads = new AtomicInteger();
+        when(valueOperations.get(anyString())).thenAnswer(inv -> {
+            String key = inv.getArgument(0);
+            if (key.equals(recordKey) && reads.incrementAndGet() == 1) {
+                // The duplicate read nothing; the owner then runs to completion before it tries the lock
+                execute(request("key-5", "{\"idDealer\":1}"));
+                return null;
+            }
+            return store.get(key);
+        });
+
+        MockHttpServletResponse duplicate = execute(request("key-5", "{\"idDealer\":1}"));
+
+        assertEquals(1, executions.get());
+        assertEquals(201, duplicate.getStatus());
+        assertEquals("true", duplicate.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertNull(store.get("idempotency:lock:order-service:anonymous:key-5"));
+    }
+
+    @Test
+    void doesNotStoreServerErrors() throws Exception {
+        MockHttpServletRequest request = request("key-4", "{}");
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            executions.incrementAndGet();
+            ((HttpServletResponse) res).setStatus(500);
+        });
+
+        assertNull(store.get("idempotency:record:order-service:anonymous:key-4"));
+        assertNull(store.get("idempotency:lock:order-service:anonymous:key-4"));
+    }
+
+    @Test
+    void renewsTheLockWhileTheRequestRuns() throws Exception {
+        ReflectionTestUtils.setField(filter, "lockTimeout", Duration.ofMillis(300));
+
+        filter.doFilter(request("key-6", "{}"), new MockHttpServletResponse(), (req, res) -> {
+            executions.incrementAndGet();
+            try {
+                Thread.sleep(450);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            ((HttpServletResponse) res).setStatus(201);
+        });
+
+        verify(redisTemplate, atLeast(2)).execute(any(RedisScript.class),
+                eq(List.of("idempotency:lock:order-service:anonymous:key-6")), anyString(), eq("300"));
+        assertNull(store.get("idempotency:lock:order-service:anonymous:key-6"));
+    }
+
+    @Test
+    void ignoresRequestsWithoutKey() throws Exception {
+        MockHttpServletRequest request = request(null, "{}");
+        execute(request);
+        execute(request("", "{}"));
+
+        assertEquals(1, executions.get());
+        assertEquals(0, store.size());
+    }
+
+    private MockHttpServletResponse execute(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (req, res) -> {
+            int execution = executions.incrementAndGet();
+            req.getInputStream().readAllBytes();
+            res.setContentType("application/json");
+            ((HttpServletResponse) res).setStatus(201);
+            res.getOutputStream().write(("{\"execution\":" + execution + "}").getBytes(StandardCharsets.UTF_8));
+        };
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String key, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/order/orders");
+        if (key != null) {
+            request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key);
+        }
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
@@ -0,0 +1,118 @@
+package com.devwonder.common.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.OptionalLong;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrefixIndexTest {
+
+    private PrefixIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new PrefixIndex("orders", 10_000, key -> key.toUpperCase(Locale.ROOT));
+        index.rebuild(consumer -> {
+            consumer.accept("ORD-20250102-0003", 3);
+            consumer.accept("ORD-20250101-0001", 1);
+            consumer.accept("ORD-20250101-0002", 2);
+            consumer.accept("INV-20250101-0001", 9);
+        });
+    }
+
+    @Test
+    void findsExactKeysAfterUnsortedLoad() {
+        assertTrue(index.isReady());
+        assertEquals(OptionalLong.of(2), index.find("ord-20250101-0002"));
+        assertEquals(OptionalLong.empty(), index.find("ORD-20250101"));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void returnsPrefixMatchesInKeyOrder() {
+        assertEquals(List.of(1L, 2L, 3L), index.findByPrefix("ord-", 10));
+        assertEquals(List.of(1L, 2L), index.findByPrefix("ORD-20250101", 10));
+        assertEquals(List.of(1L), index.findByPrefix("ORD-", 1));
+        assertEquals(List.of(), index.findByPrefix("ORX", 10));
+    }
+
+    @Test
+    void mergesPendingWritesIntoPrefixResults() {
+        index.put("ORD-20250101-0000", 7);
+        index.put("ORD-20250101-0002", 20);
+        index.remove("ORD-20250101-0001");
+
+        assertEquals(List.of(7L, 20L, 3L), index.findByPrefix("ORD-", 10));
+        assertEquals(OptionalLong.empty(), index.find("ORD-20250101-0001"));
+    }
+
+    @Test
+    void compactsLargeDeltaWithoutLosingEntries() {
+        for (int i = 0; i < 2000; i++) {
+            index.put(String.format("SN%05d", i), i);
+        }
+        index.remove("SN00010");
+
+        assertEquals(OptionalLong.of(1999), index.find("SN01999"));
+        assertEquals(List.of(11L, 12L), index.findByPrefix("SN0001", 2));
+        assertEquals(2003, index.size());
+    }
+
+    @Test
+    void compactionDropsRemovedBaseEntries() {
+        index.remove("ORD-20250101-0001");
+        index.remove("INV-20250101-0001");
+        for (int i = 0; i < 2000; i++) {
+            index.put(String.format("SN%05d", i), i);
+        }
+
+        assertEquals(OptionalLong.empty(), index.find("ORD-20250101-0001"));
+        assertEquals(List.of(2L, 3L), index.findByPrefix("ORD-", 10));
+        assertEquals(2002, index.size());
+    }
+
+    @Test
+    void duplicateKeysKeepTheLastValueAdded() {
+        index.rebuild(consumer -> {
+            consumer.accept("B", 1);
+            consumer.accept("A", 2);
+            consumer.accept("B", 3);
+            consumer.accept("A", 4);
+        });
+
+        assertEquals(OptionalLong.of(4), index.find("A"));
+        assertEquals(OptionalLong.of(3), index.find("B"));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void staysUnreadyWhenSourceExceedsBound() {
+        PrefixIndex bounded = new PrefixIndex("serials", 2, UnaryOperator.identity());
+        bounded.rebuild(consumer -> {
+            consumer.accept("A", 1);
+            consumer.accept("B", 2);
+            consumer.accept("C", 3);
+        });
+
+        assertFalse(bounded.isReady());
+        bounded.put("D", 4);
+        assertEquals(OptionalLong.empty(), bounded.find("D"));
+    }
+
+    @Test
+    void keepsWritesMadeDuringRebuild() {
+        index.rebuild(consumer -> {
+            consumer.accept("ORD-1", 1);
+            index.put("ORD-2", 2);
+        });
+
+        assertEquals(List.of(1L, 2L), index.findByPrefix("ORD-", 10));
+    }
+}
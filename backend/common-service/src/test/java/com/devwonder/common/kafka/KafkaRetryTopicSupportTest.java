@@ -0,0 +1,65 @@
+package com.devwonder.common.kafka;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.retrytopic.DestinationTopic;
+import org.springframework.kafka.retrytopic.RetryTopicConfiguration;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KafkaRetryTopicSupportTest {
+
+    private final KafkaRetryTopicSupport support = new KafkaRetryTopicSupport() {
+        @Override
+        protected List<String> retriedTopics() {
+            return List.of("orders");
+        }
+    };
+
+    private final KafkaTemplate<Object, Object> template = new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(Map.of()));
+
+    @Test
+    void namesRetryTopicsAfterTheirDelays() {
+        RetryTopicConfiguration configuration = support.retryTopicConfiguration(template,
+                Duration.ofSeconds(5), Duration.ofMinutes(1), 3, (short) 3);
+
+        assertTrue(configuration.hasConfigurationForTopics(new String[]{"orders"}));
+        assertEquals(List.of("orders", "orders-retry-5s", "orders-retry-1m", "orders-dlt"), topicNames(configuration));
+    }
+
+    @Test
+    void waitsExactlyTheSecondDelayWhenItIsNotAMultipleOfTheFirst() {
+        RetryTopicConfiguration configuration = support.retryTopicConfiguration(template,
+                Duration.ofSeconds(7), Duration.ofSeconds(90), 3, (short) 3);
+
+        assertEquals(List.of("orders", "orders-retry-7s", "orders-retry-90s", "orders-dlt"), topicNames(configuration));
+    }
+
+    @Test
+    void rejectsASecondDelayNoLongerThanTheFirst() {
+        assertThrows(IllegalStateException.class, () -> support.retryTopicConfiguration(template,
+                Duration.ofMinutes(1), Duration.ofMinutes(1), 3, (short) 3));
+    }
+
+    @Test
+    void labelsDelaysInTheLargestWholeUnit() {
+        assertEquals("5s", KafkaRetryTopicSupport.delayLabel(5_000));
+        assertEquals("2m", KafkaRetryTopicSupport.delayLabel(120_000));
+        assertEquals("1500ms", KafkaRetryTopicSupport.delayLabel(1_500));
+    }
+
+    private static List<String> topicNames(RetryTopicConfiguration configuration) {
+        KafkaRetryTopicSupport.DelayLabelledTopicNames names = new KafkaRetryTopicSupport.DelayLabelledTopicNames();
+        return configuration.getDestinationTopicProperties().stream()
+                .map((DestinationTopic.Properties properties) ->
+                        names.createRetryTopicNamesProvider(properties).getTopicName("orders"))
+                .toList();
+    }
+}
@@ -0,0 +1,154 @@
+package com.devwonder.common.kafka;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KafkaRetryTopologyIntegrationTest {
+
+    private static EmbeddedKafkaBroker broker;
+
+    @BeforeAll
+    static void startBroker() {
+        broker = new EmbeddedKafkaKraftBroker(1, 1, "orders");
+        broker.afterPropertiesSet();
+    }
+
+    @AfterAll
+    static void stopBroker() {
+        broker.destroy();
+    }
+
+    @Test
+    void parksARecordOnTheDltAfterBothRetriesAndReplaysIt() throws Exception {
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+            context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("test", Map.of(
+                    "spring.kafka.bootstrap-servers", broker.getBrokersAsString(),
+                    "spring.application.name", "test-service",
+                    "nexhub.kafka.retry.first-delay", "PT0.2S",
+                    "nexhub.kafka.retry.second-delay", "PT0.5S",
+                    "nexhub.kafka.retry.partitions", "1",
+                    "nexhub.kafka.retry.replicas", "1")));
+            // Boot's conversions (String to Duration) as in the services
+            context.getBeanFactory().setConversionService(ApplicationConversionService.getSharedInstance());
+            context.register(TestConfig.class);
+            context.refresh();
+
+            FailingListener listener = context.getBean(FailingListener.class);
+            @SuppressWarnings("unchecked")
+            KafkaTemplate<Object, Object> template = context.getBean("retryTopicKafkaTemplate", KafkaTemplate.class);
+            template.send("orders", "order-1", "payload").get();
+
+            awaitTrue(() -> listener.topics.size() == 3);
+            assertEquals(List.of("orders", "orders-retry-200ms", "orders-retry-500ms"), listener.topics);
+
+            MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+            awaitTrue(() -> meterRegistry.find("nexhub.kafka.dlt.records").counter() != null);
+            assertEquals(1.0, meterRegistry.get("nexhub.kafka.dlt.records").tag("to", "orders-dlt").counter().count());
+            assertEquals(2.0, meterRegistry.get("nexhub.kafka.retry.records").counters().stream()
+                    .mapToDouble(counter -> counter.count()).sum());
+
+            DeadLetterReplayer replayer = context.getBean(DeadLetterReplayer.class);
+            assertEquals(1, replayer.replay("orders", 10));
+            awaitTrue(() -> listener.topics.size() >= 4);
+            assertEquals("orders", listener.topics.get(3));
+            assertEquals("payload", listener.payloads.get(3));
+
+            // Already replayed records are not picked up again
+            assertEquals(0, replayer.replay("orders", 10));
+        }
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 60_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "condition not met within 60s");
+            Thread.sleep(100);
+        }
+    }
+
+    @Configuration
+    @EnableKafka
+    static class TestConfig extends KafkaRetryTopicSupport {
+
+        @Override
+        protected List<String> retriedTopics() {
+            return List.of("orders");
+        }
+
+        @Bean
+        public MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        public TaskScheduler taskScheduler() {
+            return new ThreadPoolTaskScheduler();
+        }
+
+        @Bean
+        public KafkaAdmin kafkaAdmin() {
+            return new KafkaAdmin(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString()));
+        }
+
+        @Bean
+        public ConcurrentKafkaListenerContainerFactory<String, String> kafkaListenerContainerFactory() {
+            ConcurrentKafkaListenerContainerFactory<String, String> factory = new ConcurrentKafkaListenerContainerFactory<>();
+            factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(Map.of(
+                    ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString(),
+                    ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest",
+                    ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class,
+                    ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class)));
+            return factory;
+        }
+
+        @Bean
+        public FailingListener failingListener() {
+            return new FailingListener();
+        }
+    }
+
+    static class FailingListener {
+
+        final List<String> topics = new CopyOnWriteArrayList<>();
+        final List<String> payloads = new CopyOnWriteArrayList<>();
+
+        @KafkaListener(topics = "orders", groupId = "test-group")
+        public void consume(ConsumerRecord<String, String> record) {
+            topics.add(record.topic());
+            payloads.add(record.value());
+            if (topics.size() <= 3) {
+                throw new IllegalStateException("downstream unavailable");
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.devwonder.common.kafka.serde;
+
+import com.devwonder.common.event.OrderNotificationEvent;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialize and deserialize throughput of an order notification per encoding, against the plain
+ * JsonSerializer the services used before. Not part of the test run; start it through {@link #main}
+ * from the test classpath. Payload sizes are printed at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventSerdeBenchmark {
+
+    @Param({"legacy-json", "json", "smile"})
+    public String encoding;
+
+    private Serializer<Object> serializer;
+    private Deserializer<Object> deserializer;
+    private OrderNotificationEvent event;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() {
+        event = OrderNotificationEvent.builder()
+                .orderId(42L)
+                .orderCode("ORD-20250101-000042")
+                .dealerId(7L)
+                .dealerName("Tan Phat Electronics")
+                .dealerEmail("sales@tanphat.vn")
+                .dealerPhone("0901234567")
+                .dealerCity("Ho Chi Minh")
+                .totalAmount(new BigDecimal("1250000.50"))
+                .paymentStatus("UNPAID")
+                .orderTime(LocalDateTime.of(2025, 1, 1, 9, 30, 15))
+                .build();
+
+        if ("legacy-json".equals(encoding)) {
+            serializer = new JsonSerializer<>();
+            JsonDeserializer<Object> json = new JsonDeserializer<>();
+            json.configure(Map.of(JsonDeserializer.TRUSTED_PACKAGES, "*",
+                    JsonDeserializer.USE_TYPE_INFO_HEADERS, false,
+                    JsonDeserializer.VALUE_DEFAULT_TYPE, OrderNotificationEvent.class.getName()), false);
+            deserializer = json;
+        } else {
+            EventSchemaRegistry registry = EventSchemaRegistry.load(EventSchemaRegistry.DEFAULT_LOCATION);
+            serializer = new VersionedEventSerializer(registry, EventFormat.fromName(encoding));
+            deserializer = new VersionedEventDeserializer(registry);
+        }
+        payload = serializer.serialize("order-notifications", event);
+        System.out.println(encoding + " payload: " + payload.length + " bytes");
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize("order-notifications", event);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return deserializer.deserialize("order-notifications", payload);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(EventSerdeBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,109 @@
+package com.devwonder.common.kafka.serde;
+
+import com.devwonder.common.event.OrderItemChangedEvent;
+import com.devwonder.common.event.OrderNotificationEvent;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VersionedEventSerdeTest {
+
+    private final EventSchemaRegistry registry = EventSchemaRegistry.load(EventSchemaRegistry.DEFAULT_LOCATION);
+
+    private final OrderNotificationEvent event = OrderNotificationEvent.builder()
+            .orderId(42L)
+            .orderCode("ORD-20250101-000042")
+            .dealerId(7L)
+            .dealerName("Tan Phat Electronics")
+            .dealerEmail("sales@tanphat.vn")
+            .dealerPhone("0901234567")
+            .dealerCity("Ho Chi Minh")
+            .totalAmount(new BigDecimal("1250000.50"))
+            .paymentStatus("UNPAID")
+            .orderTime(LocalDateTime.of(2025, 1, 1, 9, 30, 15))
+            .build();
+
+    @Test
+    void roundTripsEveryFormat() {
+        for (EventFormat format : EventFormat.values()) {
+            byte[] bytes = new VersionedEventSerializer(registry, format).serialize("order-notifications", event);
+
+            assertEquals(0x00, bytes[0]);
+            assertEquals(format.code(), bytes[1]);
+            assertEquals(registry.latestFor(OrderNotificationEvent.class).id(), ByteBuffer.wrap(bytes, 2, 4).getInt());
+            assertEquals(event, new VersionedEventDeserializer(registry).deserialize("order-notifications", bytes));
+        }
+    }
+
+    @Test
+    void smileIsSmallerThanJson() {
+        byte[] json = new JsonSerializer<>().serialize("order-notifications", event);
+        byte[] smile = new VersionedEventSerializer(registry, EventFormat.SMILE).serialize("order-notifications", event);
+
+        assertTrue(smile.length < json.length, smile.length + " bytes is not smaller than " + json.length);
+    }
+
+    @Test
+    void readsPlainJsonFromProducersNotYetSwitchedOver() {
+        OrderItemChangedEvent changed = OrderItemChangedEvent.builder()
+                .changeType(OrderItemChangedEvent.ChangeType.CREATED)
+                .orderItemId(3L)
+                .orderId(42L)
+                .productId(11L)
+                .quantity(2)
+                .occurredAt(LocalDateTime.of(2025, 1, 1, 9, 30))
+                .build();
+        byte[] legacy = new JsonSerializer<>().serialize("order-item-events", changed);
+
+        VersionedEventDeserializer deserializer = new VersionedEventDeserializer();
+        deserializer.configure(Map.of(
+                JsonDeserializer.TRUSTED_PACKAGES, "*",
+                JsonDeserializer.USE_TYPE_INFO_HEADERS, false,
+                JsonDeserializer.VALUE_DEFAULT_TYPE, OrderItemChangedEvent.class.getName()), false);
+
+        assertEquals(changed, deserializer.deserialize("order-item-events", new RecordHeaders(), legacy));
+    }
+
+    @Test
+    void rejectsUnknownSchemaIdsAndUnregisteredTypes() {
+        byte[] bytes = new VersionedEventSerializer(registry, EventFormat.SMILE).serialize("order-notifications", event);
+        ByteBuffer.wrap(bytes, 2, 4).putInt(9999);
+
+        assertThrows(SerializationException.class,
+                () -> new VersionedEventDeserializer(registry).deserialize("order-notifications", bytes));
+        assertThrows(SerializationException.class,
+                () -> new VersionedEventSerializer(registry, EventFormat.SMILE).serialize("t", "not an event"));
+    }
+
+    @Test
+    void producesTheLatestVersionAndStillReadsOlderOnes() {
+        List<String> fields = List.of("orderItemId", "orderId");
+        EventSchemaRegistry evolving = new EventSchemaRegistry(List.of(
+                new EventSchema(1, "serials", 1, OrderItemChangedEvent.class, fields),
+                new EventSchema(2, "serials", 2, OrderItemChangedEvent.class, List.of("orderItemId"))));
+
+        assertEquals(2, evolving.latestFor(OrderItemChangedEvent.class).id());
+        assertEquals(1, evolving.byId(1).version());
+    }
+
+    @Test
+    void rejectsInconsistentSchemas() {
+        assertThrows(IllegalStateException.class, () -> new EventSchemaRegistry(List.of(
+                new EventSchema(1, "a", 1, OrderItemChangedEvent.class, List.of()),
+                new EventSchema(1, "b", 1, OrderNotificationEvent.class, List.of()))));
+        assertThrows(IllegalStateException.class, () -> new EventSchemaRegistry(List.of(
+                new EventSchema(1, "a", 1, OrderItemChangedEvent.class, List.of("noSuchField")))));
+    }
+}
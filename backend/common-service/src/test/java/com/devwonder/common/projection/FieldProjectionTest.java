@@ -0,0 +1,64 @@
+package com.devwonder.common.projection;
+
+import lombok.Data;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FieldProjectionTest {
+
+    private final FieldProjection<Object, Item> projection = FieldProjection.builder(Object.class, Item::new)
+            .field("id", Item::setId)
+            .field("name", Item::setName)
+            .field("category", "category.name", Item::setCategory)
+            .build();
+
+    @Test
+    void blankFieldsSelectEveryDeclaredField() {
+        assertEquals(List.of("id", "name", "category"), names(projection.select(null)));
+        assertEquals(List.of("id", "name", "category"), names(projection.select("  ")));
+    }
+
+    @Test
+    void selectsKnownFieldsInDeclarationOrder() {
+        FieldProjection.FieldSelection<Item> selection = projection.select("category, id,unknown,id");
+
+        assertEquals(List.of("id", "category"), names(selection));
+        assertEquals("category.name", selection.mappings().get(1).attributePath());
+    }
+
+    @Test
+    void unknownFieldsResolveToEmptySelection() {
+        assertTrue(projection.select("descriptions,videos").mappings().isEmpty());
+    }
+
+    @Test
+    void reusesResolvedSelectionForSameFieldList() {
+        assertSame(projection.select("id,name"), projection.select(" id,name "));
+    }
+
+    @Test
+    void settersWriteIntoDto() {
+        Item item = new Item();
+        projection.select("id,name").mappings().get(0).setter().accept(item, 7L);
+        projection.select("id,name").mappings().get(1).setter().accept(item, "Speaker");
+
+        assertEquals(7L, item.getId());
+        assertEquals("Speaker", item.getName());
+    }
+
+    private static List<String> names(FieldProjection.FieldSelection<Item> selection) {
+        return selection.mappings().stream().map(FieldProjection.FieldMapping::name).toList();
+    }
+
+    @Data
+    static class Item {
+        private Long id;
+        private String name;
+        private String category;
+    }
+}
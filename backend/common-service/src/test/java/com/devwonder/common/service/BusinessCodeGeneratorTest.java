@@ -0,0 +1,217 @@
+package com.devwonder.common.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BusinessCodeGeneratorTest {
+
+    private static final int THREADS = 16;
+    private static final int CODES_PER_THREAD = 50_000;
+
+    @Test
+    void generatesUniqueCodesUnderConcurrency() throws Exception {
+        BusinessCodeGenerator generator = new BusinessCodeGenerator(Clock.systemUTC(), 7);
+        Set<String> codes = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < CODES_PER_THREAD; i++) {
+                        codes.add(generator.nextCode("ORD"));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(THREADS * CODES_PER_THREAD, codes.size());
+    }
+
+    @Test
+    void idsStayMonotonicWhenClockStallsOrMovesBackwards() {
+        AtomicLong millis = new AtomicLong(Instant.parse("2025-01-15T09:30:12Z").toEpochMilli());
+        Clock clock = new Clock() {
+            @Override
+            public ZoneOffset getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(java.time.ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public long millis() {
+                return millis.get();
+            }
+
+            @Override
+            public Instant instant() {
+                return Instant.ofEpochMilli(millis.get());
+            }
+        };
+        BusinessCodeGenerator generator = new BusinessCodeGenerator(clock, 1);
+
+        long previous = generator.nextId();
+        // Exhaust several sequences within one frozen millisecond, then rewind the clock
+        for (int i = 0; i < 20_000; i++) {
+            if (i == 10_000) {
+                millis.addAndGet(-5_000);
+            }
+            long next = generator.nextId();
+            assertTrue(next > previous, "ids must be strictly increasing");
+            previous = next;
+        }
+    }
+
+    @Test
+    void codesKeepReadablePrefixAndTimestamp() {
+        Clock clock = Clock.fixed(Instant.parse("2025-01-15T09:30:12.345Z"), ZoneOffset.UTC);
+        BusinessCodeGenerator generator = new BusinessCodeGenerator(clock, 3);
+
+        String orderCode = generator.nextCode("ORD");
+        String warrantyCode = generator.nextCode("WR", "SN0001");
+
+        assertTrue(orderCode.matches("ORD-20250115-093012-[0-9A-Z]{7}"), orderCode);
+        assertTrue(warrantyCode.matches("WR-20250115-SN0001-[0-9A-Z]{10}"), warrantyCode);
+    }
+
+    @Test
+    void codesFromDifferentNodesNeverCollide() {
+        Clock clock = Clock.fixed(Instant.parse("2025-01-15T09:30:12Z"), ZoneOffset.UTC);
+        BusinessCodeGenerator first = new BusinessCodeGenerator(clock, 1);
+        BusinessCodeGenerator second = new BusinessCodeGenerator(clock, 2);
+
+        Set<String> codes = ConcurrentHashMap.newKeySet();
+        for (int i = 0; i < 10_000; i++) {
+            codes.add(first.nextCode("ORD"));
+            codes.add(second.nextCode("ORD"));
+        }
+
+        assertEquals(20_000, codes.size());
+    }
+
+    @Test
+    void rejectsOutOfRangeNodeId() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new BusinessCodeGenerator(Clock.systemUTC(), BusinessCodeGenerator.MAX_NODE_ID + 1));
+    }
+
+    @Test
+    void refusesToStartWithoutNodeIdOrRedis() {
+        StaticListableBeanFactory noRedis = new StaticListableBeanFactory();
+
+        assertThrows(IllegalStateException.class, () -> new BusinessCodeGenerator(-1, Duration.ofSeconds(30),
+                noRedis.getBeanProvider(StringRedisTemplate.class)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void leasesTheFirstFreeNodeId() {
+        StringRedisTemplate redis = mock(StringRedisTemplate.class);
+        ValueOperations<String, String> values = mock(ValueOperations.class);
+        when(redis.opsForValue()).thenReturn(values);
+        when(values.increment(NodeIdLease.COUNTER_KEY)).thenReturn(5L, 6L, 7L);
+        when(values.setIfAbsent(eq(NodeIdLease.KEY_PREFIX + 5), any(), any(Duration.class))).thenReturn(false);
+        when(values.setIfAbsent(eq(NodeIdLease.KEY_PREFIX + 6), any(), any(Duration.class))).thenReturn(false);
+        when(values.setIfAbsent(eq(NodeIdLease.KEY_PREFIX + 7), any(), any(Duration.class))).thenReturn(true);
+
+        NodeIdLease lease = NodeIdLease.acquire(redis, Clock.systemUTC(), 1024, Duration.ofSeconds(30), false);
+
+        assertEquals(7, lease.nodeId());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void failsWhenEveryNodeIdIsLeased() {
+        StringRedisTemplate redis = mock(StringRedisTemplate.class);
+        ValueOperations<String, String> values = mock(ValueOperations.class);
+        when(redis.opsForValue()).thenReturn(values);
+        when(values.increment(NodeIdLease.COUNTER_KEY)).thenReturn(1L);
+        when(values.setIfAbsent(any(), any(), any(Duration.class))).thenReturn(false);
+
+        assertThrows(IllegalStateException.class,
+                () -> NodeIdLease.acquire(redis, Clock.systemUTC(), 4, Duration.ofSeconds(30), false));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void stopsGeneratingOnceTheLeaseLapses() {
+        AtomicLong millis = new AtomicLong(Instant.parse("2025-01-15T09:30:12Z").toEpochMilli());
+        Clock clock = new Clock() {
+            @Override
+            public ZoneOffset getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(java.time.ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public long millis() {
+                return millis.get();
+            }
+
+            @Override
+            public Instant instant() {
+                return Instant.ofEpochMilli(millis.get());
+            }
+        };
+        StringRedisTemplate redis = mock(StringRedisTemplate.class);
+        ValueOperations<String, String> values = mock(ValueOperations.class);
+        when(redis.opsForValue()).thenReturn(values);
+        when(values.increment(NodeIdLease.COUNTER_KEY)).thenReturn(3L);
+        when(values.setIfAbsent(eq(NodeIdLease.KEY_PREFIX + 3), any(), any(Duration.class))).thenReturn(true);
+        // Renewals fail (Redis unreachable), so the lease runs out
+        when(redis.execute(any(), anyList(), any(Object[].class))).thenThrow(new IllegalStateException("down"));
+
+        NodeIdLease lease = NodeIdLease.acquire(redis, clock, 1024, Duration.ofSeconds(30), false);
+        BusinessCodeGenerator generator = new BusinessCodeGenerator(clock, -1, lease);
+        generator.nextCode("ORD");
+
+        millis.addAndGet(29_000);
+        lease.renew();
+        generator.nextCode("ORD");
+
+        millis.addAndGet(1_000);
+        assertThrows(IllegalStateException.class, () -> generator.nextCode("ORD"));
+    }
+}
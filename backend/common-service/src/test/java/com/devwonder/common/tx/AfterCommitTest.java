@@ -0,0 +1,51 @@
+package com.devwonder.common.tx;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AfterCommitTest {
+
+    private final AtomicInteger runs = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void runsImmediatelyOutsideTransaction() {
+        AfterCommit.run(runs::incrementAndGet);
+
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void runsOnlyOnceTransactionCommits() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        AfterCommit.run(runs::incrementAndGet);
+        assertEquals(0, runs.get());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void doesNotRunOnRollback() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        AfterCommit.run(runs::incrementAndGet);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertEquals(0, runs.get());
+    }
+}
@@ -0,0 +1,30 @@
+package com.devwonder.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SearchQueryUtilTest {
+
+    @Test
+    void matchesEveryTermAsPrefix() {
+        assertEquals("tai:* & ng:*", SearchQueryUtil.toPrefixTsQuery("Tai  ng"));
+    }
+
+    @Test
+    void keepsVietnameseLettersAndDropsQuerySyntax() {
+        assertEquals("loa:* & bluetooth:* & đỏ:*", SearchQueryUtil.toPrefixTsQuery("Loa (Bluetooth) & !đỏ:*"));
+        assertEquals("abc:* & 123:*", SearchQueryUtil.toPrefixTsQuery("ABC-123"));
+    }
+
+    @Test
+    void returnsEmptyQueryWithoutTerms() {
+        assertEquals("", SearchQueryUtil.toPrefixTsQuery(" -&| "));
+        assertEquals("", SearchQueryUtil.toPrefixTsQuery(null));
+    }
+
+    @Test
+    void escapesLikeWildcards() {
+        assertEquals("%50\\% off\\_x%", SearchQueryUtil.toContainsPattern(" 50% OFF_x "));
+    }
+}
@@ -0,0 +1,207 @@
+package com.devwonder.notificationservice.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.SessionLimitExceededException;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gives a WebSocket session a bounded outbound queue drained on a shared executor.
+ *
+ * {@link #sendMessage} only enqueues, so a slow browser never blocks the broker's outbound threads and
+ * the memory it can hold is capped at {@code capacity} messages. When the queue is full the
+ * {@link OutboundOverflowPolicy} decides what gives. Only STOMP MESSAGE frames are ever dropped;
+ * CONNECTED, RECEIPT and ERROR frames are always kept. A send stuck for longer than
+ * {@code sendTimeLimitMillis} gets the session closed, by the next {@link #sendMessage} or by the
+ * {@link OutboundQueueWebSocketHandler#closeStalledSessions watchdog}, whichever comes first; closing it
+ * aborts the blocked write and gives the drain thread back to the other sessions.
+ */
+@Slf4j
+public class BoundedOutboundSession extends WebSocketSessionDecorator {
+
+    private static final String MESSAGE_FRAME = "MESSAGE\n";
+    private static final String DESTINATION_HEADER = "\ndestination:";
+
+    private final int capacity;
+    private final OutboundOverflowPolicy overflowPolicy;
+    private final long sendTimeLimitMillis;
+    private final Executor drainExecutor;
+
+    private final Deque<WebSocketMessage<?>> queue = new ArrayDeque<>();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile long sendStartedAt;
+    private volatile boolean limitExceeded;
+
+    public BoundedOutboundSession(WebSocketSession delegate, int capacity, OutboundOverflowPolicy overflowPolicy,
+                                  long sendTimeLimitMillis, Executor drainExecutor) {
+        super(delegate);
+        this.capacity = capacity;
+        this.overflowPolicy = overflowPolicy;
+        this.sendTimeLimitMillis = sendTimeLimitMillis;
+        this.drainExecutor = drainExecutor;
+    }
+
+    @Override
+    public void sendMessage(WebSocketMessage<?> message) throws IOException {
+        if (limitExceeded || !isOpen()) {
+            return;
+        }
+
+        if (isSendStalled(System.currentTimeMillis())) {
+            throw limitExceeded("Send time " + (System.currentTimeMillis() - sendStartedAt) + " (ms) exceeded the allowed limit");
+        }
+
+        synchronized (queue) {
+            if (queue.size() >= capacity) {
+                if (overflowPolicy == OutboundOverflowPolicy.DISCONNECT) {
+                    throw limitExceeded("Outbound queue of " + capacity + " messages is full");
+                }
+                makeRoomFor(message);
+            }
+            queue.addLast(message);
+        }
+        scheduleDrain();
+    }
+
+    @Override
+    public void close(CloseStatus status) throws IOException {
+        clearQueue();
+        super.close(status);
+    }
+
+    /**
+     * Whether a send to the client has been blocked for longer than the send time limit.
+     */
+    public boolean isSendStalled(long now) {
+        long started = sendStartedAt;
+        return started != 0 && now - started > sendTimeLimitMillis;
+    }
+
+    /**
+     * Closes a session whose send is stalled; the blocked write then fails and its drain thread is released.
+     */
+    public void closeStalled() {
+        limitExceeded = true;
+        try {
+            close(CloseStatus.SESSION_NOT_RELIABLE);
+        } catch (IOException | RuntimeException e) {
+            log.debug("Failed to close stalled WebSocket session {}: {}", getId(), e.getMessage());
+        }
+    }
+
+    public int getQueueDepth() {
+        synchronized (queue) {
+            return queue.size();
+        }
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    private void makeRoomFor(WebSocketMessage<?> message) {
+        String destination = overflowPolicy == OutboundOverflowPolicy.COALESCE ? destinationOf(message) : null;
+        if (destination != null && removeFirst(destination)) {
+            return;
+        }
+        // When only control frames are queued nothing is dropped and the queue briefly exceeds capacity
+        removeFirst(null);
+    }
+
+    /**
+     * Removes the oldest MESSAGE frame, restricted to {@code destination} when it is not null.
+     */
+    private boolean removeFirst(String destination) {
+        for (Iterator<WebSocketMessage<?>> it = queue.iterator(); it.hasNext(); ) {
+            String queuedDestination = destinationOf(it.next());
+            if (queuedDestination != null && (destination == null || destination.equals(queuedDestination))) {
+                it.remove();
+                dropped.incrementAndGet();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            drainExecutor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            WebSocketMessage<?> next;
+            while ((next = poll()) != null) {
+                sendStartedAt = System.currentTimeMillis();
+                try {
+                    getDelegate().sendMessage(next);
+                } finally {
+                    sendStartedAt = 0;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            log.debug("Failed to send to WebSocket session {}: {}", getId(), e.getMessage());
+            clearQueue();
+        } finally {
+            draining.set(false);
+        }
+
+        // A message enqueued after the last poll but before draining was reset would otherwise wait for the next send
+        if (getQueueDepth() > 0) {
+            scheduleDrain();
+        }
+    }
+
+    private WebSocketMessage<?> poll() {
+        synchronized (queue) {
+            return queue.pollFirst();
+        }
+    }
+
+    private void clearQueue() {
+        synchronized (queue) {
+            queue.clear();
+        }
+    }
+
+    private SessionLimitExceededException limitExceeded(String reason) {
+        // SubProtocolWebSocketHandler closes the session when it sees this exception
+        limitExceeded = true;
+        clearQueue();
+        return new SessionLimitExceededException(reason, CloseStatus.SESSION_NOT_RELIABLE);
+    }
+
+    /**
+     * Destination header of a STOMP MESSAGE frame, or null for any other frame.
+     */
+    static String destinationOf(WebSocketMessage<?> message) {
+        if (!(message instanceof TextMessage textMessage)) {
+            return null;
+        }
+        String frame = textMessage.getPayload();
+        if (!frame.startsWith(MESSAGE_FRAME)) {
+            return null;
+        }
+        int headersEnd = frame.indexOf("\n\n");
+        int start = frame.indexOf(DESTINATION_HEADER);
+        if (start < 0 || (headersEnd >= 0 && start > headersEnd)) {
+            return null;
+        }
+        start += DESTINATION_HEADER.length();
+        int end = frame.indexOf('\n', start);
+        return end < 0 ? frame.substring(start) : frame.substring(start, end);
+    }
+}
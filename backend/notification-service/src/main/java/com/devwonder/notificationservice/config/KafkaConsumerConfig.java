@@ -1,5 +1,8 @@
 package com.devwonder.notificationservice.config;
 
+import com.devwonder.common.kafka.serde.VersionedEventDeserializer;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
@@ -10,14 +13,17 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
-import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.core.MicrometerConsumerListener;
 
 import java.util.HashMap;
 import java.util.Map;
 
 @Configuration
+@RequiredArgsConstructor
 public class KafkaConsumerConfig {
     
+    private final MeterRegistry meterRegistry;
+
     @Value("${spring.kafka.bootstrap-servers:kafka1:9092,kafka2:9093,kafka3:9094}")
     private String bootstrapServers;
     
@@ -28,7 +34,8 @@ public class KafkaConsumerConfig {
         configProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class);
         configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class);
         configProps.put(ErrorHandlingDeserializer.KEY_DESERIALIZER_CLASS, StringDeserializer.class);
-        configProps.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, JsonDeserializer.class);
+        configProps.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, VersionedEventDeserializer.class);
+        // The JSON options below only apply to records from producers still writing plain JSON
         configProps.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
         // Ignore type headers to avoid ClassNotFoundException when event classes are moved/refactored
         configProps.put(JsonDeserializer.USE_TYPE_INFO_HEADERS, false);
@@ -36,18 +43,27 @@ public class KafkaConsumerConfig {
         return configProps;
     }
     
+    private ConsumerFactory<String, Object> createConsumerFactory(String groupId, String defaultType) {
+        DefaultKafkaConsumerFactory<String, Object> consumerFactory =
+                new DefaultKafkaConsumerFactory<>(getBaseConsumerConfig(groupId, defaultType));
+        // Publishes kafka.consumer.fetch.manager.records.lag(.max) per topic and partition, retry topics included
+        consumerFactory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+        return consumerFactory;
+    }
+
     private ConcurrentKafkaListenerContainerFactory<String, Object> createListenerFactory(
             ConsumerFactory<String, Object> consumerFactory, int concurrency) {
         ConcurrentKafkaListenerContainerFactory<String, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory);
+        // Starting and minimum thread count; ConsumerConcurrencyAutoscaler adds threads up to the partition count
         factory.setConcurrency(concurrency);
-        factory.setCommonErrorHandler(new DefaultErrorHandler());
+        // Failed records are handed on to the retry topics by KafkaRetryTopicConfig instead of retried inline
         return factory;
     }
     
     @Bean
     public ConsumerFactory<String, Object> emailNotificationConsumerFactory() {
-        return new DefaultKafkaConsumerFactory<>(getBaseConsumerConfig("notification-service-group-email", "com.devwonder.common.event.DealerEmailEvent"));
+        return createConsumerFactory("notification-service-group-email", "com.devwonder.common.event.DealerEmailEvent");
     }
 
     @Bean
@@ -57,7 +73,7 @@ public class KafkaConsumerConfig {
     
     @Bean
     public ConsumerFactory<String, Object> websocketNotificationConsumerFactory() {
-        return new DefaultKafkaConsumerFactory<>(getBaseConsumerConfig("notification-service-group-dealer-registration", "com.devwonder.common.event.DealerRegistrationEvent"));
+        return createConsumerFactory("notification-service-group-dealer-registration", "com.devwonder.common.event.DealerRegistrationEvent");
     }
 
     @Bean
@@ -67,7 +83,7 @@ public class KafkaConsumerConfig {
 
     @Bean
     public ConsumerFactory<String, Object> orderNotificationConsumerFactory() {
-        return new DefaultKafkaConsumerFactory<>(getBaseConsumerConfig("notification-service-group-order", "com.devwonder.common.event.OrderNotificationEvent"));
+        return createConsumerFactory("notification-service-group-order", "com.devwonder.common.event.OrderNotificationEvent");
     }
 
     @Bean
@@ -77,7 +93,7 @@ public class KafkaConsumerConfig {
 
     @Bean
     public ConsumerFactory<String, Object> loginConfirmationConsumerFactory() {
-        return new DefaultKafkaConsumerFactory<>(getBaseConsumerConfig("notification-service-group-login", "com.devwonder.common.event.LoginConfirmationEvent"));
+        return createConsumerFactory("notification-service-group-login", "com.devwonder.common.event.LoginConfirmationEvent");
     }
 
     @Bean
@@ -87,7 +103,7 @@ public class KafkaConsumerConfig {
 
     @Bean
     public ConsumerFactory<String, Object> loginConfirmedConsumerFactory() {
-        return new DefaultKafkaConsumerFactory<>(getBaseConsumerConfig("notification-service-group-login-confirmed", "com.devwonder.common.event.LoginConfirmationNotificationEvent"));
+        return createConsumerFactory("notification-service-group-login-confirmed", "com.devwonder.common.event.LoginConfirmationNotificationEvent");
     }
 
     @Bean
@@ -97,7 +113,7 @@ public class KafkaConsumerConfig {
 
     @Bean
     public ConsumerFactory<String, Object> passwordResetConsumerFactory() {
-        return new DefaultKafkaConsumerFactory<>(getBaseConsumerConfig("notification-service-group-password-reset", "com.devwonder.common.event.PasswordResetEvent"));
+        return createConsumerFactory("notification-service-group-password-reset", "com.devwonder.common.event.PasswordResetEvent");
     }
 
     @Bean
@@ -0,0 +1,16 @@
+package com.devwonder.notificationservice.config;
+
+import com.devwonder.common.kafka.KafkaRetryTopicSupport;
+import com.devwonder.notificationservice.constant.KafkaTopics;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+public class KafkaRetryTopicConfig extends KafkaRetryTopicSupport {
+
+    @Override
+    protected List<String> retriedTopics() {
+        return KafkaTopics.CONSUMED_TOPICS;
+    }
+}
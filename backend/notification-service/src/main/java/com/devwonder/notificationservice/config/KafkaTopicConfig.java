@@ -2,17 +2,23 @@ package com.devwonder.notificationservice.config;
 
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.common.config.TopicConfig;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.TopicBuilder;
 
+/**
+ * Partition counts come from {@code nexhub.kafka.partitions.<topic>} and bound how many consumer threads
+ * ConsumerConcurrencyAutoscaler can give a listener. KafkaAdmin adds partitions to an existing topic when the
+ * count is raised; it never removes them.
+ */
 @Configuration
 public class KafkaTopicConfig {
     
     @Bean
-    public NewTopic emailNotificationTopic() {
+    public NewTopic emailNotificationTopic(@Value("${nexhub.kafka.partitions.email-notifications:3}") int partitions) {
         return TopicBuilder.name("email-notifications")
-                .partitions(3)
+                .partitions(partitions)
                 .replicas(3)
                 .config(TopicConfig.CLEANUP_POLICY_CONFIG, "delete")
                 .config(TopicConfig.RETENTION_MS_CONFIG, "604800000") // 7 days retention
@@ -21,9 +27,9 @@ public class KafkaTopicConfig {
     }
     
     @Bean
-    public NewTopic dealerRegistrationNotificationTopic() {
+    public NewTopic dealerRegistrationNotificationTopic(@Value("${nexhub.kafka.partitions.dealer-registration-notifications:3}") int partitions) {
         return TopicBuilder.name("dealer-registration-notifications")
-                .partitions(3)
+                .partitions(partitions)
                 .replicas(3)
                 .config(TopicConfig.CLEANUP_POLICY_CONFIG, "delete")
                 .config(TopicConfig.RETENTION_MS_CONFIG, "86400000") // 1 day retention (shorter for real-time notifications)
@@ -32,9 +38,9 @@ public class KafkaTopicConfig {
     }
 
     @Bean
-    public NewTopic orderNotificationTopic() {
+    public NewTopic orderNotificationTopic(@Value("${nexhub.kafka.partitions.order-notifications:3}") int partitions) {
         return TopicBuilder.name("order-notifications")
-                .partitions(3)
+                .partitions(partitions)
                 .replicas(3)
                 .config(TopicConfig.CLEANUP_POLICY_CONFIG, "delete")
                 .config(TopicConfig.RETENTION_MS_CONFIG, "604800000") // 7 days retention
@@ -43,9 +49,9 @@ public class KafkaTopicConfig {
     }
 
     @Bean
-    public NewTopic loginConfirmationNotificationTopic() {
+    public NewTopic loginConfirmationNotificationTopic(@Value("${nexhub.kafka.partitions.login-confirmation-notifications:3}") int partitions) {
         return TopicBuilder.name("login-confirmation-notifications")
-                .partitions(3)
+                .partitions(partitions)
                 .replicas(3)
                 .config(TopicConfig.CLEANUP_POLICY_CONFIG, "delete")
                 .config(TopicConfig.RETENTION_MS_CONFIG, "86400000") // 1 day retention
@@ -54,9 +60,9 @@ public class KafkaTopicConfig {
     }
 
     @Bean
-    public NewTopic loginConfirmedNotificationTopic() {
+    public NewTopic loginConfirmedNotificationTopic(@Value("${nexhub.kafka.partitions.login-confirmed-notifications:3}") int partitions) {
         return TopicBuilder.name("login-confirmed-notifications")
-                .partitions(3)
+                .partitions(partitions)
                 .replicas(3)
                 .config(TopicConfig.CLEANUP_POLICY_CONFIG, "delete")
                 .config(TopicConfig.RETENTION_MS_CONFIG, "3600000") // 1 hour retention (real-time notifications)
@@ -65,9 +71,9 @@ public class KafkaTopicConfig {
     }
     
     @Bean
-    public NewTopic passwordResetNotificationTopic() {
+    public NewTopic passwordResetNotificationTopic(@Value("${nexhub.kafka.partitions.password-reset-notifications:3}") int partitions) {
         return TopicBuilder.name("password-reset-notifications")
-                .partitions(3)
+                .partitions(partitions)
                 .replicas(3)
                 .config(TopicConfig.CLEANUP_POLICY_CONFIG, "delete")
                 .config(TopicConfig.RETENTION_MS_CONFIG, "3600000")
@@ -0,0 +1,13 @@
+package com.devwonder.notificationservice.config;
+
+/**
+ * What a WebSocket session's outbound queue does when a message arrives and the queue is full.
+ */
+public enum OutboundOverflowPolicy {
+    /** Discard the oldest queued message */
+    DROP_OLDEST,
+    /** Replace the oldest queued message for the same destination, else discard the oldest */
+    COALESCE,
+    /** Close the session; the client reconnects and reloads the inbox */
+    DISCONNECT
+}
@@ -0,0 +1,106 @@
+package com.devwonder.notificationservice.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Wraps every WebSocket session in a {@link BoundedOutboundSession} before the STOMP handler sees it,
+ * and publishes its queue depth and drop count as per-session meters for as long as it is open.
+ */
+@Slf4j
+public class OutboundQueueWebSocketHandler extends WebSocketHandlerDecorator {
+
+    private final int capacity;
+    private final OutboundOverflowPolicy overflowPolicy;
+    private final long sendTimeLimitMillis;
+    private final Executor drainExecutor;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, BoundedOutboundSession> sessions = new ConcurrentHashMap<>();
+    private final Map<String, List<Meter>> sessionMeters = new ConcurrentHashMap<>();
+
+    public OutboundQueueWebSocketHandler(WebSocketHandler delegate, int capacity, OutboundOverflowPolicy overflowPolicy,
+                                         long sendTimeLimitMillis, Executor drainExecutor, MeterRegistry meterRegistry) {
+        super(delegate);
+        this.capacity = capacity;
+        this.overflowPolicy = overflowPolicy;
+        this.sendTimeLimitMillis = sendTimeLimitMillis;
+        this.drainExecutor = drainExecutor;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+        BoundedOutboundSession bounded = new BoundedOutboundSession(
+                session, capacity, overflowPolicy, sendTimeLimitMillis, drainExecutor);
+        sessions.put(session.getId(), bounded);
+        sessionMeters.put(session.getId(), List.of(
+                Gauge.builder("nexhub.websocket.session.queue.depth", bounded, BoundedOutboundSession::getQueueDepth)
+                        .tag("session", session.getId())
+                        .register(meterRegistry),
+                FunctionCounter.builder("nexhub.websocket.session.dropped", bounded, BoundedOutboundSession::getDroppedCount)
+                        .tag("session", session.getId())
+                        .tag("policy", overflowPolicy.name())
+                        .register(meterRegistry)));
+        super.afterConnectionEstablished(bounded);
+    }
+
+    @Override
+    public void handleMessage(WebSocketSession session, WebSocketMessage<?> message) throws Exception {
+        super.handleMessage(wrapped(session), message);
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession session, Throwable exception) throws Exception {
+        super.handleTransportError(wrapped(session), exception);
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+        WebSocketSession wrapped = wrapped(session);
+        sessions.remove(session.getId());
+        List<Meter> meters = sessionMeters.remove(session.getId());
+        if (meters != null) {
+            meters.forEach(meterRegistry::remove);
+        }
+        super.afterConnectionClosed(wrapped, closeStatus);
+    }
+
+    /**
+     * Closes every session whose send has been stuck past the send time limit. Without this a client
+     * that stops reading would hold its drain thread until it sent or received another message, and a
+     * few of them could starve every other session on the shared drain pool.
+     *
+     * @return the number of sessions closed
+     */
+    public int closeStalledSessions() {
+        long now = System.currentTimeMillis();
+        int closed = 0;
+        for (BoundedOutboundSession session : sessions.values()) {
+            if (session.isSendStalled(now)) {
+                log.warn("Closing WebSocket session {}: send blocked for more than {} ms", session.getId(), sendTimeLimitMillis);
+                session.closeStalled();
+                closed++;
+            }
+        }
+        return closed;
+    }
+
+    private WebSocketSession wrapped(WebSocketSession session) {
+        WebSocketSession bounded = sessions.get(session.getId());
+        return bounded != null ? bounded : session;
+    }
+}
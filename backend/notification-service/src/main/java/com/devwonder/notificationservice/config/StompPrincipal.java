@@ -0,0 +1,18 @@
+package com.devwonder.notificationservice.config;
+
+import java.security.Principal;
+
+/**
+ * Principal of an authenticated STOMP session, carrying the route permissions resolved at CONNECT
+ * (see {@link StompRouteTable#permissionsFor}).
+ *
+ * The name is the account id, so user destinations ({@code convertAndSendToUser}) are addressed by
+ * account rather than by the mutable username.
+ */
+public record StompPrincipal(String name, Long accountId, boolean admin, long permissions) implements Principal {
+
+    @Override
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,123 @@
+package com.devwonder.notificationservice.config;
+
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * STOMP destinations clients may SEND to or SUBSCRIBE to, and the roles each one requires.
+ *
+ * Routes are compiled once into lookup tables. A session's roles are turned into a bit set of allowed
+ * routes at CONNECT ({@link #permissionsFor}), so authorizing a frame is a table lookup and a bit test
+ * ({@link #isAllowed}), with no allocation. Destinations not matching any route are denied.
+ */
+@Component
+public class StompRouteTable {
+
+    private static final String ADMIN = "ADMIN";
+
+    private final Map<String, Route> exactSend = new HashMap<>();
+    private final Map<String, Route> exactSubscribe = new HashMap<>();
+    private final Route[] prefixSend;
+    private final Route[] prefixSubscribe;
+    private final Route[] routes;
+
+    public StompRouteTable() {
+        List<Route> all = new ArrayList<>();
+        List<Route> sendPrefixes = new ArrayList<>();
+        List<Route> subscribePrefixes = new ArrayList<>();
+
+        // SEND: broadcast and private messages are ADMIN only
+        exact(all, exactSend, "/app/broadcast", ADMIN);
+        prefix(all, sendPrefixes, "/app/private/", Match.PREFIX, ADMIN);
+
+        // SUBSCRIBE
+        exact(all, exactSubscribe, "/topic/notifications", null);
+        // Users subscribe to their own queues (/user/queue/...); only ADMIN has login email confirmation.
+        // Order notifications are only sent to their dealer and to admins, so any account may subscribe
+        prefix(all, subscribePrefixes, "/queue/private", Match.CONTAINS, null);
+        prefix(all, subscribePrefixes, "/queue/login-confirmed", Match.CONTAINS, ADMIN);
+        prefix(all, subscribePrefixes, "/queue/order-notifications", Match.CONTAINS, null);
+        prefix(all, subscribePrefixes, "/queue/dealer-registrations", Match.CONTAINS, ADMIN);
+
+        this.prefixSend = sendPrefixes.toArray(Route[]::new);
+        this.prefixSubscribe = subscribePrefixes.toArray(Route[]::new);
+        this.routes = all.toArray(Route[]::new);
+        if (routes.length > Long.SIZE) {
+            throw new IllegalStateException("At most " + Long.SIZE + " STOMP routes are supported");
+        }
+    }
+
+    /**
+     * Bit set of the routes a session with {@code roles} may use. Role names are case-insensitive.
+     */
+    public long permissionsFor(Collection<String> roles) {
+        Set<String> normalized = new HashSet<>();
+        if (roles != null) {
+            roles.forEach(role -> normalized.add(role.toUpperCase(Locale.ROOT)));
+        }
+
+        long permissions = 0;
+        for (Route route : routes) {
+            if (route.requiredRole() == null || normalized.contains(route.requiredRole())) {
+                permissions |= 1L << route.index();
+            }
+        }
+        return permissions;
+    }
+
+    /**
+     * Whether a session holding {@code permissions} may SEND ({@link SimpMessageType#MESSAGE}) or
+     * SUBSCRIBE to {@code destination}.
+     */
+    public boolean isAllowed(long permissions, SimpMessageType type, String destination) {
+        if (destination == null) {
+            return false;
+        }
+        Route route = type == SimpMessageType.SUBSCRIBE
+                ? find(exactSubscribe, prefixSubscribe, destination)
+                : find(exactSend, prefixSend, destination);
+        return route != null && (permissions & (1L << route.index())) != 0;
+    }
+
+    private static Route find(Map<String, Route> exact, Route[] prefixes, String destination) {
+        Route route = exact.get(destination);
+        if (route != null) {
+            return route;
+        }
+        for (Route candidate : prefixes) {
+            boolean matches = candidate.match() == Match.PREFIX
+                    ? destination.startsWith(candidate.pattern())
+                    : destination.contains(candidate.pattern());
+            if (matches) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private static void exact(List<Route> all, Map<String, Route> table, String destination, String requiredRole) {
+        Route route = new Route(all.size(), destination, Match.EXACT, requiredRole);
+        all.add(route);
+        table.put(destination, route);
+    }
+
+    private static void prefix(List<Route> all, List<Route> table, String pattern, Match match, String requiredRole) {
+        Route route = new Route(all.size(), pattern, match, requiredRole);
+        all.add(route);
+        table.add(route);
+    }
+
+    private enum Match { EXACT, PREFIX, CONTAINS }
+
+    private record Route(int index, String pattern, Match match, String requiredRole) {
+    }
+}
@@ -24,6 +24,7 @@ import java.util.List;
 public class WebSocketAuthenticationInterceptor implements ChannelInterceptor {
     
     private final JwtService jwtService;
+    private final StompRouteTable routeTable;
 
     @Override
     public Message<?> preSend(@NonNull Message<?> message, @NonNull MessageChannel channel) {
@@ -52,8 +53,8 @@ public class WebSocketAuthenticationInterceptor implements ChannelInterceptor {
                 String username = jwtService.extractUsername(claimsSet);
                 Long accountId = jwtService.extractAccountId(claimsSet);
                 
-                // Create a Principal and set it in the accessor
-                Principal principal = createPrincipal(claimsSet);
+                // Create a Principal carrying this session's route permissions and set it in the accessor
+                Principal principal = createPrincipal(username, accountId, roles);
                 accessor.setUser(principal);
                 
                 log.info("✅ STOMP CONNECT authenticated successfully!");
@@ -92,15 +93,10 @@ public class WebSocketAuthenticationInterceptor implements ChannelInterceptor {
         return null;
     }
 
-    private Principal createPrincipal(JWTClaimsSet claimsSet) {
-        String username = jwtService.extractUsername(claimsSet);
-        Long accountId = jwtService.extractAccountId(claimsSet);
-        
-        return new Principal() {
-            @Override
-            public String getName() {
-                return username != null ? username : String.valueOf(accountId);
-            }
-        };
+    private Principal createPrincipal(String username, Long accountId, List<String> roles) {
+        // Roles are fixed for the session: SEND/SUBSCRIBE frames are authorized from these permissions
+        String name = accountId != null ? String.valueOf(accountId) : username;
+        boolean admin = roles != null && roles.stream().anyMatch("ADMIN"::equalsIgnoreCase);
+        return new StompPrincipal(name, accountId, admin, routeTable.permissionsFor(roles));
     }
-}
\ No newline at end of file
+}
@@ -1,13 +1,19 @@
 package com.devwonder.notificationservice.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.lang.NonNull;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 @Configuration
 @EnableWebSocketMessageBroker
@@ -16,10 +22,32 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     
     private final WebSocketAuthenticationInterceptor authenticationInterceptor;
     private final WebSocketAuthorizationInterceptor authorizationInterceptor;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${nexhub.websocket.send-time-limit-ms:10000}")
+    private int sendTimeLimitMillis;
+
+    @Value("${nexhub.websocket.send-buffer-size-limit:524288}")
+    private int sendBufferSizeLimit;
+
+    @Value("${nexhub.websocket.message-size-limit:65536}")
+    private int messageSizeLimit;
+
+    @Value("${nexhub.websocket.outbound-queue.capacity:256}")
+    private int outboundQueueCapacity;
+
+    @Value("${nexhub.websocket.outbound-queue.overflow-policy:DROP_OLDEST}")
+    private OutboundOverflowPolicy overflowPolicy;
+
+    @Value("${nexhub.websocket.outbound-queue.drain-threads:4}")
+    private int drainThreads;
+
+    private volatile OutboundQueueWebSocketHandler outboundQueueHandler;
     
     @Override
     public void configureMessageBroker(@NonNull MessageBrokerRegistry config) {
-        // Enable simple broker for /topic and /queue destinations
+        // Simple broker for /topic and /queue destinations: it only knows this replica's sessions,
+        // StompFanoutService relays messages to the brokers of the other replicas
         config.enableSimpleBroker("/topic", "/queue");
         
         // Set application destination prefix
@@ -42,6 +70,43 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .withSockJS();
     }
 
+    @Override
+    public void configureWebSocketTransport(@NonNull WebSocketTransportRegistration registration) {
+        // Sessions only enqueue into their bounded outbound queue, so these limits are a backstop
+        // for the buffer Spring keeps in front of it
+        registration.setSendTimeLimit(sendTimeLimitMillis)
+                .setSendBufferSizeLimit(sendBufferSizeLimit)
+                .setMessageSizeLimit(messageSizeLimit)
+                .addDecoratorFactory(handler -> outboundQueueHandler = new OutboundQueueWebSocketHandler(handler,
+                        outboundQueueCapacity, overflowPolicy, sendTimeLimitMillis, webSocketOutboundExecutor(), meterRegistry));
+    }
+
+    /**
+     * Enforces the send time limit on sessions whose drain is blocked, so stalled clients can't hold
+     * the drain threads.
+     */
+    @Scheduled(fixedDelayString = "${nexhub.websocket.stall-check-interval:PT1S}")
+    public void closeStalledSessions() {
+        OutboundQueueWebSocketHandler handler = outboundQueueHandler;
+        if (handler != null) {
+            handler.closeStalledSessions();
+        }
+    }
+
+    /**
+     * Drains the per-session outbound queues; a stalled session occupies at most one thread, and only
+     * until {@link #closeStalledSessions} closes it.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor webSocketOutboundExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(drainThreads);
+        executor.setMaxPoolSize(drainThreads);
+        executor.setThreadNamePrefix("ws-outbound-");
+        executor.initialize();
+        return executor;
+    }
+
     @Override
     public void configureClientInboundChannel(@NonNull ChannelRegistration registration) {
         // Add JWT authentication interceptor for STOMP CONNECT frames
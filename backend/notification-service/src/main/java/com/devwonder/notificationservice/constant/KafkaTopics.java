@@ -1,5 +1,7 @@
 package com.devwonder.notificationservice.constant;
 
+import java.util.List;
+
 public final class KafkaTopics {
 
     // Prevent instantiation
@@ -13,6 +15,11 @@ public final class KafkaTopics {
     public static final String ORDER_NOTIFICATIONS = "order-notifications";
     public static final String LOGIN_CONFIRMATION = "login-confirmation-notifications";
     public static final String LOGIN_CONFIRMED = "login-confirmed-notifications";
+    public static final String PASSWORD_RESET = "password-reset-notifications";
+
+    // Topics this service's listeners consume
+    public static final List<String> CONSUMED_TOPICS = List.of(
+            DEALER_EMAIL, DEALER_SOCKET, ORDER_NOTIFICATIONS, LOGIN_CONFIRMATION, LOGIN_CONFIRMED, PASSWORD_RESET);
 
     // Consumer groups
     public static final String NOTIFICATION_SERVICE_GROUP = "notification-service-group";
@@ -1,6 +1,7 @@
 package com.devwonder.notificationservice.controller;
 
 import com.devwonder.common.dto.BaseResponse;
+import com.devwonder.notificationservice.dto.NotificationPageResponse;
 import com.devwonder.notificationservice.dto.NotificationResponse;
 import com.devwonder.notificationservice.entity.Notification;
 import com.devwonder.notificationservice.mapper.NotificationMapper;
@@ -11,6 +12,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Arrays;
 import java.util.List;
 
 @RestController
@@ -20,6 +22,10 @@ import java.util.List;
 @Slf4j
 public class NotificationController {
 
+    // Forwarded by the API gateway from the caller's JWT
+    private static final String ACCOUNT_ID_HEADER = "X-JWT-Account-ID";
+    private static final String ROLES_HEADER = "X-User-Roles";
+
     private final NotificationService notificationService;
     private final NotificationMapper notificationMapper;
     
@@ -36,16 +42,63 @@ public class NotificationController {
         return ResponseEntity.ok(BaseResponse.success("Notifications retrieved successfully", response));
     }
     
+    @GetMapping("/inbox")
+    public ResponseEntity<BaseResponse<NotificationPageResponse>> getInbox(
+            @RequestHeader(ACCOUNT_ID_HEADER) Long accountId,
+            @RequestHeader(value = ROLES_HEADER, required = false) String roles,
+            @RequestParam(required = false) String before,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(defaultValue = "false") boolean unreadOnly) {
+
+        log.info("Requesting notification inbox page (limit {}, unreadOnly {})", limit, unreadOnly);
+
+        NotificationPageResponse response = notificationService.getInboxPage(inboxOf(accountId, roles), before, limit, unreadOnly);
+
+        return ResponseEntity.ok(BaseResponse.success("Notifications retrieved successfully", response));
+    }
+
+    @GetMapping("/unread-count")
+    public ResponseEntity<BaseResponse<Long>> getUnreadCount(
+            @RequestHeader(ACCOUNT_ID_HEADER) Long accountId,
+            @RequestHeader(value = ROLES_HEADER, required = false) String roles) {
+        return ResponseEntity.ok(BaseResponse.success("Unread count retrieved successfully",
+                notificationService.getUnreadCount(inboxOf(accountId, roles))));
+    }
+
+    @PatchMapping("/read-all")
+    public ResponseEntity<BaseResponse<Integer>> markAllNotificationsAsRead(
+            @RequestHeader(ACCOUNT_ID_HEADER) Long accountId,
+            @RequestHeader(value = ROLES_HEADER, required = false) String roles,
+            @RequestParam(required = false) String upTo) {
+
+        log.info("Marking notifications as read up to cursor {}", upTo);
+
+        int marked = notificationService.markAllAsRead(inboxOf(accountId, roles), upTo);
+
+        return ResponseEntity.ok(BaseResponse.success(String.format("Marked %d notifications as read", marked), marked));
+    }
+
     @PatchMapping("/{id}/read")
-    public ResponseEntity<BaseResponse<NotificationResponse>> markNotificationAsRead(@PathVariable Long id) {
+    public ResponseEntity<BaseResponse<NotificationResponse>> markNotificationAsRead(
+            @RequestHeader(ACCOUNT_ID_HEADER) Long accountId,
+            @RequestHeader(value = ROLES_HEADER, required = false) String roles,
+            @PathVariable Long id) {
 
         log.info("Marking notification {} as read", id);
 
-        Notification updatedNotification = notificationService.markAsRead(id);
+        Notification updatedNotification = notificationService.markAsRead(inboxOf(accountId, roles), id);
         NotificationResponse response = notificationMapper.toNotificationResponse(updatedNotification);
 
         log.info("Successfully marked notification {} as read", id);
 
         return ResponseEntity.ok(BaseResponse.success("Notification marked as read", response));
     }
-}
\ No newline at end of file
+
+    /**
+     * Admins share the admin inbox; anyone else reads the inbox of their own account.
+     */
+    private static long inboxOf(Long accountId, String roles) {
+        boolean admin = roles != null && Arrays.stream(roles.split(",")).map(String::trim).anyMatch("ADMIN"::equalsIgnoreCase);
+        return admin ? Notification.ADMIN_INBOX : accountId;
+    }
+}
@@ -0,0 +1,20 @@
+package com.devwonder.notificationservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationPageResponse {
+
+    private List<NotificationResponse> notifications;
+    // Pass back as "before" for the next (older) page; null on the last page
+    private String nextCursor;
+    private long unreadCount;
+}
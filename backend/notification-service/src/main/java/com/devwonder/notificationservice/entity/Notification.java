@@ -16,9 +16,15 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Builder
 public class Notification {
+
+    /**
+     * {@link #recipientId} of notifications in the inbox shared by all admins.
+     */
+    public static final long ADMIN_INBOX = 0L;
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notification_seq")
+    @SequenceGenerator(name = "notification_seq", sequenceName = "notification_id_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false)
@@ -36,6 +42,10 @@ public class Notification {
     
     @Column(nullable = false)
     private String type;
+
+    // ADMIN_INBOX, or the account id of the dealer the notification was written for
+    @Column(name = "recipient_id", nullable = false)
+    private Long recipientId;
     
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
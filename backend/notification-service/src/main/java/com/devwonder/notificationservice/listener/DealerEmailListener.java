@@ -1,10 +1,15 @@
 package com.devwonder.notificationservice.listener;
 
 import com.devwonder.common.event.DealerEmailEvent;
+import com.devwonder.notificationservice.constant.KafkaTopics;
+import com.devwonder.notificationservice.service.EmailDeliveryTracker;
 import com.devwonder.notificationservice.service.EmailService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -13,27 +18,25 @@ import org.springframework.stereotype.Component;
 public class DealerEmailListener {
     
     private final EmailService emailService;
+    private final EmailDeliveryTracker emailDeliveryTracker;
     
     @KafkaListener(
         topics = "email-notifications",
         groupId = "notification-service-group-email",
         containerFactory = "emailNotificationKafkaListenerContainerFactory"
     )
-    public void consumeEmailNotification(DealerEmailEvent event) {
-        try {
-            log.info("Received email notification event for accountId: {} and company: {}", 
-                event.getAccountId(), event.getCompanyName());
-            
-            log.info("Processing email notification for dealer: {}", event.getCompanyName());
-            
-            // Send welcome email
-            emailService.sendDealerWelcomeEmail(event);
-            
-            log.info("Successfully processed email notification for accountId: {}", 
-                event.getAccountId());
-        } catch (Exception e) {
-            log.error("Error processing email notification for accountId: {}", 
-                event.getAccountId(), e);
-        }
+    public void consumeEmailNotification(@Payload DealerEmailEvent event,
+            @Header(name = KafkaHeaders.RECEIVED_KEY, required = false) String key) {
+        log.info("Received email notification event for accountId: {} and company: {}", 
+            event.getAccountId(), event.getCompanyName());
+        
+        log.info("Processing email notification for dealer: {}", event.getCompanyName());
+        
+        // Queue welcome email; throws if the dispatcher refuses it, a failed delivery goes to the DLT
+        emailDeliveryTracker.track(KafkaTopics.DEALER_EMAIL, key, event,
+                emailService.sendDealerWelcomeEmail(event));
+        
+        log.info("Successfully processed email notification for accountId: {}", 
+            event.getAccountId());
     }
 }
\ No newline at end of file
@@ -2,21 +2,27 @@ package com.devwonder.notificationservice.listener;
 
 import com.devwonder.notificationservice.entity.Notification;
 import com.devwonder.common.event.DealerRegistrationEvent;
+import com.devwonder.notificationservice.service.NotificationRecipientResolver;
 import com.devwonder.notificationservice.service.NotificationService;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import com.devwonder.notificationservice.service.StompFanoutService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
+import java.util.Set;
+
+import static com.devwonder.notificationservice.service.NotificationRecipientResolver.principalNames;
+
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class DealerSocketListener {
     
-    private final SimpMessagingTemplate messagingTemplate;
+    private final StompFanoutService stompFanoutService;
     private final NotificationService notificationService;
+    private final NotificationRecipientResolver recipientResolver;
     
     @KafkaListener(
         topics = "dealer-registration-notifications",
@@ -31,8 +37,9 @@ public class DealerSocketListener {
         // Save notification to database
         Notification notification = notificationService.createDealerRegistrationNotification(event);
         
-        // Send saved notification via WebSocket (ADMIN only subscription)
-        messagingTemplate.convertAndSend("/topic/dealer-registrations", notification);
+        // Push to the subscribed admins that are online; everyone else reads it from the inbox
+        Set<Long> recipients = recipientResolver.resolveDealerRegistrationRecipients(event);
+        stompFanoutService.sendToUsers(principalNames(recipients), "/queue/dealer-registrations", notification);
         
         log.info("Successfully processed websocket notification for accountId: {} with notificationId: {}", 
             event.getAccountId(), notification.getId());
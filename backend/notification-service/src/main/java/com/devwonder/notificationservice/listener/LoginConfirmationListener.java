@@ -1,10 +1,15 @@
 package com.devwonder.notificationservice.listener;
 
 import com.devwonder.common.event.LoginConfirmationEvent;
+import com.devwonder.notificationservice.constant.KafkaTopics;
+import com.devwonder.notificationservice.service.EmailDeliveryTracker;
 import com.devwonder.notificationservice.service.EmailService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -13,27 +18,25 @@ import org.springframework.stereotype.Component;
 public class LoginConfirmationListener {
 
     private final EmailService emailService;
+    private final EmailDeliveryTracker emailDeliveryTracker;
 
     @KafkaListener(
         topics = "login-confirmation-notifications",
         groupId = "notification-service-group-login",
         containerFactory = "loginConfirmationKafkaListenerContainerFactory"
     )
-    public void consumeLoginConfirmation(LoginConfirmationEvent event) {
-        try {
-            log.info("Received login confirmation event for accountId: {} and username: {}",
-                event.getAccountId(), event.getUsername());
+    public void consumeLoginConfirmation(@Payload LoginConfirmationEvent event,
+            @Header(name = KafkaHeaders.RECEIVED_KEY, required = false) String key) {
+        log.info("Received login confirmation event for accountId: {} and username: {}",
+            event.getAccountId(), event.getUsername());
 
-            log.info("Processing login confirmation email for user: {}", event.getUsername());
+        log.info("Processing login confirmation email for user: {}", event.getUsername());
 
-            // Send login confirmation email
-            emailService.sendLoginConfirmationEmail(event);
+        // Queue login confirmation email; throws if the dispatcher refuses it, a failed delivery goes to the DLT
+        emailDeliveryTracker.track(KafkaTopics.LOGIN_CONFIRMATION, key, event,
+                emailService.sendLoginConfirmationEmail(event));
 
-            log.info("Successfully processed login confirmation for accountId: {}",
-                event.getAccountId());
-        } catch (Exception e) {
-            log.error("Error processing login confirmation for accountId: {}",
-                event.getAccountId(), e);
-        }
+        log.info("Successfully processed login confirmation for accountId: {}",
+            event.getAccountId());
     }
 }
@@ -1,10 +1,10 @@
 package com.devwonder.notificationservice.listener;
 
 import com.devwonder.common.event.LoginConfirmationNotificationEvent;
+import com.devwonder.notificationservice.service.StompFanoutService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -12,7 +12,7 @@ import org.springframework.stereotype.Component;
 @Slf4j
 public class LoginConfirmedListener {
 
-    private final SimpMessagingTemplate messagingTemplate;
+    private final StompFanoutService stompFanoutService;
 
     @KafkaListener(
         topics = "login-confirmed-notifications",
@@ -20,21 +20,15 @@ public class LoginConfirmedListener {
         containerFactory = "loginConfirmedKafkaListenerContainerFactory"
     )
     public void consumeLoginConfirmed(LoginConfirmationNotificationEvent event) {
-        try {
-            log.info("Received login confirmed event for accountId: {}, username: {}",
-                event.getAccountId(), event.getUsername());
+        log.info("Received login confirmed event for accountId: {}, username: {}",
+            event.getAccountId(), event.getUsername());
 
-            // Send WebSocket notification to specific user (identified by username as Principal)
-            String username = event.getUsername();
-            String destination = "/queue/login-confirmed";
-            messagingTemplate.convertAndSendToUser(username, destination, event);
+        // Send WebSocket notification to specific user (identified by account id as Principal)
+        String principalName = String.valueOf(event.getAccountId());
+        String destination = "/queue/login-confirmed";
+        stompFanoutService.sendToUser(principalName, destination, event);
 
-            log.info("✅ WebSocket notification sent to user: {} at destination: /user/{}/{}",
-                username, username, destination);
-
-        } catch (Exception e) {
-            log.error("Error sending WebSocket notification for username: {}, accountId: {}",
-                event.getUsername(), event.getAccountId(), e);
-        }
+        log.info("✅ WebSocket notification sent to user: {} at destination: /user/{}{}",
+            event.getUsername(), principalName, destination);
     }
 }
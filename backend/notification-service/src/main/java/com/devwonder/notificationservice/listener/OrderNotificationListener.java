@@ -2,21 +2,26 @@ package com.devwonder.notificationservice.listener;
 
 import com.devwonder.common.event.OrderNotificationEvent;
 import com.devwonder.notificationservice.constant.KafkaTopics;
-import com.devwonder.notificationservice.entity.Notification;
+import com.devwonder.notificationservice.service.NotificationRecipientResolver;
 import com.devwonder.notificationservice.service.NotificationService;
+import com.devwonder.notificationservice.service.StompFanoutService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Component;
 
+import java.util.Set;
+
+import static com.devwonder.notificationservice.service.NotificationRecipientResolver.principalNames;
+
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class OrderNotificationListener {
 
     private final NotificationService notificationService;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final StompFanoutService stompFanoutService;
+    private final NotificationRecipientResolver recipientResolver;
 
     @KafkaListener(
         topics = KafkaTopics.ORDER_NOTIFICATIONS,
@@ -24,21 +29,19 @@ public class OrderNotificationListener {
         containerFactory = "orderNotificationKafkaListenerContainerFactory"
     )
     public void consumeOrderNotification(OrderNotificationEvent event) {
-        try {
-            log.info("Received order notification event for orderId: {} and dealerId: {}",
-                event.getOrderId(), event.getDealerId());
-
-            // Save notification to database
-            Notification notification = notificationService.createOrderNotification(event);
-
-            // Send saved notification via WebSocket (ADMIN only subscription)
-            messagingTemplate.convertAndSend("/topic/order-notifications", notification);
-
-            log.info("Successfully processed order notification for orderId: {} with notificationId: {}",
-                event.getOrderId(), notification.getId());
-        } catch (Exception e) {
-            log.error("Error processing order notification for orderId: {}",
-                event.getOrderId(), e);
-        }
+        log.info("Received order notification event for orderId: {} and dealerId: {}",
+            event.getOrderId(), event.getDealerId());
+
+        // Save the admin and the dealer copy to their inboxes
+        NotificationService.OrderNotifications notifications = notificationService.createOrderNotification(event);
+
+        // Push to the online recipients only; everyone else reads it from their inbox
+        Set<Long> admins = recipientResolver.resolveOrderAdminRecipients(event);
+        Set<Long> dealers = recipientResolver.resolveOrderDealerRecipients(event);
+        stompFanoutService.sendToUsers(principalNames(admins), "/queue/order-notifications", notifications.admin());
+        stompFanoutService.sendToUsers(principalNames(dealers), "/queue/order-notifications", notifications.dealer());
+
+        log.info("Successfully processed order notification for orderId: {} with notificationId: {} ({} online recipients)",
+            event.getOrderId(), notifications.admin().getId(), admins.size() + dealers.size());
     }
 }
\ No newline at end of file
@@ -1,10 +1,15 @@
 package com.devwonder.notificationservice.listener;
 
 import com.devwonder.common.event.PasswordResetEvent;
+import com.devwonder.notificationservice.constant.KafkaTopics;
+import com.devwonder.notificationservice.service.EmailDeliveryTracker;
 import com.devwonder.notificationservice.service.EmailService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -13,27 +18,25 @@ import org.springframework.stereotype.Component;
 public class PasswordResetListener {
 
     private final EmailService emailService;
+    private final EmailDeliveryTracker emailDeliveryTracker;
 
     @KafkaListener(
         topics = "password-reset-notifications",
         groupId = "notification-service-group-password-reset",
         containerFactory = "passwordResetKafkaListenerContainerFactory"
     )
-    public void consumePasswordReset(PasswordResetEvent event) {
-        try {
-            log.info("Received password reset event for accountId: {} and username: {}",
-                event.getAccountId(), event.getUsername());
+    public void consumePasswordReset(@Payload PasswordResetEvent event,
+            @Header(name = KafkaHeaders.RECEIVED_KEY, required = false) String key) {
+        log.info("Received password reset event for accountId: {} and username: {}",
+            event.getAccountId(), event.getUsername());
 
-            log.info("Processing password reset email for user: {}", event.getUsername());
+        log.info("Processing password reset email for user: {}", event.getUsername());
 
-            // Send password reset email
-            emailService.sendPasswordResetEmail(event);
+        // Queue password reset email; throws if the dispatcher refuses it, a failed delivery goes to the DLT
+        emailDeliveryTracker.track(KafkaTopics.PASSWORD_RESET, key, event,
+                emailService.sendPasswordResetEmail(event));
 
-            log.info("Successfully processed password reset for accountId: {}",
-                event.getAccountId());
-        } catch (Exception e) {
-            log.error("Error processing password reset for accountId: {}",
-                event.getAccountId(), e);
-        }
+        log.info("Successfully processed password reset for accountId: {}",
+            event.getAccountId());
     }
 }
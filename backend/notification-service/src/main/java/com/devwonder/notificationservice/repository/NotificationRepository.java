@@ -2,12 +2,62 @@ package com.devwonder.notificationservice.repository;
 
 import com.devwonder.notificationservice.entity.Notification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
     
-    List<Notification> findAllByOrderByCreatedAtDesc();
-}
\ No newline at end of file
+    List<Notification> findAllByRecipientIdOrderByCreatedAtDesc(Long recipientId);
+
+    Optional<Notification> findByIdAndRecipientId(Long id, Long recipientId);
+
+    // Keyset pages of one recipient's inbox, newest first, on idx_notifies_recipient_created_at_id. The unread
+    // variants are separate queries (not a flag) so their read = false predicate always matches the partial
+    // idx_notifies_recipient_unread_created_at_id
+    @Query(value = "SELECT * FROM notifies WHERE recipient_id = :recipientId " +
+                   "ORDER BY created_at DESC, id DESC LIMIT :limit", nativeQuery = true)
+    List<Notification> findInboxFirstPage(@Param("recipientId") long recipientId, @Param("limit") int limit);
+
+    @Query(value = "SELECT * FROM notifies WHERE recipient_id = :recipientId AND (created_at, id) < (:createdAt, :id) " +
+                   "ORDER BY created_at DESC, id DESC LIMIT :limit", nativeQuery = true)
+    List<Notification> findInboxPageBefore(@Param("recipientId") long recipientId,
+                                           @Param("createdAt") LocalDateTime createdAt, @Param("id") long id,
+                                           @Param("limit") int limit);
+
+    @Query(value = "SELECT * FROM notifies WHERE recipient_id = :recipientId AND read = false " +
+                   "ORDER BY created_at DESC, id DESC LIMIT :limit", nativeQuery = true)
+    List<Notification> findUnreadFirstPage(@Param("recipientId") long recipientId, @Param("limit") int limit);
+
+    @Query(value = "SELECT * FROM notifies WHERE recipient_id = :recipientId AND read = false " +
+                   "AND (created_at, id) < (:createdAt, :id) " +
+                   "ORDER BY created_at DESC, id DESC LIMIT :limit", nativeQuery = true)
+    List<Notification> findUnreadPageBefore(@Param("recipientId") long recipientId,
+                                            @Param("createdAt") LocalDateTime createdAt, @Param("id") long id,
+                                            @Param("limit") int limit);
+
+    @Query(value = "SELECT count(*) FROM notifies WHERE recipient_id = :recipientId AND read = false", nativeQuery = true)
+    long countUnread(@Param("recipientId") long recipientId);
+
+    @Modifying(clearAutomatically = true)
+    @Query(value = "UPDATE notifies SET read = true WHERE id = :id AND recipient_id = :recipientId AND read = false",
+           nativeQuery = true)
+    int markRead(@Param("id") Long id, @Param("recipientId") long recipientId);
+
+    @Modifying
+    @Query(value = "UPDATE notifies SET read = true WHERE recipient_id = :recipientId AND read = false " +
+                   "AND (created_at, id) <= (:createdAt, :id)", nativeQuery = true)
+    int markAllReadUpTo(@Param("recipientId") long recipientId, @Param("createdAt") LocalDateTime createdAt,
+                        @Param("id") long id);
+
+    @Modifying
+    @Query(value = "UPDATE notifies SET read = true WHERE recipient_id = :recipientId AND read = false",
+           nativeQuery = true)
+    int markAllRead(@Param("recipientId") long recipientId);
+}
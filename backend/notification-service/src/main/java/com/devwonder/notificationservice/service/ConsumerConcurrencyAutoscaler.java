@@ -0,0 +1,166 @@
+package com.devwonder.notificationservice.service;
+
+import com.devwonder.notificationservice.constant.KafkaTopics;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Scales the consumer threads of each main-topic listener with its consumer-group lag.
+ *
+ * The concurrency a listener factory is configured with is the floor. The group's lag and partitions are
+ * shared by every replica consuming in it, so each replica takes its share of both: the ceiling is the
+ * partition count divided by the replicas in the group (extra threads would sit idle), and a listener gets
+ * enough threads to keep its share of the lag per thread under {@code nexhub.kafka.autoscale.lag-per-consumer}.
+ * It scales up as soon as the lag calls for it and
+ * down one thread at a time after the cooldown, since every change restarts the container and rebalances
+ * the group. Retry-topic listeners are left alone: their lag is records deliberately waiting out a delay.
+ */
+@Service
+@ConditionalOnProperty(name = "nexhub.kafka.autoscale.enabled", havingValue = "true")
+@Slf4j
+public class ConsumerConcurrencyAutoscaler {
+
+    private final KafkaListenerEndpointRegistry registry;
+    private final ConsumerLagReader lagReader;
+    private final MeterRegistry meterRegistry;
+    private final long lagPerConsumer;
+    private final long scaleDownCooldownMillis;
+    private final Map<String, ScalingState> states = new ConcurrentHashMap<>();
+    // Restarts block until the consumers have stopped, so they run off the shared scheduler thread
+    private final ExecutorService restartExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "kafka-concurrency-autoscaler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ConsumerConcurrencyAutoscaler(KafkaListenerEndpointRegistry registry, ConsumerLagReader lagReader,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${nexhub.kafka.autoscale.lag-per-consumer:500}") long lagPerConsumer,
+                                         @Value("${nexhub.kafka.autoscale.scale-down-cooldown:PT5M}") Duration scaleDownCooldown) {
+        if (lagPerConsumer < 1) {
+            throw new IllegalStateException("nexhub.kafka.autoscale.lag-per-consumer must be positive");
+        }
+        this.registry = registry;
+        this.lagReader = lagReader;
+        this.meterRegistry = meterRegistry;
+        this.lagPerConsumer = lagPerConsumer;
+        this.scaleDownCooldownMillis = scaleDownCooldown.toMillis();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        restartExecutor.shutdownNow();
+    }
+
+    @Scheduled(fixedDelayString = "${nexhub.kafka.autoscale.interval:PT30S}")
+    public void adjust() {
+        for (MessageListenerContainer listenerContainer : registry.getListenerContainers()) {
+            if (listenerContainer instanceof ConcurrentMessageListenerContainer<?, ?> container && isMainListener(container)) {
+                adjust(container);
+            }
+        }
+    }
+
+    private void adjust(ConcurrentMessageListenerContainer<?, ?> container) {
+        ScalingState state = states.computeIfAbsent(container.getListenerId(), id -> register(container));
+        if (state.restarting || !container.isRunning()) {
+            return;
+        }
+
+        ConsumerLagReader.GroupLag groupLag;
+        try {
+            groupLag = lagReader.read(container.getGroupId(), List.of(container.getContainerProperties().getTopics()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (Exception e) {
+            log.warn("Could not read lag for consumer group {}, keeping its concurrency: {}",
+                    container.getGroupId(), e.getMessage());
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        int current = container.getConcurrency();
+        int target = targetConcurrency(current, state.minConcurrency, groupLag.partitions(), groupLag.lag(),
+                lagPerConsumer, groupLag.replicas(), now - state.lastChangeMillis >= scaleDownCooldownMillis);
+        if (target == current) {
+            return;
+        }
+
+        log.info("Scaling consumer group {} from {} to {} threads (lag {} over {} partitions, {} replicas)",
+                container.getGroupId(), current, target, groupLag.lag(), groupLag.partitions(), groupLag.replicas());
+        state.restarting = true;
+        restartExecutor.execute(() -> {
+            try {
+                container.stop();
+                container.setConcurrency(target);
+                container.start();
+                state.lastChangeMillis = System.currentTimeMillis();
+            } catch (RuntimeException e) {
+                log.error("Failed to change concurrency of consumer group {}: {}", container.getGroupId(), e.getMessage());
+            } finally {
+                state.restarting = false;
+            }
+        });
+    }
+
+    /**
+     * Threads this replica needs to keep its share of the lag per thread under {@code lagPerConsumer}, between
+     * {@code minConcurrency} and its share of the partitions. Scaling up jumps straight to the target; scaling
+     * down drops one thread, and only once {@code mayScaleDown}.
+     */
+    static int targetConcurrency(int current, int minConcurrency, int partitions, long lag, long lagPerConsumer,
+                                 int replicas, boolean mayScaleDown) {
+        int max = Math.max(minConcurrency, (partitions + replicas - 1) / replicas);
+        long needed = (lag + lagPerConsumer * replicas - 1) / (lagPerConsumer * replicas);
+        int wanted = (int) Math.min(max, Math.max(minConcurrency, needed));
+
+        if (wanted > current) {
+            return wanted;
+        }
+        if (wanted < current && mayScaleDown) {
+            return current - 1;
+        }
+        return current;
+    }
+
+    private static boolean isMainListener(ConcurrentMessageListenerContainer<?, ?> container) {
+        String[] topics = container.getContainerProperties().getTopics();
+        return topics != null && topics.length > 0 && KafkaTopics.CONSUMED_TOPICS.containsAll(List.of(topics));
+    }
+
+    private ScalingState register(ConcurrentMessageListenerContainer<?, ?> container) {
+        Gauge.builder("nexhub.kafka.listener.concurrency", container, ConcurrentMessageListenerContainer::getConcurrency)
+                .description("Consumer threads of a listener container")
+                .tag("group", String.valueOf(container.getGroupId()))
+                .register(meterRegistry);
+        return new ScalingState(container.getConcurrency());
+    }
+
+    private static final class ScalingState {
+
+        private final int minConcurrency;
+        private volatile long lastChangeMillis;
+        private volatile boolean restarting;
+
+        private ScalingState(int minConcurrency) {
+            this.minConcurrency = minConcurrency;
+        }
+    }
+}
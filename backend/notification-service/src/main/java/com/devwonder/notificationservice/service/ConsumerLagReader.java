@@ -0,0 +1,95 @@
+package com.devwonder.notificationservice.service;
+
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.ConsumerGroupDescription;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.MemberDescription;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.TopicPartitionInfo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Reads consumer-group lag (log end offset minus committed offset, summed over partitions), partition
+ * counts and the number of replicas consuming in the group through the Kafka AdminClient.
+ */
+@Component
+@ConditionalOnProperty(name = "nexhub.kafka.autoscale.enabled", havingValue = "true")
+public class ConsumerLagReader {
+
+    private final Admin admin;
+    private final long timeoutMillis;
+
+    @Autowired
+    public ConsumerLagReader(KafkaAdmin kafkaAdmin,
+                             @Value("${nexhub.kafka.autoscale.admin-timeout:PT10S}") Duration timeout) {
+        this(Admin.create(kafkaAdmin.getConfigurationProperties()), timeout);
+    }
+
+    ConsumerLagReader(Admin admin, Duration timeout) {
+        this.admin = admin;
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    @PreDestroy
+    public void close() {
+        admin.close(Duration.ofMillis(timeoutMillis));
+    }
+
+    public GroupLag read(String groupId, Collection<String> topics)
+            throws ExecutionException, InterruptedException, TimeoutException {
+        Map<String, TopicDescription> descriptions = admin.describeTopics(topics).allTopicNames()
+                .get(timeoutMillis, TimeUnit.MILLISECONDS);
+
+        Map<TopicPartition, OffsetSpec> latest = new HashMap<>();
+        for (TopicDescription description : descriptions.values()) {
+            for (TopicPartitionInfo partition : description.partitions()) {
+                latest.put(new TopicPartition(description.name(), partition.partition()), OffsetSpec.latest());
+            }
+        }
+
+        Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> endOffsets = admin.listOffsets(latest).all()
+                .get(timeoutMillis, TimeUnit.MILLISECONDS);
+        Map<TopicPartition, OffsetAndMetadata> committed = admin.listConsumerGroupOffsets(groupId)
+                .partitionsToOffsetAndMetadata().get(timeoutMillis, TimeUnit.MILLISECONDS);
+
+        long lag = 0;
+        for (Map.Entry<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> entry : endOffsets.entrySet()) {
+            OffsetAndMetadata offset = committed.get(entry.getKey());
+            // A partition the group never committed on starts at the log end (auto.offset.reset=latest)
+            if (offset != null) {
+                lag += Math.max(0, entry.getValue().offset() - offset.offset());
+            }
+        }
+        return new GroupLag(lag, latest.size(), replicas(groupId));
+    }
+
+    /**
+     * Replicas with live members in the group, told apart by their host; at least 1, the caller's own.
+     */
+    private int replicas(String groupId) throws ExecutionException, InterruptedException, TimeoutException {
+        ConsumerGroupDescription group = admin.describeConsumerGroups(List.of(groupId)).describedGroups()
+                .get(groupId).get(timeoutMillis, TimeUnit.MILLISECONDS);
+        long hosts = group.members().stream().map(MemberDescription::host).distinct().count();
+        return (int) Math.max(1, hosts);
+    }
+
+    public record GroupLag(long lag, int partitions, int replicas) {
+    }
+}
@@ -0,0 +1,88 @@
+package com.devwonder.notificationservice.service;
+
+import com.devwonder.common.exception.EmailSendException;
+import com.devwonder.common.kafka.KafkaRetryMetrics;
+import com.devwonder.common.kafka.KafkaRetryTopicSupport;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Ties a queued email back to the Kafka record that asked for it.
+ *
+ * An email the {@link EmailDispatcher} refused (queue still full after the enqueue timeout, or a message
+ * that could not be built) is rethrown on the listener thread, so the record is not committed and goes
+ * through the retry topics like any other listener failure. An email that was queued but then failed every
+ * send attempt has its event parked on the topic's {@code -dlt}, where {@code DeadLetterReplayer} can
+ * replay it once the mail server is healthy again.
+ */
+@Component
+@Slf4j
+public class EmailDeliveryTracker {
+
+    private final KafkaTemplate<Object, Object> retryTopicKafkaTemplate;
+    private final KafkaRetryMetrics kafkaRetryMetrics;
+
+    public EmailDeliveryTracker(KafkaTemplate<Object, Object> retryTopicKafkaTemplate,
+                                KafkaRetryMetrics kafkaRetryMetrics) {
+        this.retryTopicKafkaTemplate = retryTopicKafkaTemplate;
+        this.kafkaRetryMetrics = kafkaRetryMetrics;
+    }
+
+    /**
+     * Throws when the email was not queued; otherwise returns and dead-letters the event if delivery fails.
+     */
+    public void track(String topic, String key, Object event, CompletableFuture<Void> delivery) {
+        // EmailDispatcher completes the future before returning when it refuses a message
+        if (delivery.isCompletedExceptionally()) {
+            throw rejection(delivery);
+        }
+
+        delivery.whenComplete((ignored, error) -> {
+            if (error != null) {
+                deadLetter(topic, key, event, error instanceof CompletionException ? error.getCause() : error);
+            }
+        });
+    }
+
+    private void deadLetter(String topic, String key, Object event, Throwable cause) {
+        String deadLetterTopic = topic + KafkaRetryTopicSupport.DLT_SUFFIX;
+        ProducerRecord<Object, Object> record = new ProducerRecord<>(deadLetterTopic, key, event);
+        record.headers().add(KafkaHeaders.DLT_ORIGINAL_TOPIC, topic.getBytes(StandardCharsets.UTF_8));
+        record.headers().add(KafkaHeaders.DLT_EXCEPTION_FQCN,
+                cause.getClass().getName().getBytes(StandardCharsets.UTF_8));
+        record.headers().add(KafkaHeaders.DLT_EXCEPTION_MESSAGE,
+                String.valueOf(cause.getMessage()).getBytes(StandardCharsets.UTF_8));
+
+        try {
+            retryTopicKafkaTemplate.send(record).whenComplete((result, failure) -> {
+                if (failure != null) {
+                    log.error("Email to key {} failed and could not be dead-lettered on {}: {}",
+                            key, deadLetterTopic, failure.getMessage());
+                    return;
+                }
+                kafkaRetryMetrics.forwarded(topic, deadLetterTopic);
+                log.warn("Email for key {} failed ({}), event parked on {}", key, cause.getMessage(), deadLetterTopic);
+            });
+        } catch (RuntimeException e) {
+            log.error("Email to key {} failed and could not be dead-lettered on {}: {}",
+                    key, deadLetterTopic, e.getMessage());
+        }
+    }
+
+    private static RuntimeException rejection(CompletableFuture<Void> delivery) {
+        try {
+            delivery.join();
+            return new EmailSendException("Email was not queued");
+        } catch (CompletionException e) {
+            return e.getCause() instanceof RuntimeException cause ? cause
+                    : new EmailSendException("Email was not queued", e.getCause());
+        }
+    }
+}
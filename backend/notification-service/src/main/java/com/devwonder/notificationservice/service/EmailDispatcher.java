@@ -0,0 +1,242 @@
+package com.devwonder.notificationservice.service;
+
+import com.devwonder.common.exception.EmailSendException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends email off the caller's thread.
+ *
+ * Messages go into a bounded queue drained by a fixed number of sender threads. Each sender keeps its
+ * own SMTP connection open between messages (closing it after an idle period), and sends whatever has
+ * queued up, up to {@code batch-size} messages, over that one connection. Failed sends are retried with
+ * exponential backoff; addresses the server rejects outright are not. A full queue makes callers wait
+ * up to {@code enqueue-timeout}, pushing back on the Kafka listeners instead of growing memory.
+ */
+@Component
+@Slf4j
+public class EmailDispatcher {
+
+    private final JavaMailSenderImpl mailSender;
+    private final BlockingQueue<PendingEmail> queue;
+    private final int workers;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration idleConnectionTimeout;
+    private final Duration enqueueTimeout;
+
+    private final List<Thread> senderThreads = new ArrayList<>();
+    private final ScheduledExecutorService retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "email-retry");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean running = true;
+
+    public EmailDispatcher(JavaMailSenderImpl mailSender,
+                           @Value("${nexhub.email.queue-capacity:1000}") int queueCapacity,
+                           @Value("${nexhub.email.workers:2}") int workers,
+                           @Value("${nexhub.email.batch-size:20}") int batchSize,
+                           @Value("${nexhub.email.max-attempts:4}") int maxAttempts,
+                           @Value("${nexhub.email.initial-backoff:PT2S}") Duration initialBackoff,
+                           @Value("${nexhub.email.max-backoff:PT1M}") Duration maxBackoff,
+                           @Value("${nexhub.email.idle-connection-timeout:PT30S}") Duration idleConnectionTimeout,
+                           @Value("${nexhub.email.enqueue-timeout:PT5S}") Duration enqueueTimeout) {
+        this.mailSender = mailSender;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.workers = workers;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.idleConnectionTimeout = idleConnectionTimeout;
+        this.enqueueTimeout = enqueueTimeout;
+    }
+
+    @PostConstruct
+    void start() {
+        for (int i = 0; i < workers; i++) {
+            Thread thread = new Thread(this::senderLoop, "email-sender-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            senderThreads.add(thread);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        retryScheduler.shutdownNow();
+        senderThreads.forEach(Thread::interrupt);
+    }
+
+    /**
+     * Queues a message; the future completes once the server accepted it or all attempts failed.
+     */
+    public CompletableFuture<Void> submit(MimeMessage message) {
+        try {
+            // Fixes the headers (Message-ID, MIME structure) on the caller's thread
+            message.saveChanges();
+        } catch (MessagingException e) {
+            return CompletableFuture.failedFuture(new EmailSendException("Invalid email message", e));
+        }
+
+        PendingEmail pending = new PendingEmail(message, new CompletableFuture<>());
+        try {
+            if (!queue.offer(pending, enqueueTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                pending.result().completeExceptionally(new EmailSendException("Email queue is full"));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pending.result().completeExceptionally(new EmailSendException("Interrupted while queueing email", e));
+        }
+        return pending.result();
+    }
+
+    /**
+     * Batch mode: queues all messages back to back, so the senders deliver them over shared connections.
+     */
+    public List<CompletableFuture<Void>> submitAll(Collection<MimeMessage> messages) {
+        List<CompletableFuture<Void>> results = new ArrayList<>(messages.size());
+        for (MimeMessage message : messages) {
+            results.add(submit(message));
+        }
+        return results;
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    private void senderLoop() {
+        Transport transport = null;
+        List<PendingEmail> batch = new ArrayList<>(batchSize);
+
+        while (running) {
+            try {
+                PendingEmail first = queue.poll(idleConnectionTimeout.toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    transport = close(transport);
+                    continue;
+                }
+
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                transport = sendBatch(transport, batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        batch.forEach(pending -> pending.result().completeExceptionally(new EmailSendException("Email sender stopped")));
+        close(transport);
+    }
+
+    private Transport sendBatch(Transport transport, List<PendingEmail> batch) {
+        for (PendingEmail pending : batch) {
+            try {
+                transport = connected(transport);
+                transport.sendMessage(pending.message(), pending.message().getAllRecipients());
+                pending.result().complete(null);
+            } catch (MessagingException | RuntimeException e) {
+                // A rejected message leaves the connection usable; a broken one is reopened for the next message
+                if (transport != null && !transport.isConnected()) {
+                    transport = close(transport);
+                }
+                failed(pending, e);
+            }
+        }
+        return transport;
+    }
+
+    private void failed(PendingEmail pending, Exception cause) {
+        int attempt = pending.attempt();
+        if (isPermanent(cause) || attempt >= maxAttempts) {
+            log.error("Giving up on email to {} after {} attempt(s): {}",
+                    recipients(pending.message()), attempt, cause.getMessage());
+            pending.result().completeExceptionally(new EmailSendException("Failed to send email", cause));
+            return;
+        }
+
+        long delay = Math.min(maxBackoff.toMillis(), initialBackoff.toMillis() << (attempt - 1));
+        log.warn("Email to {} failed (attempt {}/{}), retrying in {} ms: {}",
+                recipients(pending.message()), attempt, maxAttempts, delay, cause.getMessage());
+        retryScheduler.schedule(() -> {
+            PendingEmail retry = pending.nextAttempt();
+            if (!queue.offer(retry)) {
+                retry.result().completeExceptionally(new EmailSendException("Email queue is full", cause));
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private static boolean isPermanent(Exception cause) {
+        // Rejected recipients with nothing left that could be delivered later
+        return cause instanceof SendFailedException sendFailed
+                && sendFailed.getInvalidAddresses() != null && sendFailed.getInvalidAddresses().length > 0
+                && (sendFailed.getValidUnsentAddresses() == null || sendFailed.getValidUnsentAddresses().length == 0);
+    }
+
+    private Transport connected(Transport transport) throws MessagingException {
+        if (transport != null && transport.isConnected()) {
+            return transport;
+        }
+        String protocol = mailSender.getProtocol() != null ? mailSender.getProtocol() : JavaMailSenderImpl.DEFAULT_PROTOCOL;
+        Transport fresh = mailSender.getSession().getTransport(protocol);
+        fresh.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(), mailSender.getPassword());
+        return fresh;
+    }
+
+    private static Transport close(Transport transport) {
+        if (transport != null) {
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                log.debug("Failed to close SMTP connection: {}", e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    private static String recipients(MimeMessage message) {
+        try {
+            return Arrays.toString(message.getAllRecipients());
+        } catch (MessagingException e) {
+            return "unknown recipients";
+        }
+    }
+
+    private record PendingEmail(MimeMessage message, CompletableFuture<Void> result, int attempt) {
+
+        PendingEmail(MimeMessage message, CompletableFuture<Void> result) {
+            this(message, result, 1);
+        }
+
+        PendingEmail nextAttempt() {
+            return new PendingEmail(message, result, attempt + 1);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.devwonder.notificationservice.service;
+
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An HTML email template with {@code {{name}}} placeholders, split once into literal chunks and
+ * placeholder names so rendering is a single pass of appends. Values are HTML-escaped.
+ */
+public final class EmailTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    private final String name;
+    private final String[] literals;
+    private final String[] placeholders;
+    private final int estimatedLength;
+
+    private EmailTemplate(String name, String[] literals, String[] placeholders, int estimatedLength) {
+        this.name = name;
+        this.literals = literals;
+        this.placeholders = placeholders;
+        this.estimatedLength = estimatedLength;
+    }
+
+    public static EmailTemplate compile(String name, String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> placeholders = new ArrayList<>();
+
+        int position = 0;
+        int open;
+        while ((open = source.indexOf(OPEN, position)) >= 0) {
+            int close = source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed placeholder in email template " + name + " at " + open);
+            }
+            literals.add(source.substring(position, open));
+            placeholders.add(source.substring(open + OPEN.length(), close).trim());
+            position = close + CLOSE.length();
+        }
+        literals.add(source.substring(position));
+
+        return new EmailTemplate(name, literals.toArray(String[]::new), placeholders.toArray(String[]::new),
+                source.length() + 64 * placeholders.size());
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Set<String> getPlaceholders() {
+        return new LinkedHashSet<>(List.of(placeholders));
+    }
+
+    /**
+     * Renders the template; a placeholder missing from {@code values} is an error, a null value renders empty.
+     */
+    public String render(Map<String, ?> values) {
+        StringBuilder html = new StringBuilder(estimatedLength);
+        for (int i = 0; i < placeholders.length; i++) {
+            html.append(literals[i]);
+            if (!values.containsKey(placeholders[i])) {
+                throw new IllegalArgumentException("No value for {{" + placeholders[i] + "}} in email template " + name);
+            }
+            Object value = values.get(placeholders[i]);
+            if (value != null) {
+                html.append(HtmlUtils.htmlEscape(value.toString()));
+            }
+        }
+        return html.append(literals[placeholders.length]).toString();
+    }
+}
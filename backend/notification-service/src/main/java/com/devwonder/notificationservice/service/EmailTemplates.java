@@ -0,0 +1,53 @@
+package com.devwonder.notificationservice.service;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Email templates from {@code classpath:templates/email/*.html}, compiled once at startup and looked up by
+ * file name without the extension.
+ */
+@Component
+public class EmailTemplates {
+
+    public static final String DEALER_WELCOME = "dealer-welcome";
+    public static final String LOGIN_CONFIRMATION = "login-confirmation";
+    public static final String PASSWORD_RESET = "password-reset";
+
+    private static final String LOCATION = "classpath:templates/email/*.html";
+
+    private final Map<String, EmailTemplate> templates = new HashMap<>();
+
+    public EmailTemplates() {
+        try {
+            for (Resource resource : new PathMatchingResourcePatternResolver().getResources(LOCATION)) {
+                String fileName = resource.getFilename();
+                String name = fileName.substring(0, fileName.length() - ".html".length());
+                templates.put(name, EmailTemplate.compile(name, resource.getContentAsString(StandardCharsets.UTF_8)));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load email templates from " + LOCATION, e);
+        }
+
+        for (String required : new String[]{DEALER_WELCOME, LOGIN_CONFIRMATION, PASSWORD_RESET}) {
+            if (!templates.containsKey(required)) {
+                throw new IllegalStateException("Missing email template " + required);
+            }
+        }
+    }
+
+    public EmailTemplate get(String name) {
+        EmailTemplate template = templates.get(name);
+        if (template == null) {
+            throw new IllegalArgumentException("Unknown email template: " + name);
+        }
+        return template;
+    }
+}
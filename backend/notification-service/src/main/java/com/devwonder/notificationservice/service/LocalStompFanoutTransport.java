@@ -0,0 +1,28 @@
+package com.devwonder.notificationservice.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Single-replica transport: messages go straight back to this JVM's subscribers.
+ */
+@Component
+@ConditionalOnProperty(name = "nexhub.websocket.fanout", havingValue = "local", matchIfMissing = true)
+public class LocalStompFanoutTransport implements StompFanoutTransport {
+
+    private final List<Consumer<String>> subscribers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(String message) {
+        subscribers.forEach(subscriber -> subscriber.accept(message));
+    }
+
+    @Override
+    public void subscribe(Consumer<String> subscriber) {
+        subscribers.add(subscriber);
+    }
+}
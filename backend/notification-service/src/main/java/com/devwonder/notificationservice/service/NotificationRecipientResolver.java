@@ -0,0 +1,51 @@
+package com.devwonder.notificationservice.service;
+
+import com.devwonder.common.event.DealerRegistrationEvent;
+import com.devwonder.common.event.OrderNotificationEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Maps a notification event to the online accounts that should receive it live. Accounts left out
+ * (offline, or not subscribed) still find the notification in their persisted inbox: the admin inbox
+ * for admins, their own inbox for dealers (see NotificationService).
+ */
+@Service
+@RequiredArgsConstructor
+public class NotificationRecipientResolver {
+
+    private final PresenceService presenceService;
+
+    /**
+     * Admins subscribed to order notifications.
+     */
+    public Set<Long> resolveOrderAdminRecipients(OrderNotificationEvent event) {
+        return presenceService.onlineAdmins(PresenceService.ORDER_NOTIFICATIONS);
+    }
+
+    /**
+     * The dealer who placed the order, when subscribed to order notifications.
+     */
+    public Set<Long> resolveOrderDealerRecipients(OrderNotificationEvent event) {
+        return presenceService.isOnline(PresenceService.ORDER_NOTIFICATIONS, event.getDealerId())
+                ? Set.of(event.getDealerId()) : Set.of();
+    }
+
+    /**
+     * Admins subscribed to dealer registrations.
+     */
+    public Set<Long> resolveDealerRegistrationRecipients(DealerRegistrationEvent event) {
+        return presenceService.onlineAdmins(PresenceService.DEALER_REGISTRATIONS);
+    }
+
+    /**
+     * STOMP principal names of the given accounts (see StompPrincipal).
+     */
+    public static List<String> principalNames(Collection<Long> accountIds) {
+        return accountIds.stream().map(String::valueOf).toList();
+    }
+}
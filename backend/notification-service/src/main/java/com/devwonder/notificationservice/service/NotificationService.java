@@ -1,13 +1,20 @@
 package com.devwonder.notificationservice.service;
 
+import com.devwonder.notificationservice.dto.NotificationPageResponse;
 import com.devwonder.notificationservice.entity.Notification;
 import com.devwonder.common.event.DealerRegistrationEvent;
 import com.devwonder.common.event.OrderNotificationEvent;
+import com.devwonder.notificationservice.mapper.NotificationMapper;
 import com.devwonder.notificationservice.repository.NotificationRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
 import java.util.List;
 
 @Service
@@ -15,32 +22,63 @@ import java.util.List;
 @Slf4j
 public class NotificationService {
     
+    public static final int MAX_PAGE_SIZE = 100;
+
     private final NotificationRepository notificationRepository;
+    private final NotificationMapper notificationMapper;
+    private final UnreadCounterService unreadCounterService;
     
+    @Transactional
     public Notification createDealerRegistrationNotification(DealerRegistrationEvent event) {
         Notification notification = Notification.builder()
             .title("New Dealer Registration")
             .message(String.format("New dealer '%s' has been registered successfully", event.getCompanyName()))
             .type("DEALER_REGISTRATION")
+            .recipientId(Notification.ADMIN_INBOX)
             .read(false)
             .build();
 
-        return notificationRepository.save(notification);
+        Notification saved = notificationRepository.save(notification);
+        unreadCounterService.incrementAfterCommit(Notification.ADMIN_INBOX, 1);
+        return saved;
     }
 
-    public Notification createOrderNotification(OrderNotificationEvent event) {
+    /**
+     * Writes the order's notification to the admin inbox and to the inbox of the dealer who placed it.
+     */
+    @Transactional
+    public OrderNotifications createOrderNotification(OrderNotificationEvent event) {
         String dealerInfo = buildDealerInfo(event);
         String message = String.format("New order %s created by %s. Total amount: $%.2f",
             event.getOrderCode(), dealerInfo, event.getTotalAmount());
 
-        Notification notification = Notification.builder()
+        Notification adminNotification = Notification.builder()
             .title("New Order Created")
             .message(message)
             .type("ORDER_CREATED")
+            .recipientId(Notification.ADMIN_INBOX)
             .read(false)
             .build();
 
-        return notificationRepository.save(notification);
+        Notification dealerNotification = Notification.builder()
+            .title("Order Placed")
+            .message(String.format("Your order %s has been placed. Total amount: $%.2f",
+                event.getOrderCode(), event.getTotalAmount()))
+            .type("ORDER_CREATED")
+            .recipientId(event.getDealerId())
+            .read(false)
+            .build();
+
+        List<Notification> saved = notificationRepository.saveAll(List.of(adminNotification, dealerNotification));
+        unreadCounterService.incrementAfterCommit(Notification.ADMIN_INBOX, 1);
+        unreadCounterService.incrementAfterCommit(event.getDealerId(), 1);
+        return new OrderNotifications(saved.get(0), saved.get(1));
+    }
+
+    /**
+     * The copies of one order notification in the admin inbox and in the dealer's inbox.
+     */
+    public record OrderNotifications(Notification admin, Notification dealer) {
     }
 
     private String buildDealerInfo(OrderNotificationEvent event) {
@@ -68,24 +106,107 @@ public class NotificationService {
     }
     
     public List<Notification> getAllNotifications() {
-        log.info("Fetching all notifications ordered by creation time");
-        return notificationRepository.findAllByOrderByCreatedAtDesc();
+        log.info("Fetching all admin notifications ordered by creation time");
+        return notificationRepository.findAllByRecipientIdOrderByCreatedAtDesc(Notification.ADMIN_INBOX);
     }
     
-    public Notification markAsRead(Long notificationId) {
+    /**
+     * One page of an inbox ({@link Notification#ADMIN_INBOX} or a dealer's account id), newest first.
+     * {@code before} is the {@code nextCursor} of the previous page.
+     */
+    @Transactional(readOnly = true)
+    public NotificationPageResponse getInboxPage(long recipientId, String before, int limit, boolean unreadOnly) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        // One extra row tells whether an older page exists without a count query
+        int fetch = limit + 1;
+        List<Notification> rows;
+        if (before == null || before.isBlank()) {
+            rows = unreadOnly
+                    ? notificationRepository.findUnreadFirstPage(recipientId, fetch)
+                    : notificationRepository.findInboxFirstPage(recipientId, fetch);
+        } else {
+            Cursor cursor = Cursor.decode(before);
+            rows = unreadOnly
+                    ? notificationRepository.findUnreadPageBefore(recipientId, cursor.createdAt(), cursor.id(), fetch)
+                    : notificationRepository.findInboxPageBefore(recipientId, cursor.createdAt(), cursor.id(), fetch);
+        }
+
+        boolean hasMore = rows.size() > limit;
+        List<Notification> page = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = hasMore ? Cursor.of(page.get(page.size() - 1)).encode() : null;
+
+        return NotificationPageResponse.builder()
+                .notifications(notificationMapper.toNotificationResponseList(page))
+                .nextCursor(nextCursor)
+                .unreadCount(unreadCounterService.getUnreadCount(recipientId))
+                .build();
+    }
+
+    public long getUnreadCount(long recipientId) {
+        return unreadCounterService.getUnreadCount(recipientId);
+    }
+
+    @Transactional
+    public Notification markAsRead(long recipientId, Long notificationId) {
         log.info("Marking notification {} as read", notificationId);
         
-        Notification notification = notificationRepository.findById(notificationId)
-            .orElseThrow(() -> new RuntimeException("Notification not found with id: " + notificationId));
-        
-        if (notification.getRead()) {
-            log.warn("Notification {} is already marked as read", notificationId);
+        // Conditional update, so two concurrent reads of the same notification only decrement once
+        if (notificationRepository.markRead(notificationId, recipientId) == 0) {
+            log.warn("Notification {} is already marked as read or not in inbox {}", notificationId, recipientId);
         } else {
-            notification.setRead(true);
-            notification = notificationRepository.save(notification);
+            unreadCounterService.decrementAfterCommit(recipientId, 1);
             log.info("Successfully marked notification {} as read", notificationId);
         }
         
-        return notification;
+        return notificationRepository.findByIdAndRecipientId(notificationId, recipientId)
+            .orElseThrow(() -> new RuntimeException("Notification not found with id: " + notificationId));
+    }
+
+    /**
+     * Marks every unread notification of the inbox at or older than {@code upTo} as read in one UPDATE,
+     * or all unread notifications when {@code upTo} is blank.
+     */
+    @Transactional
+    public int markAllAsRead(long recipientId, String upTo) {
+        int marked;
+        if (upTo == null || upTo.isBlank()) {
+            marked = notificationRepository.markAllRead(recipientId);
+        } else {
+            Cursor cursor = Cursor.decode(upTo);
+            marked = notificationRepository.markAllReadUpTo(recipientId, cursor.createdAt(), cursor.id());
+        }
+        unreadCounterService.decrementAfterCommit(recipientId, marked);
+        log.info("Marked {} notifications as read", marked);
+
+        return marked;
+    }
+
+    /**
+     * Position in the (created_at, id) ordering, passed to clients as an opaque base64url string.
+     */
+    record Cursor(LocalDateTime createdAt, long id) {
+
+        static Cursor of(Notification notification) {
+            return new Cursor(notification.getCreatedAt(), notification.getId());
+        }
+
+        String encode() {
+            String raw = createdAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String value) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+                int separator = raw.lastIndexOf('|');
+                return new Cursor(LocalDateTime.parse(raw.substring(0, separator)),
+                        Long.parseLong(raw.substring(separator + 1)));
+            } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Invalid notification cursor");
+            }
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,207 @@
+package com.devwonder.notificationservice.service;
+
+import com.devwonder.notificationservice.config.StompPrincipal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.AbstractSubProtocolEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks which accounts are connected and subscribed to each notification queue, across all replicas.
+ *
+ * Every replica records its own subscriptions in Redis sorted sets scored by the last time they were
+ * seen, and refreshes them on a heartbeat. Entries older than the TTL (a replica that died without
+ * cleaning up) are treated as offline and pruned. When Redis is unavailable, only this replica's
+ * subscriptions are known.
+ */
+@Service
+@Slf4j
+public class PresenceService {
+
+    public static final String ORDER_NOTIFICATIONS = "order-notifications";
+    public static final String DEALER_REGISTRATIONS = "dealer-registrations";
+
+    private static final Set<String> TRACKED_QUEUES = Set.of(ORDER_NOTIFICATIONS, DEALER_REGISTRATIONS);
+    private static final String USER_QUEUE_PREFIX = "/user/queue/";
+    private static final String KEY_PREFIX = "nexhub:ws:presence:";
+    private static final String ADMINS_SUFFIX = ":admins";
+
+    private final StringRedisTemplate redisTemplate;
+    private final long ttlMillis;
+    private final Map<String, SessionSubscriptions> sessions = new ConcurrentHashMap<>();
+
+    public PresenceService(StringRedisTemplate redisTemplate,
+                           @Value("${nexhub.websocket.presence.ttl:PT90S}") Duration ttl) {
+        this.redisTemplate = redisTemplate;
+        this.ttlMillis = ttl.toMillis();
+    }
+
+    /**
+     * Admin accounts currently subscribed to {@code queue}.
+     */
+    public Set<Long> onlineAdmins(String queue) {
+        try {
+            return toIds(redisTemplate.opsForZSet().rangeByScore(key(queue) + ADMINS_SUFFIX, onlineSince(), Double.MAX_VALUE));
+        } catch (RuntimeException e) {
+            log.warn("Presence lookup failed, using this replica's sessions only: {}", e.getMessage());
+            Set<Long> admins = new HashSet<>();
+            sessions.values().stream()
+                    .filter(session -> session.admin && session.isSubscribedTo(queue))
+                    .forEach(session -> admins.add(session.accountId));
+            return admins;
+        }
+    }
+
+    public boolean isOnline(String queue, Long accountId) {
+        if (accountId == null) {
+            return false;
+        }
+        try {
+            Double lastSeen = redisTemplate.opsForZSet().score(key(queue), accountId.toString());
+            return lastSeen != null && lastSeen >= onlineSince();
+        } catch (RuntimeException e) {
+            log.warn("Presence lookup failed, using this replica's sessions only: {}", e.getMessage());
+            return isSubscribedLocally(queue, accountId, null);
+        }
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        String queue = trackedQueue(accessor.getDestination());
+        if (queue == null || !(event.getUser() instanceof StompPrincipal principal) || principal.accountId() == null) {
+            return;
+        }
+
+        sessions.computeIfAbsent(accessor.getSessionId(),
+                        id -> new SessionSubscriptions(principal.accountId(), principal.admin()))
+                .queuesBySubscription.put(accessor.getSubscriptionId(), queue);
+        mark(queue, principal.accountId(), principal.admin(), System.currentTimeMillis());
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        SessionSubscriptions session = sessions.get(accessor.getSessionId());
+        if (session == null) {
+            return;
+        }
+        String queue = session.queuesBySubscription.remove(accessor.getSubscriptionId());
+        if (queue != null) {
+            unmarkIfGone(queue, session);
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        SessionSubscriptions session = sessions.remove(sessionId(event));
+        if (session != null) {
+            Set.copyOf(session.queuesBySubscription.values()).forEach(queue -> unmarkIfGone(queue, session));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${nexhub.websocket.presence.heartbeat:PT30S}")
+    public void heartbeat() {
+        long now = System.currentTimeMillis();
+        try {
+            sessions.values().forEach(session -> Set.copyOf(session.queuesBySubscription.values())
+                    .forEach(queue -> mark(queue, session.accountId, session.admin, now)));
+            for (String queue : TRACKED_QUEUES) {
+                redisTemplate.opsForZSet().removeRangeByScore(key(queue), 0, now - ttlMillis);
+                redisTemplate.opsForZSet().removeRangeByScore(key(queue) + ADMINS_SUFFIX, 0, now - ttlMillis);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Presence heartbeat failed: {}", e.getMessage());
+        }
+    }
+
+    private void mark(String queue, Long accountId, boolean admin, long now) {
+        try {
+            ZSetOperations<String, String> zSet = redisTemplate.opsForZSet();
+            zSet.add(key(queue), accountId.toString(), now);
+            if (admin) {
+                zSet.add(key(queue) + ADMINS_SUFFIX, accountId.toString(), now);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to record presence of account {}: {}", accountId, e.getMessage());
+        }
+    }
+
+    private void unmarkIfGone(String queue, SessionSubscriptions closed) {
+        // Another session of the same account on this replica keeps it online; on other replicas the
+        // next heartbeat puts it back
+        if (isSubscribedLocally(queue, closed.accountId, closed)) {
+            return;
+        }
+        try {
+            redisTemplate.opsForZSet().remove(key(queue), closed.accountId.toString());
+            redisTemplate.opsForZSet().remove(key(queue) + ADMINS_SUFFIX, closed.accountId.toString());
+        } catch (RuntimeException e) {
+            log.warn("Failed to clear presence of account {}: {}", closed.accountId, e.getMessage());
+        }
+    }
+
+    private boolean isSubscribedLocally(String queue, Long accountId, SessionSubscriptions excluded) {
+        return sessions.values().stream()
+                .anyMatch(session -> session != excluded && session.accountId.equals(accountId)
+                        && session.isSubscribedTo(queue));
+    }
+
+    private double onlineSince() {
+        return System.currentTimeMillis() - ttlMillis;
+    }
+
+    private static String trackedQueue(String destination) {
+        if (destination == null || !destination.startsWith(USER_QUEUE_PREFIX)) {
+            return null;
+        }
+        String queue = destination.substring(USER_QUEUE_PREFIX.length());
+        return TRACKED_QUEUES.contains(queue) ? queue : null;
+    }
+
+    private static String sessionId(AbstractSubProtocolEvent event) {
+        return StompHeaderAccessor.wrap(event.getMessage()).getSessionId();
+    }
+
+    private static String key(String queue) {
+        return KEY_PREFIX + queue;
+    }
+
+    private static Set<Long> toIds(Set<String> members) {
+        Set<Long> ids = new HashSet<>();
+        if (members != null) {
+            members.forEach(member -> ids.add(Long.valueOf(member)));
+        }
+        return ids;
+    }
+
+    private static final class SessionSubscriptions {
+
+        private final Long accountId;
+        private final boolean admin;
+        private final Map<String, String> queuesBySubscription = new ConcurrentHashMap<>();
+
+        private SessionSubscriptions(Long accountId, boolean admin) {
+            this.accountId = accountId;
+            this.admin = admin;
+        }
+
+        private boolean isSubscribedTo(String queue) {
+            return queuesBySubscription.containsValue(queue);
+        }
+    }
+}
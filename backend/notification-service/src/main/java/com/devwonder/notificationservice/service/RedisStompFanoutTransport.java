@@ -0,0 +1,44 @@
+package com.devwonder.notificationservice.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * Multi-replica transport over Redis pub/sub. Each replica subscribes to one channel and delivers what it
+ * receives to its own WebSocket sessions, so clients can connect to any replica without session affinity.
+ */
+@Component
+@ConditionalOnProperty(name = "nexhub.websocket.fanout", havingValue = "redis")
+public class RedisStompFanoutTransport implements StompFanoutTransport {
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ChannelTopic channel;
+
+    public RedisStompFanoutTransport(StringRedisTemplate redisTemplate,
+                                     RedisMessageListenerContainer stompFanoutListenerContainer,
+                                     @Value("${nexhub.websocket.fanout-channel:nexhub:stomp:fanout}") String channel) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = stompFanoutListenerContainer;
+        this.channel = ChannelTopic.of(channel);
+    }
+
+    @Override
+    public void publish(String message) {
+        redisTemplate.convertAndSend(channel.getTopic(), message);
+    }
+
+    @Override
+    public void subscribe(Consumer<String> subscriber) {
+        listenerContainer.addMessageListener(
+                (message, pattern) -> subscriber.accept(new String(message.getBody(), StandardCharsets.UTF_8)),
+                channel);
+    }
+}
@@ -0,0 +1,87 @@
+package com.devwonder.notificationservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Sends STOMP messages to the clients of every notification-service replica.
+ *
+ * Kafka hands each event to one replica only, while the admins subscribed to a topic are spread over all
+ * of them. Messages are therefore published through the {@link StompFanoutTransport}, and every replica
+ * (the publisher included) delivers what it receives to its local simple broker, which only knows its own
+ * sessions. User destinations work the same way: only the replica holding that user's session delivers,
+ * and one published message can address any number of users.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StompFanoutService {
+
+    private final StompFanoutTransport transport;
+    private final SimpMessageSendingOperations messagingTemplate;
+    private final ObjectMapper objectMapper;
+
+    @PostConstruct
+    void subscribe() {
+        transport.subscribe(this::deliverLocally);
+    }
+
+    public void broadcast(String destination, Object payload) {
+        publish(new FanoutMessage(null, destination, objectMapper.valueToTree(payload)));
+    }
+
+    public void sendToUser(String user, String destination, Object payload) {
+        sendToUsers(List.of(user), destination, payload);
+    }
+
+    public void sendToUsers(Collection<String> users, String destination, Object payload) {
+        if (users.isEmpty()) {
+            return;
+        }
+        publish(new FanoutMessage(List.copyOf(users), destination, objectMapper.valueToTree(payload)));
+    }
+
+    private void publish(FanoutMessage message) {
+        try {
+            transport.publish(objectMapper.writeValueAsString(message));
+        } catch (JsonProcessingException | RuntimeException e) {
+            // Clients on this replica still get the message
+            log.warn("Failed to fan out message for {}, delivering locally only: {}",
+                    message.destination(), e.getMessage());
+            deliver(message);
+        }
+    }
+
+    private void deliverLocally(String raw) {
+        try {
+            deliver(objectMapper.readValue(raw, FanoutMessage.class));
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.error("Dropping undeliverable fan-out message: {}", e.getMessage());
+        }
+    }
+
+    private void deliver(FanoutMessage message) {
+        if (message.users() == null) {
+            messagingTemplate.convertAndSend(message.destination(), message.payload());
+            return;
+        }
+        for (String user : message.users()) {
+            messagingTemplate.convertAndSendToUser(user, message.destination(), message.payload());
+        }
+    }
+
+    /**
+     * {@code users} is null for a broadcast to {@code destination}.
+     */
+    record FanoutMessage(List<String> users, String destination, JsonNode payload) {
+    }
+}
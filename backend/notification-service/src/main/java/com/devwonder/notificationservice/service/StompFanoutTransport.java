@@ -0,0 +1,14 @@
+package com.devwonder.notificationservice.service;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries STOMP messages between notification-service replicas. Every message published by any replica
+ * is handed to the subscribers on every replica, including the publisher itself.
+ */
+public interface StompFanoutTransport {
+
+    void publish(String message);
+
+    void subscribe(Consumer<String> subscriber);
+}
@@ -0,0 +1,104 @@
+package com.devwonder.notificationservice.service;
+
+import com.devwonder.common.tx.AfterCommit;
+import com.devwonder.notificationservice.entity.Notification;
+import com.devwonder.notificationservice.repository.NotificationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Unread notification count of each inbox kept in Redis, so the badge is a single GET instead of a table scan.
+ *
+ * Inserts and reads adjust the counter after their transaction commits. Adjustments only apply to an
+ * existing key: a missing key (first read, Redis flush) is recomputed from the partial unread index on
+ * the next read. Recomputed counters expire after {@code counter-ttl}, which bounds any drift between the
+ * two and drops the counters of dealers who stopped looking; the admin inbox is also reconciled periodically.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UnreadCounterService {
+
+    static final String UNREAD_KEY_PREFIX = "nexhub:notifications:unread:";
+
+    // Adjusts the counter only if it exists, never below zero (with INCRBY, which keeps the expiry);
+    // returns -1 when the key is missing
+    private static final RedisScript<Long> ADJUST_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then return -1 end
+            local value = redis.call('INCRBY', KEYS[1], ARGV[1])
+            if value < 0 then redis.call('INCRBY', KEYS[1], -value) return 0 end
+            return value
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final NotificationRepository notificationRepository;
+
+    @Value("${nexhub.notification-unread.counter-ttl:PT1H}")
+    private Duration counterTtl;
+
+    public long getUnreadCount(long recipientId) {
+        try {
+            String cached = redisTemplate.opsForValue().get(unreadKey(recipientId));
+            if (cached != null) {
+                return Long.parseLong(cached);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Unread counter unavailable, counting in the database: {}", e.getMessage());
+            return notificationRepository.countUnread(recipientId);
+        }
+        return reconcile(recipientId);
+    }
+
+    public void incrementAfterCommit(long recipientId, int delta) {
+        adjustAfterCommit(recipientId, delta);
+    }
+
+    public void decrementAfterCommit(long recipientId, int delta) {
+        adjustAfterCommit(recipientId, -delta);
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${nexhub.notification-unread.reconcile-interval:PT5M}")
+    public void reconcileAdminInbox() {
+        reconcile(Notification.ADMIN_INBOX);
+    }
+
+    /**
+     * Resets the inbox's counter to the database count.
+     */
+    public long reconcile(long recipientId) {
+        long unread = notificationRepository.countUnread(recipientId);
+        try {
+            redisTemplate.opsForValue().set(unreadKey(recipientId), Long.toString(unread), counterTtl);
+        } catch (RuntimeException e) {
+            log.warn("Failed to store unread counter of inbox {}: {}", recipientId, e.getMessage());
+        }
+        return unread;
+    }
+
+    private void adjustAfterCommit(long recipientId, int delta) {
+        if (delta == 0) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            try {
+                redisTemplate.execute(ADJUST_SCRIPT, List.of(unreadKey(recipientId)), Integer.toString(delta));
+            } catch (RuntimeException e) {
+                // Left to the counter's expiry
+                log.warn("Failed to adjust unread counter of inbox {} by {}: {}", recipientId, delta, e.getMessage());
+            }
+        });
+    }
+
+    static String unreadKey(long recipientId) {
+        return UNREAD_KEY_PREFIX + recipientId;
+    }
+}
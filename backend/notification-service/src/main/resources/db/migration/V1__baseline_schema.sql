@@ -0,0 +1,12 @@
+-- Baseline of the schema previously created by hibernate ddl-auto.
+-- IF NOT EXISTS keeps it a no-op on databases that already have the tables.
+
+CREATE TABLE IF NOT EXISTS notifies (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title      VARCHAR(255) NOT NULL,
+    message    TEXT,
+    time       TIMESTAMP(6),
+    read       BOOLEAN      NOT NULL,
+    type       VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP(6)
+);
@@ -0,0 +1,5 @@
+-- IDENTITY ids disable Hibernate insert batching; ids now come from a pooled sequence (allocationSize = 50).
+-- Start past the current max id with a full allocation block of headroom.
+
+CREATE SEQUENCE IF NOT EXISTS notification_id_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('notification_id_seq', COALESCE((SELECT MAX(id) FROM notifies), 0) + 100);
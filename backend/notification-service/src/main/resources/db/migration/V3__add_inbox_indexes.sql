@@ -0,0 +1,12 @@
+-- The inbox is read newest-first with keyset pagination on (created_at, id).
+-- created_at was nullable under ddl-auto; rows without it would never be reached by the keyset.
+UPDATE notifies SET created_at = COALESCE(time, now()) WHERE created_at IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_notifies_created_at_id
+    ON notifies (created_at DESC, id DESC);
+
+-- Unread rows are a small, hot subset: the unread-only inbox, the unread count reconcile
+-- and "mark all read" only ever touch this index
+CREATE INDEX IF NOT EXISTS idx_notifies_unread_created_at_id
+    ON notifies (created_at DESC, id DESC)
+    WHERE read = false;
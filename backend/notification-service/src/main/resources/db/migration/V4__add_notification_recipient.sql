@@ -0,0 +1,14 @@
+-- Notifications belong to one inbox: recipient_id 0 is the shared admin inbox, any other value the
+-- account id of the dealer it was written for. Existing rows were all admin notifications.
+ALTER TABLE notifies ADD COLUMN IF NOT EXISTS recipient_id BIGINT NOT NULL DEFAULT 0;
+
+-- Inbox pages, unread count and "mark all read" are always scoped to one recipient
+CREATE INDEX IF NOT EXISTS idx_notifies_recipient_created_at_id
+    ON notifies (recipient_id, created_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_notifies_recipient_unread_created_at_id
+    ON notifies (recipient_id, created_at DESC, id DESC)
+    WHERE read = false;
+
+DROP INDEX IF EXISTS idx_notifies_created_at_id;
+DROP INDEX IF EXISTS idx_notifies_unread_created_at_id;
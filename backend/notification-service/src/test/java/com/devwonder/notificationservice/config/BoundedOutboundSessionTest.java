@@ -0,0 +1,170 @@
+package com.devwonder.notificationservice.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.SessionLimitExceededException;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class BoundedOutboundSessionTest {
+
+    // Drain tasks are collected and run by the test, standing in for a stalled client until then
+    private final List<Runnable> pendingDrains = new ArrayList<>();
+    private final Executor manualExecutor = pendingDrains::add;
+    private final List<String> sent = new ArrayList<>();
+
+    @Test
+    void dropOldestKeepsTheNewestMessages() throws Exception {
+        BoundedOutboundSession session = session(OutboundOverflowPolicy.DROP_OLDEST);
+
+        for (int i = 1; i <= 5; i++) {
+            session.sendMessage(message("/topic/order-notifications", "n" + i));
+        }
+        drain();
+
+        assertEquals(List.of("n3", "n4", "n5"), bodies());
+        assertEquals(2, session.getDroppedCount());
+    }
+
+    @Test
+    void coalesceReplacesAQueuedMessageForTheSameDestination() throws Exception {
+        BoundedOutboundSession session = session(OutboundOverflowPolicy.COALESCE);
+
+        session.sendMessage(message("/topic/order-notifications", "o1"));
+        session.sendMessage(message("/topic/dealer-registrations", "d1"));
+        session.sendMessage(message("/topic/order-notifications", "o2"));
+        session.sendMessage(message("/topic/order-notifications", "o3"));
+        drain();
+
+        assertEquals(List.of("d1", "o2", "o3"), bodies());
+        assertEquals(1, session.getDroppedCount());
+    }
+
+    @Test
+    void controlFramesAreNeverDropped() throws Exception {
+        BoundedOutboundSession session = session(OutboundOverflowPolicy.DROP_OLDEST);
+
+        session.sendMessage(new TextMessage("CONNECTED\nversion:1.2\n\n\0"));
+        for (int i = 1; i <= 3; i++) {
+            session.sendMessage(message("/topic/order-notifications", "n" + i));
+        }
+        drain();
+
+        assertEquals(3, sent.size());
+        assertEquals("CONNECTED", sent.get(0).substring(0, sent.get(0).indexOf('\n')));
+        assertEquals(List.of("n2", "n3"), bodies().subList(1, 3));
+        assertEquals(1, session.getDroppedCount());
+    }
+
+    @Test
+    void disconnectPolicyFailsTheSessionWhenFull() throws Exception {
+        BoundedOutboundSession session = session(OutboundOverflowPolicy.DISCONNECT);
+
+        for (int i = 1; i <= 3; i++) {
+            session.sendMessage(message("/topic/order-notifications", "n" + i));
+        }
+
+        assertThrows(SessionLimitExceededException.class,
+                () -> session.sendMessage(message("/topic/order-notifications", "n4")));
+        assertEquals(0, session.getQueueDepth());
+    }
+
+    @Test
+    void watchdogClosesSessionsWithAStalledSend() throws Exception {
+        CountDownLatch closed = new CountDownLatch(1);
+        CountDownLatch sending = new CountDownLatch(1);
+        WebSocketSession stalled = (WebSocketSession) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{WebSocketSession.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "sendMessage" -> {
+                        // A client that stopped reading: the write blocks until the session is closed
+                        sending.countDown();
+                        closed.await();
+                        throw new IOException("Session closed");
+                    }
+                    case "close" -> {
+                        closed.countDown();
+                        yield null;
+                    }
+                    case "isOpen" -> closed.getCount() > 0;
+                    case "getId" -> "s1";
+                    default -> null;
+                });
+        ExecutorService drainExecutor = Executors.newSingleThreadExecutor();
+        try {
+            OutboundQueueWebSocketHandler handler = new OutboundQueueWebSocketHandler(mock(WebSocketHandler.class),
+                    3, OutboundOverflowPolicy.DROP_OLDEST, 50, drainExecutor, new SimpleMeterRegistry());
+            handler.afterConnectionEstablished(stalled);
+            ArgumentCaptor<WebSocketSession> bounded = ArgumentCaptor.forClass(WebSocketSession.class);
+            verify((WebSocketHandler) handler.getDelegate()).afterConnectionEstablished(bounded.capture());
+
+            bounded.getValue().sendMessage(message("/topic/order-notifications", "n1"));
+            assertTrue(sending.await(5, TimeUnit.SECONDS));
+            assertEquals(0, handler.closeStalledSessions());
+
+            Thread.sleep(100);
+            assertEquals(1, handler.closeStalledSessions());
+            assertEquals(0, closed.getCount());
+            // The drain thread is free again for other sessions
+            assertTrue(drainExecutor.submit(() -> true).get(5, TimeUnit.SECONDS));
+        } finally {
+            drainExecutor.shutdownNow();
+        }
+    }
+
+    @Test
+    void extractsTheDestinationOfMessageFramesOnly() {
+        assertEquals("/topic/a", BoundedOutboundSession.destinationOf(message("/topic/a", "x")));
+        assertNull(BoundedOutboundSession.destinationOf(new TextMessage("RECEIPT\nreceipt-id:1\n\n\0")));
+    }
+
+    private BoundedOutboundSession session(OutboundOverflowPolicy policy) {
+        return new BoundedOutboundSession(recordingSession(), 3, policy, 10_000, manualExecutor);
+    }
+
+    private void drain() {
+        while (!pendingDrains.isEmpty()) {
+            pendingDrains.remove(0).run();
+        }
+    }
+
+    private List<String> bodies() {
+        return sent.stream().map(frame -> frame.substring(frame.indexOf("\n\n") + 2, frame.length() - 1)).toList();
+    }
+
+    private static TextMessage message(String destination, String body) {
+        return new TextMessage("MESSAGE\ndestination:" + destination + "\nsubscription:0\n\n" + body + "\0");
+    }
+
+    private WebSocketSession recordingSession() {
+        return (WebSocketSession) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{WebSocketSession.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "sendMessage" -> {
+                        sent.add(((TextMessage) args[0]).getPayload());
+                        yield null;
+                    }
+                    case "isOpen" -> true;
+                    case "getId" -> "s1";
+                    default -> null;
+                });
+    }
+
+}
@@ -0,0 +1,81 @@
+package com.devwonder.notificationservice.config;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of authorizing one inbound STOMP frame, per frame kind. Not part of the test run; start it through
+ * {@link #main} from the test classpath. Runs with the GC profiler, whose {@code gc.alloc.rate.norm} column
+ * is the bytes allocated per authorized frame.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WebSocketAuthorizationBenchmark {
+
+    private static final MessageChannel CHANNEL = (message, timeout) -> true;
+
+    @Param({"subscribe-admin-queue", "subscribe-shared-queue", "send-private"})
+    public String frame;
+
+    private WebSocketAuthorizationInterceptor interceptor;
+    private Message<byte[]> message;
+
+    @Setup
+    public void setUp() {
+        StompRouteTable routeTable = new StompRouteTable();
+        interceptor = new WebSocketAuthorizationInterceptor(routeTable);
+        StompPrincipal admin = new StompPrincipal("1", 1L, true, routeTable.permissionsFor(List.of("ADMIN")));
+
+        message = switch (frame) {
+            case "subscribe-admin-queue" -> frame(StompCommand.SUBSCRIBE, "/user/queue/login-confirmed", admin);
+            case "subscribe-shared-queue" -> frame(StompCommand.SUBSCRIBE, "/user/queue/order-notifications", admin);
+            case "send-private" -> frame(StompCommand.SEND, "/app/private/42", admin);
+            default -> throw new IllegalArgumentException("Unknown frame " + frame);
+        };
+    }
+
+    @Benchmark
+    public Message<?> authorize() {
+        return interceptor.preSend(message, CHANNEL);
+    }
+
+    private static Message<byte[]> frame(StompCommand command, String destination, StompPrincipal user) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        accessor.setDestination(destination);
+        accessor.setUser(user);
+        accessor.setSessionId("s1");
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(WebSocketAuthorizationBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,95 @@
+package com.devwonder.notificationservice.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.security.access.AccessDeniedException;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WebSocketAuthorizationInterceptorTest {
+
+    private static final MessageChannel CHANNEL = (message, timeout) -> true;
+
+    private final StompRouteTable routeTable = new StompRouteTable();
+    private final WebSocketAuthorizationInterceptor interceptor = new WebSocketAuthorizationInterceptor(routeTable);
+    private final StompPrincipal admin = new StompPrincipal("1", 1L, true, routeTable.permissionsFor(List.of("admin")));
+    private final StompPrincipal dealer = new StompPrincipal("2", 2L, false, routeTable.permissionsFor(List.of("DEALER")));
+
+    @Test
+    void adminOnlyRoutesRequireTheAdminRole() {
+        for (String queue : List.of("/user/queue/dealer-registrations", "/user/queue/login-confirmed")) {
+            assertDoesNotThrow(() -> interceptor.preSend(frame(StompCommand.SUBSCRIBE, queue, admin), CHANNEL));
+            assertThrows(AccessDeniedException.class,
+                    () -> interceptor.preSend(frame(StompCommand.SUBSCRIBE, queue, dealer), CHANNEL));
+        }
+        assertDoesNotThrow(() -> interceptor.preSend(frame(StompCommand.SEND, "/app/private/42", admin), CHANNEL));
+        assertThrows(AccessDeniedException.class,
+                () -> interceptor.preSend(frame(StompCommand.SEND, "/app/broadcast", dealer), CHANNEL));
+    }
+
+    @Test
+    void sharedRoutesAreOpenToEveryAuthenticatedSession() {
+        assertDoesNotThrow(() -> interceptor.preSend(frame(StompCommand.SUBSCRIBE, "/topic/notifications", dealer), CHANNEL));
+        assertDoesNotThrow(() -> interceptor.preSend(frame(StompCommand.SUBSCRIBE, "/user/queue/private", dealer), CHANNEL));
+        assertDoesNotThrow(() -> interceptor.preSend(frame(StompCommand.SUBSCRIBE, "/user/queue/order-notifications", dealer), CHANNEL));
+    }
+
+    @Test
+    void unknownDestinationsAndAnonymousSessionsAreDenied() {
+        assertThrows(AccessDeniedException.class,
+                () -> interceptor.preSend(frame(StompCommand.SUBSCRIBE, "/topic/unknown", admin), CHANNEL));
+        assertThrows(AccessDeniedException.class,
+                () -> interceptor.preSend(frame(StompCommand.SEND, "/user/queue/order-notifications", admin), CHANNEL));
+        assertThrows(AccessDeniedException.class,
+                () -> interceptor.preSend(frame(StompCommand.SUBSCRIBE, "/topic/notifications", null), CHANNEL));
+    }
+
+    /**
+     * Authorizes frames in a loop and checks the steady state allocates nothing; timings are measured by
+     * {@link WebSocketAuthorizationBenchmark}.
+     */
+    @Test
+    void authorizingFramesDoesNotAllocate() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        List<Message<?>> frames = List.of(
+                frame(StompCommand.SUBSCRIBE, "/user/queue/order-notifications", admin),
+                frame(StompCommand.SUBSCRIBE, "/user/queue/login-confirmed", admin),
+                frame(StompCommand.SEND, "/app/private/42", admin));
+        int iterations = 200_000;
+
+        authorize(frames, iterations);
+
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        authorize(frames, iterations);
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        // Allow for the measurement itself, not for per-frame garbage
+        assertTrue(allocated < 4096, "allocated " + allocated + " bytes");
+    }
+
+    private void authorize(List<Message<?>> frames, int iterations) {
+        for (int i = 0; i < iterations; i++) {
+            for (int f = 0; f < frames.size(); f++) {
+                interceptor.preSend(frames.get(f), CHANNEL);
+            }
+        }
+    }
+
+    private static Message<byte[]> frame(StompCommand command, String destination, StompPrincipal user) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        accessor.setDestination(destination);
+        accessor.setUser(user);
+        accessor.setSessionId("s1");
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
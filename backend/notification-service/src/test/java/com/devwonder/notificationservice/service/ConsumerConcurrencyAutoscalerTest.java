@@ -0,0 +1,50 @@
+package com.devwonder.notificationservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import static com.devwonder.notificationservice.service.ConsumerConcurrencyAutoscaler.targetConcurrency;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ConsumerConcurrencyAutoscalerTest {
+
+    @Test
+    void scalesUpStraightToTheThreadsTheLagNeeds() {
+        assertEquals(2, targetConcurrency(1, 1, 3, 900, 500, 1, false));
+        assertEquals(3, targetConcurrency(1, 1, 3, 1_500, 500, 1, false));
+    }
+
+    @Test
+    void neverExceedsThePartitionCount() {
+        assertEquals(3, targetConcurrency(1, 1, 3, 1_000_000, 500, 1, true));
+        assertEquals(6, targetConcurrency(3, 1, 6, 1_000_000, 500, 1, true));
+    }
+
+    @Test
+    void takesOnlyThisReplicasShareOfPartitionsAndLag() {
+        // Three replicas on six partitions: each takes at most two threads, however large the lag
+        assertEquals(2, targetConcurrency(1, 1, 6, 1_000_000, 500, 3, false));
+        // 3000 records over three replicas is 1000 each, two threads' worth
+        assertEquals(2, targetConcurrency(1, 1, 12, 3_000, 500, 3, false));
+        // Uneven splits round up so every partition has a thread somewhere
+        assertEquals(3, targetConcurrency(1, 1, 5, 1_000_000, 500, 2, false));
+    }
+
+    @Test
+    void keepsTheConfiguredConcurrencyAsTheFloor() {
+        assertEquals(2, targetConcurrency(2, 2, 3, 0, 500, 1, true));
+        // A floor above the partition count is kept rather than shrunk to it
+        assertEquals(4, targetConcurrency(4, 4, 3, 0, 500, 1, true));
+    }
+
+    @Test
+    void scalesDownOneThreadAtATimeAfterTheCooldown() {
+        assertEquals(3, targetConcurrency(3, 1, 3, 0, 500, 1, false));
+        assertEquals(2, targetConcurrency(3, 1, 3, 0, 500, 1, true));
+        assertEquals(1, targetConcurrency(2, 1, 3, 0, 500, 1, true));
+    }
+
+    @Test
+    void holdsWhenTheLagMatchesTheCurrentThreads() {
+        assertEquals(2, targetConcurrency(2, 1, 3, 1_000, 500, 1, true));
+    }
+}
@@ -0,0 +1,70 @@
+package com.devwonder.notificationservice.service;
+
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ConsumerLagReaderTest {
+
+    private static final String TOPIC = "order-notifications";
+
+    private static EmbeddedKafkaBroker broker;
+    private static Admin admin;
+
+    @BeforeAll
+    static void startBroker() {
+        broker = new EmbeddedKafkaKraftBroker(1, 3, TOPIC);
+        broker.afterPropertiesSet();
+        admin = Admin.create(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString()));
+    }
+
+    @AfterAll
+    static void stopBroker() {
+        admin.close();
+        broker.destroy();
+    }
+
+    @Test
+    void sumsUncommittedRecordsOverPartitions() throws Exception {
+        try (KafkaProducer<String, String> producer = new KafkaProducer<>(Map.of(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString(),
+                ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
+                ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class))) {
+            for (int i = 0; i < 10; i++) {
+                producer.send(new ProducerRecord<>(TOPIC, 0, null, "event-" + i));
+            }
+            for (int i = 0; i < 5; i++) {
+                producer.send(new ProducerRecord<>(TOPIC, 1, null, "event-" + i));
+            }
+        }
+
+        // Partition 0 consumed up to offset 4, partition 1 fully, partition 2 never committed
+        admin.alterConsumerGroupOffsets("notification-service-group-order", Map.of(
+                new TopicPartition(TOPIC, 0), new OffsetAndMetadata(4),
+                new TopicPartition(TOPIC, 1), new OffsetAndMetadata(5))).all().get();
+
+        ConsumerLagReader reader = new ConsumerLagReader(admin, Duration.ofSeconds(10));
+        ConsumerLagReader.GroupLag lag = reader.read("notification-service-group-order", List.of(TOPIC));
+
+        assertEquals(6, lag.lag());
+        assertEquals(3, lag.partitions());
+        // No live members: the caller's replica alone
+        assertEquals(1, lag.replicas());
+    }
+}
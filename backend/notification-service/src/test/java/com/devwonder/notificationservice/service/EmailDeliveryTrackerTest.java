@@ -0,0 +1,72 @@
+package com.devwonder.notificationservice.service;
+
+import com.devwonder.common.exception.EmailSendException;
+import com.devwonder.common.kafka.KafkaRetryMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.support.SendResult;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EmailDeliveryTrackerTest {
+
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<Object, Object> kafkaTemplate = mock(KafkaTemplate.class);
+    private final EmailDeliveryTracker tracker =
+            new EmailDeliveryTracker(kafkaTemplate, new KafkaRetryMetrics(new SimpleMeterRegistry()));
+
+    @Test
+    void rethrowsWhenTheDispatcherRefusedTheEmail() {
+        EmailSendException full = new EmailSendException("Email queue is full");
+
+        EmailSendException thrown = assertThrows(EmailSendException.class,
+                () -> tracker.track("password-reset-notifications", "7", "event", CompletableFuture.failedFuture(full)));
+
+        assertSame(full, thrown);
+        verify(kafkaTemplate, never()).send(any(ProducerRecord.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void parksTheEventOnTheDltWhenDeliveryFails() {
+        when(kafkaTemplate.send(any(ProducerRecord.class)))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+        CompletableFuture<Void> delivery = new CompletableFuture<>();
+
+        tracker.track("password-reset-notifications", "7", "event", delivery);
+        verify(kafkaTemplate, never()).send(any(ProducerRecord.class));
+        delivery.completeExceptionally(new EmailSendException("Failed to send email"));
+
+        ArgumentCaptor<ProducerRecord<Object, Object>> sent = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate).send(sent.capture());
+        assertEquals("password-reset-notifications-dlt", sent.getValue().topic());
+        assertEquals("7", sent.getValue().key());
+        assertEquals("event", sent.getValue().value());
+        assertEquals("password-reset-notifications", new String(
+                sent.getValue().headers().lastHeader(KafkaHeaders.DLT_ORIGINAL_TOPIC).value(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void leavesDeliveredEmailsAlone() {
+        CompletableFuture<Void> delivery = new CompletableFuture<>();
+
+        tracker.track("email-notifications", "7", "event", delivery);
+        delivery.complete(null);
+
+        verify(kafkaTemplate, never()).send(any(ProducerRecord.class));
+    }
+}
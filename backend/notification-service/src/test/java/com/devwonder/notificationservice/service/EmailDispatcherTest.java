@@ -0,0 +1,183 @@
+package com.devwonder.notificationservice.service;
+
+import com.devwonder.common.exception.EmailSendException;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EmailDispatcherTest {
+
+    private FakeSmtpServer smtp;
+    private EmailDispatcher dispatcher;
+    private JavaMailSenderImpl mailSender;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        smtp = new FakeSmtpServer();
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("127.0.0.1");
+        mailSender.setPort(smtp.port());
+        dispatcher = new EmailDispatcher(mailSender, 100, 1, 20, 3,
+                Duration.ofMillis(20), Duration.ofMillis(100), Duration.ofSeconds(5), Duration.ofSeconds(1));
+        dispatcher.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        dispatcher.stop();
+        smtp.close();
+    }
+
+    @Test
+    void batchIsDeliveredOverOneConnection() throws Exception {
+        List<MimeMessage> messages = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            messages.add(message("dealer" + i + "@example.com"));
+        }
+
+        List<CompletableFuture<Void>> results = dispatcher.submitAll(messages);
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+
+        assertEquals(10, smtp.delivered.get());
+        assertEquals(1, smtp.connections.get());
+    }
+
+    @Test
+    void transientFailuresAreRetriedWithBackoff() throws Exception {
+        smtp.transientDataFailures.set(2);
+
+        dispatcher.submit(message("dealer@example.com")).get(10, TimeUnit.SECONDS);
+
+        assertEquals(1, smtp.delivered.get());
+        assertEquals(3, smtp.dataCommands.get());
+    }
+
+    @Test
+    void rejectedRecipientsAreNotRetried() throws Exception {
+        CompletableFuture<Void> result = dispatcher.submit(message("rejected@example.com"));
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS));
+        assertInstanceOf(EmailSendException.class, error.getCause());
+        assertEquals(1, smtp.recipientCommands.get());
+        assertEquals(0, smtp.delivered.get());
+    }
+
+    private MimeMessage message(String to) throws Exception {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+        helper.setFrom("noreply@example.com");
+        helper.setTo(to);
+        helper.setSubject("Test");
+        helper.setText("<p>Hello</p>", true);
+        return message;
+    }
+
+    /**
+     * Just enough SMTP to accept messages, counting connections and commands. Recipients starting with
+     * "rejected" get a permanent 550; the first {@code transientDataFailures} DATA commands get a 451.
+     */
+    private static final class FakeSmtpServer implements AutoCloseable {
+
+        private final ServerSocket serverSocket = new ServerSocket(0);
+        private final AtomicInteger connections = new AtomicInteger();
+        private final AtomicInteger delivered = new AtomicInteger();
+        private final AtomicInteger dataCommands = new AtomicInteger();
+        private final AtomicInteger recipientCommands = new AtomicInteger();
+        private final AtomicInteger transientDataFailures = new AtomicInteger();
+
+        private FakeSmtpServer() throws IOException {
+            Thread acceptor = new Thread(this::acceptLoop, "fake-smtp");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        int port() {
+            return serverSocket.getLocalPort();
+        }
+
+        private void acceptLoop() {
+            while (!serverSocket.isClosed()) {
+                try {
+                    Socket socket = serverSocket.accept();
+                    connections.incrementAndGet();
+                    Thread session = new Thread(() -> serve(socket), "fake-smtp-session");
+                    session.setDaemon(true);
+                    session.start();
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private void serve(Socket socket) {
+            try (socket;
+                 BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+                 OutputStream out = socket.getOutputStream()) {
+                reply(out, "220 fake-smtp ready");
+                String line;
+                while ((line = in.readLine()) != null) {
+                    String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+                    switch (command) {
+                        case "EHLO", "HELO", "MAIL", "RSET", "NOOP" -> reply(out, "250 OK");
+                        case "RCPT" -> {
+                            recipientCommands.incrementAndGet();
+                            reply(out, line.toLowerCase().contains("<rejected") ? "550 No such user" : "250 OK");
+                        }
+                        case "DATA" -> {
+                            dataCommands.incrementAndGet();
+                            reply(out, "354 Go ahead");
+                            while ((line = in.readLine()) != null && !line.equals(".")) {
+                                // message body
+                            }
+                            if (transientDataFailures.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                                reply(out, "451 Try again later");
+                            } else {
+                                delivered.incrementAndGet();
+                                reply(out, "250 Accepted");
+                            }
+                        }
+                        case "QUIT" -> {
+                            reply(out, "221 Bye");
+                            return;
+                        }
+                        default -> reply(out, "502 Not implemented");
+                    }
+                }
+            } catch (IOException e) {
+                // client went away
+            }
+        }
+
+        private static void reply(OutputStream out, String line) throws IOException {
+            out.write((line + "\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverSocket.close();
+        }
+    }
+}
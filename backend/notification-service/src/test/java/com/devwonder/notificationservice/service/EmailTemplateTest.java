@@ -0,0 +1,46 @@
+package com.devwonder.notificationservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EmailTemplateTest {
+
+    @Test
+    void rendersPlaceholdersWithEscapedValues() {
+        EmailTemplate template = EmailTemplate.compile("t", "<p>Dear {{ name }}</p><a href=\"{{url}}\">go</a>");
+
+        String html = template.render(Map.of("name", "<b>Acme & Co</b>", "url", "https://x.vn/a?b=1&c=2"));
+
+        assertEquals("<p>Dear &lt;b&gt;Acme &amp; Co&lt;/b&gt;</p><a href=\"https://x.vn/a?b=1&amp;c=2\">go</a>", html);
+    }
+
+    @Test
+    void missingValuesAreRejectedAndNullValuesRenderEmpty() {
+        EmailTemplate template = EmailTemplate.compile("t", "[{{a}}][{{b}}]");
+        Map<String, Object> values = new HashMap<>();
+        values.put("a", null);
+
+        assertThrows(IllegalArgumentException.class, () -> template.render(values));
+        values.put("b", "x");
+        assertEquals("[][x]", template.render(values));
+    }
+
+    @Test
+    void bundledTemplatesCompile() {
+        EmailTemplates templates = new EmailTemplates();
+
+        for (String name : new String[]{EmailTemplates.DEALER_WELCOME, EmailTemplates.LOGIN_CONFIRMATION,
+                EmailTemplates.PASSWORD_RESET}) {
+            assertFalse(templates.get(name).getPlaceholders().isEmpty());
+        }
+        assertEquals(Set.of("companyName", "username", "password", "email", "phone", "address",
+                "district", "city", "portalUrl"), templates.get(EmailTemplates.DEALER_WELCOME).getPlaceholders());
+    }
+}
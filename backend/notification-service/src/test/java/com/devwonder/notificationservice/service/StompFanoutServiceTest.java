@@ -0,0 +1,129 @@
+package com.devwonder.notificationservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs several notification-service "replicas" as separate Spring contexts in one JVM, joined by an
+ * in-memory stand-in for Redis pub/sub, and checks each message reaches every replica's broker once.
+ */
+class StompFanoutServiceTest {
+
+    private static final int NODES = 3;
+
+    private final InMemoryPubSub pubSub = new InMemoryPubSub();
+    private final List<AnnotationConfigApplicationContext> contexts = new ArrayList<>();
+    private final List<List<Message<?>>> delivered = new ArrayList<>();
+
+    @AfterEach
+    void closeContexts() {
+        contexts.forEach(AnnotationConfigApplicationContext::close);
+    }
+
+    @Test
+    void broadcastReachesTheBrokerOfEveryNodeOnce() {
+        startNodes();
+
+        fanoutService(1).broadcast("/topic/order-notifications", Map.of("orderCode", "ORD-1"));
+
+        for (List<Message<?>> messages : delivered) {
+            assertEquals(1, messages.size());
+            Message<?> message = messages.get(0);
+            assertEquals("/topic/order-notifications", SimpMessageHeaderAccessor.getDestination(message.getHeaders()));
+            assertTrue(payload(message).contains("\"orderCode\":\"ORD-1\""));
+        }
+    }
+
+    @Test
+    void userMessagesAreResolvedAgainstEachNodesOwnSessions() {
+        startNodes();
+
+        fanoutService(0).sendToUser("admin", "/queue/login-confirmed", Map.of("accountId", 7));
+
+        // Every node hands the message to its own user destination resolution
+        for (List<Message<?>> messages : delivered) {
+            assertEquals(1, messages.size());
+            assertEquals("/user/admin/queue/login-confirmed",
+                    SimpMessageHeaderAccessor.getDestination(messages.get(0).getHeaders()));
+        }
+    }
+
+    @Test
+    void deliversLocallyWhenTheTransportFails() {
+        pubSub.failPublishes = true;
+        startNodes();
+
+        fanoutService(2).broadcast("/topic/dealer-registrations", Map.of("id", 1));
+
+        assertEquals(0, delivered.get(0).size());
+        assertEquals(0, delivered.get(1).size());
+        assertEquals(1, delivered.get(2).size());
+    }
+
+    private void startNodes() {
+        for (int i = 0; i < NODES; i++) {
+            List<Message<?>> messages = new CopyOnWriteArrayList<>();
+            delivered.add(messages);
+
+            SimpMessagingTemplate template = new SimpMessagingTemplate(capturing(messages));
+            template.setMessageConverter(new MappingJackson2MessageConverter());
+
+            AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+            context.registerBean(StompFanoutTransport.class, () -> pubSub);
+            context.registerBean(SimpMessagingTemplate.class, () -> template);
+            context.registerBean(ObjectMapper.class, () -> JsonMapper.builder().findAndAddModules().build());
+            context.registerBean(StompFanoutService.class);
+            context.refresh();
+            contexts.add(context);
+        }
+    }
+
+    private StompFanoutService fanoutService(int node) {
+        return contexts.get(node).getBean(StompFanoutService.class);
+    }
+
+    private static MessageChannel capturing(List<Message<?>> messages) {
+        return (message, timeout) -> messages.add(message);
+    }
+
+    private static String payload(Message<?> message) {
+        return new String((byte[]) message.getPayload(), StandardCharsets.UTF_8);
+    }
+
+    private static final class InMemoryPubSub implements StompFanoutTransport {
+
+        private final List<Consumer<String>> subscribers = new CopyOnWriteArrayList<>();
+        private volatile boolean failPublishes;
+
+        @Override
+        public void publish(String message) {
+            if (failPublishes) {
+                throw new IllegalStateException("connection refused");
+            }
+            subscribers.forEach(subscriber -> subscriber.accept(message));
+        }
+
+        @Override
+        public void subscribe(Consumer<String> subscriber) {
+            subscribers.add(subscriber);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.devwonder.notificationservice.service;
+
+import com.devwonder.notificationservice.entity.Notification;
+import com.devwonder.notificationservice.repository.NotificationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UnreadCounterServiceTest {
+
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    private final NotificationRepository notificationRepository = mock(NotificationRepository.class);
+    private ValueOperations<String, String> valueOperations;
+    private UnreadCounterService unreadCounterService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        valueOperations = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        unreadCounterService = new UnreadCounterService(redisTemplate, notificationRepository);
+        ReflectionTestUtils.setField(unreadCounterService, "counterTtl", Duration.ofHours(1));
+    }
+
+    @Test
+    void countsEachInboxSeparately() {
+        when(valueOperations.get("nexhub:notifications:unread:0")).thenReturn("7");
+        when(valueOperations.get("nexhub:notifications:unread:42")).thenReturn("2");
+
+        assertEquals(7, unreadCounterService.getUnreadCount(Notification.ADMIN_INBOX));
+        assertEquals(2, unreadCounterService.getUnreadCount(42));
+        verify(notificationRepository, never()).countUnread(any(Long.class));
+    }
+
+    @Test
+    void recomputesAMissingCounterWithAnExpiry() {
+        when(notificationRepository.countUnread(42)).thenReturn(3L);
+
+        assertEquals(3, unreadCounterService.getUnreadCount(42));
+        verify(valueOperations).set("nexhub:notifications:unread:42", "3", Duration.ofHours(1));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void adjustsOnlyTheRecipientsCounter() {
+        unreadCounterService.decrementAfterCommit(42, 2);
+
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("nexhub:notifications:unread:42")), eq("-2"));
+    }
+}
@@ -1,5 +1,6 @@
 package com.devwonder.orderservice.config;
 
+import com.devwonder.common.kafka.serde.VersionedEventSerializer;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
@@ -8,7 +9,6 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
-import org.springframework.kafka.support.serializer.JsonSerializer;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -19,12 +19,17 @@ public class KafkaProducerConfig {
     @Value("${spring.kafka.bootstrap-servers:kafka1:9092,kafka2:9093,kafka3:9094}")
     private String bootstrapServers;
 
+    @Value("${nexhub.kafka.event-format:smile}")
+    private String eventFormat;
+
     @Bean
     public ProducerFactory<String, Object> producerFactory() {
         Map<String, Object> configProps = new HashMap<>();
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, VersionedEventSerializer.class);
+        // Schema id header plus the body in nexhub.kafka.event-format; consumers resolve the class from the shared registry
+        configProps.put(VersionedEventSerializer.FORMAT_CONFIG, eventFormat);
 
         // Additional producer configurations for reliability
         configProps.put(ProducerConfig.ACKS_CONFIG, "all");
@@ -0,0 +1,16 @@
+package com.devwonder.orderservice.config;
+
+import com.devwonder.common.kafka.KafkaRetryTopicSupport;
+import com.devwonder.orderservice.constant.KafkaTopics;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+public class KafkaRetryTopicConfig extends KafkaRetryTopicSupport {
+
+    @Override
+    protected List<String> retriedTopics() {
+        return List.of(KafkaTopics.SERIALS_ALLOCATED);
+    }
+}
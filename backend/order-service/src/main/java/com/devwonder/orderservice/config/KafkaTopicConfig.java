@@ -0,0 +1,24 @@
+package com.devwonder.orderservice.config;
+
+import com.devwonder.orderservice.constant.KafkaTopics;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.config.TopicConfig;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+@Configuration
+public class KafkaTopicConfig {
+
+    @Bean
+    public NewTopic orderItemEventsTopic() {
+        // Keyed by order item ID, so changes to the same item stay ordered within a partition
+        return TopicBuilder.name(KafkaTopics.ORDER_ITEM_EVENTS)
+                .partitions(3)
+                .replicas(3)
+                .config(TopicConfig.CLEANUP_POLICY_CONFIG, "delete")
+                .config(TopicConfig.RETENTION_MS_CONFIG, "604800000") // 7 days retention
+                .config(TopicConfig.MIN_IN_SYNC_REPLICAS_CONFIG, "2") // Minimum 2 replicas in sync
+                .build();
+    }
+}
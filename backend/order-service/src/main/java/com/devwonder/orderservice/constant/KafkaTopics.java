@@ -9,4 +9,9 @@ public final class KafkaTopics {
 
     // Topic names
     public static final String ORDER_NOTIFICATIONS = "order-notifications";
+    public static final String ORDER_ITEM_EVENTS = "order-item-events";
+    public static final String SERIALS_ALLOCATED = "serials-allocated";
+
+    // Consumer groups
+    public static final String ORDER_SERVICE_SERIALS_GROUP = "order-service-group-serials-allocated";
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.devwonder.orderservice.controller;
+
+import com.devwonder.common.dto.BaseResponse;
+import com.devwonder.common.kafka.DeadLetterReplayer;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/order/dead-letters")
+@Tag(name = "Dead Letters", description = "Replay of Kafka records parked on dead-letter topics")
+@RequiredArgsConstructor
+@Slf4j
+public class DeadLetterController {
+
+    private final DeadLetterReplayer deadLetterReplayer;
+
+    @PostMapping("/{topic}/replay")
+    public ResponseEntity<BaseResponse<Integer>> replay(
+            @PathVariable String topic,
+            @RequestParam(defaultValue = "100") int maxRecords) {
+
+        log.info("Replaying up to {} dead-lettered records onto {}", maxRecords, topic);
+
+        int replayed = deadLetterReplayer.replay(topic, maxRecords);
+
+        return ResponseEntity.ok(BaseResponse.success(String.format("Replayed %d records onto %s", replayed, topic), replayed));
+    }
+}
@@ -18,7 +18,8 @@ import java.math.BigDecimal;
 public class OrderItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_item_seq")
+    @SequenceGenerator(name = "order_item_seq", sequenceName = "order_item_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "unit_price", nullable = false, precision = 12, scale = 2)
@@ -0,0 +1,40 @@
+package com.devwonder.orderservice.listener;
+
+import com.devwonder.common.enums.OrderItemStatus;
+import com.devwonder.common.event.SerialsAllocatedEvent;
+import com.devwonder.common.exception.ResourceNotFoundException;
+import com.devwonder.orderservice.constant.KafkaTopics;
+import com.devwonder.orderservice.service.OrderService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SerialsAllocatedListener {
+
+    private final OrderService orderService;
+
+    @KafkaListener(
+        topics = KafkaTopics.SERIALS_ALLOCATED,
+        groupId = KafkaTopics.ORDER_SERVICE_SERIALS_GROUP,
+        containerFactory = "serialsAllocatedKafkaListenerContainerFactory"
+    )
+    public void consumeSerialsAllocated(SerialsAllocatedEvent event) {
+        log.info("Received serials allocated event for order item {}: {}/{} allocated",
+            event.getOrderItemId(), event.getAllocatedCount(), event.getRequiredQuantity());
+
+        if (!event.isCompleted()) {
+            return;
+        }
+
+        try {
+            // Setting COMPLETED again is harmless, so redelivered events need no special handling
+            orderService.updateOrderItemStatus(event.getOrderItemId(), OrderItemStatus.COMPLETED);
+        } catch (ResourceNotFoundException e) {
+            log.warn("Ignoring serials allocated event for missing order item {}", event.getOrderItemId());
+        }
+    }
+}
@@ -68,8 +68,9 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
            nativeQuery = true)
     List<Object[]> getDealerOrderStats();
 
-    // Search orders by order code only
-    @Query("SELECT DISTINCT o FROM Order o WHERE o.isDeleted = false AND " +
-           "LOWER(o.orderCode) LIKE LOWER(CONCAT('%', :query, '%'))")
-    List<Order> searchOrders(@Param("query") String query);
+    // Ids of orders whose code matches a SearchQueryUtil.toContainsPattern pattern, bounded by :limit
+    @Query(value = "SELECT o.id FROM orders o WHERE o.is_deleted = false " +
+           "AND lower(o.order_code) LIKE :pattern " +
+           "ORDER BY o.order_code LIMIT :limit", nativeQuery = true)
+    List<Long> searchOrderIds(@Param("pattern") String pattern, @Param("limit") int limit);
 }
\ No newline at end of file
@@ -0,0 +1,73 @@
+package com.devwonder.orderservice.service;
+
+import com.devwonder.common.index.PrefixIndex;
+import com.devwonder.common.index.PrefixIndexMetrics;
+import com.devwonder.common.tx.AfterCommit;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * In-memory, case-insensitive index of the codes of non-deleted orders, serving order code prefix search.
+ *
+ * Loaded at startup, kept up to date by this instance's writes after they commit, and reloaded
+ * periodically to pick up orders written by other instances. Returns empty while it is not loaded
+ * so callers fall back to the database.
+ */
+@Service
+@Slf4j
+public class OrderCodeIndexService {
+
+    private static final int LOAD_FETCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PrefixIndex index;
+
+    public OrderCodeIndexService(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                                 @Value("${nexhub.order-code-index.max-entries:2000000}") int maxEntries) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.index = new PrefixIndex("order-codes", maxEntries, code -> code.toUpperCase(Locale.ROOT));
+        PrefixIndexMetrics.register(meterRegistry, index);
+    }
+
+    /**
+     * Ids of the non-deleted orders whose code starts with {@code prefix}, in code order.
+     */
+    public Optional<List<Long>> findIdsByPrefix(String prefix, int limit) {
+        return index.isReady() ? Optional.of(index.findByPrefix(prefix, limit)) : Optional.empty();
+    }
+
+    public void indexAfterCommit(String orderCode, Long orderId) {
+        AfterCommit.run(() -> index.put(orderCode, orderId));
+    }
+
+    public void removeAfterCommit(String orderCode) {
+        AfterCommit.run(() -> index.remove(orderCode));
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${nexhub.order-code-index.reload-interval:PT10M}")
+    @Transactional(readOnly = true)
+    public void reload() {
+        try {
+            // Streamed with a cursor (needs the surrounding transaction) instead of materialising the table
+            index.rebuild(consumer -> jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(
+                        "SELECT order_code, id FROM orders WHERE is_deleted = false");
+                statement.setFetchSize(LOAD_FETCH_SIZE);
+                return statement;
+            }, (RowCallbackHandler) resultSet -> consumer.accept(resultSet.getString(1), resultSet.getLong(2))));
+        } catch (RuntimeException e) {
+            log.error("Failed to load order code index, search keeps using the database: {}", e.getMessage());
+        }
+    }
+}
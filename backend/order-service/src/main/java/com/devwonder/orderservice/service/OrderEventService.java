@@ -1,30 +1,67 @@
 package com.devwonder.orderservice.service;
 
 import com.devwonder.common.dto.BaseResponse;
+import com.devwonder.common.event.OrderItemChangedEvent;
 import com.devwonder.common.event.OrderNotificationEvent;
+import com.devwonder.common.tx.AfterCommit;
 import com.devwonder.orderservice.client.UserServiceClient;
 import com.devwonder.orderservice.constant.KafkaTopics;
 import com.devwonder.orderservice.dto.DealerResponse;
 import com.devwonder.orderservice.entity.Order;
+import com.devwonder.orderservice.entity.OrderItem;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class OrderEventService {
 
+    // A later change to the same order item replaces the pending row; version tells a delete apart
+    private static final String UPSERT_OUTBOX = """
+            INSERT INTO order_item_events_outbox
+                (order_item_id, change_type, order_id, product_id, quantity, occurred_at, version, queued_at)
+            VALUES (?, ?, ?, ?, ?, ?, 1, ?)
+            ON CONFLICT (order_item_id) DO UPDATE SET change_type = EXCLUDED.change_type,
+                order_id = EXCLUDED.order_id, product_id = EXCLUDED.product_id, quantity = EXCLUDED.quantity,
+                occurred_at = EXCLUDED.occurred_at, version = order_item_events_outbox.version + 1,
+                queued_at = EXCLUDED.queued_at
+            RETURNING version
+            """;
+
+    private static final String SELECT_PENDING = """
+            SELECT order_item_id, change_type, order_id, product_id, quantity, occurred_at, version
+            FROM order_item_events_outbox WHERE queued_at < ? ORDER BY queued_at LIMIT ?
+            """;
+
+    private static final String DELETE_SENT =
+            "DELETE FROM order_item_events_outbox WHERE order_item_id = ? AND version = ?";
+
     private final KafkaTemplate<String, Object> kafkaTemplate;
     private final UserServiceClient userServiceClient;
+    private final JdbcTemplate jdbcTemplate;
 
     @Value("${auth.api.key:INTER_SERVICE_KEY}")
     private String authApiKey;
 
+    @Value("${nexhub.order-item-outbox.relay-delay:PT30S}")
+    private Duration relayDelay;
+
+    @Value("${nexhub.order-item-outbox.batch-size:200}")
+    private int relayBatchSize;
+
     public void publishOrderNotificationEvent(Order order, BigDecimal totalAmount) {
         try {
             // Get dealer information from user-service
@@ -51,6 +88,101 @@ public class OrderEventService {
         }
     }
 
+    /**
+     * Replicates order item quantities to product-service. The events are queued in the order's transaction
+     * and sent after commit, so product-service never sees an item whose order was rolled back and never
+     * misses one whose order committed: rows whose send failed or was cut short by a crash are re-sent by
+     * {@link #relayPending()}.
+     */
+    public void publishOrderItemEvents(List<OrderItem> orderItems, OrderItemChangedEvent.ChangeType changeType) {
+        if (orderItems.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<PendingEvent> queued = orderItems.stream()
+                .map(item -> queue(OrderItemChangedEvent.builder()
+                        .changeType(changeType)
+                        .orderItemId(item.getId())
+                        .orderId(item.getIdOrder())
+                        .productId(item.getIdProduct())
+                        .quantity(item.getQuantity())
+                        .occurredAt(now)
+                        .build(), now))
+                .toList();
+
+        AfterCommit.run(() -> {
+            queued.forEach(this::send);
+            log.info("Published {} {} order item events", queued.size(), changeType);
+        });
+    }
+
+    /**
+     * Re-sends outbox rows whose after-commit send never got acknowledged. Product-service ignores events
+     * older than its replica, so a row sent twice (relay racing the after-commit send, or two replicas
+     * relaying) does no damage.
+     */
+    @Scheduled(fixedDelayString = "${nexhub.order-item-outbox.relay-interval:PT30S}")
+    public void relayPending() {
+        List<PendingEvent> pending;
+        try {
+            pending = jdbcTemplate.query(SELECT_PENDING, (rs, rowNum) -> new PendingEvent(OrderItemChangedEvent.builder()
+                            .changeType(OrderItemChangedEvent.ChangeType.valueOf(rs.getString("change_type")))
+                            .orderItemId(rs.getLong("order_item_id"))
+                            .orderId((Long) rs.getObject("order_id"))
+                            .productId((Long) rs.getObject("product_id"))
+                            .quantity((Integer) rs.getObject("quantity"))
+                            .occurredAt(rs.getTimestamp("occurred_at").toLocalDateTime())
+                            .build(), rs.getLong("version")),
+                    Timestamp.valueOf(LocalDateTime.now().minus(relayDelay)), relayBatchSize);
+        } catch (RuntimeException e) {
+            log.warn("Could not read pending order item events: {}", e.getMessage());
+            return;
+        }
+
+        for (PendingEvent row : pending) {
+            log.info("Re-sending {} event for order item {}", row.event().getChangeType(), row.event().getOrderItemId());
+            try {
+                kafkaTemplate.send(KafkaTopics.ORDER_ITEM_EVENTS, row.event().getOrderItemId().toString(), row.event())
+                        .get(30, TimeUnit.SECONDS);
+                jdbcTemplate.update(DELETE_SENT, row.event().getOrderItemId(), row.version());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                // Kafka is likely down; leave the rest for the next run
+                log.warn("Failed to re-send {} event for order item {}: {}",
+                        row.event().getChangeType(), row.event().getOrderItemId(), e.getMessage());
+                return;
+            }
+        }
+    }
+
+    private PendingEvent queue(OrderItemChangedEvent event, LocalDateTime queuedAt) {
+        Long version = jdbcTemplate.queryForObject(UPSERT_OUTBOX, Long.class,
+                event.getOrderItemId(), event.getChangeType().name(), event.getOrderId(), event.getProductId(),
+                event.getQuantity(), Timestamp.valueOf(event.getOccurredAt()), Timestamp.valueOf(queuedAt));
+        return new PendingEvent(event, version);
+    }
+
+    private void send(PendingEvent row) {
+        OrderItemChangedEvent event = row.event();
+        try {
+            kafkaTemplate.send(KafkaTopics.ORDER_ITEM_EVENTS, event.getOrderItemId().toString(), event)
+                    .whenCompleteAsync((result, failure) -> {
+                        if (failure != null) {
+                            log.warn("Failed to publish {} event for order item {}, relay will retry: {}",
+                                    event.getChangeType(), event.getOrderItemId(), failure.getMessage());
+                            return;
+                        }
+                        jdbcTemplate.update(DELETE_SENT, event.getOrderItemId(), row.version());
+                    });
+        } catch (Exception e) {
+            log.warn("Failed to publish {} event for order item {}, relay will retry: {}",
+                    event.getChangeType(), event.getOrderItemId(), e.getMessage());
+        }
+    }
+
     private DealerResponse getDealerInfo(Long dealerId) {
         try {
             BaseResponse<DealerResponse> response = userServiceClient.getDealerInfo(dealerId, authApiKey);
@@ -62,4 +194,7 @@ public class OrderEventService {
         }
         return null;
     }
-}
\ No newline at end of file
+
+    private record PendingEvent(OrderItemChangedEvent event, long version) {
+    }
+}
@@ -16,7 +16,10 @@ import com.devwonder.orderservice.repository.OrderItemRepository;
 import com.devwonder.orderservice.client.UserServiceClient;
 import com.devwonder.orderservice.client.ProductServiceClient;
 import com.devwonder.common.dto.BaseResponse;
+import com.devwonder.common.event.OrderItemChangedEvent;
 import com.devwonder.common.exception.ResourceNotFoundException;
+import com.devwonder.common.service.BusinessCodeGenerator;
+import com.devwonder.common.util.SearchQueryUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -26,11 +29,13 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
 import java.util.Set;
 import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -44,6 +49,8 @@ public class OrderService {
     private final OrderMapper orderMapper;
     private final UserServiceClient userServiceClient;
     private final ProductServiceClient productServiceClient;
+    private final BusinessCodeGenerator businessCodeGenerator;
+    private final OrderCodeIndexService orderCodeIndexService;
 
     @Value("${auth.api.key:INTER_SERVICE_KEY}")
     private String authApiKey;
@@ -62,6 +69,7 @@ public class OrderService {
                 .build();
 
         Order savedOrder = orderRepository.save(order);
+        orderCodeIndexService.indexAfterCommit(savedOrder.getOrderCode(), savedOrder.getId());
         log.info("Created order with ID: {}", savedOrder.getId());
 
         // Create OrderItems
@@ -83,6 +91,7 @@ public class OrderService {
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
 
         orderEventService.publishOrderNotificationEvent(savedOrder, totalAmount);
+        orderEventService.publishOrderItemEvents(savedOrderItems, OrderItemChangedEvent.ChangeType.CREATED);
 
         return buildOrderResponse(savedOrder, savedOrderItems);
     }
@@ -182,6 +191,7 @@ public class OrderService {
 
         order.setIsDeleted(true);
         Order deletedOrder = orderRepository.save(order);
+        orderCodeIndexService.removeAfterCommit(order.getOrderCode());
 
         List<OrderItem> orderItems = orderItemRepository.findByOrderId(orderId);
 
@@ -197,10 +207,13 @@ public class OrderService {
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found with ID: " + orderId));
 
         // Delete order items first due to foreign key constraint
+        List<OrderItem> orderItems = orderItemRepository.findByOrderId(orderId);
         orderItemRepository.deleteByOrderId(orderId);
+        orderEventService.publishOrderItemEvents(orderItems, OrderItemChangedEvent.ChangeType.DELETED);
 
         // Then delete the order
         orderRepository.delete(order);
+        orderCodeIndexService.removeAfterCommit(order.getOrderCode());
 
         log.info("Successfully hard deleted order {}", orderId);
     }
@@ -227,6 +240,7 @@ public class OrderService {
 
                 order.setIsDeleted(true);
                 orderRepository.save(order);
+                orderCodeIndexService.removeAfterCommit(order.getOrderCode());
                 successCount++;
                 log.debug("Successfully soft deleted order {}", orderId);
 
@@ -253,10 +267,13 @@ public class OrderService {
                         .orElseThrow(() -> new ResourceNotFoundException("Order not found with ID: " + orderId));
 
                 // Delete order items first due to foreign key constraint
+                List<OrderItem> orderItems = orderItemRepository.findByOrderId(orderId);
                 orderItemRepository.deleteByOrderId(orderId);
+                orderEventService.publishOrderItemEvents(orderItems, OrderItemChangedEvent.ChangeType.DELETED);
 
                 // Then delete the order
                 orderRepository.delete(order);
+                orderCodeIndexService.removeAfterCommit(order.getOrderCode());
                 successCount++;
                 log.debug("Successfully hard deleted order {}", orderId);
 
@@ -283,6 +300,7 @@ public class OrderService {
 
         order.setIsDeleted(false);
         Order restoredOrder = orderRepository.save(order);
+        orderCodeIndexService.indexAfterCommit(order.getOrderCode(), orderId);
 
         List<OrderItem> orderItems = orderItemRepository.findByOrderId(orderId);
 
@@ -313,11 +331,21 @@ public class OrderService {
             return List.of();
         }
 
-        List<Order> orders = orderRepository.searchOrders(query.trim());
+        // Code prefix matches first, from the in-memory index; the rest of the page is topped up with
+        // substring matches from the database, so a prefix hit never hides them
+        List<Long> orderIds = new ArrayList<>(orderCodeIndexService.findIdsByPrefix(query.trim(), limit).orElse(List.of()));
+        if (orderIds.size() < limit) {
+            Set<Long> seen = new HashSet<>(orderIds);
+            orderRepository.searchOrderIds(SearchQueryUtil.toContainsPattern(query), limit + orderIds.size()).stream()
+                    .filter(seen::add)
+                    .limit(limit - orderIds.size())
+                    .forEach(orderIds::add);
+        }
+
+        List<Order> orders = findOrdersInOrder(orderIds);
         log.info("Found {} orders matching query: '{}'", orders.size(), query);
 
         return orders.stream()
-                .limit(limit)
                 .map(order -> {
                     List<OrderItem> orderItems = orderItemRepository.findByOrderId(order.getId());
                     return buildOrderResponse(order, orderItems);
@@ -325,6 +353,20 @@ public class OrderService {
                 .collect(Collectors.toList());
     }
 
+    private List<Order> findOrdersInOrder(List<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Order> ordersById = orderRepository.findAllById(orderIds).stream()
+                .filter(order -> !order.getIsDeleted())
+                .collect(Collectors.toMap(Order::getId, Function.identity()));
+        return orderIds.stream()
+                .map(ordersById::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
     @Transactional(readOnly = true)
     public List<DealerOrderStats> getDealerOrderStats() {
         log.info("Retrieving dealer order statistics");
@@ -435,13 +477,8 @@ public class OrderService {
     }
 
     private String generateOrderCode() {
-        // Format: ORD-YYYYMMDD-HHMMSS-XXXX (where XXXX is random)
-        LocalDateTime now = LocalDateTime.now();
-        String datePart = now.format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        String timePart = now.format(DateTimeFormatter.ofPattern("HHmmss"));
-        String randomPart = UUID.randomUUID().toString().substring(0, 4).toUpperCase();
-
-        return String.format("ORD-%s-%s-%s", datePart, timePart, randomPart);
+        // Format: ORD-YYYYMMDD-HHMMSS-XXXXXXX (XXXXXXX is unique per node within the second)
+        return businessCodeGenerator.nextCode("ORD");
     }
 
     @Transactional(readOnly = true)
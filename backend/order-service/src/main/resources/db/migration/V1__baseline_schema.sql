@@ -0,0 +1,20 @@
+-- Baseline of the schema previously created by hibernate ddl-auto.
+-- IF NOT EXISTS keeps it a no-op on databases that already have the tables.
+
+CREATE TABLE IF NOT EXISTS orders (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id_dealer      BIGINT       NOT NULL,
+    order_code     VARCHAR(255) NOT NULL UNIQUE,
+    created_at     TIMESTAMP(6),
+    payment_status VARCHAR(255) NOT NULL,
+    is_deleted     BOOLEAN
+);
+
+CREATE TABLE IF NOT EXISTS order_items (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    unit_price NUMERIC(12, 2) NOT NULL,
+    quantity   INTEGER        NOT NULL,
+    id_product BIGINT         NOT NULL,
+    id_order   BIGINT         NOT NULL REFERENCES orders (id),
+    status     VARCHAR(255)   NOT NULL
+);
@@ -0,0 +1,11 @@
+-- Dealer order listings: WHERE id_dealer = ? AND is_deleted = false ORDER BY created_at DESC
+CREATE INDEX IF NOT EXISTS idx_orders_dealer_deleted_created
+    ON orders (id_dealer, is_deleted, created_at DESC);
+
+-- Admin listings: WHERE is_deleted = ? ORDER BY created_at DESC
+CREATE INDEX IF NOT EXISTS idx_orders_deleted_created
+    ON orders (is_deleted, created_at DESC);
+
+-- Item lookups per order (findByOrderId, deleteByOrderId) - FK columns are not indexed by Postgres
+CREATE INDEX IF NOT EXISTS idx_order_items_order
+    ON order_items (id_order);
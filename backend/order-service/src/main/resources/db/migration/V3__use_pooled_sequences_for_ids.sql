@@ -0,0 +1,8 @@
+-- IDENTITY ids disable Hibernate insert batching; ids now come from pooled sequences (allocationSize = 50).
+-- Start past the current max id with a full allocation block of headroom.
+
+CREATE SEQUENCE IF NOT EXISTS order_id_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('order_id_seq', COALESCE((SELECT MAX(id) FROM orders), 0) + 100);
+
+CREATE SEQUENCE IF NOT EXISTS order_item_id_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('order_item_id_seq', COALESCE((SELECT MAX(id) FROM order_items), 0) + 100);
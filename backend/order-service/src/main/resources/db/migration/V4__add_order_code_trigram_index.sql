@@ -0,0 +1,6 @@
+-- Order code substring search: lower(order_code) LIKE '%q%' ... LIMIT n, served by a trigram index
+-- instead of a scan of every order
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_orders_order_code_trgm
+    ON orders USING GIN (lower(order_code) gin_trgm_ops);
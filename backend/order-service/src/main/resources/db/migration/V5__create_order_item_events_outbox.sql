@@ -0,0 +1,16 @@
+-- Transactional outbox for "order-item-events": written with the order change, deleted once Kafka
+-- acknowledges the send. One row per order item, holding its latest change; product-service only
+-- needs the latest one since a deletion is final there.
+CREATE TABLE IF NOT EXISTS order_item_events_outbox (
+    order_item_id BIGINT PRIMARY KEY,
+    change_type   VARCHAR(16) NOT NULL,
+    order_id      BIGINT,
+    product_id    BIGINT,
+    quantity      INTEGER,
+    occurred_at   TIMESTAMP   NOT NULL,
+    version       BIGINT      NOT NULL DEFAULT 1,
+    queued_at     TIMESTAMP   NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_order_item_events_outbox_queued_at
+    ON order_item_events_outbox (queued_at);
@@ -16,6 +16,7 @@ public class SecurityConfig extends BaseSecurityConfig {
             .requestMatchers("/product/product-serial/serial/*").access(authApiKeyRequired())       // Serial lookup calls
             .requestMatchers("/product/product-serial/bulk-status").access(authApiKeyRequired())    // Bulk status update calls
             .requestMatchers("/product/product-serial/*/details").access(authApiKeyRequired())      // Product serial details lookup
+            .requestMatchers("/product/product-serial/resolve").access(authApiKeyRequired())        // Batch serial resolution
             .requestMatchers("/product/products/*/name").access(authApiKeyRequired())               // Product name lookup for inter-service
             .requestMatchers("/product/products/*/info").access(authApiKeyRequired())               // Product info lookup for inter-service
             .requestMatchers("/product/product-serials/dealer/*/product-ids").access(authApiKeyRequired()) // Product IDs by dealer
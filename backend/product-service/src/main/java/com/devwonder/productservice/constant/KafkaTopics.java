@@ -0,0 +1,16 @@
+package com.devwonder.productservice.constant;
+
+public final class KafkaTopics {
+
+    // Prevent instantiation
+    private KafkaTopics() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    // Topic names
+    public static final String ORDER_ITEM_EVENTS = "order-item-events";
+    public static final String SERIALS_ALLOCATED = "serials-allocated";
+
+    // Consumer groups
+    public static final String PRODUCT_SERVICE_ORDER_ITEM_GROUP = "product-service-group-order-items";
+}
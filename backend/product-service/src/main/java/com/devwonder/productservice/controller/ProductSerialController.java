@@ -8,7 +8,12 @@ import com.devwonder.productservice.dto.ProductSerialBulkCreateResponse;
 import com.devwonder.productservice.dto.ProductSerialStatusUpdateRequest;
 import com.devwonder.productservice.dto.ProductSerialBulkStatusUpdateRequest;
 import com.devwonder.productservice.dto.ProductInventoryResponse;
+import com.devwonder.productservice.dto.ProductSerialImportResponse;
+import com.devwonder.productservice.dto.ProductSerialReservationRequest;
+import com.devwonder.productservice.dto.ProductSerialReservationResponse;
 import com.devwonder.productservice.enums.ProductSerialStatus;
+import com.devwonder.productservice.service.ProductInventoryService;
+import com.devwonder.productservice.service.ProductSerialImportService;
 import com.devwonder.productservice.service.ProductSerialService;
 import com.devwonder.productservice.service.ProductStockService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -19,10 +24,13 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -34,6 +42,8 @@ public class ProductSerialController {
     
     private final ProductSerialService productSerialService;
     private final ProductStockService productStockService;
+    private final ProductSerialImportService productSerialImportService;
+    private final ProductInventoryService productInventoryService;
     
     @PostMapping("/serials")
     @Operation(
@@ -63,6 +73,38 @@ public class ProductSerialController {
                 .body(BaseResponse.success("Product serials bulk creation completed", response));
     }
 
+    @PostMapping(value = "/{productId}/serials/import",
+                 consumes = {"text/csv", "text/plain", MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(
+        summary = "Import Product Serials (Streaming)",
+        description = "Stream serial numbers from a CSV (first column, optional header) or NDJSON ({\"serial\": ...} per line) body. Existing serials are skipped. Memory use is independent of file size. Requires ADMIN role authentication via API Gateway.",
+        security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "Product serials imported successfully"),
+        @ApiResponse(responseCode = "400", description = "Malformed line or serial too long"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing JWT token"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - ADMIN role required"),
+        @ApiResponse(responseCode = "404", description = "Product not found"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<BaseResponse<ProductSerialImportResponse>> importProductSerials(
+            @PathVariable Long productId,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) {
+
+        ProductSerialImportService.Format format = contentType.startsWith(MediaType.APPLICATION_NDJSON_VALUE)
+                ? ProductSerialImportService.Format.NDJSON
+                : ProductSerialImportService.Format.CSV;
+
+        log.info("Importing product serials for product ID: {} as {} by ADMIN user", productId, format);
+
+        ProductSerialImportResponse response = productSerialImportService.importSerials(productId, body, format);
+
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(BaseResponse.success("Product serials import completed", response));
+    }
+
     @GetMapping("/{productId}/serials")
     @Operation(
         summary = "Get Product Serials by Product ID",
@@ -188,6 +230,29 @@ public class ProductSerialController {
         return ResponseEntity.ok(BaseResponse.success("Product serial status updated successfully", updatedSerial));
     }
 
+    @GetMapping("/inventory")
+    @Operation(
+        summary = "Get Inventory Matrix",
+        description = "Get serial counts per status for the given products, or for all products when productIds is omitted. Computed with a single query. Requires ADMIN role authentication via API Gateway.",
+        security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Inventory matrix retrieved successfully"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing JWT token"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - ADMIN role required"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<BaseResponse<List<ProductInventoryResponse>>> getInventoryMatrix(
+            @RequestParam(required = false) List<Long> productIds) {
+
+        log.info("Getting inventory matrix for {} by ADMIN user",
+                productIds == null || productIds.isEmpty() ? "all products" : productIds.size() + " products");
+
+        List<ProductInventoryResponse> matrix = productInventoryService.getInventoryMatrix(productIds);
+
+        return ResponseEntity.ok(BaseResponse.success("Inventory matrix retrieved successfully", matrix));
+    }
+
     @GetMapping("/{productId}/inventory")
     @Operation(
         summary = "Get Product Inventory Count",
@@ -291,6 +356,31 @@ public class ProductSerialController {
         return ResponseEntity.ok(BaseResponse.success("Product serials assigned to order item successfully", null));
     }
 
+    @PostMapping("/serials/reserve")
+    @Operation(
+        summary = "Reserve In-Stock Serials for Order Item",
+        description = "Claim the next N IN_STOCK serials of a product for an order item in one statement (FOR UPDATE SKIP LOCKED), moving them to ASSIGN_TO_ORDER_ITEM. Concurrent reservations never pick the same serials. Requires ADMIN role authentication via API Gateway.",
+        security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Product serials reserved successfully"),
+        @ApiResponse(responseCode = "400", description = "Quantity exceeds what the order item still needs"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing JWT token"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - ADMIN role required"),
+        @ApiResponse(responseCode = "404", description = "Order item not found"),
+        @ApiResponse(responseCode = "500", description = "Internal server error or insufficient stock")
+    })
+    public ResponseEntity<BaseResponse<ProductSerialReservationResponse>> reserveSerialsForOrderItem(
+            @Valid @RequestBody ProductSerialReservationRequest request) {
+
+        log.info("Reserving {} serials of product {} for order item {} by ADMIN user",
+                request.getQuantity(), request.getProductId(), request.getOrderItemId());
+
+        ProductSerialReservationResponse response = productSerialService.reserveSerialsForOrderItem(request);
+
+        return ResponseEntity.ok(BaseResponse.success("Product serials reserved for order item successfully", response));
+    }
+
     @PostMapping("/serials/allocate-to-dealer/{dealerId}")
     @Operation(
         summary = "Allocate Multiple Product Serials to Dealer",
@@ -2,6 +2,8 @@ package com.devwonder.productservice.controller;
 
 import com.devwonder.common.dto.BaseResponse;
 import com.devwonder.productservice.dto.ProductSerialBulkStatusUpdateRequest;
+import com.devwonder.productservice.dto.ProductSerialResolveRequest;
+import com.devwonder.productservice.dto.ResolvedProductSerialResponse;
 import com.devwonder.productservice.service.ProductSerialService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -14,6 +16,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/product/product-serial")
 @Tag(name = "Inter-Service APIs", description = "🔗 Direct service-to-service communication (API Key required)")
@@ -46,6 +50,28 @@ public class ProductSerialLookupController {
         return ResponseEntity.ok(BaseResponse.success("Product serial ID retrieved successfully", productSerialId));
     }
 
+    @PostMapping("/resolve")
+    @Operation(
+        summary = "Resolve Product Serials in Batch",
+        description = "Resolve up to 5000 serial numbers to product serial ID, status and product details in one call. Unknown serials are omitted from the result. Used by inter-service calls (warranty service). Requires API key authentication.",
+        security = @SecurityRequirement(name = "apiKey")
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Product serials resolved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid request data"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing API key"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<BaseResponse<List<ResolvedProductSerialResponse>>> resolveProductSerials(
+            @Valid @RequestBody ProductSerialResolveRequest request) {
+
+        log.info("Resolving {} product serials", request.getSerialNumbers().size());
+
+        List<ResolvedProductSerialResponse> resolved = productSerialService.resolveSerials(request.getSerialNumbers());
+
+        return ResponseEntity.ok(BaseResponse.success("Product serials resolved successfully", resolved));
+    }
+
     @PostMapping("/bulk-status")
     @Operation(
         summary = "Update Multiple Product Serial Status to SOLD_TO_CUSTOMER",
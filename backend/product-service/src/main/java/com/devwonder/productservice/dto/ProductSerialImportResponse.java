@@ -0,0 +1,18 @@
+package com.devwonder.productservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSerialImportResponse {
+
+    private Long productId;
+    private long totalReceived;
+    private long totalCreated;
+    private long totalSkipped;
+}
@@ -0,0 +1,31 @@
+package com.devwonder.productservice.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSerialReservationRequest {
+
+    @NotNull(message = "Product ID is required")
+    private Long productId;
+
+    @NotNull(message = "Order item ID is required")
+    private Long orderItemId;
+
+    @NotNull(message = "Quantity is required")
+    @Min(value = 1, message = "Quantity must be at least 1")
+    @Max(value = 10000, message = "Quantity cannot exceed 10000")
+    private Integer quantity;
+
+    // Reserve whatever is in stock instead of failing when fewer than quantity are available
+    @Builder.Default
+    private boolean allowPartial = false;
+}
@@ -0,0 +1,21 @@
+package com.devwonder.productservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSerialReservationResponse {
+
+    private Long productId;
+    private Long orderItemId;
+    private int totalRequested;
+    private int totalReserved;
+    private List<ProductSerialResponse> reservedSerials;
+}
@@ -0,0 +1,21 @@
+package com.devwonder.productservice.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductSerialResolveRequest {
+
+    @NotEmpty(message = "Serial numbers are required")
+    @Size(max = 5000, message = "Cannot resolve more than 5000 serial numbers at once")
+    private List<String> serialNumbers;
+}
@@ -0,0 +1,21 @@
+package com.devwonder.productservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResolvedProductSerialResponse {
+
+    private Long id;
+    private String serialNumber;
+    private Long productId;
+    private String productName;
+    private String productSku;
+    private String status;
+    private String image;
+}
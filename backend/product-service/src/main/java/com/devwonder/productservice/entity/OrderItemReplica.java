@@ -0,0 +1,48 @@
+package com.devwonder.productservice.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only copy of an order-service order item, maintained from order item events. A deleted item is kept
+ * as a tombstone ({@code deleted}) so that events delayed on the retry topics cannot recreate it.
+ */
+@Entity
+@Table(name = "order_item_replicas")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderItemReplica {
+
+    @Id
+    @Column(name = "order_item_id")
+    private Long orderItemId;
+
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // occurredAt of the last applied event; null for rows backfilled from order-service
+    @Column(name = "occurred_at")
+    private LocalDateTime occurredAt;
+
+    @Column(nullable = false)
+    private boolean deleted;
+}
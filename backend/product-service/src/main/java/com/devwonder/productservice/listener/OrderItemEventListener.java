@@ -0,0 +1,27 @@
+package com.devwonder.productservice.listener;
+
+import com.devwonder.common.event.OrderItemChangedEvent;
+import com.devwonder.productservice.constant.KafkaTopics;
+import com.devwonder.productservice.service.OrderItemReplicaService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderItemEventListener {
+
+    private final OrderItemReplicaService orderItemReplicaService;
+
+    @KafkaListener(
+        topics = KafkaTopics.ORDER_ITEM_EVENTS,
+        groupId = KafkaTopics.PRODUCT_SERVICE_ORDER_ITEM_GROUP,
+        containerFactory = "orderItemChangedKafkaListenerContainerFactory"
+    )
+    public void consumeOrderItemChanged(OrderItemChangedEvent event) {
+        log.info("Received {} event for order item {}", event.getChangeType(), event.getOrderItemId());
+        orderItemReplicaService.applyEvent(event);
+    }
+}
@@ -0,0 +1,9 @@
+package com.devwonder.productservice.repository;
+
+import com.devwonder.productservice.entity.OrderItemReplica;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OrderItemReplicaRepository extends JpaRepository<OrderItemReplica, Long> {
+}
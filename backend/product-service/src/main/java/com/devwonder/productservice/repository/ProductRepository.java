@@ -11,21 +11,23 @@ import java.util.List;
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
     
-    List<Product> findByShowOnHomepageTrueAndIsDeletedFalse();
-
-    List<Product> findByIsFeaturedTrueAndIsDeletedFalse();
-
-    List<Product> findByIsDeletedFalse();
-
     List<Product> findByIsDeletedTrue();
 
-    List<Product> findByIsDeletedFalseAndIdNot(Long id);
-
     boolean existsBySkuAndIsDeletedFalse(String sku);
 
-    @Query("SELECT p FROM Product p WHERE p.isDeleted = false AND " +
-           "(LOWER(p.name) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-           "LOWER(p.shortDescription) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-           "LOWER(p.sku) LIKE LOWER(CONCAT('%', :query, '%')))")
-    List<Product> searchProducts(@Param("query") String query);
-}
\ No newline at end of file
+    // Word-prefix match on the search_vector GIN index, plus trigram matches on name / SKU fragments.
+    // Exact SKU hits rank first, then full-text rank, then name similarity (see V6 migration)
+    @Query(value = "SELECT p.id FROM products p " +
+            "WHERE p.is_deleted = false " +
+            "AND (p.search_vector @@ to_tsquery('simple', f_unaccent(:tsQuery)) " +
+            "OR f_unaccent(lower(p.name)) LIKE f_unaccent(:pattern) " +
+            "OR lower(p.sku) LIKE :pattern " +
+            "OR f_unaccent(lower(p.name)) % f_unaccent(lower(:term))) " +
+            "ORDER BY (lower(p.sku) = lower(:term)) DESC, " +
+            "ts_rank(p.search_vector, to_tsquery('simple', f_unaccent(:tsQuery))) DESC, " +
+            "similarity(f_unaccent(lower(p.name)), f_unaccent(lower(:term))) DESC, " +
+            "p.id " +
+            "LIMIT :limit", nativeQuery = true)
+    List<Long> searchProductIds(@Param("tsQuery") String tsQuery, @Param("term") String term,
+                                @Param("pattern") String pattern, @Param("limit") int limit);
+}
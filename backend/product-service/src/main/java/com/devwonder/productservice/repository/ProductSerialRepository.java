@@ -4,17 +4,28 @@ import com.devwonder.productservice.entity.Product;
 import com.devwonder.productservice.entity.ProductSerial;
 import com.devwonder.productservice.enums.ProductSerialStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ProductSerialRepository extends JpaRepository<ProductSerial, Long> {
-    boolean existsBySerial(String serial);
     Optional<ProductSerial> findBySerial(String serial);
+
+    // One row per serial: id, serial, product id, product name, sku, status, product image
+    @Query("SELECT ps.id, ps.serial, p.id, p.name, p.sku, ps.status, p.image " +
+           "FROM ProductSerial ps JOIN ps.product p WHERE ps.serial IN :serials")
+    List<Object[]> resolveSerials(@Param("serials") Collection<String> serials);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE ProductSerial ps SET ps.status = :status, ps.orderItemId = null, ps.dealerId = null " +
+           "WHERE ps.serial IN :serials")
+    int markSerials(@Param("serials") Collection<String> serials, @Param("status") ProductSerialStatus status);
     List<ProductSerial> findByProduct(Product product);
 
     @Query("SELECT ps.serial FROM ProductSerial ps WHERE ps.product = :product")
@@ -47,6 +58,20 @@ public interface ProductSerialRepository extends JpaRepository<ProductSerial, Lo
     @Query("SELECT COUNT(ps) FROM ProductSerial ps WHERE ps.orderItemId = :orderItemId AND ps.status = 'ALLOCATED_TO_DEALER'")
     Long countAllocatedSerialsByOrderItem(@Param("orderItemId") Long orderItemId);
 
+    @Query("SELECT COUNT(ps) FROM ProductSerial ps WHERE ps.orderItemId = :orderItemId")
+    Long countByOrderItemId(@Param("orderItemId") Long orderItemId);
+
+    // Claims the next N free serials in one statement; rows locked by a concurrent reservation are skipped, not waited on
+    @Query(value = "UPDATE product_serials SET status = 'ASSIGN_TO_ORDER_ITEM', order_item_id = :orderItemId " +
+                   "WHERE id IN (SELECT id FROM product_serials " +
+                   "             WHERE id_product = :productId AND status = 'IN_STOCK' " +
+                   "             AND order_item_id IS NULL AND dealer_id IS NULL " +
+                   "             ORDER BY id LIMIT :quantity FOR UPDATE SKIP LOCKED) " +
+                   "RETURNING id", nativeQuery = true)
+    List<Long> reserveInStockSerials(@Param("productId") Long productId,
+                                     @Param("orderItemId") Long orderItemId,
+                                     @Param("quantity") int quantity);
+
     @Query("SELECT ps FROM ProductSerial ps WHERE ps.orderItemId = :orderItemId AND ps.status = :status")
     List<ProductSerial> findByOrderItemIdAndStatus(@Param("orderItemId") Long orderItemId, @Param("status") ProductSerialStatus status);
 
@@ -56,6 +81,15 @@ public interface ProductSerialRepository extends JpaRepository<ProductSerial, Lo
     @Query("SELECT ps FROM ProductSerial ps WHERE ps.product.id = :productId AND ps.dealerId = :dealerId")
     List<ProductSerial> findByProductIdAndDealerId(@Param("productId") Long productId, @Param("dealerId") Long dealerId);
 
+    // Inventory matrix: one row per (product, status); products without serials come back once with a null status
+    @Query("SELECT p.id, p.name, ps.status, COUNT(ps.id) FROM Product p LEFT JOIN p.productSerials ps " +
+           "WHERE p.isDeleted = false GROUP BY p.id, p.name, ps.status")
+    List<Object[]> getInventoryMatrix();
+
+    @Query("SELECT p.id, p.name, ps.status, COUNT(ps.id) FROM Product p LEFT JOIN p.productSerials ps " +
+           "WHERE p.id IN :productIds GROUP BY p.id, p.name, ps.status")
+    List<Object[]> getInventoryMatrix(@Param("productIds") Collection<Long> productIds);
+
     // Dashboard queries
     @Query("SELECT p.id, p.name, COUNT(ps) FROM ProductSerial ps JOIN ps.product p " +
            "WHERE ps.status = 'IN_STOCK' GROUP BY p.id, p.name")
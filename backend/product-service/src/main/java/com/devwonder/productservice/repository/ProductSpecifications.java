@@ -0,0 +1,40 @@
+package com.devwonder.productservice.repository;
+
+import com.devwonder.productservice.entity.Product;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+
+/**
+ * Criteria predicates for {@link com.devwonder.productservice.util.ProductFieldProjection} queries.
+ */
+public final class ProductSpecifications {
+
+    private ProductSpecifications() {
+        // Private constructor to prevent instantiation
+    }
+
+    public static Specification<Product> hasId(Long id) {
+        return (root, query, cb) -> cb.equal(root.get("id"), id);
+    }
+
+    public static Specification<Product> idNot(Long id) {
+        return (root, query, cb) -> cb.notEqual(root.get("id"), id);
+    }
+
+    public static Specification<Product> idNotIn(Collection<Long> ids) {
+        return (root, query, cb) -> ids.isEmpty() ? null : cb.not(root.get("id").in(ids));
+    }
+
+    public static Specification<Product> notDeleted() {
+        return (root, query, cb) -> cb.isFalse(root.get("isDeleted"));
+    }
+
+    public static Specification<Product> shownOnHomepage() {
+        return (root, query, cb) -> cb.isTrue(root.get("showOnHomepage"));
+    }
+
+    public static Specification<Product> featured() {
+        return (root, query, cb) -> cb.isTrue(root.get("isFeatured"));
+    }
+}
@@ -0,0 +1,117 @@
+package com.devwonder.productservice.service;
+
+import com.devwonder.common.dto.BaseResponse;
+import com.devwonder.common.event.OrderItemChangedEvent;
+import com.devwonder.common.exception.ResourceNotFoundException;
+import com.devwonder.productservice.client.OrderServiceClient;
+import com.devwonder.productservice.dto.OrderItemResponse;
+import com.devwonder.productservice.entity.OrderItemReplica;
+import com.devwonder.productservice.repository.OrderItemReplicaRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Keeps the local order item replica in sync with order-service and serves quantity lookups
+ * for serial allocation from it.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderItemReplicaService {
+
+    private final OrderItemReplicaRepository orderItemReplicaRepository;
+    private final OrderServiceClient orderServiceClient;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Applies an order item event unless the replica already reflects a later one. Events can arrive out of
+     * order because failed records are redelivered through the retry topics while newer ones are consumed.
+     * Order item ids are never reused, so a tombstone is final.
+     */
+    @Transactional
+    public void applyEvent(OrderItemChangedEvent event) {
+        // Serializes changes to the item with each other and with serial reservations for it
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(?)", rs -> null, event.getOrderItemId());
+
+        OrderItemReplica current = orderItemReplicaRepository.findById(event.getOrderItemId()).orElse(null);
+        if (current != null && isStale(event, current)) {
+            log.info("Ignoring stale {} event for order item {} (occurred {}, replica at {}{})",
+                event.getChangeType(), event.getOrderItemId(), event.getOccurredAt(), current.getOccurredAt(),
+                current.isDeleted() ? ", deleted" : "");
+            return;
+        }
+
+        boolean deleted = event.getChangeType() == OrderItemChangedEvent.ChangeType.DELETED;
+        orderItemReplicaRepository.save(OrderItemReplica.builder()
+                .orderItemId(event.getOrderItemId())
+                .orderId(event.getOrderId())
+                .productId(event.getProductId())
+                .quantity(event.getQuantity())
+                .updatedAt(LocalDateTime.now())
+                .occurredAt(event.getOccurredAt())
+                .deleted(deleted)
+                .build());
+        if (deleted) {
+            log.info("Removed order item replica {}", event.getOrderItemId());
+        } else {
+            log.info("Replicated order item {} (product {}, quantity {})",
+                event.getOrderItemId(), event.getProductId(), event.getQuantity());
+        }
+    }
+
+    /**
+     * Returns the replicated order item. Items created before replication was enabled, or whose
+     * event has not arrived yet, are fetched from order-service once and stored locally. Deleted items
+     * are not found.
+     */
+    @Transactional
+    public OrderItemReplica getOrderItem(Long orderItemId) {
+        return live(orderItemReplicaRepository.findById(orderItemId).orElseGet(() -> backfill(orderItemId)));
+    }
+
+    private OrderItemReplica backfill(Long orderItemId) {
+        log.info("Order item {} not replicated yet, fetching from order-service", orderItemId);
+
+        BaseResponse<OrderItemResponse> response = orderServiceClient.getOrderItem(orderItemId, "INTER_SERVICE_KEY");
+        OrderItemResponse orderItem = response != null ? response.getData() : null;
+        if (orderItem == null) {
+            throw new ResourceNotFoundException("Order item not found with ID: " + orderItemId);
+        }
+
+        // An event may have been applied while order-service was called; it is newer than this copy
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(?)", rs -> null, orderItemId);
+        OrderItemReplica applied = orderItemReplicaRepository.findById(orderItemId).orElse(null);
+        if (applied != null) {
+            return applied;
+        }
+
+        return orderItemReplicaRepository.save(OrderItemReplica.builder()
+                .orderItemId(orderItem.getId())
+                .orderId(orderItem.getIdOrder())
+                .productId(orderItem.getIdProduct())
+                .quantity(orderItem.getQuantity())
+                .updatedAt(LocalDateTime.now())
+                .build());
+    }
+
+    private static boolean isStale(OrderItemChangedEvent event, OrderItemReplica current) {
+        if (current.isDeleted()) {
+            return true;
+        }
+        // Backfilled rows and events published before occurredAt was set carry no order
+        return event.getOccurredAt() != null && current.getOccurredAt() != null
+                && event.getOccurredAt().isBefore(current.getOccurredAt());
+    }
+
+    private static OrderItemReplica live(OrderItemReplica replica) {
+        if (replica.isDeleted()) {
+            throw new ResourceNotFoundException("Order item not found with ID: " + replica.getOrderItemId());
+        }
+        return replica;
+    }
+}
@@ -3,14 +3,16 @@ package com.devwonder.productservice.service;
 import com.devwonder.productservice.entity.Product;
 import com.devwonder.productservice.repository.ProductRepository;
 import com.devwonder.productservice.repository.ProductSerialRepository;
-import com.devwonder.productservice.enums.ProductSerialStatus;
 import com.devwonder.productservice.dto.InventoryAlertsDto;
+import com.devwonder.productservice.dto.ProductInventoryResponse;
 import com.devwonder.productservice.dto.ProductStockDto;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -19,29 +21,25 @@ public class ProductDashboardService {
 
     private final ProductRepository productRepository;
     private final ProductSerialRepository productSerialRepository;
+    private final ProductInventoryService productInventoryService;
 
     public InventoryAlertsDto getInventoryAlerts() {
         int lowStockThreshold = 10;
         int overstockThreshold = 100;
 
-        List<Object[]> stockCounts = productSerialRepository.getProductStockCounts();
-
         int lowStockCount = 0;
         int overstockCount = 0;
         String urgentProduct = null;
-        int lowestStock = Integer.MAX_VALUE;
+        long lowestStock = Long.MAX_VALUE;
 
-        for (Object[] row : stockCounts) {
-            Long productId = (Long) row[0];
-            String productName = (String) row[1];
-            Long inStockCountLong = (Long) row[2];
-            int inStockCount = inStockCountLong.intValue();
+        for (ProductInventoryResponse inventory : productInventoryService.getInventoryMatrix(null)) {
+            long inStockCount = inventory.getAvailableCount();
 
             if (inStockCount < lowStockThreshold) {
                 lowStockCount++;
                 if (inStockCount < lowestStock) {
                     lowestStock = inStockCount;
-                    urgentProduct = productName;
+                    urgentProduct = inventory.getProductName();
                 }
             }
 
@@ -59,27 +57,20 @@ public class ProductDashboardService {
     }
 
     public List<ProductStockDto> getLowStockProducts(int threshold) {
-        List<Object[]> stockData = productSerialRepository.getProductStockCounts();
-        List<ProductStockDto> lowStockProducts = new ArrayList<>();
+        return getLowStockProducts(productInventoryService.getInventoryMatrix(null), threshold);
+    }
 
-        for (Object[] row : stockData) {
-            Long productId = (Long) row[0];
-            String productName = (String) row[1];
-            Long inStockCountLong = (Long) row[2];
-            int inStockCount = inStockCountLong.intValue();
+    private List<ProductStockDto> getLowStockProducts(List<ProductInventoryResponse> matrix, int threshold) {
+        List<ProductStockDto> lowStockProducts = new ArrayList<>();
 
-            if (inStockCount < threshold) {
+        for (ProductInventoryResponse inventory : matrix) {
+            if (inventory.getAvailableCount() < threshold) {
                 ProductStockDto product = new ProductStockDto();
-                product.productId = productId;
-                product.productName = productName;
-                product.inStockCount = inStockCount;
-
-                // Get other counts
-                int allocatedCount = productSerialRepository.countByProductIdAndStatus(productId, ProductSerialStatus.ALLOCATED_TO_DEALER);
-                int soldCount = productSerialRepository.countByProductIdAndStatus(productId, ProductSerialStatus.SOLD_TO_CUSTOMER);
-
-                product.allocatedCount = allocatedCount;
-                product.soldCount = soldCount;
+                product.productId = inventory.getProductId();
+                product.productName = inventory.getProductName();
+                product.inStockCount = inventory.getAvailableCount().intValue();
+                product.allocatedCount = inventory.getSoldCount().intValue();
+                product.soldCount = inventory.getSoldToCustomerCount().intValue();
 
                 lowStockProducts.add(product);
             }
@@ -91,37 +82,25 @@ public class ProductDashboardService {
     public Map<String, Integer> getProductCounts() {
         Map<String, Integer> counts = new HashMap<>();
 
+        List<ProductInventoryResponse> matrix = productInventoryService.getInventoryMatrix(null);
         int totalProducts = (int) productRepository.count();
-        int lowStockProducts = getLowStockProducts(10).size();
-        int inStockProducts = productSerialRepository.countByStatus(ProductSerialStatus.IN_STOCK);
-        int allocatedProducts = productSerialRepository.countByStatus(ProductSerialStatus.ALLOCATED_TO_DEALER);
+        int lowStockProducts = getLowStockProducts(matrix, 10).size();
+        long inStockProducts = matrix.stream().mapToLong(ProductInventoryResponse::getAvailableCount).sum();
+        long allocatedProducts = matrix.stream().mapToLong(ProductInventoryResponse::getSoldCount).sum();
 
         counts.put("total_products", totalProducts);
         counts.put("low_stock", lowStockProducts);
-        counts.put("in_stock_items", inStockProducts);
-        counts.put("allocated_items", allocatedProducts);
+        counts.put("in_stock_items", (int) inStockProducts);
+        counts.put("allocated_items", (int) allocatedProducts);
 
         return counts;
     }
 
     public String getUrgentProduct() {
-        List<Object[]> stockCounts = productSerialRepository.getProductStockCounts();
-
-        String urgentProduct = null;
-        int lowestStock = Integer.MAX_VALUE;
-
-        for (Object[] row : stockCounts) {
-            String productName = (String) row[1];
-            Long inStockCountLong = (Long) row[2];
-            int inStockCount = inStockCountLong.intValue();
-
-            if (inStockCount < lowestStock) {
-                lowestStock = inStockCount;
-                urgentProduct = productName;
-            }
-        }
-
-        return urgentProduct;
+        return productInventoryService.getInventoryMatrix(null).stream()
+                .min(Comparator.comparing(ProductInventoryResponse::getAvailableCount))
+                .map(ProductInventoryResponse::getProductName)
+                .orElse(null);
     }
 
     public Integer getLowStockCount() {
@@ -134,25 +113,33 @@ public class ProductDashboardService {
 
     public List<Map<String, Object>> getTopProducts() {
         // Get real top products based on sold quantities from product serials
-        List<Object[]> salesData = productSerialRepository.getTopProductsBySales();
+        List<Object[]> salesData = productSerialRepository.getTopProductsBySales().stream()
+                .limit(10) // Limit to top 10
+                .toList();
+        List<Long> productIds = salesData.stream().map(row -> (Long) row[0]).toList();
+
+        // Prices and serial totals for all top products in two queries instead of three per product
+        Map<Long, Product> products = productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        Map<Long, ProductInventoryResponse> inventories = productInventoryService.getInventoryMatrix(productIds).stream()
+                .collect(Collectors.toMap(ProductInventoryResponse::getProductId, Function.identity()));
+
         List<Map<String, Object>> topProducts = new ArrayList<>();
 
         int rank = 1;
         for (Object[] row : salesData) {
-            if (rank > 10) break; // Limit to top 10
-
             Long productId = (Long) row[0];
             String productName = (String) row[1];
             Long soldQuantity = (Long) row[2];
 
-            // Calculate revenue (lookup product price from database)
-            Product product = productRepository.findById(productId).orElse(null);
+            // Calculate revenue from the product price
+            Product product = products.get(productId);
             if (product == null) continue;
 
             long revenue = soldQuantity * product.getPrice().longValue();
 
             // Calculate growth based on sell-through rate
-            double growth = calculateProductGrowth(productId);
+            double growth = calculateProductGrowth(inventories.get(productId));
 
             Map<String, Object> productData = new HashMap<>();
             productData.put("rank", rank);
@@ -168,16 +155,13 @@ public class ProductDashboardService {
         return topProducts;
     }
 
-    private double calculateProductGrowth(Long productId) {
+    private double calculateProductGrowth(ProductInventoryResponse inventory) {
         // Simple growth calculation - could be enhanced with time-based analysis
         // For now, return a calculated value based on product performance
-        long totalSerials = productSerialRepository.countByProductId(productId);
-        long soldSerials = productSerialRepository.countByProductIdAndStatus(productId, ProductSerialStatus.SOLD_TO_CUSTOMER);
-
-        if (totalSerials == 0) return 0.0;
-        double sellThroughRate = (double) soldSerials / totalSerials * 100;
+        if (inventory == null || inventory.getTotalCount() == 0) return 0.0;
+        double sellThroughRate = (double) inventory.getSoldToCustomerCount() / inventory.getTotalCount() * 100;
 
         // Convert sell-through rate to growth percentage (simplified logic)
         return Math.min(sellThroughRate * 0.3, 50.0); // Cap at 50% growth
     }
-}
\ No newline at end of file
+}
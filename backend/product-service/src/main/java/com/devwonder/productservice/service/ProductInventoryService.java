@@ -0,0 +1,73 @@
+package com.devwonder.productservice.service;
+
+import com.devwonder.productservice.dto.ProductInventoryResponse;
+import com.devwonder.productservice.enums.ProductSerialStatus;
+import com.devwonder.productservice.repository.ProductSerialRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Serial counts per product and status, computed with a single GROUP BY query
+ * regardless of how many products are requested.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductInventoryService {
+
+    private final ProductSerialRepository productSerialRepository;
+
+    /**
+     * Inventory for the given products, or for every non-deleted product when {@code productIds}
+     * is null or empty. Unknown product IDs are left out of the result.
+     */
+    @Transactional(readOnly = true)
+    public List<ProductInventoryResponse> getInventoryMatrix(Collection<Long> productIds) {
+        boolean allProducts = productIds == null || productIds.isEmpty();
+        List<Object[]> rows = allProducts
+                ? productSerialRepository.getInventoryMatrix()
+                : productSerialRepository.getInventoryMatrix(productIds);
+
+        Map<Long, ProductInventoryResponse> matrix = new TreeMap<>();
+        for (Object[] row : rows) {
+            Long productId = (Long) row[0];
+            ProductInventoryResponse inventory = matrix.computeIfAbsent(productId, id -> emptyInventory(id, (String) row[1]));
+
+            ProductSerialStatus status = (ProductSerialStatus) row[2];
+            long count = (Long) row[3];
+            if (status == null) {
+                continue;
+            }
+            switch (status) {
+                case IN_STOCK -> inventory.setAvailableCount(count);
+                case ALLOCATED_TO_DEALER -> inventory.setSoldCount(count);
+                case ASSIGN_TO_ORDER_ITEM -> inventory.setAssignedCount(count);
+                case SOLD_TO_CUSTOMER -> inventory.setSoldToCustomerCount(count);
+            }
+            inventory.setTotalCount(inventory.getTotalCount() + count);
+        }
+
+        log.debug("Built inventory matrix for {} products", matrix.size());
+        return new ArrayList<>(matrix.values());
+    }
+
+    private static ProductInventoryResponse emptyInventory(Long productId, String productName) {
+        return ProductInventoryResponse.builder()
+                .productId(productId)
+                .productName(productName)
+                .availableCount(0L)
+                .soldCount(0L)
+                .assignedCount(0L)
+                .soldToCustomerCount(0L)
+                .totalCount(0L)
+                .build();
+    }
+}
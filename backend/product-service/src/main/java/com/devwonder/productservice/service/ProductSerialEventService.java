@@ -0,0 +1,137 @@
+package com.devwonder.productservice.service;
+
+import com.devwonder.common.event.SerialsAllocatedEvent;
+import com.devwonder.common.tx.AfterCommit;
+import com.devwonder.productservice.constant.KafkaTopics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes "serials-allocated" events through the serials_allocated_outbox table.
+ *
+ * The event is written to the outbox in the allocation's transaction and sent after commit; the row is
+ * deleted once Kafka acknowledges it. Rows left behind by a failed send or a crash are re-sent by
+ * {@link #relayPending()}, so an allocation that committed always reaches order-service. Order-service
+ * treats repeated events as harmless, so a row sent twice (relay racing the after-commit send, or two
+ * replicas relaying) does no damage.
+ */
+@Service
+@Slf4j
+public class ProductSerialEventService {
+
+    // Newer allocations of the same order item replace the pending row; version tells a delete apart
+    private static final String UPSERT_OUTBOX = """
+            INSERT INTO serials_allocated_outbox
+                (order_item_id, dealer_id, allocated_count, required_quantity, completed, allocated_at, version, queued_at)
+            VALUES (?, ?, ?, ?, ?, ?, 1, ?)
+            ON CONFLICT (order_item_id) DO UPDATE SET dealer_id = EXCLUDED.dealer_id,
+                allocated_count = EXCLUDED.allocated_count, required_quantity = EXCLUDED.required_quantity,
+                completed = EXCLUDED.completed, allocated_at = EXCLUDED.allocated_at,
+                version = serials_allocated_outbox.version + 1, queued_at = EXCLUDED.queued_at
+            RETURNING version
+            """;
+
+    private static final String SELECT_PENDING = """
+            SELECT order_item_id, dealer_id, allocated_count, required_quantity, completed, allocated_at, version
+            FROM serials_allocated_outbox WHERE queued_at < ? ORDER BY queued_at LIMIT ?
+            """;
+
+    private static final String DELETE_SENT =
+            "DELETE FROM serials_allocated_outbox WHERE order_item_id = ? AND version = ?";
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration relayDelay;
+    private final int relayBatchSize;
+
+    public ProductSerialEventService(KafkaTemplate<String, Object> kafkaTemplate, JdbcTemplate jdbcTemplate,
+                                     @Value("${nexhub.serials-outbox.relay-delay:PT30S}") Duration relayDelay,
+                                     @Value("${nexhub.serials-outbox.batch-size:200}") int relayBatchSize) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.relayDelay = relayDelay;
+        this.relayBatchSize = relayBatchSize;
+    }
+
+    /**
+     * Queues the event in the current transaction and sends it after commit, so order-service only
+     * completes items whose allocation actually persisted.
+     */
+    public void publishSerialsAllocatedEvent(SerialsAllocatedEvent event) {
+        Long version = jdbcTemplate.queryForObject(UPSERT_OUTBOX, Long.class,
+                event.getOrderItemId(), event.getDealerId(), event.getAllocatedCount(), event.getRequiredQuantity(),
+                event.isCompleted(), Timestamp.valueOf(event.getAllocatedAt()), Timestamp.valueOf(LocalDateTime.now()));
+        AfterCommit.run(() -> send(event, version));
+    }
+
+    /**
+     * Re-sends outbox rows whose after-commit send never got acknowledged.
+     */
+    @Scheduled(fixedDelayString = "${nexhub.serials-outbox.relay-interval:PT30S}")
+    public void relayPending() {
+        List<PendingEvent> pending;
+        try {
+            pending = jdbcTemplate.query(SELECT_PENDING, (rs, rowNum) -> new PendingEvent(SerialsAllocatedEvent.builder()
+                            .orderItemId(rs.getLong("order_item_id"))
+                            .dealerId((Long) rs.getObject("dealer_id"))
+                            .allocatedCount(rs.getLong("allocated_count"))
+                            .requiredQuantity(rs.getInt("required_quantity"))
+                            .completed(rs.getBoolean("completed"))
+                            .allocatedAt(rs.getTimestamp("allocated_at").toLocalDateTime())
+                            .build(), rs.getLong("version")),
+                    Timestamp.valueOf(LocalDateTime.now().minus(relayDelay)), relayBatchSize);
+        } catch (RuntimeException e) {
+            log.warn("Could not read pending serials allocated events: {}", e.getMessage());
+            return;
+        }
+
+        for (PendingEvent row : pending) {
+            log.info("Re-sending serials allocated event for order item {}", row.event().getOrderItemId());
+            try {
+                kafkaTemplate.send(KafkaTopics.SERIALS_ALLOCATED, row.event().getOrderItemId().toString(), row.event())
+                        .get(30, TimeUnit.SECONDS);
+                jdbcTemplate.update(DELETE_SENT, row.event().getOrderItemId(), row.version());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                // Kafka is likely down; leave the rest for the next run
+                log.warn("Failed to re-send serials allocated event for order item {}: {}",
+                        row.event().getOrderItemId(), e.getMessage());
+                return;
+            }
+        }
+    }
+
+    private void send(SerialsAllocatedEvent event, Long version) {
+        try {
+            kafkaTemplate.send(KafkaTopics.SERIALS_ALLOCATED, event.getOrderItemId().toString(), event)
+                    .whenCompleteAsync((result, failure) -> {
+                        if (failure != null) {
+                            log.warn("Failed to publish serials allocated event for order item {}, relay will retry: {}",
+                                    event.getOrderItemId(), failure.getMessage());
+                            return;
+                        }
+                        jdbcTemplate.update(DELETE_SENT, event.getOrderItemId(), version);
+                        log.info("Published serials allocated event for order item {} ({}/{} allocated)",
+                                event.getOrderItemId(), event.getAllocatedCount(), event.getRequiredQuantity());
+                    });
+        } catch (Exception e) {
+            log.warn("Failed to publish serials allocated event for order item {}, relay will retry: {}",
+                    event.getOrderItemId(), e.getMessage());
+        }
+    }
+
+    private record PendingEvent(SerialsAllocatedEvent event, long version) {
+    }
+}
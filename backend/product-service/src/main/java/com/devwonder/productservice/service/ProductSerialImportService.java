@@ -0,0 +1,225 @@
+package com.devwonder.productservice.service;
+
+import com.devwonder.productservice.dto.ProductSerialImportResponse;
+import com.devwonder.productservice.exception.ProductNotFoundException;
+import com.devwonder.productservice.repository.ProductRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Set;
+
+/**
+ * Streams serial numbers from a CSV / NDJSON upload into Postgres with COPY.
+ *
+ * Rows go into a transaction-scoped staging table and are then inserted with a single
+ * INSERT ... ON CONFLICT DO NOTHING, so memory use does not depend on the file size.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductSerialImportService {
+
+    public enum Format { CSV, NDJSON }
+
+    private static final int COPY_CHUNK_SIZE = 64 * 1024;
+    private static final int MAX_SERIAL_LENGTH = 255;
+    private static final Set<String> CSV_HEADERS = Set.of("serial", "serialnumber", "serial_number");
+
+    private static final String CREATE_STAGING_TABLE =
+            "CREATE TEMP TABLE IF NOT EXISTS product_serial_import (serial TEXT NOT NULL) ON COMMIT DROP";
+
+    private static final String COPY_INTO_STAGING =
+            "COPY product_serial_import (serial) FROM STDIN";
+
+    // Existing serials are filtered before nextval so they don't burn sequence blocks;
+    // ON CONFLICT still covers serials inserted concurrently by another request
+    private static final String INSERT_NEW_SERIALS =
+            "WITH inserted AS (" +
+            "    INSERT INTO product_serials (id, serial, id_product, status)" +
+            "    SELECT nextval('product_serial_id_seq'), s.serial, ?, 'IN_STOCK'" +
+            "    FROM (SELECT DISTINCT serial FROM product_serial_import) s" +
+            "    WHERE NOT EXISTS (SELECT 1 FROM product_serials ps WHERE ps.serial = s.serial)" +
+            "    ON CONFLICT (serial) DO NOTHING" +
+            "    RETURNING 1" +
+            ") SELECT COUNT(*) FROM inserted";
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final ProductRepository productRepository;
+    private final ProductStockService productStockService;
+    private final ObjectMapper objectMapper;
+
+    @Transactional
+    public ProductSerialImportResponse importSerials(Long productId, InputStream input, Format format) {
+        log.info("Importing product serials for product ID: {} from {} stream", productId, format);
+
+        if (!productRepository.existsById(productId)) {
+            throw new ProductNotFoundException("Product not found with ID: " + productId);
+        }
+
+        jdbcTemplate.execute(CREATE_STAGING_TABLE);
+        long received = copyIntoStaging(input, format);
+        jdbcTemplate.execute("ANALYZE product_serial_import");
+
+        Long created = jdbcTemplate.queryForObject(INSERT_NEW_SERIALS, Long.class, productId);
+        long totalCreated = created != null ? created : 0L;
+
+        if (totalCreated > 0) {
+            productStockService.updateProductStock(productId);
+        }
+
+        log.info("Serial import completed for product ID: {}: {} received, {} created, {} skipped",
+                productId, received, totalCreated, received - totalCreated);
+
+        return ProductSerialImportResponse.builder()
+                .productId(productId)
+                .totalReceived(received)
+                .totalCreated(totalCreated)
+                .totalSkipped(received - totalCreated)
+                .build();
+    }
+
+    private long copyIntoStaging(InputStream input, Format format) {
+        // Same connection as the surrounding transaction, so the temp table is visible to it
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        CopyIn copyIn = null;
+        try {
+            copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_INTO_STAGING);
+
+            BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+            StringBuilder chunk = new StringBuilder(COPY_CHUNK_SIZE + MAX_SERIAL_LENGTH);
+            long received = 0;
+            long lineNumber = 0;
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                String serial = format == Format.CSV ? parseCsvLine(line) : parseJsonLine(line, lineNumber);
+                if (serial == null || (format == Format.CSV && received == 0 && CSV_HEADERS.contains(serial.toLowerCase()))) {
+                    continue;
+                }
+                if (serial.length() > MAX_SERIAL_LENGTH) {
+                    throw new IllegalArgumentException("Serial at line " + lineNumber + " exceeds " + MAX_SERIAL_LENGTH + " characters");
+                }
+
+                appendCopyValue(chunk, serial);
+                received++;
+
+                if (chunk.length() >= COPY_CHUNK_SIZE) {
+                    writeChunk(copyIn, chunk);
+                }
+            }
+            writeChunk(copyIn, chunk);
+            copyIn.endCopy();
+            return received;
+
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to stream serials into staging table: " + e.getMessage(), e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read serial import stream", e);
+        } finally {
+            cancelIfActive(copyIn);
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    private String parseCsvLine(String line) {
+        String trimmed = line.trim();
+        if (trimmed.isEmpty()) {
+            return null;
+        }
+
+        String value;
+        if (trimmed.charAt(0) == '"') {
+            int end = 1;
+            StringBuilder quoted = new StringBuilder();
+            while (end < trimmed.length()) {
+                char c = trimmed.charAt(end);
+                if (c == '"') {
+                    if (end + 1 < trimmed.length() && trimmed.charAt(end + 1) == '"') {
+                        quoted.append('"');
+                        end += 2;
+                        continue;
+                    }
+                    break;
+                }
+                quoted.append(c);
+                end++;
+            }
+            value = quoted.toString();
+        } else {
+            int comma = trimmed.indexOf(',');
+            value = comma >= 0 ? trimmed.substring(0, comma) : trimmed;
+        }
+
+        value = value.trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private String parseJsonLine(String line, long lineNumber) {
+        if (line.isBlank()) {
+            return null;
+        }
+        try {
+            JsonNode node = objectMapper.readTree(line);
+            JsonNode serial = node.hasNonNull("serial") ? node.get("serial") : node.get("serialNumber");
+            if (serial == null || !serial.isTextual() || serial.asText().isBlank()) {
+                throw new IllegalArgumentException("Missing serial at line " + lineNumber);
+            }
+            return serial.asText().trim();
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid JSON at line " + lineNumber + ": " + e.getMessage());
+        }
+    }
+
+    // COPY text format: backslash, tab and line breaks must be escaped
+    private static void appendCopyValue(StringBuilder chunk, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> chunk.append("\\\\");
+                case '\t' -> chunk.append("\\t");
+                case '\r' -> chunk.append("\\r");
+                case '\n' -> chunk.append("\\n");
+                default -> chunk.append(c);
+            }
+        }
+        chunk.append('\n');
+    }
+
+    private static void writeChunk(CopyIn copyIn, StringBuilder chunk) throws SQLException {
+        if (chunk.length() == 0) {
+            return;
+        }
+        byte[] bytes = chunk.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        chunk.setLength(0);
+    }
+
+    private static void cancelIfActive(CopyIn copyIn) {
+        if (copyIn != null && copyIn.isActive()) {
+            try {
+                copyIn.cancelCopy();
+            } catch (SQLException e) {
+                log.warn("Failed to cancel serial COPY: {}", e.getMessage());
+            }
+        }
+    }
+}
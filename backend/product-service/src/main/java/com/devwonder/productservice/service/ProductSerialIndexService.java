@@ -0,0 +1,78 @@
+package com.devwonder.productservice.service;
+
+import com.devwonder.common.index.PrefixIndex;
+import com.devwonder.common.index.PrefixIndexMetrics;
+import com.devwonder.common.tx.AfterCommit;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.util.OptionalLong;
+import java.util.function.UnaryOperator;
+
+/**
+ * In-memory serial number → product serial id index for serial-number lookups and the duplicate check on
+ * serial creation.
+ *
+ * A serial's id never changes, so a hit is answered without the database. The index is loaded at startup,
+ * kept up to date by this instance's writes after they commit, and reloaded periodically to pick up the
+ * rest: until then a serial deleted by another instance can still be a hit, and one written by another
+ * instance or the COPY import is a miss, which falls back to the database (lookups) or the unique
+ * constraint (creation).
+ */
+@Service
+@Slf4j
+public class ProductSerialIndexService {
+
+    private static final int LOAD_FETCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PrefixIndex index;
+
+    public ProductSerialIndexService(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                                     @Value("${nexhub.serial-index.max-entries:5000000}") int maxEntries) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.index = new PrefixIndex("product-serials", maxEntries, UnaryOperator.identity());
+        PrefixIndexMetrics.register(meterRegistry, index);
+    }
+
+    public OptionalLong findId(String serial) {
+        return index.isReady() ? index.find(serial) : OptionalLong.empty();
+    }
+
+    /**
+     * Records a serial found in the database, so the next lookup is a hit.
+     */
+    public void remember(String serial, Long id) {
+        index.put(serial, id);
+    }
+
+    public void indexAfterCommit(String serial, Long id) {
+        AfterCommit.run(() -> index.put(serial, id));
+    }
+
+    public void removeAfterCommit(String serial) {
+        AfterCommit.run(() -> index.remove(serial));
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${nexhub.serial-index.reload-interval:PT1H}")
+    @Transactional(readOnly = true)
+    public void reload() {
+        try {
+            // Streamed with a cursor (needs the surrounding transaction) instead of materialising the table
+            index.rebuild(consumer -> jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement("SELECT serial, id FROM product_serials");
+                statement.setFetchSize(LOAD_FETCH_SIZE);
+                return statement;
+            }, (RowCallbackHandler) resultSet -> consumer.accept(resultSet.getString(1), resultSet.getLong(2))));
+        } catch (RuntimeException e) {
+            log.error("Failed to load product serial index, lookups keep using the database: {}", e.getMessage());
+        }
+    }
+}
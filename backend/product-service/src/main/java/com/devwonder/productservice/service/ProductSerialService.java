@@ -9,27 +9,35 @@ import com.devwonder.productservice.dto.ProductSerialBulkCreateRequest;
 import com.devwonder.productservice.dto.ProductSerialBulkCreateResponse;
 import com.devwonder.productservice.dto.ProductSerialStatusUpdateRequest;
 import com.devwonder.productservice.dto.ProductInventoryResponse;
-import com.devwonder.productservice.dto.OrderItemResponse;
+import com.devwonder.productservice.dto.ProductSerialReservationRequest;
+import com.devwonder.productservice.dto.ProductSerialReservationResponse;
+import com.devwonder.productservice.dto.ResolvedProductSerialResponse;
+import com.devwonder.productservice.exception.InsufficientInventoryException;
 import com.devwonder.productservice.enums.ProductSerialStatus;
+import com.devwonder.productservice.entity.OrderItemReplica;
 import com.devwonder.productservice.entity.Product;
 import com.devwonder.productservice.entity.ProductSerial;
 import com.devwonder.productservice.mapper.ProductSerialMapper;
 import com.devwonder.productservice.repository.ProductRepository;
 import com.devwonder.productservice.repository.ProductSerialRepository;
-import com.devwonder.productservice.client.OrderServiceClient;
-import com.devwonder.common.enums.OrderItemStatus;
-import com.devwonder.common.dto.BaseResponse;
+import com.devwonder.common.event.SerialsAllocatedEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Comparator;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Set;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.Objects;
+import java.util.OptionalLong;
 import java.util.stream.Collectors;
 
 @Service
@@ -37,18 +45,25 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ProductSerialService {
     
+    // Keeps each IN list well below the driver's bind parameter limit
+    private static final int SERIAL_CHUNK_SIZE = 1000;
+
     private final ProductSerialRepository productSerialRepository;
     private final ProductRepository productRepository;
     private final ProductSerialMapper productSerialMapper;
-    private final OrderServiceClient orderServiceClient;
     private final ProductStockService productStockService;
+    private final JdbcTemplate jdbcTemplate;
+    private final OrderItemReplicaService orderItemReplicaService;
+    private final ProductSerialEventService productSerialEventService;
+    private final ProductInventoryService productInventoryService;
+    private final ProductSerialIndexService productSerialIndexService;
     
     @Transactional
     public ProductSerialResponse createProductSerial(ProductSerialCreateRequest request) {
         log.info("Creating new product serial: {}", request.getSerial());
         
-        // Check if serial already exists
-        if (productSerialRepository.existsBySerial(request.getSerial())) {
+        // An indexed serial exists; one the index lacks is left to the unique constraint on insert
+        if (productSerialIndexService.findId(request.getSerial()).isPresent()) {
             throw new ResourceAlreadyExistsException("Product serial '" + request.getSerial() + "' already exists");
         }
         
@@ -62,7 +77,13 @@ public class ProductSerialService {
                 .status(request.getStatus())
                 .build();
         
-        ProductSerial savedProductSerial = productSerialRepository.save(productSerial);
+        ProductSerial savedProductSerial;
+        try {
+            savedProductSerial = productSerialRepository.saveAndFlush(productSerial);
+        } catch (DataIntegrityViolationException e) {
+            throw new ResourceAlreadyExistsException("Product serial '" + request.getSerial() + "' already exists");
+        }
+        productSerialIndexService.indexAfterCommit(savedProductSerial.getSerial(), savedProductSerial.getId());
         log.info("Successfully created product serial with ID: {}", savedProductSerial.getId());
 
         // Update product stock automatically if status is IN_STOCK
@@ -118,6 +139,7 @@ public class ProductSerialService {
 
         // Batch insert new serials
         List<ProductSerial> savedSerials = productSerialRepository.saveAll(serialsToCreate);
+        savedSerials.forEach(saved -> productSerialIndexService.indexAfterCommit(saved.getSerial(), saved.getId()));
         log.info("Successfully created {} product serials, skipped {} duplicates for product ID: {}",
                 savedSerials.size(), skippedSerials.size(), request.getProductId());
 
@@ -158,6 +180,7 @@ public class ProductSerialService {
         Long productId = productSerial.getProduct().getId();
 
         productSerialRepository.delete(productSerial);
+        productSerialIndexService.removeAfterCommit(productSerial.getSerial());
 
         // Update product stock automatically
         productStockService.updateProductStock(productId);
@@ -189,6 +212,7 @@ public class ProductSerialService {
                 Long productId = productSerial.getProduct().getId();
 
                 productSerialRepository.delete(productSerial);
+                productSerialIndexService.removeAfterCommit(productSerial.getSerial());
                 deletedIds.add(serialId);
                 affectedProductIds.add(productId);
 
@@ -234,29 +258,15 @@ public class ProductSerialService {
     public ProductInventoryResponse getProductInventory(Long productId) {
         log.info("Getting inventory for product ID: {}", productId);
 
-        // Check if product exists
-        Product product = productRepository.findById(productId)
+        ProductInventoryResponse inventory = productInventoryService.getInventoryMatrix(List.of(productId)).stream()
+                .findFirst()
                 .orElseThrow(() -> new ProductNotFoundException("Product not found with ID: " + productId));
 
-        // Count by status
-        Long availableCount = productSerialRepository.countByProductAndStatus(product, ProductSerialStatus.IN_STOCK);
-        Long soldCount = productSerialRepository.countByProductAndStatus(product, ProductSerialStatus.ALLOCATED_TO_DEALER);
-        Long assignedCount = productSerialRepository.countByProductAndStatus(product, ProductSerialStatus.ASSIGN_TO_ORDER_ITEM);
-        Long soldToCustomerCount = productSerialRepository.countByProductAndStatus(product, ProductSerialStatus.SOLD_TO_CUSTOMER);
-        Long totalCount = productSerialRepository.countByProduct(product);
-
         log.info("Inventory for product ID {}: {} available, {} allocated to dealer, {} assigned to order, {} sold to customer, {} total",
-                productId, availableCount, soldCount, assignedCount, soldToCustomerCount, totalCount);
+                productId, inventory.getAvailableCount(), inventory.getSoldCount(), inventory.getAssignedCount(),
+                inventory.getSoldToCustomerCount(), inventory.getTotalCount());
 
-        return ProductInventoryResponse.builder()
-                .productId(productId)
-                .productName(product.getName())
-                .availableCount(availableCount)
-                .soldCount(soldCount)
-                .assignedCount(assignedCount)
-                .soldToCustomerCount(soldToCustomerCount)
-                .totalCount(totalCount)
-                .build();
+        return inventory;
     }
 
     public Long getAvailableProductSerialCount(Long productId) {
@@ -296,8 +306,16 @@ public class ProductSerialService {
     public Long getProductSerialIdBySerial(String serial) {
         log.info("Looking up product serial ID for serial: {}", serial);
 
+        // Serial ids never change, so a hit is the answer; a miss may be a serial written by another
+        // instance or the import since the last reload
+        OptionalLong indexedId = productSerialIndexService.findId(serial);
+        if (indexedId.isPresent()) {
+            return indexedId.getAsLong();
+        }
+
         ProductSerial productSerial = productSerialRepository.findBySerial(serial)
                 .orElseThrow(() -> new ResourceNotFoundException("Product serial not found: " + serial));
+        productSerialIndexService.remember(serial, productSerial.getId());
 
         log.info("Found product serial ID: {} for serial: {}", productSerial.getId(), serial);
         return productSerial.getId();
@@ -305,28 +323,18 @@ public class ProductSerialService {
 
     @Transactional
     public int updateProductSerialsToSoldToCustomer(List<String> serialNumbers) {
-        log.info("Updating {} product serials to SOLD_TO_CUSTOMER status", serialNumbers.size());
+        List<String> distinctSerials = serialNumbers.stream().filter(Objects::nonNull).distinct().toList();
+        log.info("Updating {} product serials to SOLD_TO_CUSTOMER status", distinctSerials.size());
 
+        // One UPDATE per chunk instead of a read and write per serial
         int updatedCount = 0;
-        for (String serial : serialNumbers) {
-            try {
-                ProductSerial productSerial = productSerialRepository.findBySerial(serial)
-                    .orElseThrow(() -> new ResourceNotFoundException("Product serial not found: " + serial));
-
-                productSerial.setOrderItemId(null);
-                productSerial.setDealerId(null);
-                productSerial.setStatus(ProductSerialStatus.SOLD_TO_CUSTOMER);
-                productSerialRepository.save(productSerial);
-                updatedCount++;
-
-                log.debug("Updated product serial {} to SOLD_TO_CUSTOMER", serial);
-            } catch (Exception e) {
-                log.error("Failed to update product serial {}: {}", serial, e.getMessage());
-            }
+        for (int from = 0; from < distinctSerials.size(); from += SERIAL_CHUNK_SIZE) {
+            List<String> chunk = distinctSerials.subList(from, Math.min(from + SERIAL_CHUNK_SIZE, distinctSerials.size()));
+            updatedCount += productSerialRepository.markSerials(chunk, ProductSerialStatus.SOLD_TO_CUSTOMER);
         }
 
         log.info("Successfully updated {} out of {} product serials to SOLD_TO_CUSTOMER",
-                updatedCount, serialNumbers.size());
+                updatedCount, distinctSerials.size());
         return updatedCount;
     }
 
@@ -359,37 +367,23 @@ public class ProductSerialService {
     public void assignSerialsToOrderItem(List<Long> serialIds, Long orderItemId) {
         log.info("Assigning {} product serials to order item {}", serialIds.size(), orderItemId);
 
-        // Validate assignment won't exceed order item quantity
-        try {
-            BaseResponse<OrderItemResponse> response = orderServiceClient.getOrderItem(orderItemId, "INTER_SERVICE_KEY");
-            OrderItemResponse orderItem = response.getData();
-
-            if (orderItem == null) {
-                throw new ResourceNotFoundException("Order item not found with ID: " + orderItemId);
-            }
-
-            // Count all serials currently linked to this order item (both assigned and allocated)
-            Long currentTotalCount = (long) productSerialRepository.findAllByOrderItemId(orderItemId).size();
-            Long totalAfterAssignment = currentTotalCount + serialIds.size();
-
-            if (totalAfterAssignment > orderItem.getQuantity()) {
-                throw new IllegalArgumentException(
-                    String.format("Cannot assign %d more serials to order item %d. Current total: %d, Max: %d",
-                        serialIds.size(), orderItemId, currentTotalCount, orderItem.getQuantity())
-                );
-            }
+        // Validate assignment won't exceed order item quantity (served from the local order item replica)
+        OrderItemReplica orderItem = orderItemReplicaService.getOrderItem(orderItemId);
 
-            log.info("Assignment validation passed for order item {}: {} current total + {} new = {} (max: {})",
-                orderItemId, currentTotalCount, serialIds.size(), totalAfterAssignment, orderItem.getQuantity());
+        // Count all serials currently linked to this order item (both assigned and allocated)
+        Long currentTotalCount = (long) productSerialRepository.findAllByOrderItemId(orderItemId).size();
+        Long totalAfterAssignment = currentTotalCount + serialIds.size();
 
-        } catch (Exception e) {
-            if (e instanceof ResourceNotFoundException || e instanceof IllegalArgumentException) {
-                throw e;
-            }
-            log.error("Failed to validate assignment for order item {}: {}", orderItemId, e.getMessage());
-            throw new RuntimeException("Failed to validate assignment: " + e.getMessage(), e);
+        if (totalAfterAssignment > orderItem.getQuantity()) {
+            throw new IllegalArgumentException(
+                String.format("Cannot assign %d more serials to order item %d. Current total: %d, Max: %d",
+                    serialIds.size(), orderItemId, currentTotalCount, orderItem.getQuantity())
+            );
         }
 
+        log.info("Assignment validation passed for order item {}: {} current total + {} new = {} (max: {})",
+            orderItemId, currentTotalCount, serialIds.size(), totalAfterAssignment, orderItem.getQuantity());
+
         // Proceed with assignment after validation
         Set<Long> affectedProductIds = new HashSet<>();
         for (Long serialId : serialIds) {
@@ -407,6 +401,59 @@ public class ProductSerialService {
         log.info("Successfully assigned {} product serials to order item {}", serialIds.size(), orderItemId);
     }
 
+    @Transactional
+    public ProductSerialReservationResponse reserveSerialsForOrderItem(ProductSerialReservationRequest request) {
+        Long productId = request.getProductId();
+        Long orderItemId = request.getOrderItemId();
+        int requested = request.getQuantity();
+        log.info("Reserving {} IN_STOCK serials of product {} for order item {}", requested, productId, orderItemId);
+
+        OrderItemReplica orderItem = orderItemReplicaService.getOrderItem(orderItemId);
+        if (!productId.equals(orderItem.getProductId())) {
+            throw new IllegalArgumentException(String.format("Order item %d is for product %d, not product %d",
+                    orderItemId, orderItem.getProductId(), productId));
+        }
+
+        // Serialize reservations per order item so concurrent requests can't over-fill it;
+        // reservations for different order items still run in parallel
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(?)", rs -> null, orderItemId);
+
+        long currentTotalCount = productSerialRepository.countByOrderItemId(orderItemId);
+        long remaining = orderItem.getQuantity() - currentTotalCount;
+        if (requested > remaining) {
+            throw new IllegalArgumentException(
+                String.format("Cannot reserve %d more serials for order item %d. Current total: %d, Max: %d",
+                    requested, orderItemId, currentTotalCount, orderItem.getQuantity()));
+        }
+
+        List<Long> reservedIds = productSerialRepository.reserveInStockSerials(productId, orderItemId, requested);
+        if (reservedIds.size() < requested && !request.isAllowPartial()) {
+            // Rolls back the partial claim
+            throw new InsufficientInventoryException(String.format(
+                    "Only %d of %d requested serials are in stock for product %d", reservedIds.size(), requested, productId));
+        }
+
+        if (!reservedIds.isEmpty()) {
+            productStockService.updateProductStock(productId);
+        }
+
+        List<ProductSerialResponse> reservedSerials = productSerialRepository.findAllById(reservedIds).stream()
+                .sorted(Comparator.comparing(ProductSerial::getId))
+                .map(productSerialMapper::toProductSerialResponse)
+                .toList();
+
+        log.info("Reserved {} of {} requested serials of product {} for order item {}",
+                reservedSerials.size(), requested, productId, orderItemId);
+
+        return ProductSerialReservationResponse.builder()
+                .productId(productId)
+                .orderItemId(orderItemId)
+                .totalRequested(requested)
+                .totalReserved(reservedSerials.size())
+                .reservedSerials(reservedSerials)
+                .build();
+    }
+
     public void unassignSerialFromOrderItem(Long serialId, Long orderItemId) {
         log.info("Unassigning product serial {} from order item {}", serialId, orderItemId);
 
@@ -474,40 +521,28 @@ public class ProductSerialService {
             }
         }
 
-        // Validate against order item quantities
+        // Validate against order item quantities (served from the local order item replica)
+        Map<Long, Integer> requiredQuantities = new HashMap<>();
         for (Map.Entry<Long, Integer> entry : orderItemAllocationCount.entrySet()) {
             Long orderItemId = entry.getKey();
             Integer newAllocations = entry.getValue();
 
-            try {
-                BaseResponse<OrderItemResponse> response = orderServiceClient.getOrderItem(orderItemId, "INTER_SERVICE_KEY");
-                OrderItemResponse orderItem = response.getData();
-
-                if (orderItem == null) {
-                    throw new ResourceNotFoundException("Order item not found with ID: " + orderItemId);
-                }
-
-                // Count currently allocated serials
-                Long currentAllocatedCount = productSerialRepository.countAllocatedSerialsByOrderItem(orderItemId);
-                Long totalAfterAllocation = currentAllocatedCount + newAllocations;
-
-                if (totalAfterAllocation > orderItem.getQuantity()) {
-                    throw new IllegalArgumentException(
-                        String.format("Cannot allocate %d more serials to order item %d. Current: %d, Max: %d",
-                            newAllocations, orderItemId, currentAllocatedCount, orderItem.getQuantity())
-                    );
-                }
+            Integer requiredQuantity = orderItemReplicaService.getOrderItem(orderItemId).getQuantity();
+            requiredQuantities.put(orderItemId, requiredQuantity);
 
-                log.info("Allocation validation passed for order item {}: {} current + {} new = {} (max: {})",
-                    orderItemId, currentAllocatedCount, newAllocations, totalAfterAllocation, orderItem.getQuantity());
+            // Count currently allocated serials
+            Long currentAllocatedCount = productSerialRepository.countAllocatedSerialsByOrderItem(orderItemId);
+            Long totalAfterAllocation = currentAllocatedCount + newAllocations;
 
-            } catch (Exception e) {
-                if (e instanceof ResourceNotFoundException || e instanceof IllegalArgumentException) {
-                    throw e;
-                }
-                log.error("Failed to validate allocation for order item {}: {}", orderItemId, e.getMessage());
-                throw new RuntimeException("Failed to validate allocation: " + e.getMessage(), e);
+            if (totalAfterAllocation > requiredQuantity) {
+                throw new IllegalArgumentException(
+                    String.format("Cannot allocate %d more serials to order item %d. Current: %d, Max: %d",
+                        newAllocations, orderItemId, currentAllocatedCount, requiredQuantity)
+                );
             }
+
+            log.info("Allocation validation passed for order item {}: {} current + {} new = {} (max: {})",
+                orderItemId, currentAllocatedCount, newAllocations, totalAfterAllocation, requiredQuantity);
         }
 
         // Proceed with allocation (validation already done)
@@ -539,9 +574,9 @@ public class ProductSerialService {
             productStockService.updateProductStock(productId);
         }
 
-        // Check each affected order item for completion
+        // Order-service completes the order items asynchronously from these events
         for (Long orderItemId : affectedOrderItems) {
-            checkAndUpdateOrderItemCompletion(orderItemId);
+            publishSerialsAllocated(orderItemId, dealerId, requiredQuantities.get(orderItemId));
         }
 
         log.info("Successfully allocated {} product serials to dealer {}", serialIds.size(), dealerId);
@@ -602,42 +637,54 @@ public class ProductSerialService {
         return response;
     }
 
-    private void checkAndUpdateOrderItemCompletion(Long orderItemId) {
-        log.debug("Checking completion status for order item: {}", orderItemId);
-
-        try {
-            // Get order item details to check required quantity
-            BaseResponse<OrderItemResponse> response = orderServiceClient.getOrderItem(orderItemId, "INTER_SERVICE_KEY");
-            OrderItemResponse orderItem = response.getData();
-
-            if (orderItem == null) {
-                log.error("Order item not found with ID: {}", orderItemId);
-                return;
+    /**
+     * Resolves serial numbers to their product serial and product in one query per chunk.
+     * Unknown serials are left out; results follow the order of {@code serialNumbers}.
+     */
+    @Transactional(readOnly = true)
+    public List<ResolvedProductSerialResponse> resolveSerials(List<String> serialNumbers) {
+        List<String> distinctSerials = serialNumbers.stream().filter(Objects::nonNull).distinct().toList();
+        log.info("Resolving {} product serials", distinctSerials.size());
+
+        Map<String, ResolvedProductSerialResponse> resolved = new HashMap<>();
+        for (int from = 0; from < distinctSerials.size(); from += SERIAL_CHUNK_SIZE) {
+            List<String> chunk = distinctSerials.subList(from, Math.min(from + SERIAL_CHUNK_SIZE, distinctSerials.size()));
+            for (Object[] row : productSerialRepository.resolveSerials(chunk)) {
+                ResolvedProductSerialResponse serial = ResolvedProductSerialResponse.builder()
+                        .id((Long) row[0])
+                        .serialNumber((String) row[1])
+                        .productId((Long) row[2])
+                        .productName((String) row[3])
+                        .productSku((String) row[4])
+                        .status(row[5].toString())
+                        .image((String) row[6])
+                        .build();
+                resolved.put(serial.getSerialNumber(), serial);
+                productSerialIndexService.remember(serial.getSerialNumber(), serial.getId());
             }
+        }
 
-            // Count allocated serials for this order item
-            Long allocatedCount = productSerialRepository.countAllocatedSerialsByOrderItem(orderItemId);
-
-            log.debug("Order item {} has {} allocated serials out of {} required",
-                orderItemId, allocatedCount, orderItem.getQuantity());
-
-            // If allocated count equals required quantity, mark order item as completed
-            if (allocatedCount.equals(orderItem.getQuantity().longValue())) {
-                log.info("All required serials ({}/{}) allocated for order item {}. Updating status to COMPLETED.",
-                    allocatedCount, orderItem.getQuantity(), orderItemId);
+        log.info("Resolved {} of {} product serials", resolved.size(), distinctSerials.size());
+        return distinctSerials.stream()
+                .map(resolved::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
 
-                // Call order service to update status
-                orderServiceClient.updateOrderItemStatus(orderItemId, OrderItemStatus.COMPLETED, "INTER_SERVICE_KEY");
+    private void publishSerialsAllocated(Long orderItemId, Long dealerId, Integer requiredQuantity) {
+        Long allocatedCount = productSerialRepository.countAllocatedSerialsByOrderItem(orderItemId);
+        boolean completed = allocatedCount.equals(requiredQuantity.longValue());
 
-                log.info("Successfully updated order item {} status to COMPLETED", orderItemId);
-            } else {
-                log.debug("Order item {} has {}/{} serials allocated, keeping status as PENDING",
-                    orderItemId, allocatedCount, orderItem.getQuantity());
-            }
+        log.debug("Order item {} has {}/{} serials allocated", orderItemId, allocatedCount, requiredQuantity);
 
-        } catch (Exception e) {
-            log.error("Failed to check/update completion status for order item {}: {}", orderItemId, e.getMessage(), e);
-        }
+        productSerialEventService.publishSerialsAllocatedEvent(SerialsAllocatedEvent.builder()
+                .orderItemId(orderItemId)
+                .dealerId(dealerId)
+                .allocatedCount(allocatedCount)
+                .requiredQuantity(requiredQuantity)
+                .completed(completed)
+                .allocatedAt(LocalDateTime.now())
+                .build());
     }
 
     @Transactional(readOnly = true)
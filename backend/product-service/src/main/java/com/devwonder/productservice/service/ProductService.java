@@ -5,6 +5,7 @@ import com.devwonder.common.exception.ResourceNotFoundException;
 import com.devwonder.common.exception.ProductNotDeletedException;
 import com.devwonder.common.util.RepositoryUtil;
 import com.devwonder.common.util.LoggingUtil;
+import com.devwonder.common.util.SearchQueryUtil;
 import com.devwonder.common.constants.ErrorMessages;
 import com.devwonder.productservice.dto.ProductCreateRequest;
 import com.devwonder.productservice.dto.ProductResponse;
@@ -13,43 +14,50 @@ import com.devwonder.productservice.dto.ProductInfo;
 import com.devwonder.productservice.entity.Product;
 import com.devwonder.productservice.mapper.ProductMapper;
 import com.devwonder.productservice.repository.ProductRepository;
-import com.devwonder.productservice.util.FieldFilterUtil;
+import com.devwonder.productservice.util.ProductFieldProjection;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 
+import static com.devwonder.productservice.repository.ProductSpecifications.featured;
+import static com.devwonder.productservice.repository.ProductSpecifications.hasId;
+import static com.devwonder.productservice.repository.ProductSpecifications.idNot;
+import static com.devwonder.productservice.repository.ProductSpecifications.idNotIn;
+import static com.devwonder.productservice.repository.ProductSpecifications.notDeleted;
+import static com.devwonder.productservice.repository.ProductSpecifications.shownOnHomepage;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ProductService {
 
+    // Every listing ends with the id so that ties (and therefore pages) are stable
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+
     private final ProductRepository productRepository;
     private final ProductMapper productMapper;
-    private final FieldFilterUtil fieldFilterUtil;
+    private final ProductFieldProjection productFieldProjection;
+    private final RelatedProductService relatedProductService;
     
     public List<ProductResponse> getHomepageProducts(String fields, int limit) {
         LoggingUtil.logFetchWithFieldsAndLimit(log, "homepage products", fields, limit);
-        
-        List<Product> products = productRepository.findByShowOnHomepageTrueAndIsDeletedFalse();
-        
-        return products.stream()
-                .limit(limit)
-                .map(product -> fieldFilterUtil.applyFieldFiltering(productMapper.toProductResponse(product), fields))
-                .toList();
+
+        return productFieldProjection.findAll(fields, shownOnHomepage().and(notDeleted()), PageRequest.of(0, limit, NEWEST_FIRST));
     }
     
     public ProductResponse getProductById(Long id, String fields) {
         LoggingUtil.logFetchWithFields(log, "product", fields, id);
 
-        Product product = productRepository.findById(id)
+        return productFieldProjection.findOne(fields, hasId(id))
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with ID: " + id));
-
-        ProductResponse response = productMapper.toProductResponse(product);
-        return fieldFilterUtil.applyFieldFiltering(response, fields);
     }
 
     public ProductResponse getProductById(Long id) {
@@ -58,38 +66,35 @@ public class ProductService {
     
     public List<ProductResponse> getFeaturedProducts(String fields, int limit) {
         LoggingUtil.logFetchWithFieldsAndLimit(log, "featured products", fields, limit);
-        
-        List<Product> products = productRepository.findByIsFeaturedTrueAndIsDeletedFalse();
-        
-        return products.stream()
-                .limit(limit)
-                .map(product -> fieldFilterUtil.applyFieldFiltering(productMapper.toProductResponse(product), fields))
-                .toList();
+
+        return productFieldProjection.findAll(fields, featured().and(notDeleted()), PageRequest.of(0, limit, NEWEST_FIRST));
     }
     
     public List<ProductResponse> getAllProducts(String fields) {
         LoggingUtil.logFetchWithFields(log, "products", fields, "all active");
 
-        List<Product> products = productRepository.findByIsDeletedFalse();
-
-        return products.stream()
-                .map(product -> fieldFilterUtil.applyFieldFiltering(productMapper.toProductResponse(product), fields))
-                .toList();
+        return productFieldProjection.findAll(fields, notDeleted(), Pageable.unpaged(NEWEST_FIRST));
     }
 
     public List<ProductResponse> getRelatedProducts(Long productId, int limit, String fields) {
         log.info("Fetching related products for product ID: {} with limit: {}, fields: {}", productId, limit, fields);
 
         // First check if the product exists
-        Product product = findProductByIdOrThrow(productId);
-
-        // Get related products (excluding the current product and deleted products)
-        List<Product> relatedProducts = productRepository.findByIsDeletedFalseAndIdNot(productId);
+        RepositoryUtil.existsByIdOrThrow(productRepository, productId, "Product");
+
+        // Precomputed co-purchase matches first, best score first
+        List<Long> relatedIds = relatedProductService.findRelatedProductIds(productId, limit);
+        List<ProductResponse> related = new ArrayList<>(
+                productFieldProjection.findAllInOrder(fields, relatedIds, notDeleted()));
+
+        // Top up with the newest other products when there is not enough purchase history
+        if (related.size() < limit) {
+            related.addAll(productFieldProjection.findAll(fields,
+                    notDeleted().and(idNot(productId)).and(idNotIn(relatedIds)),
+                    PageRequest.of(0, limit - related.size(), NEWEST_FIRST)));
+        }
 
-        return relatedProducts.stream()
-                .limit(limit)
-                .map(p -> fieldFilterUtil.applyFieldFiltering(productMapper.toProductResponse(p), fields))
-                .toList();
+        return related;
     }
     
     @Transactional
@@ -272,13 +277,19 @@ public class ProductService {
             return List.of();
         }
 
-        List<Product> products = productRepository.searchProducts(query.trim());
+        String term = query.trim();
+        String tsQuery = SearchQueryUtil.toPrefixTsQuery(term);
+        if (tsQuery.isEmpty()) {
+            log.warn("Search query '{}' has no searchable terms, returning empty list", query);
+            return List.of();
+        }
+
+        List<Long> productIds = productRepository.searchProductIds(tsQuery, term,
+                SearchQueryUtil.toContainsPattern(term), limit);
+        List<ProductResponse> products = productFieldProjection.findAllInOrder(fields, productIds, notDeleted());
         log.info("Found {} products matching query: '{}'", products.size(), query);
 
-        return products.stream()
-                .limit(limit)
-                .map(product -> fieldFilterUtil.applyFieldFiltering(productMapper.toProductResponse(product), fields))
-                .toList();
+        return products;
     }
 
 
@@ -0,0 +1,70 @@
+package com.devwonder.productservice.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Maintains the precomputed related_products table: for every product, the products most often
+ * bought in the same order, scored by the number of shared orders.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RelatedProductService {
+
+    // Arbitrary key for pg_try_advisory_xact_lock so only one replica rebuilds at a time
+    private static final long REBUILD_LOCK_KEY = 0x52454c50524f44L;
+
+    private static final String REBUILD_RELATED_PRODUCTS =
+            "INSERT INTO related_products (product_id, related_product_id, score) " +
+            "SELECT product_id, related_product_id, score FROM (" +
+            "    SELECT a.product_id, b.product_id AS related_product_id, COUNT(DISTINCT a.order_id) AS score," +
+            "           ROW_NUMBER() OVER (PARTITION BY a.product_id" +
+            "                              ORDER BY COUNT(DISTINCT a.order_id) DESC, b.product_id) AS pair_rank" +
+            "    FROM order_item_replicas a" +
+            "    JOIN order_item_replicas b ON b.order_id = a.order_id AND b.product_id <> a.product_id" +
+            "         AND b.deleted = false" +
+            "    WHERE a.deleted = false" +
+            "    GROUP BY a.product_id, b.product_id" +
+            ") ranked WHERE pair_rank <= ?";
+
+    private static final String FIND_RELATED_PRODUCT_IDS =
+            "SELECT related_product_id FROM related_products WHERE product_id = ? " +
+            "ORDER BY score DESC, related_product_id LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${nexhub.related-products.max-per-product:20}")
+    private int maxPerProduct;
+
+    public List<Long> findRelatedProductIds(Long productId, int limit) {
+        return jdbcTemplate.queryForList(FIND_RELATED_PRODUCT_IDS, Long.class, productId, limit);
+    }
+
+    /**
+     * Recomputes the whole table in one transaction; readers keep seeing the previous
+     * contents until it commits.
+     */
+    @Scheduled(cron = "${nexhub.related-products.rebuild-cron:0 0 3 * * *}")
+    @Transactional
+    public void rebuildRelatedProducts() {
+        Boolean locked = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, REBUILD_LOCK_KEY);
+        if (!Boolean.TRUE.equals(locked)) {
+            log.info("Related products rebuild already running on another instance, skipping");
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        jdbcTemplate.update("DELETE FROM related_products");
+        int rows = jdbcTemplate.update(REBUILD_RELATED_PRODUCTS, maxPerProduct);
+
+        log.info("Rebuilt related products: {} pairs in {} ms", rows, System.currentTimeMillis() - start);
+    }
+}
@@ -0,0 +1,58 @@
+package com.devwonder.productservice.util;
+
+import com.devwonder.common.projection.FieldProjection;
+import com.devwonder.productservice.dto.ProductResponse;
+import com.devwonder.productservice.entity.Product;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reads {@link ProductResponse}s with only the columns named in {@code fields=}, so list endpoints
+ * don't load the large jsonb columns unless they are asked for.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductFieldProjection {
+
+    private static final FieldProjection<Product, ProductResponse> PROJECTION =
+            FieldProjection.builder(Product.class, ProductResponse::new)
+                    .field("id", ProductResponse::setId)
+                    .field("sku", ProductResponse::setSku)
+                    .field("name", ProductResponse::setName)
+                    .field("shortDescription", ProductResponse::setShortDescription)
+                    .field("image", ProductResponse::setImage)
+                    .field("descriptions", ProductResponse::setDescriptions)
+                    .field("videos", ProductResponse::setVideos)
+                    .field("specifications", ProductResponse::setSpecifications)
+                    .field("price", ProductResponse::setPrice)
+                    .field("wholesalePrice", ProductResponse::setWholesalePrice)
+                    .field("showOnHomepage", ProductResponse::setShowOnHomepage)
+                    .field("isFeatured", ProductResponse::setIsFeatured)
+                    .field("stock", ProductResponse::setStock)
+                    .field("createdAt", ProductResponse::setCreatedAt)
+                    .field("updateAt", "updatedAt", ProductResponse::setUpdateAt)
+                    .build();
+
+    private final EntityManager entityManager;
+
+    public List<ProductResponse> findAll(String fields, Specification<Product> specification, Pageable pageable) {
+        return PROJECTION.findAll(entityManager, fields, specification, pageable);
+    }
+
+    /**
+     * Products with the given IDs, in the same order as {@code ids}.
+     */
+    public List<ProductResponse> findAllInOrder(String fields, List<Long> ids, Specification<Product> specification) {
+        return PROJECTION.findAllInOrder(entityManager, fields, "id", ids, specification);
+    }
+
+    public Optional<ProductResponse> findOne(String fields, Specification<Product> specification) {
+        return PROJECTION.findOne(entityManager, fields, specification);
+    }
+}
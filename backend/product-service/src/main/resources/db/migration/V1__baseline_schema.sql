@@ -0,0 +1,32 @@
+-- Baseline of the schema previously created by hibernate ddl-auto.
+-- IF NOT EXISTS keeps it a no-op on databases that already have the tables.
+
+CREATE TABLE IF NOT EXISTS products (
+    id                BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    sku               VARCHAR(255) NOT NULL UNIQUE,
+    name              VARCHAR(255) NOT NULL,
+    short_description VARCHAR(500),
+    image             JSONB,
+    descriptions      JSONB,
+    videos            JSONB,
+    specifications    JSONB,
+    retail_price      NUMERIC(10, 2),
+    wholesale_price   JSONB,
+    show_on_homepage  BOOLEAN,
+    is_featured       BOOLEAN,
+    is_deleted        BOOLEAN,
+    stock             BIGINT,
+    created_at        TIMESTAMP(6),
+    updated_at        TIMESTAMP(6)
+);
+
+CREATE SEQUENCE IF NOT EXISTS product_serial_id_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS product_serials (
+    id            BIGINT       NOT NULL PRIMARY KEY,
+    serial        VARCHAR(255) NOT NULL UNIQUE,
+    id_product    BIGINT       NOT NULL REFERENCES products (id),
+    status        VARCHAR(255) NOT NULL,
+    order_item_id BIGINT,
+    dealer_id     BIGINT
+);
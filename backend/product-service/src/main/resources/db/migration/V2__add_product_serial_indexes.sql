@@ -0,0 +1,11 @@
+-- Inventory counts and listings: WHERE id_product = ? AND status = ?
+CREATE INDEX IF NOT EXISTS idx_product_serials_product_status
+    ON product_serials (id_product, status);
+
+-- Fulfilment: WHERE order_item_id = ? AND status = ?
+CREATE INDEX IF NOT EXISTS idx_product_serials_order_item_status
+    ON product_serials (order_item_id, status);
+
+-- Dealer inventory: WHERE dealer_id = ?
+CREATE INDEX IF NOT EXISTS idx_product_serials_dealer
+    ON product_serials (dealer_id);
@@ -0,0 +1,9 @@
+-- Local copy of order item quantities, fed by order-service "order-item-events".
+-- Lets serial allocation validate quantities without calling order-service.
+CREATE TABLE IF NOT EXISTS order_item_replicas (
+    order_item_id BIGINT PRIMARY KEY,
+    order_id      BIGINT,
+    product_id    BIGINT  NOT NULL,
+    quantity      INTEGER NOT NULL,
+    updated_at    TIMESTAMP
+);
@@ -0,0 +1,15 @@
+-- Precomputed "related products", rebuilt periodically from co-purchases in order_item_replicas.
+-- Read path: WHERE product_id = ? ORDER BY score DESC LIMIT ?
+CREATE TABLE IF NOT EXISTS related_products (
+    product_id         BIGINT NOT NULL,
+    related_product_id BIGINT NOT NULL,
+    score              BIGINT NOT NULL,
+    PRIMARY KEY (product_id, related_product_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_related_products_product_score
+    ON related_products (product_id, score DESC, related_product_id);
+
+-- Co-purchase self-join on order_id
+CREATE INDEX IF NOT EXISTS idx_order_item_replicas_order
+    ON order_item_replicas (order_id);
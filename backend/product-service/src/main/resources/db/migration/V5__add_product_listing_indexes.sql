@@ -0,0 +1,5 @@
+-- Listings are ordered by created_at DESC, id DESC and limited in SQL;
+-- partial index over live products lets LIMIT stop after the first rows
+CREATE INDEX IF NOT EXISTS idx_products_active_created
+    ON products (created_at DESC, id DESC)
+    WHERE is_deleted = false;
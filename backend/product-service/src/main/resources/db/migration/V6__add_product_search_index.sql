@@ -0,0 +1,27 @@
+-- Full-text and trigram search over products, replacing LOWER(..) LIKE '%q%' scans
+CREATE EXTENSION IF NOT EXISTS unaccent;
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- unaccent() is only STABLE; this wrapper pins the dictionary so it can be used
+-- in generated columns and expression indexes (strips Vietnamese diacritics, đ -> d)
+CREATE OR REPLACE FUNCTION f_unaccent(text) RETURNS text
+    LANGUAGE sql IMMUTABLE PARALLEL SAFE STRICT
+AS $$ SELECT public.unaccent('public.unaccent'::regdictionary, $1) $$;
+
+-- 'simple' config: Postgres ships no Vietnamese stemmer, and SKUs / model names must not be stemmed
+ALTER TABLE products ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple', f_unaccent(coalesce(name, ''))), 'A') ||
+        setweight(to_tsvector('simple', f_unaccent(coalesce(sku, ''))), 'A') ||
+        setweight(to_tsvector('simple', f_unaccent(coalesce(short_description, ''))), 'B')
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_products_search_vector
+    ON products USING GIN (search_vector);
+
+-- Trigram indexes serve partial / misspelled names and SKU fragments that are not word prefixes
+CREATE INDEX IF NOT EXISTS idx_products_name_trgm
+    ON products USING GIN (f_unaccent(lower(name)) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_products_sku_trgm
+    ON products USING GIN (lower(sku) gin_trgm_ops);
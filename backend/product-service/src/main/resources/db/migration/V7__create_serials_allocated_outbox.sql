@@ -0,0 +1,15 @@
+-- Transactional outbox for "serials-allocated" events: written with the allocation, deleted once
+-- Kafka acknowledges the send. One row per order item, holding its latest allocation state.
+CREATE TABLE IF NOT EXISTS serials_allocated_outbox (
+    order_item_id     BIGINT PRIMARY KEY,
+    dealer_id         BIGINT,
+    allocated_count   BIGINT    NOT NULL,
+    required_quantity INTEGER   NOT NULL,
+    completed         BOOLEAN   NOT NULL,
+    allocated_at      TIMESTAMP NOT NULL,
+    version           BIGINT    NOT NULL DEFAULT 1,
+    queued_at         TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_serials_allocated_outbox_queued_at
+    ON serials_allocated_outbox (queued_at);
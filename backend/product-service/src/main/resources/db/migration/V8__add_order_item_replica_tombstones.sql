@@ -0,0 +1,5 @@
+-- order-item-events can arrive out of order once a record goes through the retry topics.
+-- occurred_at is the time of the last applied event, and deleted items stay as tombstones, so a
+-- delayed CREATED cannot bring back an item whose DELETED was already applied.
+ALTER TABLE order_item_replicas ADD COLUMN IF NOT EXISTS occurred_at TIMESTAMP;
+ALTER TABLE order_item_replicas ADD COLUMN IF NOT EXISTS deleted BOOLEAN NOT NULL DEFAULT FALSE;
@@ -0,0 +1,5 @@
+-- The related products self-join only reads live items; tombstones (deleted = true) stay out of the index
+CREATE INDEX IF NOT EXISTS idx_order_item_replicas_live_order_product
+    ON order_item_replicas (order_id, product_id) WHERE deleted = false;
+
+DROP INDEX IF EXISTS idx_order_item_replicas_order;
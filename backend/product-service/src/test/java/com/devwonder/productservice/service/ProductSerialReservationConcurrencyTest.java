@@ -0,0 +1,190 @@
+package com.devwonder.productservice.service;
+
+import com.devwonder.productservice.client.OrderServiceClient;
+import com.devwonder.productservice.dto.ProductSerialReservationRequest;
+import com.devwonder.productservice.dto.ProductSerialResponse;
+import com.devwonder.productservice.entity.Product;
+import com.devwonder.productservice.mapper.ProductSerialMapperImpl;
+import com.devwonder.productservice.repository.ProductSerialRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Races serial reservations against a real Postgres, since FOR UPDATE SKIP LOCKED and the per order item
+ * advisory lock only mean something there. Skipped when Docker is not available.
+ */
+@DataJpaTest(properties = {"spring.cloud.config.enabled=false", "spring.jpa.hibernate.ddl-auto=none"})
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductSerialReservationConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final AtomicLong IDS = new AtomicLong(1000);
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @Configuration
+    @EntityScan(basePackageClasses = Product.class)
+    @EnableJpaRepositories(basePackageClasses = ProductSerialRepository.class)
+    @Import({ProductSerialService.class, ProductStockService.class, OrderItemReplicaService.class,
+            ProductSerialMapperImpl.class})
+    static class Config {
+    }
+
+    @MockitoBean
+    private OrderServiceClient orderServiceClient;
+    @MockitoBean
+    private ProductSerialEventService productSerialEventService;
+    @MockitoBean
+    private ProductInventoryService productInventoryService;
+    @MockitoBean
+    private ProductSerialIndexService productSerialIndexService;
+
+    @Autowired
+    private ProductSerialService productSerialService;
+    @Autowired
+    private ProductSerialRepository productSerialRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void concurrentClaimsNeverShareASerial() throws Exception {
+        long productId = productWithSerials(100);
+        List<Callable<List<Long>>> claims = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            long orderItemId = IDS.incrementAndGet();
+            claims.add(() -> transactionTemplate.execute(status ->
+                    productSerialRepository.reserveInStockSerials(productId, orderItemId, 9)));
+        }
+
+        List<Long> claimed = new ArrayList<>();
+        for (Future<List<Long>> claim : race(claims)) {
+            List<Long> ids = claim.get();
+            assertTrue(ids.size() <= 9, "claimed " + ids.size() + " serials for a quantity of 9");
+            claimed.addAll(ids);
+        }
+
+        assertEquals(claimed.size(), new HashSet<>(claimed).size(), "a serial was claimed twice");
+        assertTrue(claimed.size() <= 100);
+        assertEquals(claimed.size(), assignedCount(productId));
+    }
+
+    @Test
+    void concurrentReservationsNeverOverfillAnOrderItem() throws Exception {
+        long productId = productWithSerials(60);
+        List<Long> orderItemIds = new ArrayList<>();
+        List<Callable<List<ProductSerialResponse>>> reservations = new ArrayList<>();
+        // 4 order items of 10 each, hit by 4 requests of 4 at once: more asked for than each item may hold
+        for (int item = 0; item < 4; item++) {
+            long orderItemId = orderItem(productId, 10);
+            orderItemIds.add(orderItemId);
+            for (int request = 0; request < 4; request++) {
+                reservations.add(() -> productSerialService.reserveSerialsForOrderItem(
+                        ProductSerialReservationRequest.builder()
+                                .productId(productId)
+                                .orderItemId(orderItemId)
+                                .quantity(4)
+                                .allowPartial(true)
+                                .build()).getReservedSerials());
+            }
+        }
+
+        Set<Long> reserved = new HashSet<>();
+        int reservedCount = 0;
+        for (Future<List<ProductSerialResponse>> reservation : race(reservations)) {
+            try {
+                for (ProductSerialResponse serial : reservation.get()) {
+                    reserved.add(serial.getId());
+                    reservedCount++;
+                }
+            } catch (ExecutionException e) {
+                // The request that would push its order item past 10
+                assertInstanceOf(IllegalArgumentException.class, e.getCause());
+            }
+        }
+
+        assertEquals(reservedCount, reserved.size(), "a serial was reserved twice");
+        for (Long orderItemId : orderItemIds) {
+            long held = productSerialRepository.countByOrderItemId(orderItemId);
+            assertTrue(held <= 10, "order item " + orderItemId + " holds " + held + " serials for a quantity of 10");
+        }
+        assertEquals(reservedCount, assignedCount(productId));
+    }
+
+    private <T> List<Future<T>> race(List<Callable<T>> tasks) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (Callable<T> task : tasks) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES), "reservations did not finish");
+            return futures;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private long productWithSerials(int serials) {
+        Long productId = jdbcTemplate.queryForObject(
+                "INSERT INTO products (sku, name, is_deleted, stock) VALUES (?, ?, false, ?) RETURNING id",
+                Long.class, "SKU-" + IDS.incrementAndGet(), "Race test product", serials);
+        jdbcTemplate.update("INSERT INTO product_serials (id, serial, id_product, status) " +
+                "SELECT nextval('product_serial_id_seq'), ? || n, ?, 'IN_STOCK' FROM generate_series(1, ?) n",
+                "SN-" + productId + "-", productId, serials);
+        return productId;
+    }
+
+    private long orderItem(long productId, int quantity) {
+        long orderItemId = IDS.incrementAndGet();
+        jdbcTemplate.update("INSERT INTO order_item_replicas (order_item_id, order_id, product_id, quantity, " +
+                "updated_at, deleted) VALUES (?, ?, ?, ?, now(), false)", orderItemId, orderItemId, productId, quantity);
+        return orderItemId;
+    }
+
+    private long assignedCount(long productId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM product_serials " +
+                "WHERE id_product = ? AND status = 'ASSIGN_TO_ORDER_ITEM'", Long.class, productId);
+    }
+}
@@ -1,5 +1,6 @@
 package com.devwonder.userservice.config;
 
+import com.devwonder.common.kafka.serde.VersionedEventSerializer;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
@@ -8,7 +9,6 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
-import org.springframework.kafka.support.serializer.JsonSerializer;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -22,6 +22,9 @@ public class KafkaProducerConfig {
     
     @Value("${spring.kafka.bootstrap-servers:kafka1:9092,kafka2:9093,kafka3:9094}")
     private String bootstrapServers;
+
+    @Value("${nexhub.kafka.event-format:smile}")
+    private String eventFormat;
     
     /**
      * Producer factory configuration with performance optimization
@@ -32,9 +35,9 @@ public class KafkaProducerConfig {
         
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
-        // Don't add type headers since consumers use shared event classes from common-service
-        configProps.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, false);
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, VersionedEventSerializer.class);
+        // Schema id header plus the body in nexhub.kafka.event-format; consumers resolve the class from the shared registry
+        configProps.put(VersionedEventSerializer.FORMAT_CONFIG, eventFormat);
         configProps.put(ProducerConfig.ACKS_CONFIG, "all");
         configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
         
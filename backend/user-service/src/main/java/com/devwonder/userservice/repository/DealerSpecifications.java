@@ -0,0 +1,30 @@
+package com.devwonder.userservice.repository;
+
+import com.devwonder.userservice.entity.Dealer;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Criteria predicates for {@link com.devwonder.userservice.util.DealerFieldProjection} queries.
+ */
+public final class DealerSpecifications {
+
+    private DealerSpecifications() {
+        // Private constructor to prevent instantiation
+    }
+
+    public static Specification<Dealer> hasAccountId(Long accountId) {
+        return (root, query, cb) -> cb.equal(root.get("accountId"), accountId);
+    }
+
+    // Case-insensitive substring match on company name, phone, email or city
+    public static Specification<Dealer> matches(String query) {
+        return (root, criteriaQuery, cb) -> {
+            String pattern = "%" + query.toLowerCase() + "%";
+            return cb.or(
+                    cb.like(cb.lower(root.get("companyName")), pattern),
+                    cb.like(cb.lower(root.get("phone")), pattern),
+                    cb.like(cb.lower(root.get("email")), pattern),
+                    cb.like(cb.lower(root.get("city")), pattern));
+        };
+    }
+}
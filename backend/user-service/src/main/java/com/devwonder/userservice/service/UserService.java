@@ -10,8 +10,11 @@ import com.devwonder.userservice.entity.Admin;
 import com.devwonder.userservice.mapper.DealerMapper;
 import com.devwonder.userservice.repository.DealerRepository;
 import com.devwonder.userservice.util.AccountGeneratorUtil;
+import com.devwonder.userservice.util.DealerFieldProjection;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,6 +22,9 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Set;
 
+import static com.devwonder.userservice.repository.DealerSpecifications.hasAccountId;
+import static com.devwonder.userservice.repository.DealerSpecifications.matches;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -28,7 +34,7 @@ public class UserService {
     private final DealerMapper dealerMapper;
     private final AuthServiceClient authServiceClient;
     private final DealerEventService dealerEventService;
-    private final com.devwonder.userservice.util.FieldFilterUtil fieldFilterUtil;
+    private final DealerFieldProjection dealerFieldProjection;
     private final com.devwonder.userservice.repository.AdminRepository adminRepository;
 
     @Transactional(readOnly = true)
@@ -48,13 +54,12 @@ public class UserService {
     public DealerResponse getDealerById(Long dealerId, String fields) {
         log.info("Fetching dealer with ID: {} - fields: {}", dealerId, fields);
 
-        Dealer dealer = dealerRepository.findById(dealerId)
+        DealerResponse response = dealerFieldProjection.findOne(fields, hasAccountId(dealerId))
                 .orElseThrow(() -> new ResourceNotFoundException("Dealer not found with ID: " + dealerId));
 
-        log.info("Found dealer: {} with accountId: {}", dealer.getCompanyName(), dealer.getAccountId());
+        log.info("Found dealer with accountId: {}", dealerId);
 
-        DealerResponse response = dealerMapper.toResponse(dealer);
-        return fieldFilterUtil.applyFieldFiltering(response, fields);
+        return response;
     }
 
     @Transactional(readOnly = true)
@@ -71,13 +76,11 @@ public class UserService {
             return List.of();
         }
 
-        List<Dealer> dealers = dealerRepository.searchDealers(query.trim());
+        List<DealerResponse> dealers = dealerFieldProjection.findAll(fields, matches(query.trim()),
+                PageRequest.of(0, limit, Sort.by("companyName", "accountId")));
         log.info("Found {} dealers matching query: '{}'", dealers.size(), query);
 
-        return dealers.stream()
-                .limit(limit)
-                .map(dealer -> fieldFilterUtil.applyFieldFiltering(dealerMapper.toResponse(dealer), fields))
-                .toList();
+        return dealers;
     }
 
     @Transactional
@@ -0,0 +1,42 @@
+package com.devwonder.userservice.util;
+
+import com.devwonder.common.projection.FieldProjection;
+import com.devwonder.userservice.dto.DealerResponse;
+import com.devwonder.userservice.entity.Dealer;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reads {@link DealerResponse}s with only the columns named in {@code fields=}.
+ */
+@Component
+@RequiredArgsConstructor
+public class DealerFieldProjection {
+
+    private static final FieldProjection<Dealer, DealerResponse> PROJECTION =
+            FieldProjection.builder(Dealer.class, DealerResponse::new)
+                    .field("accountId", DealerResponse::setAccountId)
+                    .field("companyName", DealerResponse::setCompanyName)
+                    .field("address", DealerResponse::setAddress)
+                    .field("phone", DealerResponse::setPhone)
+                    .field("email", DealerResponse::setEmail)
+                    .field("district", DealerResponse::setDistrict)
+                    .field("city", DealerResponse::setCity)
+                    .build();
+
+    private final EntityManager entityManager;
+
+    public List<DealerResponse> findAll(String fields, Specification<Dealer> specification, Pageable pageable) {
+        return PROJECTION.findAll(entityManager, fields, specification, pageable);
+    }
+
+    public Optional<DealerResponse> findOne(String fields, Specification<Dealer> specification) {
+        return PROJECTION.findOne(entityManager, fields, specification);
+    }
+}
@@ -3,15 +3,18 @@ package com.devwonder.warrantyservice.client;
 import com.devwonder.common.dto.BaseResponse;
 import com.devwonder.warrantyservice.dto.ProductSerialBulkStatusUpdateRequest;
 import com.devwonder.warrantyservice.dto.ProductSerialInfo;
+import com.devwonder.warrantyservice.dto.ProductSerialResolveRequest;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @FeignClient(name = "product-service", url = "${services.product-service.url:http://product-service:8083}")
 public interface ProductServiceClient {
 
-    @GetMapping("/product/product-serial/serial/{serial}")
-    BaseResponse<Long> getProductSerialIdBySerial(
-            @PathVariable String serial,
+    @PostMapping("/product/product-serial/resolve")
+    BaseResponse<List<ProductSerialInfo>> resolveProductSerials(
+            @RequestBody ProductSerialResolveRequest request,
             @RequestHeader("X-API-Key") String apiKey
     );
 
@@ -20,10 +23,4 @@ public interface ProductServiceClient {
             @RequestBody ProductSerialBulkStatusUpdateRequest request,
             @RequestHeader("X-API-Key") String apiKey
     );
-
-    @GetMapping("/product/product-serial/{productSerialId}/details")
-    BaseResponse<ProductSerialInfo> getProductSerialDetails(
-            @PathVariable Long productSerialId,
-            @RequestHeader("X-API-Key") String apiKey
-    );
 }
\ No newline at end of file
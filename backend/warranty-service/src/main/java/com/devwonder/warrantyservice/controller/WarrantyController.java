@@ -4,6 +4,7 @@ import com.devwonder.common.dto.BaseResponse;
 import com.devwonder.warrantyservice.dto.WarrantyCreateRequest;
 import com.devwonder.warrantyservice.dto.WarrantyResponse;
 import com.devwonder.warrantyservice.dto.WarrantyBulkCreateResponse;
+import com.devwonder.warrantyservice.enums.WarrantyRegistrationOutcome;
 import com.devwonder.warrantyservice.service.WarrantyService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -12,6 +13,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -54,6 +56,12 @@ public class WarrantyController {
 
                         return ResponseEntity.status(status)
                                         .body(BaseResponse.success(message, response));
+                } catch (DataIntegrityViolationException e) {
+                        // ux_warranties_active_product_serial: a serial got an active warranty concurrently
+                        log.warn("Warranty registration hit an existing active warranty: {}", e.getMessage());
+                        return ResponseEntity.status(HttpStatus.CONFLICT)
+                                        .body(BaseResponse.error(WarrantyRegistrationOutcome.WARRANTY_EXISTS
+                                                        + ": Active warranty already exists for one of the serials"));
                 } catch (Exception e) {
                         log.error("Error creating warranties: {}", e.getMessage());
                         return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -81,4 +89,26 @@ public class WarrantyController {
                                         .body(BaseResponse.error(e.getMessage()));
                 }
         }
-}
\ No newline at end of file
+
+        @GetMapping("/expiring")
+        @Operation(summary = "List warranties expiring soon", description = "Lists active warranties ending within the next given number of days (1-365), soonest first. ADMIN role required via API Gateway.", security = @SecurityRequirement(name = "bearerAuth"))
+        @ApiResponses(value = {
+                        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Expiring warranties retrieved successfully"),
+                        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid days, page or size")
+        })
+        public ResponseEntity<BaseResponse<List<WarrantyResponse>>> getExpiringWarranties(
+                        @RequestParam(defaultValue = "30") int days,
+                        @RequestParam(defaultValue = "0") int page,
+                        @RequestParam(defaultValue = "50") int size) {
+
+                log.info("Listing warranties expiring within {} days (page {}, size {})", days, page, size);
+
+                try {
+                        List<WarrantyResponse> warranties = warrantyService.getWarrantiesExpiringWithin(days, page, size);
+                        return ResponseEntity.ok(BaseResponse.success("Expiring warranties retrieved successfully", warranties));
+                } catch (IllegalArgumentException e) {
+                        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                                        .body(BaseResponse.error(e.getMessage()));
+                }
+        }
+}
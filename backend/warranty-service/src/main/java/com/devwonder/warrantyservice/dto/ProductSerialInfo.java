@@ -13,6 +13,7 @@ public class ProductSerialInfo {
 
     private Long id;
     private String serialNumber;
+    private Long productId;
     private String productName;
     private String productSku;
     private String status;
@@ -0,0 +1,17 @@
+package com.devwonder.warrantyservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductSerialResolveRequest {
+
+    private List<String> serialNumbers;
+}
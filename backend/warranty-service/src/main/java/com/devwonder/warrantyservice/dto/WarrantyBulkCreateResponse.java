@@ -17,4 +17,6 @@ public class WarrantyBulkCreateResponse {
     private List<WarrantyResponse> warranties;
     private Integer totalWarranties;
     private List<String> failedSerials;
+    // One entry per requested serial, in request order
+    private List<WarrantySerialResult> results;
 }
\ No newline at end of file
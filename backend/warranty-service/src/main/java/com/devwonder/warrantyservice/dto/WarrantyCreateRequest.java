@@ -4,6 +4,7 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -26,6 +27,7 @@ public class WarrantyCreateRequest {
     private LocalDate purchaseDate;
 
     @NotEmpty(message = "Serial numbers are required")
+    @Size(max = 5000, message = "Cannot register more than 5000 serial numbers at once")
     private List<String> serialNumbers;
 
     @NotNull(message = "Customer information is required")
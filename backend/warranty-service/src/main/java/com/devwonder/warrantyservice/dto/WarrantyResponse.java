@@ -19,6 +19,7 @@ public class WarrantyResponse {
     private String warrantyCode;
     private WarrantyStatus status;
     private LocalDateTime purchaseDate;
+    private LocalDateTime expiresAt;
     private LocalDateTime createdAt;
 
     // Enhanced fields with detailed information
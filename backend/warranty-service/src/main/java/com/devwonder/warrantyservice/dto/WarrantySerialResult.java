@@ -0,0 +1,19 @@
+package com.devwonder.warrantyservice.dto;
+
+import com.devwonder.warrantyservice.enums.WarrantyRegistrationOutcome;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WarrantySerialResult {
+
+    private String serialNumber;
+    private WarrantyRegistrationOutcome outcome;
+    private String warrantyCode;
+    private String message;
+}
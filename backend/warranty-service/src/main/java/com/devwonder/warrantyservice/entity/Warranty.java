@@ -21,7 +21,8 @@ import java.time.LocalDateTime;
 public class Warranty {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "warranty_seq")
+    @SequenceGenerator(name = "warranty_seq", sequenceName = "warranty_id_seq", allocationSize = 50)
     private Long id;
 
     @NotNull
@@ -33,11 +34,11 @@ public class Warranty {
     private String customerName;
 
     @NotBlank
-    @Column(name = "customer_email", nullable = false, unique = true)
+    @Column(name = "customer_email", nullable = false)
     private String customerEmail;
 
     @NotBlank
-    @Column(name = "customer_phone", nullable = false, unique = true)
+    @Column(name = "customer_phone", nullable = false)
     private String customerPhone;
 
     @Column(name = "customer_address")
@@ -55,6 +56,9 @@ public class Warranty {
     @Column(name = "purchase_date")
     private LocalDateTime purchaseDate;
 
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
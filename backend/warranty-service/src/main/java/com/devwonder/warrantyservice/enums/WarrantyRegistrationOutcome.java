@@ -0,0 +1,10 @@
+package com.devwonder.warrantyservice.enums;
+
+public enum WarrantyRegistrationOutcome {
+    CREATED,
+    SERIAL_NOT_FOUND,
+    WARRANTY_EXISTS,
+    CUSTOMER_EXISTS,
+    DUPLICATE_IN_REQUEST,
+    FAILED
+}
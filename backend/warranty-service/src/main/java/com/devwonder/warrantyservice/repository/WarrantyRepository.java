@@ -2,11 +2,14 @@ package com.devwonder.warrantyservice.repository;
 
 import com.devwonder.warrantyservice.entity.Warranty;
 import com.devwonder.warrantyservice.enums.WarrantyStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,9 +22,14 @@ public interface WarrantyRepository extends JpaRepository<Warranty, Long> {
     @Query("SELECT w FROM Warranty w WHERE w.idProductSerial = :idProductSerial AND w.status = 'ACTIVE'")
     Optional<Warranty> findActiveWarrantyByProductSerial(@Param("idProductSerial") Long idProductSerial);
 
-    @Query("SELECT w FROM Warranty w WHERE w.customerEmail = :email")
-    Optional<Warranty> findByCustomerEmail(@Param("email") String email);
+    @Query("SELECT w.idProductSerial FROM Warranty w WHERE w.idProductSerial IN :idProductSerials AND w.status = 'ACTIVE'")
+    List<Long> findActiveWarrantyProductSerialIds(@Param("idProductSerials") Collection<Long> idProductSerials);
 
-    @Query("SELECT w FROM Warranty w WHERE w.customerPhone = :phone")
-    Optional<Warranty> findByCustomerPhone(@Param("phone") String phone);
+    // Range scan on idx_warranties_active_expires_at
+    @Query("SELECT w FROM Warranty w WHERE w.status = 'ACTIVE' AND w.expiresAt > :from AND w.expiresAt <= :to " +
+           "ORDER BY w.expiresAt, w.id")
+    List<Warranty> findActiveExpiringBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                            Pageable pageable);
+
+    boolean existsByCustomerEmailOrCustomerPhone(String customerEmail, String customerPhone);
 }
\ No newline at end of file
@@ -0,0 +1,118 @@
+package com.devwonder.warrantyservice.service;
+
+import com.devwonder.warrantyservice.client.ProductServiceClient;
+import com.devwonder.warrantyservice.dto.ProductSerialInfo;
+import com.devwonder.warrantyservice.dto.ProductSerialResolveRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Resolves serial numbers to product serial details through product-service's batch endpoint, with a
+ * short-lived near-cache keyed by serial number so repeated lookups of the same serial stay local.
+ *
+ * The cache holds at most {@code max-entries} serials, evicting the least recently used, and an entry is
+ * served for at most {@code ttl}. Unknown serials are not cached. Entries of serials whose status this
+ * replica changes are evicted; a status changed by another replica or inside product-service can be served
+ * stale here until the entry expires, so status checks made from the cache may lag by up to {@code ttl}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductSerialResolver {
+
+    // Matches the request size limit of product-service's resolve endpoint
+    private static final int RESOLVE_BATCH_SIZE = 5000;
+
+    private final ProductServiceClient productServiceClient;
+    // Access-ordered, so the eldest entry is the least recently used; guarded by itself
+    private final Map<String, CachedSerial> cache = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedSerial> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    @Value("${auth.api.key:INTER_SERVICE_KEY}")
+    private String authApiKey;
+
+    @Value("${nexhub.serial-cache.ttl:PT5M}")
+    private Duration ttl;
+
+    @Value("${nexhub.serial-cache.max-entries:10000}")
+    private int maxEntries;
+
+    public Optional<ProductSerialInfo> resolve(String serialNumber) {
+        return Optional.ofNullable(resolveAll(List.of(serialNumber)).get(serialNumber));
+    }
+
+    /**
+     * Resolved serials keyed by serial number, in the order given; unknown serials are absent.
+     */
+    public Map<String, ProductSerialInfo> resolveAll(Collection<String> serialNumbers) {
+        long now = System.currentTimeMillis();
+        Map<String, ProductSerialInfo> resolved = new LinkedHashMap<>();
+        List<String> misses = new ArrayList<>();
+
+        synchronized (cache) {
+            for (String serialNumber : new LinkedHashSet<>(serialNumbers)) {
+                CachedSerial cached = cache.get(serialNumber);
+                if (cached != null && cached.expiresAt() > now) {
+                    resolved.put(serialNumber, cached.info());
+                } else {
+                    if (cached != null) {
+                        cache.remove(serialNumber);
+                    }
+                    resolved.put(serialNumber, null);
+                    misses.add(serialNumber);
+                }
+            }
+        }
+
+        for (int from = 0; from < misses.size(); from += RESOLVE_BATCH_SIZE) {
+            List<String> batch = misses.subList(from, Math.min(from + RESOLVE_BATCH_SIZE, misses.size()));
+            List<ProductSerialInfo> fetched = fetch(batch);
+            long expiresAt = System.currentTimeMillis() + ttl.toMillis();
+            synchronized (cache) {
+                for (ProductSerialInfo info : fetched) {
+                    resolved.put(info.getSerialNumber(), info);
+                    cache.put(info.getSerialNumber(), new CachedSerial(info, expiresAt));
+                }
+            }
+        }
+
+        resolved.values().removeIf(Objects::isNull);
+        log.debug("Resolved {} serials, {} fetched from product-service", resolved.size(), misses.size());
+        return resolved;
+    }
+
+    public void evict(Collection<String> serialNumbers) {
+        synchronized (cache) {
+            serialNumbers.forEach(cache::remove);
+        }
+    }
+
+    private List<ProductSerialInfo> fetch(List<String> serialNumbers) {
+        var response = productServiceClient.resolveProductSerials(
+                ProductSerialResolveRequest.builder().serialNumbers(serialNumbers).build(), authApiKey);
+        if (response == null || !response.isSuccess() || response.getData() == null) {
+            throw new IllegalStateException("Failed to resolve product serials: "
+                    + (response != null ? response.getMessage() : "no response"));
+        }
+        return response.getData();
+    }
+
+    private record CachedSerial(ProductSerialInfo info, long expiresAt) {
+    }
+}
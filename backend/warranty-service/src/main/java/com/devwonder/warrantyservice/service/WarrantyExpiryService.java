@@ -0,0 +1,74 @@
+package com.devwonder.warrantyservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Flips ACTIVE warranties whose {@code expires_at} has passed to EXPIRED.
+ *
+ * Rows are updated in bounded chunks, each in its own short transaction, so a large backlog never holds
+ * locks on the whole table. Rows picked from idx_warranties_active_expires_at are locked with SKIP LOCKED,
+ * so concurrent sweeps on other replicas take disjoint chunks instead of waiting on each other.
+ */
+@Service
+@Slf4j
+public class WarrantyExpiryService {
+
+    private static final String EXPIRE_CHUNK_SQL = """
+            UPDATE warranties SET status = 'EXPIRED'
+            WHERE id IN (
+                SELECT id FROM warranties
+                WHERE status = 'ACTIVE' AND expires_at <= ?
+                ORDER BY expires_at, id
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public WarrantyExpiryService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                 @Value("${nexhub.warranty-expiry.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(cron = "${nexhub.warranty-expiry.cron:0 */15 * * * *}")
+    public void expireWarranties() {
+        try {
+            int expired = expireDueBefore(LocalDateTime.now());
+            if (expired > 0) {
+                log.info("Expired {} warranties", expired);
+            }
+        } catch (RuntimeException e) {
+            log.error("Warranty expiry sweep failed, retrying on the next run: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Expires every ACTIVE warranty ending at or before {@code cutoff}.
+     *
+     * @return the number of warranties expired
+     */
+    public int expireDueBefore(LocalDateTime cutoff) {
+        Timestamp cutoffTimestamp = Timestamp.valueOf(cutoff);
+        int total = 0;
+        int updated;
+        do {
+            Integer chunk = transactionTemplate.execute(status ->
+                    jdbcTemplate.update(EXPIRE_CHUNK_SQL, cutoffTimestamp, batchSize));
+            updated = chunk == null ? 0 : chunk;
+            total += updated;
+        } while (updated == batchSize);
+        return total;
+    }
+}
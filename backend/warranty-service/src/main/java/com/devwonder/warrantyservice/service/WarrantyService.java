@@ -1,27 +1,29 @@
 package com.devwonder.warrantyservice.service;
 
-import com.devwonder.common.exception.ResourceNotFoundException;
-import com.devwonder.common.exception.ResourceAlreadyExistsException;
+import com.devwonder.common.service.BusinessCodeGenerator;
 import com.devwonder.warrantyservice.client.ProductServiceClient;
 import com.devwonder.warrantyservice.dto.*;
 import com.devwonder.warrantyservice.entity.Warranty;
+import com.devwonder.warrantyservice.enums.WarrantyRegistrationOutcome;
 import com.devwonder.warrantyservice.enums.WarrantyStatus;
-import com.devwonder.warrantyservice.exception.WarrantyAlreadyExistsException;
 import com.devwonder.warrantyservice.exception.WarrantyNotFoundException;
 import com.devwonder.warrantyservice.mapper.WarrantyMapper;
 import com.devwonder.warrantyservice.repository.WarrantyRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Optional;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,133 +32,166 @@ import java.util.stream.Collectors;
 @Transactional
 public class WarrantyService {
 
+    public static final int WARRANTY_PERIOD_MONTHS = 24;
+    public static final int MAX_EXPIRING_WITHIN_DAYS = 365;
+    public static final int MAX_EXPIRING_PAGE_SIZE = 200;
+
+    // Advisory lock namespaces (first key of pg_advisory_xact_lock) for registration
+    private static final int CUSTOMER_EMAIL_LOCK = 1;
+    private static final int CUSTOMER_PHONE_LOCK = 2;
+    private static final int PRODUCT_SERIAL_LOCK = 3;
+
     private final WarrantyRepository warrantyRepository;
     private final ProductServiceClient productServiceClient;
     private final WarrantyMapper warrantyMapper;
+    private final BusinessCodeGenerator businessCodeGenerator;
+    private final ProductSerialResolver productSerialResolver;
+    private final JdbcTemplate jdbcTemplate;
 
     @Value("${auth.api.key:INTER_SERVICE_KEY}")
     private String authApiKey;
 
     public WarrantyBulkCreateResponse createWarranties(WarrantyCreateRequest request) {
-        log.info("Creating warranties for product: {} with {} serials",
-                request.getProductId(), request.getSerialNumbers().size());
-
-        // 1. Get customer information from request
+        List<String> serialNumbers = request.getSerialNumbers();
         CustomerInfo customerInfo = request.getCustomer();
+        log.info("Creating warranties for product: {} with {} serials", request.getProductId(), serialNumbers.size());
+
+        Map<String, WarrantySerialResult> results = new HashMap<>();
+
+        // 1. A customer registers once; every serial of the request shares this check. Registrations of
+        // the same email or phone are serialized so two racing requests can't both pass it
+        lockCustomer(customerInfo);
+        if (warrantyRepository.existsByCustomerEmailOrCustomerPhone(customerInfo.getEmail(), customerInfo.getPhone())) {
+            log.warn("Customer already exists with email: {} or phone: {}", customerInfo.getEmail(), customerInfo.getPhone());
+            serialNumbers.forEach(serial -> results.putIfAbsent(serial, failure(serial,
+                    WarrantyRegistrationOutcome.CUSTOMER_EXISTS, "Customer with this email or phone already exists")));
+            return buildBulkResponse(customerInfo, serialNumbers, results, List.of());
+        }
+
+        // 2. Resolve all serials to product serial IDs in one call
+        Map<String, ProductSerialInfo> resolvedSerials;
+        try {
+            resolvedSerials = productSerialResolver.resolveAll(serialNumbers);
+        } catch (Exception e) {
+            log.error("Failed to resolve {} product serials: {}", serialNumbers.size(), e.getMessage());
+            serialNumbers.forEach(serial -> results.putIfAbsent(serial, failure(serial,
+                    WarrantyRegistrationOutcome.FAILED, "Product serial lookup failed")));
+            return buildBulkResponse(customerInfo, serialNumbers, results, List.of());
+        }
 
-        // 2. Create warranties for each serial
-        List<WarrantyResponse> successfulWarranties = new ArrayList<>();
-        List<String> failedSerials = new ArrayList<>();
-        List<String> successfulSerials = new ArrayList<>();
-
-        for (String serial : request.getSerialNumbers()) {
-            try {
-                WarrantyResponse warranty = createSingleWarranty(
-                        serial,
-                        customerInfo,
-                        request.getPurchaseDate());
-                successfulWarranties.add(warranty);
-                successfulSerials.add(serial);
-                log.info("Successfully created warranty for serial: {} with code: {}",
-                        serial, warranty.getWarrantyCode());
-            } catch (WarrantyAlreadyExistsException e) {
-                log.warn("Warranty already exists for serial {}: {}", serial, e.getMessage());
-                failedSerials.add(serial);
-            } catch (ResourceAlreadyExistsException e) {
-                log.warn("Customer already exists for serial {}: {}", serial, e.getMessage());
-                failedSerials.add(serial);
-            } catch (ResourceNotFoundException e) {
-                log.warn("Product serial not found {}: {}", serial, e.getMessage());
-                failedSerials.add(serial);
-            } catch (Exception e) {
-                log.error("Unexpected error creating warranty for serial {}: {}", serial, e.getMessage(), e);
-                failedSerials.add(serial);
+        // 3. One IN query for serials that already have an active warranty, once no other registration
+        // can insert one for them (ux_warranties_active_product_serial backs this up)
+        Set<Long> productSerialIds = resolvedSerials.values().stream()
+                .map(ProductSerialInfo::getId)
+                .collect(Collectors.toSet());
+        lockProductSerials(productSerialIds);
+        Set<Long> alreadyCovered = productSerialIds.isEmpty() ? Set.of()
+                : new HashSet<>(warrantyRepository.findActiveWarrantyProductSerialIds(productSerialIds));
+
+        // 4. Build the warranties still to create
+        List<Warranty> warranties = new ArrayList<>();
+        for (String serial : serialNumbers) {
+            if (results.containsKey(serial)) {
+                continue;
+            }
+            ProductSerialInfo productSerial = resolvedSerials.get(serial);
+            if (productSerial == null) {
+                results.put(serial, failure(serial, WarrantyRegistrationOutcome.SERIAL_NOT_FOUND,
+                        "Product serial not found"));
+            } else if (alreadyCovered.contains(productSerial.getId())) {
+                results.put(serial, failure(serial, WarrantyRegistrationOutcome.WARRANTY_EXISTS,
+                        "Active warranty already exists for this serial"));
+            } else {
+                Warranty warranty = Warranty.builder()
+                        .idProductSerial(productSerial.getId())
+                        .customerName(customerInfo.getName())
+                        .customerEmail(customerInfo.getEmail())
+                        .customerPhone(customerInfo.getPhone())
+                        .customerAddress(customerInfo.getAddress())
+                        .warrantyCode(generateWarrantyCode(serial))
+                        .status(WarrantyStatus.ACTIVE)
+                        .purchaseDate(request.getPurchaseDate().atStartOfDay())
+                        .expiresAt(request.getPurchaseDate().atStartOfDay().plusMonths(WARRANTY_PERIOD_MONTHS))
+                        .build();
+                warranties.add(warranty);
+                results.put(serial, WarrantySerialResult.builder()
+                        .serialNumber(serial)
+                        .outcome(WarrantyRegistrationOutcome.CREATED)
+                        .warrantyCode(warranty.getWarrantyCode())
+                        .build());
             }
         }
 
-        // 4. Update product serials to SOLD_TO_CUSTOMER status
-        if (!successfulSerials.isEmpty()) {
-            updateProductSerialsStatus(successfulSerials);
+        // 5. Insert all rows in JDBC batches (hibernate.jdbc.batch_size with the pooled id sequence),
+        // flushed so insert failures surface before product-service is told the serials are sold
+        List<Warranty> savedWarranties = warrantyRepository.saveAllAndFlush(warranties);
+        log.info("Created {} warranties, {} serials rejected", savedWarranties.size(),
+                serialNumbers.size() - savedWarranties.size());
+
+        // 6. Mark the registered serials sold in one bulk call
+        if (!savedWarranties.isEmpty()) {
+            List<String> createdSerials = serialNumbers.stream()
+                    .distinct()
+                    .filter(serial -> results.get(serial).getOutcome() == WarrantyRegistrationOutcome.CREATED)
+                    .toList();
+            updateProductSerialsStatus(createdSerials);
         }
 
-        return WarrantyBulkCreateResponse.builder()
-                .customerName(customerInfo.getName())
-                .warranties(successfulWarranties)
-                .totalWarranties(successfulWarranties.size())
-                .failedSerials(failedSerials)
-                .build();
+        return buildBulkResponse(customerInfo, serialNumbers, results, savedWarranties);
     }
 
-    private WarrantyResponse createSingleWarranty(String serial, CustomerInfo customerInfo,
-            java.time.LocalDate purchaseDate) {
-        log.debug("Creating warranty for serial: {}, customer: {}, purchaseDate: {}", serial, customerInfo.getName(),
-                purchaseDate);
-
-        // Check if customer already exists by email or phone
-        Optional<Warranty> existingByEmail = warrantyRepository.findByCustomerEmail(customerInfo.getEmail());
-        if (existingByEmail.isPresent()) {
-            log.warn("Customer already exists with email: {}", customerInfo.getEmail());
-            throw new ResourceAlreadyExistsException("Customer with email " + customerInfo.getEmail() + " already exists");
-        }
-
-        Optional<Warranty> existingByPhone = warrantyRepository.findByCustomerPhone(customerInfo.getPhone());
-        if (existingByPhone.isPresent()) {
-            log.warn("Customer already exists with phone: {}", customerInfo.getPhone());
-            throw new ResourceAlreadyExistsException("Customer with phone " + customerInfo.getPhone() + " already exists");
+    private void lockCustomer(CustomerInfo customerInfo) {
+        // Email locks before phone locks, in one order for every transaction, so they can't deadlock
+        if (customerInfo.getEmail() != null) {
+            advisoryLock(CUSTOMER_EMAIL_LOCK, customerInfo.getEmail());
         }
+        advisoryLock(CUSTOMER_PHONE_LOCK, customerInfo.getPhone());
+    }
 
-        // Get product serial ID
-        log.debug("Calling product service with API key: {}",
-                authApiKey != null ? "***" + authApiKey.substring(Math.max(0, authApiKey.length() - 4)) : "null");
-        var serialResponse = productServiceClient.getProductSerialIdBySerial(serial, authApiKey);
-        if (!serialResponse.isSuccess() || serialResponse.getData() == null) {
-            log.error("Failed to get product serial ID for serial: {}, response: {}, API key used: {}",
-                    serial, serialResponse.getMessage(),
-                    authApiKey != null ? "***" + authApiKey.substring(Math.max(0, authApiKey.length() - 4)) : "null");
-            throw new ResourceNotFoundException("Product serial not found: " + serial);
-        }
+    private void lockProductSerials(Set<Long> productSerialIds) {
+        productSerialIds.stream().sorted().forEach(id -> advisoryLock(PRODUCT_SERIAL_LOCK, id.toString()));
+    }
 
-        Long productSerialId = serialResponse.getData();
-        log.debug("Retrieved product serial ID: {} for serial: {}", productSerialId, serial);
+    private void advisoryLock(int namespace, String key) {
+        // Released at commit or rollback
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(?, hashtext(?))", rs -> null, namespace, key);
+    }
 
-        // Check if warranty already exists
-        if (warrantyRepository.findActiveWarrantyByProductSerial(productSerialId).isPresent()) {
-            log.warn("Active warranty already exists for product serial ID: {}, serial: {}", productSerialId, serial);
-            throw new WarrantyAlreadyExistsException("Active warranty already exists for serial: " + serial);
+    private WarrantyBulkCreateResponse buildBulkResponse(CustomerInfo customerInfo, List<String> serialNumbers,
+            Map<String, WarrantySerialResult> results, List<Warranty> savedWarranties) {
+        // A serial repeated in the request is registered once; later occurrences are reported as duplicates
+        Set<String> seen = new HashSet<>();
+        List<WarrantySerialResult> orderedResults = new ArrayList<>(serialNumbers.size());
+        for (String serial : serialNumbers) {
+            orderedResults.add(seen.add(serial) ? results.get(serial)
+                    : failure(serial, WarrantyRegistrationOutcome.DUPLICATE_IN_REQUEST, "Serial repeated in request"));
         }
 
-        // Generate warranty code
-        String warrantyCode = generateWarrantyCode(serial);
-        log.debug("Generated warranty code: {} for serial: {}", warrantyCode, serial);
+        List<String> failedSerials = orderedResults.stream()
+                .filter(result -> result.getOutcome() != WarrantyRegistrationOutcome.CREATED)
+                .map(WarrantySerialResult::getSerialNumber)
+                .toList();
 
-        // Create warranty entity
-        Warranty warranty = Warranty.builder()
-                .idProductSerial(productSerialId)
+        return WarrantyBulkCreateResponse.builder()
                 .customerName(customerInfo.getName())
-                .customerEmail(customerInfo.getEmail())
-                .customerPhone(customerInfo.getPhone())
-                .customerAddress(customerInfo.getAddress())
-                .warrantyCode(warrantyCode)
-                .status(WarrantyStatus.ACTIVE)
-                .purchaseDate(purchaseDate.atStartOfDay())
+                .warranties(savedWarranties.stream().map(this::mapToResponse).toList())
+                .totalWarranties(savedWarranties.size())
+                .failedSerials(failedSerials)
+                .results(orderedResults)
                 .build();
+    }
 
-        try {
-            Warranty savedWarranty = warrantyRepository.save(warranty);
-            log.info("Successfully saved warranty to database - ID: {}, Code: {}, Serial: {}",
-                    savedWarranty.getId(), warrantyCode, serial);
-
-            return mapToResponse(savedWarranty);
-        } catch (Exception e) {
-            log.error("Failed to save warranty to database for serial: {}, error: {}", serial, e.getMessage(), e);
-            throw new RuntimeException("Failed to save warranty: " + e.getMessage(), e);
-        }
+    private static WarrantySerialResult failure(String serial, WarrantyRegistrationOutcome outcome, String message) {
+        return WarrantySerialResult.builder()
+                .serialNumber(serial)
+                .outcome(outcome)
+                .message(message)
+                .build();
     }
 
     private String generateWarrantyCode(String serial) {
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        String randomSuffix = UUID.randomUUID().toString().substring(0, 6).toUpperCase();
-        return String.format("WR-%s-%s-%s", timestamp, serial, randomSuffix);
+        // Format: WR-YYYYMMDD-SERIAL-XXXXXXXXXX (XXXXXXXXXX is unique per node within the day)
+        return businessCodeGenerator.nextCode("WR", serial);
     }
 
     @Transactional(readOnly = true)
@@ -174,36 +209,58 @@ public class WarrantyService {
     public WarrantyResponse getWarrantyBySerialNumber(String serialNumber) {
         log.info("Checking warranty for serial number: {}", serialNumber);
 
-        // 1. Get product serial ID from product service
-        var serialResponse = productServiceClient.getProductSerialIdBySerial(serialNumber, authApiKey);
-        if (!serialResponse.isSuccess() || serialResponse.getData() == null) {
-            log.warn("Product serial not found for serial number: {}", serialNumber);
-            throw new WarrantyNotFoundException("Product serial not found: " + serialNumber);
-        }
-
-        Long productSerialId = serialResponse.getData();
-        log.debug("Found product serial ID: {} for serial number: {}", productSerialId, serialNumber);
+        // 1. Resolve product serial (ID and product details) from product service
+        ProductSerialInfo productSerial = productSerialResolver.resolve(serialNumber)
+                .orElseThrow(() -> {
+                    log.warn("Product serial not found for serial number: {}", serialNumber);
+                    return new WarrantyNotFoundException("Product serial not found: " + serialNumber);
+                });
+        log.debug("Found product serial ID: {} for serial number: {}", productSerial.getId(), serialNumber);
 
         // 2. Check warranty for this product serial ID
-        Warranty warranty = warrantyRepository.findActiveWarrantyByProductSerial(productSerialId)
+        Warranty warranty = warrantyRepository.findActiveWarrantyByProductSerial(productSerial.getId())
                 .orElseThrow(() -> new WarrantyNotFoundException(
                         "No active warranty found for serial number: " + serialNumber));
 
-        return mapToResponseWithDetails(warranty);
+        return mapToResponseWithDetails(warranty, productSerial);
+    }
+
+    /**
+     * Active warranties ending within the next {@code days} days, soonest first.
+     */
+    @Transactional(readOnly = true)
+    public List<WarrantyResponse> getWarrantiesExpiringWithin(int days, int page, int size) {
+        if (days < 1 || days > MAX_EXPIRING_WITHIN_DAYS) {
+            throw new IllegalArgumentException("days must be between 1 and " + MAX_EXPIRING_WITHIN_DAYS);
+        }
+        if (page < 0 || size < 1 || size > MAX_EXPIRING_PAGE_SIZE) {
+            throw new IllegalArgumentException("page must be >= 0 and size between 1 and " + MAX_EXPIRING_PAGE_SIZE);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        return warrantyRepository.findActiveExpiringBetween(now, now.plusDays(days), PageRequest.of(page, size))
+                .stream()
+                .map(this::mapToResponseWithCustomer)
+                .toList();
     }
 
     public boolean isWarrantyActive(Warranty warranty) {
-        LocalDateTime endDate = warranty.getPurchaseDate().plusMonths(24); // Calculate end date: purchase + 24 months
         return warranty.getStatus() == WarrantyStatus.ACTIVE &&
-                endDate.isAfter(LocalDateTime.now());
+                endDateOf(warranty).isAfter(LocalDateTime.now());
     }
 
     public boolean isWarrantyExpired(Warranty warranty) {
-        LocalDateTime endDate = warranty.getPurchaseDate().plusMonths(24); // Calculate end date: purchase + 24 months
-        return endDate.isBefore(LocalDateTime.now()) ||
+        return endDateOf(warranty).isBefore(LocalDateTime.now()) ||
                 warranty.getStatus() == WarrantyStatus.EXPIRED;
     }
 
+    private LocalDateTime endDateOf(Warranty warranty) {
+        // Rows written before expires_at existed are backfilled by V5; derive it just in case
+        return warranty.getExpiresAt() != null
+                ? warranty.getExpiresAt()
+                : warranty.getPurchaseDate().plusMonths(WARRANTY_PERIOD_MONTHS);
+    }
+
     private void updateProductSerialsStatus(List<String> serialNumbers) {
         try {
             ProductSerialBulkStatusUpdateRequest request = ProductSerialBulkStatusUpdateRequest.builder()
@@ -212,6 +269,7 @@ public class WarrantyService {
                     .build();
 
             var response = productServiceClient.updateProductSerialsToSoldToCustomer(request, authApiKey);
+            productSerialResolver.evict(serialNumbers);
 
             if (response.isSuccess()) {
                 log.info("Successfully updated {} product serials to SOLD_TO_CUSTOMER status", serialNumbers.size());
@@ -227,44 +285,24 @@ public class WarrantyService {
         return warrantyMapper.toWarrantyResponse(warranty);
     }
 
-    private WarrantyResponse mapToResponseWithDetails(Warranty warranty) {
-        // Start with basic mapping
-        WarrantyResponse response = warrantyMapper.toWarrantyResponse(warranty);
+    private WarrantyResponse mapToResponseWithDetails(Warranty warranty, ProductSerialInfo productSerialInfo) {
+        // Start with basic mapping plus customer information from warranty entity
+        WarrantyResponse response = mapToResponseWithCustomer(warranty);
 
-        // Add customer information from warranty entity
-        CustomerInfo customerInfo = CustomerInfo.builder()
-                .name(warranty.getCustomerName())
-                .email(warranty.getCustomerEmail())
-                .phone(warranty.getCustomerPhone())
-                .address(warranty.getCustomerAddress())
-                .build();
-        response.setCustomer(customerInfo);
-
-        // Add product serial information
-        ProductSerialInfo productSerialInfo = getProductSerialInfo(warranty.getIdProductSerial());
+        // Add product serial information (already resolved by serial number)
         response.setProductSerial(productSerialInfo);
 
         return response;
     }
 
-    private ProductSerialInfo getProductSerialInfo(Long productSerialId) {
-        try {
-            var response = productServiceClient.getProductSerialDetails(productSerialId, authApiKey);
-            if (response.isSuccess() && response.getData() != null) {
-                return response.getData(); // Direct return since DTOs are now the same
-            }
-        } catch (Exception e) {
-            log.warn("Could not get product serial details for ID {}: {}", productSerialId, e.getMessage());
-        }
-
-        // Fallback data
-        return ProductSerialInfo.builder()
-                .id(productSerialId)
-                .serialNumber("Unknown")
-                .productName("Unknown Product")
-                .productSku("")
-                .status("UNKNOWN")
-                .image(null)
-                .build();
+    private WarrantyResponse mapToResponseWithCustomer(Warranty warranty) {
+        WarrantyResponse response = warrantyMapper.toWarrantyResponse(warranty);
+        response.setCustomer(CustomerInfo.builder()
+                .name(warranty.getCustomerName())
+                .email(warranty.getCustomerEmail())
+                .phone(warranty.getCustomerPhone())
+                .address(warranty.getCustomerAddress())
+                .build());
+        return response;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,15 @@
+-- Baseline of the schema previously created by hibernate ddl-auto.
+-- IF NOT EXISTS keeps it a no-op on databases that already have the tables.
+
+CREATE TABLE IF NOT EXISTS warranties (
+    id                BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id_product_serial BIGINT       NOT NULL,
+    customer_name     VARCHAR(255) NOT NULL,
+    customer_email    VARCHAR(255) NOT NULL UNIQUE,
+    customer_phone    VARCHAR(255) NOT NULL UNIQUE,
+    customer_address  VARCHAR(255),
+    warranty_code     VARCHAR(50)  NOT NULL UNIQUE,
+    status            VARCHAR(255) NOT NULL,
+    purchase_date     TIMESTAMP(6),
+    created_at        TIMESTAMP(6)
+);
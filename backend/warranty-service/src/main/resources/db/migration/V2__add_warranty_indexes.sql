@@ -0,0 +1,3 @@
+-- Active warranty lookups: WHERE id_product_serial = ? AND status = 'ACTIVE'
+CREATE INDEX IF NOT EXISTS idx_warranties_product_serial_status
+    ON warranties (id_product_serial, status);
@@ -0,0 +1,23 @@
+-- A customer registering several serials in one sale gets one warranty row per serial, so
+-- customer_email / customer_phone can no longer be unique. The constraint names differ between
+-- databases created by ddl-auto and by V1, so they are looked up.
+DO $$
+DECLARE
+    constraint_row RECORD;
+BEGIN
+    FOR constraint_row IN
+        SELECT con.conname
+        FROM pg_constraint con
+        JOIN pg_attribute att ON att.attrelid = con.conrelid AND att.attnum = ANY (con.conkey)
+        WHERE con.conrelid = 'warranties'::regclass
+          AND con.contype = 'u'
+          AND array_length(con.conkey, 1) = 1
+          AND att.attname IN ('customer_email', 'customer_phone')
+    LOOP
+        EXECUTE format('ALTER TABLE warranties DROP CONSTRAINT %I', constraint_row.conname);
+    END LOOP;
+END $$;
+
+-- Registration checks whether the customer already exists by email or phone
+CREATE INDEX IF NOT EXISTS idx_warranties_customer_email ON warranties (customer_email);
+CREATE INDEX IF NOT EXISTS idx_warranties_customer_phone ON warranties (customer_phone);
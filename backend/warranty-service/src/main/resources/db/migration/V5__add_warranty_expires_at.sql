@@ -0,0 +1,12 @@
+-- Warranties run for 24 months from the purchase date; persisting the end date lets expiry be
+-- swept in batches and "expiring soon" be answered from an index instead of per-row evaluation.
+ALTER TABLE warranties ADD COLUMN IF NOT EXISTS expires_at TIMESTAMP(6);
+
+UPDATE warranties
+SET expires_at = purchase_date + INTERVAL '24 months'
+WHERE expires_at IS NULL AND purchase_date IS NOT NULL;
+
+-- Only ACTIVE rows are swept or listed as expiring, so the index covers just those
+CREATE INDEX IF NOT EXISTS idx_warranties_active_expires_at
+    ON warranties (expires_at, id)
+    WHERE status = 'ACTIVE';
@@ -0,0 +1,5 @@
+-- V4 dropped the unique customer email / phone constraints, which also kept a serial from being
+-- registered twice by racing requests. A serial may have any number of expired or voided warranties
+-- but at most one ACTIVE one. Fails if duplicates already exist; resolve them before migrating.
+CREATE UNIQUE INDEX IF NOT EXISTS ux_warranties_active_product_serial
+    ON warranties (id_product_serial) WHERE status = 'ACTIVE';
@@ -100,16 +100,16 @@ class WebSocketService {
       return;
     }
 
-    this.dealerSubscription = this.client?.subscribe('/topic/dealer-registrations', (message) => {
+    this.dealerSubscription = this.client?.subscribe('/user/queue/dealer-registrations', (message) => {
       logger.debug('Received dealer registration notification', message.body);
       const notification = JSON.parse(message.body);
       this.notifyCallbacks(notification);
     }, authHeaders);
 
     if (this.dealerSubscription) {
-      logger.info('Successfully subscribed to dealer registration topic');
+      logger.info('Successfully subscribed to dealer registration queue');
     } else {
-      logger.error('Failed to subscribe to dealer registration topic');
+      logger.error('Failed to subscribe to dealer registration queue');
     }
   }
 
@@ -119,16 +119,16 @@ class WebSocketService {
       return;
     }
 
-    this.orderSubscription = this.client?.subscribe('/topic/order-notifications', (message) => {
+    this.orderSubscription = this.client?.subscribe('/user/queue/order-notifications', (message) => {
       logger.debug('Received order notification', message.body);
       const notification = JSON.parse(message.body);
       this.notifyCallbacks(notification);
     }, authHeaders);
 
     if (this.orderSubscription) {
-      logger.info('Successfully subscribed to order notifications topic');
+      logger.info('Successfully subscribed to order notifications queue');
     } else {
-      logger.error('Failed to subscribe to order notifications topic');
+      logger.error('Failed to subscribe to order notifications queue');
     }
   }
 